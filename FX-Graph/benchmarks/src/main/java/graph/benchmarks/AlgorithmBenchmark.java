@@ -0,0 +1,111 @@
+package graph.benchmarks;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import graph.algorithms.AlgorithmMonitor;
+import graph.algorithms.BellmanFord;
+import graph.algorithms.CsrGraph;
+import graph.algorithms.Dijkstra;
+import graph.algorithms.FlowResult;
+import graph.algorithms.MaxFlow;
+import graph.algorithms.MinCostFlow;
+import graph.algorithms.ShortestPaths;
+import graph.dataclasses.FlowWeight;
+import graph.generators.FlowNetwork;
+import graph.generators.Generators;
+import graph.gui.FXGraph;
+import graph.gui.Node;
+
+/**
+ * Headless runs of the algorithm engines on a csr copy of the graph, off the
+ * JavaFX thread. Only the algorithm is measured, the graph and its copy are
+ * built once per trial.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AlgorithmBenchmark {
+
+	@Param({ "1000", "10000" })
+	public int nodes;
+
+	@Param({ "4", "16" })
+	public int degree;
+
+	private CsrGraph<Integer> weighted;
+	private Node<Integer> root;
+
+	private CsrGraph<Integer> network;
+	private int[] capacity;
+	private Node<Integer> source;
+	private Node<Integer> sink;
+	private Map<Node<Integer>, Integer> ex;
+	private Map<Node<Integer>, Integer> dx;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		Fx.start();
+
+		Fx.run(() -> {
+			FXGraph<Integer, Double> g = RandomGraphs.weighted(nodes, degree, true, 42);
+			weighted = g.toCsr(Double::doubleValue);
+			root = g.getNodes().get(0);
+
+			// the cost of an edge is the value of its weight
+			FlowNetwork net = Generators.flowNetwork(nodes, degree, 16, 42);
+			FXGraph<Integer, FlowWeight> f = net.toGraph(RandomGraphs.RANGE);
+			network = f.toCsr(w -> w.value);
+			source = f.getNodes().get(0);
+			sink = f.getNodes().get(nodes / 2);
+			ex = net.getExcess(f);
+			dx = net.getDefect(f);
+		});
+
+		capacity = new int[network.edgeCount()];
+		for (int e = 0; e < network.edgeCount(); e++)
+			capacity[e] = ((FlowWeight) network.edge(e).getWeight()).capacity;
+	}
+
+	@Benchmark
+	public ShortestPaths<Integer> dijkstra() {
+		return Dijkstra.run(weighted, root);
+	}
+
+	@Benchmark
+	public ShortestPaths<Integer> bellmanFord() {
+		return BellmanFord.run(weighted, root);
+	}
+
+	@Benchmark
+	public FlowResult<Integer> edmondsKarp() {
+		return MaxFlow.edmondsKarp(network, capacity, null, source, sink, AlgorithmMonitor.NONE);
+	}
+
+	@Benchmark
+	public FlowResult<Integer> fordFulkerson() {
+		return MaxFlow.fordFulkerson(network, capacity, null, source, sink, AlgorithmMonitor.NONE);
+	}
+
+	@Benchmark
+	public FlowResult<Integer> minFlow() {
+		return MinCostFlow.run(network, capacity, ex, dx, AlgorithmMonitor.NONE);
+	}
+}
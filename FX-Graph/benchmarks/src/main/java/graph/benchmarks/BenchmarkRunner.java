@@ -0,0 +1,53 @@
+package graph.benchmarks;
+
+import java.io.IOException;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of the benchmark jar. Accepts the usual JMH command line, runs
+ * the forks on the headless JavaFX platform and writes the results as JSON to
+ * target/jmh-result.json unless another result file or format is given, so
+ * the results of 2 releases can be compared.
+ */
+
+public final class BenchmarkRunner {
+
+	private static final String RESULT = "target/jmh-result.json";
+
+	private BenchmarkRunner() {
+	}
+
+	public static void main(String[] args) throws RunnerException, CommandLineOptionException, IOException {
+		CommandLineOptions cmd = new CommandLineOptions(args);
+
+		if (cmd.shouldHelp()) {
+			cmd.showHelp();
+			return;
+		}
+
+		if (cmd.shouldList()) {
+			new Runner(cmd).list();
+			return;
+		}
+
+		OptionsBuilder builder = new OptionsBuilder();
+		builder.parent(cmd);
+		builder.jvmArgsAppend(Fx.HEADLESS);
+
+		if (!cmd.getResultFormat().hasValue())
+			builder.resultFormat(ResultFormatType.JSON);
+
+		if (!cmd.getResult().hasValue())
+			builder.result(RESULT);
+
+		Options opt = builder.build();
+		new Runner(opt).run();
+	}
+}
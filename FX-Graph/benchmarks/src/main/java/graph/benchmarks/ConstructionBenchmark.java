@@ -0,0 +1,74 @@
+package graph.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import graph.algorithms.CsrGraph;
+import graph.generators.GeneratedGraph;
+import graph.gui.FXGraph;
+
+/**
+ * Construction of a graph with {@link FXGraph#addNode} and
+ * {@link FXGraph#addEdge} or in bulk with {@link FXGraph#addAll}, which creates
+ * the graphic nodes and edges, and of its csr copy. The random edges are
+ * generated once per trial.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConstructionBenchmark {
+
+	@Param({ "1000", "10000" })
+	public int nodes;
+
+	@Param({ "4", "16" })
+	public int degree;
+
+	@Param({ "true", "false" })
+	public boolean digraph;
+
+	private GeneratedGraph generated;
+	private FXGraph<Integer, Double> graph;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		Fx.start();
+
+		generated = RandomGraphs.generate(nodes, degree, digraph, 42);
+		Fx.run(() -> {
+			graph = RandomGraphs.weighted(nodes, degree, digraph, 42);
+			graph.setCacheCapacity(0);
+		});
+	}
+
+	@Benchmark
+	public FXGraph<Integer, Double> build() {
+		return Fx.call(() -> RandomGraphs.addEach(generated));
+	}
+
+	@Benchmark
+	public FXGraph<Integer, Double> bulkBuild() {
+		return Fx.call(() -> generated.toGraph(RandomGraphs.RANGE, Double::valueOf));
+	}
+
+	@Benchmark
+	public CsrGraph<Integer> toCsr() {
+		return Fx.call(() -> graph.toCsr(Double::doubleValue));
+	}
+}
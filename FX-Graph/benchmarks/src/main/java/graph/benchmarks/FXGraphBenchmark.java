@@ -0,0 +1,77 @@
+package graph.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import graph.algorithms.ShortestPaths;
+import graph.gui.FXGraph;
+import graph.gui.Node;
+
+/**
+ * The algorithms called through {@link FXGraph} on the JavaFX thread, with the
+ * csr copy of the graph and the coloring of the result edges. The result cache
+ * is disabled, so each call runs the algorithm again. The time includes the
+ * hand off to the JavaFX thread.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FXGraphBenchmark {
+
+	@Param({ "1000", "10000" })
+	public int nodes;
+
+	@Param({ "4", "16" })
+	public int degree;
+
+	private FXGraph<Integer, Double> graph;
+	private Node<Integer> root;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		Fx.start();
+
+		// kruskal and prim need an undirected graph
+		Fx.run(() -> {
+			graph = RandomGraphs.weighted(nodes, degree, false, 42);
+			graph.setCacheCapacity(0);
+			root = graph.getNodes().get(0);
+		});
+	}
+
+	@Benchmark
+	public ShortestPaths<Integer> dijkstra() {
+		return Fx.call(() -> graph.dijkstra(root, Double::doubleValue));
+	}
+
+	@Benchmark
+	public boolean bellmanFord() {
+		return Fx.call(() -> graph.bellmanFord(root, Double::doubleValue));
+	}
+
+	@Benchmark
+	public double kruskal() {
+		return Fx.call(() -> graph.kruskal(Double::doubleValue));
+	}
+
+	@Benchmark
+	public double prim() {
+		return Fx.call(() -> graph.prim(root, Double::doubleValue));
+	}
+}
@@ -0,0 +1,114 @@
+package graph.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import graph.dataclasses.FlowWeight;
+import graph.dataclasses.GraphTriple;
+import graph.generators.FlowNetwork;
+import graph.generators.GeneratedGraph;
+import graph.generators.Generators;
+import graph.gui.FXGraph;
+import graph.gui.Node;
+
+/**
+ * The flow algorithms called through {@link FXGraph} on the JavaFX thread, the
+ * same runs {@link AlgorithmBenchmark} measures on the engines. They send the
+ * flow on the edges of the graph, so each invocation gets a new copy of the
+ * network, built outside of the measured time. The time includes the hand off
+ * to the JavaFX thread.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FXGraphFlowBenchmark {
+
+	// the graph is copied for each call, so the sizes are smaller than in the
+	// other benchmarks
+	@Param({ "200", "1000" })
+	public int nodes;
+
+	@Param({ "4", "16" })
+	public int degree;
+
+	private FlowNetwork network;
+
+	// flow 0 on each edge, as edmondsKarp and fordFulkerson expect
+	private FXGraph<Integer, FlowWeight> maxFlow;
+	private Node<Integer> source;
+	private Node<Integer> sink;
+
+	// the cost as value, as minFlow expects
+	private FXGraph<Integer, FlowWeight> minFlow;
+	private Map<Node<Integer>, Integer> ex;
+	private Map<Node<Integer>, Integer> dx;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		Fx.start();
+
+		network = Generators.flowNetwork(nodes, degree, 16, 42);
+	}
+
+	@Setup(Level.Invocation)
+	public void copy() {
+		Fx.run(() -> {
+			maxFlow = capacities(network);
+			source = maxFlow.getNodes().get(0);
+			sink = maxFlow.getNodes().get(nodes / 2);
+
+			minFlow = network.toGraph(RandomGraphs.RANGE);
+			ex = network.getExcess(minFlow);
+			dx = network.getDefect(minFlow);
+		});
+	}
+
+	@Benchmark
+	public int edmondsKarp() {
+		return Fx.call(() -> maxFlow.edmondsKarp(source, sink));
+	}
+
+	@Benchmark
+	public int fordFulkerson() {
+		return Fx.call(() -> maxFlow.fordFulkerson(source, sink));
+	}
+
+	@Benchmark
+	public int minFlow() {
+		return Fx.call(() -> minFlow.minFlow(ex, dx));
+	}
+
+	/**
+	 * the network with the capacities of its edges and no flow, added in bulk
+	 */
+
+	private static FXGraph<Integer, FlowWeight> capacities(FlowNetwork network) {
+		GeneratedGraph gen = network.getGraph();
+		ArrayList<Node<Integer>> nodes = gen.createNodes(RandomGraphs.RANGE);
+		ArrayList<GraphTriple<Node<Integer>, FlowWeight, Node<Integer>>> edges = new ArrayList<>(gen.edgeCount());
+
+		for (int e = 0; e < gen.edgeCount(); e++)
+			edges.add(new GraphTriple<>(nodes.get(gen.getFrom(e)), new FlowWeight(0, network.getCapacity(e)),
+					nodes.get(gen.getTo(e))));
+
+		return new FXGraph<Integer, FlowWeight>(gen.isDirected()).addAll(nodes, edges);
+	}
+}
@@ -0,0 +1,82 @@
+package graph.benchmarks;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.function.Supplier;
+
+import javafx.application.Platform;
+
+/**
+ * Access to the JavaFX thread from the benchmark threads. The toolkit is
+ * started once per fork, on the headless Monocle platform set by the jvm
+ * arguments of the benchmarks.
+ */
+
+final class Fx {
+
+	/**
+	 * jvm arguments selecting the headless platform and the software renderer
+	 */
+	static final String[] HEADLESS = { "-Dglass.platform=Monocle", "-Dmonocle.platform=Headless",
+			"-Dprism.order=sw", "-Djava.awt.headless=true" };
+
+	private static boolean started;
+
+	private Fx() {
+	}
+
+	/**
+	 * start the toolkit if needed and keep it running when no window is open
+	 */
+
+	static synchronized void start() {
+		if (started)
+			return;
+
+		CountDownLatch latch = new CountDownLatch(1);
+		Platform.startup(latch::countDown);
+		Platform.setImplicitExit(false);
+
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while starting JavaFX", e);
+		}
+
+		started = true;
+	}
+
+	/**
+	 * run a function on the JavaFX thread and wait for its result
+	 *
+	 * @param f the function
+	 * @return the result of the function
+	 * @throws IllegalStateException if the function throws
+	 */
+
+	static <R> R call(Supplier<R> f) {
+		if (Platform.isFxApplicationThread())
+			return f.get();
+
+		FutureTask<R> task = new FutureTask<>(f::get);
+		Platform.runLater(task);
+
+		try {
+			return task.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for JavaFX", e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("JavaFX call failed", e.getCause());
+		}
+	}
+
+	static void run(Runnable r) {
+		call(() -> {
+			r.run();
+			return null;
+		});
+	}
+}
@@ -0,0 +1,72 @@
+package graph.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import graph.dataclasses.GraphLayout;
+import graph.gui.FXGraph;
+import graph.gui.Node;
+
+/**
+ * Updates of the edge geometry: moving a node moves the ends of its edges,
+ * which recompute their arrows and labels.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GeometryBenchmark {
+
+	@Param({ "1000", "10000" })
+	public int nodes;
+
+	@Param({ "4", "16" })
+	public int degree;
+
+	private FXGraph<Integer, Double> graph;
+	private double step = 1;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		Fx.start();
+		Fx.run(() -> graph = RandomGraphs.weighted(nodes, degree, false, 42));
+	}
+
+	/**
+	 * move every node by 1 pixel, back and forth
+	 */
+
+	@Benchmark
+	public void translate() {
+		step = -step;
+
+		Fx.run(() -> {
+			List<Node<Integer>> tmp = graph.getNodes();
+			for (Node<Integer> n : tmp) {
+				n.setLayoutX(n.getLayoutX() + step);
+				n.setLayoutY(n.getLayoutY() + step);
+			}
+		});
+	}
+
+	@Benchmark
+	public void randomLayout() {
+		Fx.run(() -> graph.setGraphLayout(RandomGraphs.RANGE, GraphLayout.RANDOM));
+	}
+}
@@ -0,0 +1,61 @@
+package graph.benchmarks;
+
+import java.util.ArrayList;
+
+import graph.generators.GeneratedGraph;
+import graph.generators.Generators;
+import graph.gui.FXGraph;
+import graph.gui.Node;
+import javafx.geometry.Rectangle2D;
+
+/**
+ * Seeded random graphs used by the benchmarks, Erdos-Renyi graphs with the
+ * given average degree built by {@link Generators}. Must be called on the
+ * JavaFX thread.
+ */
+
+final class RandomGraphs {
+
+	static final Rectangle2D RANGE = new Rectangle2D(0, 0, 1280, 720);
+
+	private RandomGraphs() {
+	}
+
+	/**
+	 * @param n      number of nodes
+	 * @param degree average number of edges leaving a node
+	 * @return the edges of the graph
+	 */
+
+	static GeneratedGraph generate(int n, int degree, boolean digraph, long seed) {
+		// an undirected edge leaves both its nodes
+		double p = n > 1 ? (digraph ? degree : degree / 2.0) / (n - 1) : 0;
+		return Generators.erdosRenyi(n, Math.min(1, p), digraph, seed);
+	}
+
+	/**
+	 * graph with weights from 1 to {@link Generators#MAX_WEIGHT}, added in bulk
+	 */
+
+	static FXGraph<Integer, Double> weighted(int n, int degree, boolean digraph, long seed) {
+		return generate(n, degree, digraph, seed).toGraph(RANGE, Double::valueOf);
+	}
+
+	/**
+	 * build the graph with a call of {@link FXGraph#addNode} and
+	 * {@link FXGraph#addEdge} for each node and edge
+	 */
+
+	static FXGraph<Integer, Double> addEach(GeneratedGraph gen) {
+		ArrayList<Node<Integer>> nodes = gen.createNodes(RANGE);
+		FXGraph<Integer, Double> g = new FXGraph<>(gen.isDirected());
+
+		for (Node<Integer> n : nodes)
+			g.addNode(n);
+
+		for (int e = 0; e < gen.edgeCount(); e++)
+			g.addEdge(nodes.get(gen.getFrom(e)), nodes.get(gen.getTo(e)), gen.getWeight(e));
+
+		return g;
+	}
+}
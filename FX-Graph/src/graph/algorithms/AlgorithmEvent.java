@@ -0,0 +1,47 @@
+package graph.algorithms;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event of a whole algorithm run, its duration is the wall time
+ * of the run. Counters which do not apply to the algorithm are 0.
+ */
+
+@Name("graph.Algorithm")
+@Label("Graph Algorithm")
+@Category("FX-Graph")
+@Description("Run of a graph algorithm with its counters")
+@StackTrace(false)
+final class AlgorithmEvent extends jdk.jfr.Event {
+
+	@Label("Algorithm")
+	String algorithm;
+
+	@Label("Nodes")
+	int nodes;
+
+	@Label("Edges")
+	int edges;
+
+	@Label("Iterations")
+	@Description("Passes of Bellman-Ford, searches of the flow algorithms")
+	long iterations;
+
+	@Label("Augmentations")
+	long augmentations;
+
+	@Label("Relaxations")
+	@Description("Edges relaxed or residual arcs scanned")
+	long relaxations;
+
+	@Label("Heap Operations")
+	long heapOperations;
+
+	@Label("Residual Insertions")
+	@Description("Arcs added to the residual network")
+	long residualInsertions;
+}
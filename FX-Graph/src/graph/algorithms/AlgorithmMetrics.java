@@ -0,0 +1,151 @@
+package graph.algorithms;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import graph.annotations.NotNull;
+
+/**
+ * Totals of the algorithm runs, by algorithm name. Disabled by default, or
+ * enabled from the start with the system property graph.metrics=true. The
+ * same counters are emitted as the flight recorder events graph.Algorithm and
+ * graph.AlgorithmPhase whenever a recording enables them, independently of
+ * this switch. When both are off the algorithms skip all the recording.
+ */
+
+public final class AlgorithmMetrics {
+
+	/**
+	 * name of the management bean
+	 */
+	public static final String OBJECT_NAME = "graph.algorithms:type=AlgorithmMetrics";
+
+	private static volatile boolean enabled = Boolean.getBoolean("graph.metrics");
+
+	private static final ConcurrentHashMap<String, Totals> totals = new ConcurrentHashMap<>();
+
+	private AlgorithmMetrics() {
+	}
+
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * start or stop recording the runs, the totals are kept
+	 */
+
+	public static void setEnabled(boolean enabled) {
+		AlgorithmMetrics.enabled = enabled;
+	}
+
+	/**
+	 * @return the totals of each algorithm by name, sorted by name
+	 */
+
+	@NotNull
+	public static Map<String, AlgorithmStatistics> getStatistics() {
+		TreeMap<String, AlgorithmStatistics> tmp = new TreeMap<>();
+		totals.forEach((name, t) -> tmp.put(name, t.statistics(name)));
+		return tmp;
+	}
+
+	public static void reset() {
+		totals.clear();
+	}
+
+	/**
+	 * register the management bean {@link #OBJECT_NAME} on the platform server,
+	 * nothing is done if it is already registered
+	 *
+	 * @throws IllegalStateException if the bean cannot be registered
+	 */
+
+	public static void registerMBean() {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+		try {
+			ObjectName name = new ObjectName(OBJECT_NAME);
+			if (!server.isRegistered(name))
+				server.registerMBean(new Bean(), name);
+		} catch (InstanceAlreadyExistsException e) {
+			// registered by another thread
+		} catch (JMException e) {
+			throw new IllegalStateException("Cannot register " + OBJECT_NAME, e);
+		}
+	}
+
+	static void record(String algorithm, long nanos, long iterations, long augmentations, long relaxations,
+			long heapOperations, long residualInsertions, String[] phases, long[] phaseNanos) {
+		Totals t = totals.computeIfAbsent(algorithm, k -> new Totals());
+
+		t.runs.increment();
+		t.nanos.add(nanos);
+		t.maxNanos.accumulate(nanos);
+		t.iterations.add(iterations);
+		t.augmentations.add(augmentations);
+		t.relaxations.add(relaxations);
+		t.heapOperations.add(heapOperations);
+		t.residualInsertions.add(residualInsertions);
+
+		for (int i = 0; i < phases.length; i++)
+			t.phases.computeIfAbsent(phases[i], k -> new LongAdder()).add(phaseNanos[i]);
+	}
+
+	/**
+	 * counters updated concurrently by the runs
+	 */
+
+	private static final class Totals {
+
+		private final LongAdder runs = new LongAdder();
+		private final LongAdder nanos = new LongAdder();
+		private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+		private final LongAdder iterations = new LongAdder();
+		private final LongAdder augmentations = new LongAdder();
+		private final LongAdder relaxations = new LongAdder();
+		private final LongAdder heapOperations = new LongAdder();
+		private final LongAdder residualInsertions = new LongAdder();
+		private final ConcurrentHashMap<String, LongAdder> phases = new ConcurrentHashMap<>();
+
+		private AlgorithmStatistics statistics(String name) {
+			TreeMap<String, Long> tmp = new TreeMap<>();
+			phases.forEach((phase, v) -> tmp.put(phase, v.sum()));
+
+			return new AlgorithmStatistics(name, runs.sum(), nanos.sum(), maxNanos.get(), iterations.sum(),
+					augmentations.sum(), relaxations.sum(), heapOperations.sum(), residualInsertions.sum(), tmp);
+		}
+	}
+
+	private static final class Bean implements AlgorithmMetricsMXBean {
+
+		@Override
+		public boolean isEnabled() {
+			return AlgorithmMetrics.isEnabled();
+		}
+
+		@Override
+		public void setEnabled(boolean enabled) {
+			AlgorithmMetrics.setEnabled(enabled);
+		}
+
+		@Override
+		public Map<String, AlgorithmStatistics> getStatistics() {
+			return AlgorithmMetrics.getStatistics();
+		}
+
+		@Override
+		public void reset() {
+			AlgorithmMetrics.reset();
+		}
+	}
+}
@@ -0,0 +1,23 @@
+package graph.algorithms;
+
+import java.util.Map;
+
+/**
+ * Management interface of {@link AlgorithmMetrics}, registered by
+ * {@link AlgorithmMetrics#registerMBean()}.
+ */
+
+public interface AlgorithmMetricsMXBean {
+
+	boolean isEnabled();
+
+	void setEnabled(boolean enabled);
+
+	/**
+	 * @return the totals of each algorithm by name
+	 */
+
+	Map<String, AlgorithmStatistics> getStatistics();
+
+	void reset();
+}
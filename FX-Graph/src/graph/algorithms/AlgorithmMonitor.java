@@ -0,0 +1,33 @@
+package graph.algorithms;
+
+import graph.annotations.NotNull;
+
+/**
+ * Hooks called by the long running algorithms from their inner loops. The
+ * cancellation flag is polled cooperatively, when it becomes true the algorithm
+ * stops and returns the best result found so far.
+ */
+
+public interface AlgorithmMonitor {
+
+	/**
+	 * monitor which never cancels and ignores the progress
+	 */
+	AlgorithmMonitor NONE = () -> false;
+
+	/**
+	 * @return true if the algorithm must stop as soon as possible
+	 */
+
+	boolean isCancelled();
+
+	/**
+	 * called periodically with the state of the algorithm, on the thread running
+	 * it
+	 *
+	 * @param p the current progress
+	 */
+
+	default void progress(@NotNull AlgorithmProgress p) {
+	}
+}
@@ -0,0 +1,29 @@
+package graph.algorithms;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight recorder event of a phase of an algorithm run. Phases repeated in a
+ * loop are summed, one event is committed for each phase when the run ends.
+ */
+
+@Name("graph.AlgorithmPhase")
+@Label("Graph Algorithm Phase")
+@Category("FX-Graph")
+@StackTrace(false)
+final class AlgorithmPhaseEvent extends jdk.jfr.Event {
+
+	@Label("Algorithm")
+	String algorithm;
+
+	@Label("Phase")
+	String phase;
+
+	@Label("Time")
+	@Timespan(Timespan.NANOSECONDS)
+	long time;
+}
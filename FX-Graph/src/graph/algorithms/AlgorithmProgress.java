@@ -0,0 +1,90 @@
+package graph.algorithms;
+
+import graph.annotations.NotNull;
+
+/**
+ * Immutable state of a running algorithm. Counters which do not apply to an
+ * algorithm are 0.
+ */
+
+public final class AlgorithmProgress {
+
+	private final String algorithm;
+	private final long iterations;
+	private final long augmentations;
+	private final long flow;
+	private final long cost;
+	private final long relaxations;
+	private final long elapsedNanos;
+
+	AlgorithmProgress(String algorithm, long iterations, long augmentations, long flow, long cost, long relaxations,
+			long elapsedNanos) {
+		this.algorithm = algorithm;
+		this.iterations = iterations;
+		this.augmentations = augmentations;
+		this.flow = flow;
+		this.cost = cost;
+		this.relaxations = relaxations;
+		this.elapsedNanos = elapsedNanos;
+	}
+
+	@NotNull
+	public String getAlgorithm() {
+		return algorithm;
+	}
+
+	/**
+	 * @return the number of iterations of the main loop (passes for Bellman-Ford,
+	 *         searches for the flow algorithms)
+	 */
+
+	public long getIterations() {
+		return iterations;
+	}
+
+	/**
+	 * @return the number of augmenting paths applied
+	 */
+
+	public long getAugmentations() {
+		return augmentations;
+	}
+
+	/**
+	 * @return the flow sent so far
+	 */
+
+	public long getFlow() {
+		return flow;
+	}
+
+	/**
+	 * @return the cost of the flow sent so far
+	 */
+
+	public long getCost() {
+		return cost;
+	}
+
+	/**
+	 * @return the number of edge relaxations (or residual arcs scanned)
+	 */
+
+	public long getRelaxations() {
+		return relaxations;
+	}
+
+	public long getElapsedNanos() {
+		return elapsedNanos;
+	}
+
+	public double getRelaxationsPerSecond() {
+		return elapsedNanos == 0 ? 0 : relaxations * 1e9 / elapsedNanos;
+	}
+
+	@Override
+	public String toString() {
+		return algorithm + " [iterations=" + iterations + ", augmentations=" + augmentations + ", flow=" + flow
+				+ ", cost=" + cost + ", relaxations/s=" + (long) getRelaxationsPerSecond() + "]";
+	}
+}
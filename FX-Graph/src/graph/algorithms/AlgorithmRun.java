@@ -0,0 +1,170 @@
+package graph.algorithms;
+
+import graph.annotations.NotNull;
+import jdk.jfr.EventType;
+
+/**
+ * Counters and phase times of a single algorithm run, recorded in
+ * {@link AlgorithmMetrics} and emitted as flight recorder events when the run
+ * ends. If the metrics are disabled and no recording has the events enabled,
+ * {@link #start} returns a shared instance which ignores every call, so an
+ * algorithm only pays a check per run and per phase change. A run is used by
+ * a single thread.
+ */
+
+public final class AlgorithmRun {
+
+	private static final EventType EVENT = EventType.getEventType(AlgorithmEvent.class);
+	private static final EventType PHASE_EVENT = EventType.getEventType(AlgorithmPhaseEvent.class);
+
+	private static final AlgorithmRun NONE = new AlgorithmRun("", 0, 0, new String[0], false);
+
+	private final String algorithm;
+	private final int nodes;
+	private final int edges;
+	private final boolean recording;
+
+	private final long start;
+	private final String[] phases;
+	private final long[] phaseNanos;
+	private int phase = -1;
+	private long phaseStart;
+
+	private long iterations;
+	private long augmentations;
+	private long relaxations;
+	private long heapOperations;
+	private long residualInsertions;
+	private boolean ended;
+
+	// null if the event is disabled
+	private final AlgorithmEvent event;
+
+	private AlgorithmRun(String algorithm, int nodes, int edges, String[] phases, boolean recording) {
+		this.algorithm = algorithm;
+		this.nodes = nodes;
+		this.edges = edges;
+		this.recording = recording;
+		this.phases = phases;
+		this.phaseNanos = new long[phases.length];
+		this.event = recording && EVENT.isEnabled() ? new AlgorithmEvent() : null;
+		this.start = recording ? System.nanoTime() : 0;
+
+		if (event != null)
+			event.begin();
+	}
+
+	/**
+	 * start a run
+	 *
+	 * @param algorithm the name of the algorithm
+	 * @param nodes     the number of nodes of the graph
+	 * @param edges     the number of edges of the graph
+	 * @param phases    the names of the phases, see {@link #phase(int)}
+	 * @return the run, or an instance ignoring every call if nothing is recorded
+	 */
+
+	@NotNull
+	public static AlgorithmRun start(@NotNull String algorithm, int nodes, int edges, @NotNull String... phases) {
+		if (!AlgorithmMetrics.isEnabled() && !EVENT.isEnabled() && !PHASE_EVENT.isEnabled())
+			return NONE;
+
+		return new AlgorithmRun(algorithm, nodes, edges, phases.clone(), true);
+	}
+
+	/**
+	 * @return false if the calls are ignored
+	 */
+
+	public boolean isRecording() {
+		return recording;
+	}
+
+	/**
+	 * end the current phase and start another one. The time of a phase entered
+	 * many times is summed
+	 *
+	 * @param index the index of the phase in the names given to {@link #start}, -1
+	 *              to end the current phase only
+	 */
+
+	public void phase(int index) {
+		if (!recording)
+			return;
+
+		long now = System.nanoTime();
+		if (phase != -1)
+			phaseNanos[phase] += now - phaseStart;
+
+		phase = index;
+		phaseStart = now;
+	}
+
+	public void addIterations(long n) {
+		if (recording)
+			iterations += n;
+	}
+
+	public void addAugmentations(long n) {
+		if (recording)
+			augmentations += n;
+	}
+
+	public void addRelaxations(long n) {
+		if (recording)
+			relaxations += n;
+	}
+
+	public void addHeapOperations(long n) {
+		if (recording)
+			heapOperations += n;
+	}
+
+	public void addResidualInsertions(long n) {
+		if (recording)
+			residualInsertions += n;
+	}
+
+	/**
+	 * end the run, record it and commit its events. Calls after the first are
+	 * ignored
+	 */
+
+	public void end() {
+		if (!recording || ended)
+			return;
+
+		phase(-1);
+		ended = true;
+		long nanos = System.nanoTime() - start;
+
+		if (AlgorithmMetrics.isEnabled())
+			AlgorithmMetrics.record(algorithm, nanos, iterations, augmentations, relaxations, heapOperations,
+					residualInsertions, phases, phaseNanos);
+
+		if (event != null) {
+			event.end();
+
+			if (event.shouldCommit()) {
+				event.algorithm = algorithm;
+				event.nodes = nodes;
+				event.edges = edges;
+				event.iterations = iterations;
+				event.augmentations = augmentations;
+				event.relaxations = relaxations;
+				event.heapOperations = heapOperations;
+				event.residualInsertions = residualInsertions;
+				event.commit();
+			}
+		}
+
+		if (PHASE_EVENT.isEnabled())
+			for (int i = 0; i < phases.length; i++) {
+				AlgorithmPhaseEvent e = new AlgorithmPhaseEvent();
+				e.algorithm = algorithm;
+				e.phase = phases[i];
+				e.time = phaseNanos[i];
+				e.commit();
+			}
+	}
+}
@@ -0,0 +1,124 @@
+package graph.algorithms;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.TabularData;
+
+import graph.annotations.NotNull;
+
+/**
+ * Totals of the runs of an algorithm recorded by {@link AlgorithmMetrics}.
+ * Counters which do not apply to the algorithm are 0.
+ */
+
+public final class AlgorithmStatistics {
+
+	private final String algorithm;
+	private final long runs;
+	private final long totalNanos;
+	private final long maxNanos;
+	private final long iterations;
+	private final long augmentations;
+	private final long relaxations;
+	private final long heapOperations;
+	private final long residualInsertions;
+	private final Map<String, Long> phaseNanos;
+
+	AlgorithmStatistics(String algorithm, long runs, long totalNanos, long maxNanos, long iterations,
+			long augmentations, long relaxations, long heapOperations, long residualInsertions,
+			Map<String, Long> phaseNanos) {
+		this.algorithm = algorithm;
+		this.runs = runs;
+		this.totalNanos = totalNanos;
+		this.maxNanos = maxNanos;
+		this.iterations = iterations;
+		this.augmentations = augmentations;
+		this.relaxations = relaxations;
+		this.heapOperations = heapOperations;
+		this.residualInsertions = residualInsertions;
+		this.phaseNanos = Collections.unmodifiableMap(phaseNanos);
+	}
+
+	/**
+	 * rebuild the statistics from their management form, used by the proxies of
+	 * {@link AlgorithmMetricsMXBean}
+	 */
+
+	@NotNull
+	public static AlgorithmStatistics from(@NotNull CompositeData data) {
+		TreeMap<String, Long> phases = new TreeMap<>();
+		for (Object row : ((TabularData) data.get("phaseNanos")).values()) {
+			CompositeData entry = (CompositeData) row;
+			phases.put((String) entry.get("key"), (Long) entry.get("value"));
+		}
+
+		return new AlgorithmStatistics((String) data.get("algorithm"), (Long) data.get("runs"),
+				(Long) data.get("totalNanos"), (Long) data.get("maxNanos"), (Long) data.get("iterations"),
+				(Long) data.get("augmentations"), (Long) data.get("relaxations"), (Long) data.get("heapOperations"),
+				(Long) data.get("residualInsertions"), phases);
+	}
+
+	@NotNull
+	public String getAlgorithm() {
+		return algorithm;
+	}
+
+	public long getRuns() {
+		return runs;
+	}
+
+	/**
+	 * @return the wall time of all the runs
+	 */
+
+	public long getTotalNanos() {
+		return totalNanos;
+	}
+
+	/**
+	 * @return the wall time of the longest run
+	 */
+
+	public long getMaxNanos() {
+		return maxNanos;
+	}
+
+	public long getIterations() {
+		return iterations;
+	}
+
+	public long getAugmentations() {
+		return augmentations;
+	}
+
+	public long getRelaxations() {
+		return relaxations;
+	}
+
+	public long getHeapOperations() {
+		return heapOperations;
+	}
+
+	public long getResidualInsertions() {
+		return residualInsertions;
+	}
+
+	/**
+	 * @return the wall time of each phase summed over all the runs
+	 */
+
+	@NotNull
+	public Map<String, Long> getPhaseNanos() {
+		return phaseNanos;
+	}
+
+	@Override
+	public String toString() {
+		return algorithm + " [runs=" + runs + ", ms=" + totalNanos / 1_000_000 + ", iterations=" + iterations
+				+ ", augmentations=" + augmentations + ", relaxations=" + relaxations + ", heapOperations="
+				+ heapOperations + ", residualInsertions=" + residualInsertions + ", phases=" + phaseNanos + "]";
+	}
+}
@@ -0,0 +1,368 @@
+package graph.algorithms;
+
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+
+import graph.annotations.NotNull;
+import graph.dataclasses.AllPairsMode;
+
+/**
+ * All pairs shortest paths. Sparse graphs are solved with Johnson's algorithm:
+ * edges are reweighted with Bellman-Ford potentials when negative weights are
+ * present, then one Dijkstra per source is run in parallel. Dense graphs are
+ * solved with a cache blocked Floyd-Warshall on a flat matrix.
+ */
+
+public final class AllPairsShortestPaths {
+
+	// sources processed by a single Johnson task
+	private static final int SOURCES_GRAIN = 8;
+
+	// side of the Floyd-Warshall blocks, 64 * 64 doubles fit in L1/L2 caches
+	private static final int BLOCK = 64;
+
+	private AllPairsShortestPaths() {
+	}
+
+	/**
+	 * solve all pairs shortest paths choosing the algorithm and the storage from
+	 * the size and the density of the graph
+	 *
+	 * @param g a weighted graph
+	 * @return the distance matrix
+	 * @throws IllegalStateException if the graph has no weights or a negative
+	 *                               cycle is found
+	 */
+
+	@NotNull
+	public static <T> DistanceMatrix<T> run(@NotNull CsrGraph<T> g) {
+		return run(g, AllPairsMode.AUTO);
+	}
+
+	/**
+	 * solve all pairs shortest paths with the given algorithm, see
+	 * {@link #run(CsrGraph)}
+	 */
+
+	@NotNull
+	public static <T> DistanceMatrix<T> run(@NotNull CsrGraph<T> g, @NotNull AllPairsMode mode) {
+		Objects.requireNonNull(g);
+		Objects.requireNonNull(mode);
+
+		ForkJoinPool pool = ForkJoinPool.commonPool();
+
+		if (mode == AllPairsMode.FLOYD_WARSHALL || (mode == AllPairsMode.AUTO && isDense(g) && fitsHeap(g.size())))
+			return floydWarshall(g, pool);
+
+		return johnson(g, pool);
+	}
+
+	/**
+	 * Johnson's algorithm. The matrix is stored on the heap when there is enough
+	 * memory, otherwise in a temporary memory mapped file
+	 *
+	 * @param g    a weighted graph
+	 * @param pool the pool running the single source searches
+	 * @return the distance matrix
+	 * @throws IllegalStateException if the graph has no weights or a negative
+	 *                               cycle is found
+	 */
+
+	@NotNull
+	public static <T> DistanceMatrix<T> johnson(@NotNull CsrGraph<T> g, @NotNull ForkJoinPool pool) {
+		Objects.requireNonNull(g);
+		Objects.requireNonNull(pool);
+
+		return johnson(g, fitsHeap(g.size()) ? new MatrixStorage.Heap(g.size()) : new MatrixStorage.Mapped(g.size(), null),
+				pool);
+	}
+
+	/**
+	 * Johnson's algorithm storing the matrix in a memory mapped file
+	 *
+	 * @param g    a weighted graph
+	 * @param file the file backing the matrix, overwritten if it exists
+	 * @param pool the pool running the single source searches
+	 * @return the distance matrix
+	 * @throws IllegalStateException if the graph has no weights or a negative
+	 *                               cycle is found
+	 * @throws java.io.UncheckedIOException if the file cannot be mapped
+	 */
+
+	@NotNull
+	public static <T> DistanceMatrix<T> johnson(@NotNull CsrGraph<T> g, @NotNull Path file,
+			@NotNull ForkJoinPool pool) {
+		Objects.requireNonNull(g);
+		Objects.requireNonNull(file);
+		Objects.requireNonNull(pool);
+
+		return johnson(g, new MatrixStorage.Mapped(g.size(), file), pool);
+	}
+
+	private static <T> DistanceMatrix<T> johnson(CsrGraph<T> g, MatrixStorage m, ForkJoinPool pool) {
+		if (!g.isWeighted())
+			throw new IllegalStateException("Graph has been built without weight converter");
+
+		int n = g.size();
+		double[] h;
+
+		AlgorithmRun run = AlgorithmRun.start("Johnson", n, g.edgeCount(), "potentials", "searches");
+		run.phase(0);
+
+		try {
+			h = potentials(g);
+		} catch (IllegalStateException e) {
+			m.close();
+			throw e;
+		}
+
+		run.phase(1);
+		int chunks = Parallel.chunks(n, SOURCES_GRAIN);
+		long[] relaxations = new long[chunks];
+		long[] heapOperations = new long[chunks];
+
+		Parallel.forEach(pool, chunks, c -> {
+			IndexedHeap heap = new IndexedHeap(n);
+			double[] dist = new double[n];
+			int[] first = new int[n];
+			IntList touched = new IntList();
+			Arrays.fill(dist, Double.POSITIVE_INFINITY);
+			long relaxed = 0;
+			long operations = 0;
+
+			int end = Math.min(n, (c + 1) * SOURCES_GRAIN);
+			for (int s = c * SOURCES_GRAIN; s < end; s++) {
+				dist[s] = 0;
+				first[s] = -1;
+				touched.add(s);
+				heap.offer(s, 0);
+				operations++;
+
+				while (!heap.isEmpty()) {
+					int u = heap.poll();
+					operations++;
+					relaxed += g.outDegree(u);
+
+					for (int e = g.outStart(u); e < g.outEnd(u); e++) {
+						int v = g.target(e);
+						// reduced weights are not negative, clamp rounding errors
+						double d = dist[u] + Math.max(0, g.weight(e) + h[u] - h[v]);
+
+						if (d < dist[v]) {
+							if (dist[v] == Double.POSITIVE_INFINITY)
+								touched.add(v);
+
+							dist[v] = d;
+							first[v] = u == s ? v : first[u];
+							heap.offer(v, d);
+							operations++;
+						}
+					}
+				}
+
+				// store the row with the original weights and reset the arrays
+				for (int i = 0; i < touched.size; i++) {
+					int v = touched.data[i];
+					m.dist(s, v, v == s ? 0 : dist[v] - h[s] + h[v]);
+					m.next(s, v, first[v]);
+					dist[v] = Double.POSITIVE_INFINITY;
+				}
+
+				touched.size = 0;
+			}
+
+			relaxations[c] = relaxed;
+			heapOperations[c] = operations;
+		});
+
+		run.addIterations(n);
+		for (int c = 0; c < chunks; c++) {
+			run.addRelaxations(relaxations[c]);
+			run.addHeapOperations(heapOperations[c]);
+		}
+
+		run.end();
+
+		return new DistanceMatrix<>(g, m);
+	}
+
+	/**
+	 * Bellman-Ford from a virtual source linked to every node with weight 0
+	 *
+	 * @return the potential of each node, all 0 if there are no negative weights
+	 */
+
+	private static double[] potentials(CsrGraph<?> g) {
+		int n = g.size();
+		double[] h = new double[n];
+
+		boolean negative = false;
+		for (int e = 0; e < g.edgeCount() && !negative; e++)
+			negative = g.weight(e) < 0;
+
+		if (!negative)
+			return h;
+
+		// queue based Bellman-Ford, a node relaxed n times is on a negative cycle
+		int[] count = new int[n];
+		boolean[] queued = new boolean[n];
+		ArrayDeque<Integer> queue = new ArrayDeque<>();
+
+		for (int v = 0; v < n; v++) {
+			queue.add(v);
+			queued[v] = true;
+		}
+
+		while (!queue.isEmpty()) {
+			int u = queue.poll();
+			queued[u] = false;
+
+			for (int e = g.outStart(u); e < g.outEnd(u); e++) {
+				int v = g.target(e);
+				if (h[u] + g.weight(e) < h[v]) {
+					h[v] = h[u] + g.weight(e);
+
+					if (++count[v] > n)
+						throw new IllegalStateException("Negative cycle found");
+
+					if (!queued[v]) {
+						queued[v] = true;
+						queue.add(v);
+					}
+				}
+			}
+		}
+
+		return h;
+	}
+
+	/**
+	 * cache blocked Floyd-Warshall on the heap. Each round updates the diagonal
+	 * block, then its row and column in parallel, then all the other blocks in
+	 * parallel
+	 *
+	 * @param g    a weighted graph
+	 * @param pool the pool running the block updates
+	 * @return the distance matrix
+	 * @throws IllegalStateException    if the graph has no weights or a negative
+	 *                                  cycle is found
+	 * @throws IllegalArgumentException if the matrix does not fit a java array
+	 */
+
+	@NotNull
+	public static <T> DistanceMatrix<T> floydWarshall(@NotNull CsrGraph<T> g, @NotNull ForkJoinPool pool) {
+		Objects.requireNonNull(g);
+		Objects.requireNonNull(pool);
+
+		if (!g.isWeighted())
+			throw new IllegalStateException("Graph has been built without weight converter");
+
+		int n = g.size();
+		AlgorithmRun run = AlgorithmRun.start("Floyd-Warshall", n, g.edgeCount(), "init", "rounds");
+		run.phase(0);
+
+		MatrixStorage.Heap m = new MatrixStorage.Heap(n);
+		double[] dist = m.dist;
+		int[] next = m.next;
+
+		for (int i = 0; i < n; i++)
+			dist[i * n + i] = 0;
+
+		for (int u = 0; u < n; u++)
+			for (int e = g.outStart(u); e < g.outEnd(u); e++) {
+				int v = g.target(e);
+				if (g.weight(e) < dist[u * n + v]) {
+					dist[u * n + v] = g.weight(e);
+					next[u * n + v] = v;
+				}
+			}
+
+		run.phase(1);
+		int blocks = Parallel.chunks(n, BLOCK);
+		for (int k = 0; k < blocks; k++) {
+			int kb = k;
+
+			update(dist, next, n, kb, kb, kb);
+
+			// row and column of the diagonal block
+			Parallel.forEach(pool, 2 * blocks, b -> {
+				int other = b >> 1;
+				if (other == kb)
+					return;
+
+				if ((b & 1) == 0)
+					update(dist, next, n, kb, other, kb);
+				else
+					update(dist, next, n, other, kb, kb);
+			});
+
+			// all the remaining blocks, one block row for each task
+			Parallel.forEach(pool, blocks, ib -> {
+				if (ib == kb)
+					return;
+
+				for (int jb = 0; jb < blocks; jb++)
+					if (jb != kb)
+						update(dist, next, n, ib, jb, kb);
+			});
+		}
+
+		for (int i = 0; i < n; i++)
+			if (dist[i * n + i] < 0)
+				throw new IllegalStateException("Negative cycle found");
+
+		// a round for each block of intermediate nodes
+		run.addIterations(blocks);
+		run.end();
+
+		return new DistanceMatrix<>(g, m);
+	}
+
+	private static void update(double[] dist, int[] next, int n, int ib, int jb, int kb) {
+		int iEnd = Math.min(n, (ib + 1) * BLOCK);
+		int jEnd = Math.min(n, (jb + 1) * BLOCK);
+		int kEnd = Math.min(n, (kb + 1) * BLOCK);
+
+		for (int k = kb * BLOCK; k < kEnd; k++) {
+			int kRow = k * n;
+
+			for (int i = ib * BLOCK; i < iEnd; i++) {
+				int iRow = i * n;
+				double dik = dist[iRow + k];
+
+				if (dik == Double.POSITIVE_INFINITY)
+					continue;
+
+				int nik = next[iRow + k];
+				for (int j = jb * BLOCK; j < jEnd; j++) {
+					double d = dik + dist[kRow + j];
+					if (d < dist[iRow + j]) {
+						dist[iRow + j] = d;
+						next[iRow + j] = nik;
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Floyd-Warshall is preferred when E log V is close to V^2
+	 */
+
+	private static boolean isDense(CsrGraph<?> g) {
+		double n = g.size();
+		return g.edgeCount() * Math.max(1, Math.log(n) / Math.log(2)) >= n * n / 4;
+	}
+
+	/**
+	 * @return true if distances and next hops fit a java array and half of the
+	 *         max heap
+	 */
+
+	private static boolean fitsHeap(int n) {
+		return MatrixStorage.fitsHeapArray(n) && 12L * n * n < Runtime.getRuntime().maxMemory() / 2;
+	}
+}
@@ -0,0 +1,110 @@
+package graph.algorithms;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import graph.annotations.NotNull;
+import graph.gui.Node;
+
+/**
+ * Sequential Bellman-Ford on a {@link CsrGraph}. Passes over all the edges are
+ * repeated until no distance changes, if the n-th pass still changes a
+ * distance a negative cycle is reachable from the root.
+ */
+
+public final class BellmanFord {
+
+	// nodes relaxed between two polls of the monitor
+	private static final int POLL_MASK = (1 << 12) - 1;
+
+	private BellmanFord() {
+	}
+
+	/**
+	 * @param g    a weighted graph
+	 * @param root the root node
+	 * @return distances and shortest path tree, see
+	 *         {@link ShortestPaths#hasNegativeCycle()}
+	 * @throws IllegalArgumentException if root is not in the graph
+	 * @throws IllegalStateException    if the graph has no weights
+	 */
+
+	@NotNull
+	public static <T> ShortestPaths<T> run(@NotNull CsrGraph<T> g, @NotNull Node<T> root) {
+		return run(g, root, AlgorithmMonitor.NONE);
+	}
+
+	/**
+	 * Bellman-Ford polling the monitor during the passes. A cancelled run returns
+	 * the distances found so far, which are upper bounds of the real ones
+	 *
+	 * @see #run(CsrGraph, Node)
+	 */
+
+	@NotNull
+	public static <T> ShortestPaths<T> run(@NotNull CsrGraph<T> g, @NotNull Node<T> root,
+			@NotNull AlgorithmMonitor monitor) {
+		Objects.requireNonNull(g);
+		Objects.requireNonNull(root);
+		Objects.requireNonNull(monitor);
+
+		if (!g.isWeighted())
+			throw new IllegalStateException("Graph has been built without weight converter");
+
+		int r = g.indexOf(root);
+		if (r == -1)
+			throw new IllegalArgumentException("Invalid node. Node is not in the graph");
+
+		int n = g.size();
+		double[] dist = new double[n];
+		int[] parent = new int[n];
+		Arrays.fill(dist, Double.POSITIVE_INFINITY);
+		Arrays.fill(parent, -1);
+		dist[r] = 0;
+
+		ProgressReporter p = new ProgressReporter("Bellman-Ford", monitor, g);
+
+		int changed = 1;
+		for (int pass = 0; pass < n && changed == 1; pass++) {
+			p.iterations++;
+			changed = relaxAll(g, dist, parent, p);
+		}
+
+		// a change after n - 1 passes means a negative cycle
+		boolean cycle = changed == 1 && relaxAll(g, dist, parent, p) == 1;
+
+		p.done();
+
+		return new ShortestPaths<>(g, r, dist, parent, cycle);
+	}
+
+	/**
+	 * @return 1 if a distance changed, 0 if not, -1 if cancelled
+	 */
+
+	private static int relaxAll(CsrGraph<?> g, double[] dist, int[] parent, ProgressReporter p) {
+		boolean changed = false;
+
+		for (int u = 0; u < g.size(); u++) {
+			if ((u & POLL_MASK) == 0 && p.tick())
+				return -1;
+
+			if (dist[u] == Double.POSITIVE_INFINITY)
+				continue;
+
+			p.relaxations += g.outDegree(u);
+			for (int e = g.outStart(u); e < g.outEnd(u); e++) {
+				int v = g.target(e);
+				double d = dist[u] + g.weight(e);
+
+				if (d < dist[v]) {
+					dist[v] = d;
+					parent[v] = u;
+					changed = true;
+				}
+			}
+		}
+
+		return changed ? 1 : 0;
+	}
+}
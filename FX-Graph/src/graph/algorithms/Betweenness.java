@@ -0,0 +1,285 @@
+package graph.algorithms;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import graph.annotations.NotNull;
+
+/**
+ * Betweenness centrality with Brandes algorithm: the score of a node is the
+ * sum, over the ordered pairs of other nodes, of the fraction of shortest paths
+ * between them going through the node. Each source runs a breadth first
+ * search, or Dijkstra if the graph is weighted, counting the shortest paths,
+ * then the dependencies are accumulated back in reverse order of distance. The
+ * predecessors are found again on the in edges, so no list is stored. Paths
+ * through edges of weight 0 between nodes at the same distance are counted
+ * only in the order the nodes are settled.
+ *
+ * Sources are taken from a shared counter by one task per worker of the pool,
+ * each task owns its search arrays and its score array and the scores are
+ * summed at the end. An undirected graph stored with twin edges counts each
+ * pair twice.
+ */
+
+public final class Betweenness {
+
+	private Betweenness() {
+	}
+
+	/**
+	 * run Brandes algorithm from every node on the common fork join pool in
+	 * O(V E), or O(V E + V^2 log V) if the graph is weighted
+	 *
+	 * @param g the graph, weights are used if present
+	 * @return the betweenness of each node
+	 * @throws IllegalArgumentException if an edge has a negative weight
+	 */
+
+	@NotNull
+	public static <T> NodeScores<T> run(@NotNull CsrGraph<T> g) {
+		return run(g, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * run Brandes algorithm from every node on the given pool, see
+	 * {@link #run(CsrGraph)}
+	 */
+
+	@NotNull
+	public static <T> NodeScores<T> run(@NotNull CsrGraph<T> g, @NotNull ForkJoinPool pool) {
+		Objects.requireNonNull(g);
+
+		int[] sources = new int[g.size()];
+		for (int i = 0; i < sources.length; i++)
+			sources[i] = i;
+
+		return accumulate(g, sources, 1, pool);
+	}
+
+	/**
+	 * approximate the betweenness from a uniform sample of sources on the common
+	 * fork join pool, the sums are scaled by V / samples. The error shrinks as
+	 * 1 / sqrt(samples), so a few hundred sources rank the hubs of a large graph
+	 *
+	 * @param g       the graph, weights are used if present
+	 * @param samples the number of sources, all the nodes if not less than V
+	 * @param seed    the seed of the sample
+	 * @return the estimated betweenness of each node
+	 * @throws IllegalArgumentException if samples is not positive or an edge has
+	 *                                  a negative weight
+	 */
+
+	@NotNull
+	public static <T> NodeScores<T> sample(@NotNull CsrGraph<T> g, int samples, long seed) {
+		return sample(g, samples, seed, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * approximate the betweenness on the given pool, see
+	 * {@link #sample(CsrGraph, int, long)}
+	 */
+
+	@NotNull
+	public static <T> NodeScores<T> sample(@NotNull CsrGraph<T> g, int samples, long seed,
+			@NotNull ForkJoinPool pool) {
+		Objects.requireNonNull(g);
+
+		if (samples <= 0)
+			throw new IllegalArgumentException("Samples must be positive");
+
+		int n = g.size();
+		if (samples >= n)
+			return run(g, pool);
+
+		// partial Fisher-Yates shuffle, the first samples nodes are the sources
+		int[] perm = new int[n];
+		for (int i = 0; i < n; i++)
+			perm[i] = i;
+
+		SplittableRandom random = new SplittableRandom(seed);
+		for (int i = 0; i < samples; i++) {
+			int j = i + random.nextInt(n - i);
+			int tmp = perm[i];
+			perm[i] = perm[j];
+			perm[j] = tmp;
+		}
+
+		return accumulate(g, Arrays.copyOf(perm, samples), (double) n / samples, pool);
+	}
+
+	private static <T> NodeScores<T> accumulate(CsrGraph<T> g, int[] sources, double scale, ForkJoinPool pool) {
+		Objects.requireNonNull(pool);
+
+		if (g.isWeighted())
+			for (int e = 0; e < g.edgeCount(); e++)
+				if (g.weight(e) < 0)
+					throw new IllegalArgumentException("Negative weight found on edge " + g.edge(e));
+
+		int n = g.size();
+		AlgorithmRun run = AlgorithmRun.start("Brandes betweenness", n, g.edgeCount(), "searches", "sum");
+		run.phase(0);
+
+		int tasks = Math.max(1, Math.min(sources.length, pool.getParallelism()));
+		double[][] partial = new double[tasks][];
+		long[] relaxations = new long[tasks];
+		AtomicInteger next = new AtomicInteger();
+
+		Parallel.forEach(pool, tasks, c -> {
+			Search search = new Search(g);
+
+			for (int i = next.getAndIncrement(); i < sources.length; i = next.getAndIncrement())
+				search.run(sources[i]);
+
+			partial[c] = search.score;
+			relaxations[c] = search.relaxations;
+		});
+
+		run.phase(1);
+		run.addIterations(sources.length);
+		for (long r : relaxations)
+			run.addRelaxations(r);
+
+		double[] score = new double[n];
+		for (double[] p : partial)
+			for (int i = 0; i < n; i++)
+				score[i] += p[i];
+
+		if (scale != 1)
+			for (int i = 0; i < n; i++)
+				score[i] *= scale;
+
+		run.end();
+
+		return new NodeScores<>(g, score, 0);
+	}
+
+	/**
+	 * the arrays of the searches of a task, reset after each source on the
+	 * reached nodes only
+	 */
+
+	private static final class Search {
+
+		private final CsrGraph<?> g;
+		private final double[] dist;
+		private final double[] sigma;
+		private final double[] delta;
+		private final double[] score;
+
+		// reached nodes in order of distance, also the queue of the bfs, and the
+		// position of each node in it
+		private final int[] order;
+		private final int[] rank;
+		private final IndexedHeap heap;
+
+		// out edges of the reached nodes, looked at by the forward passes
+		private long relaxations;
+
+		private Search(CsrGraph<?> g) {
+			int n = g.size();
+
+			this.g = g;
+			this.dist = new double[n];
+			this.sigma = new double[n];
+			this.delta = new double[n];
+			this.score = new double[n];
+			this.order = new int[n];
+			this.rank = new int[n];
+			this.heap = g.isWeighted() ? new IndexedHeap(n) : null;
+
+			Arrays.fill(dist, Double.POSITIVE_INFINITY);
+		}
+
+		private void run(int s) {
+			int count = g.isWeighted() ? dijkstra(s) : bfs(s);
+
+			// a predecessor v of w is a source of an in edge on a shortest path
+			// settled before w, the sums repeat the ones of the forward pass so
+			// they are exact
+			for (int j = count - 1; j > 0; j--) {
+				int w = order[j];
+				double share = (1 + delta[w]) / sigma[w];
+
+				for (int i = g.inStart(w); i < g.inEnd(w); i++) {
+					int v = g.source(i);
+
+					if (dist[v] + length(g.inEdge(i)) == dist[w] && rank[v] < j)
+						delta[v] += sigma[v] * share;
+				}
+
+				score[w] += delta[w];
+			}
+
+			for (int j = 0; j < count; j++) {
+				int v = order[j];
+				relaxations += g.outDegree(v);
+				dist[v] = Double.POSITIVE_INFINITY;
+				sigma[v] = 0;
+				delta[v] = 0;
+			}
+		}
+
+		private int bfs(int s) {
+			int tail = 0;
+			dist[s] = 0;
+			sigma[s] = 1;
+			rank[s] = 0;
+			order[tail++] = s;
+
+			for (int head = 0; head < tail; head++) {
+				int u = order[head];
+
+				for (int e = g.outStart(u); e < g.outEnd(u); e++) {
+					int v = g.target(e);
+
+					if (dist[v] == Double.POSITIVE_INFINITY) {
+						dist[v] = dist[u] + 1;
+						rank[v] = tail;
+						order[tail++] = v;
+					}
+
+					if (dist[v] == dist[u] + 1)
+						sigma[v] += sigma[u];
+				}
+			}
+
+			return tail;
+		}
+
+		private int dijkstra(int s) {
+			int count = 0;
+			dist[s] = 0;
+			sigma[s] = 1;
+			heap.offer(s, 0);
+
+			while (!heap.isEmpty()) {
+				int u = heap.poll();
+				rank[u] = count;
+				order[count++] = u;
+
+				for (int e = g.outStart(u); e < g.outEnd(u); e++) {
+					int v = g.target(e);
+					double d = dist[u] + g.weight(e);
+
+					// edges of weight 0 can reach settled nodes, their paths have
+					// already been counted
+					if (d < dist[v]) {
+						dist[v] = d;
+						sigma[v] = sigma[u];
+						heap.offer(v, d);
+					} else if (d == dist[v] && heap.contains(v))
+						sigma[v] += sigma[u];
+				}
+			}
+
+			return count;
+		}
+
+		private double length(int e) {
+			return heap == null ? 1 : g.weight(e);
+		}
+	}
+}
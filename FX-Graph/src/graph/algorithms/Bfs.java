@@ -0,0 +1,72 @@
+package graph.algorithms;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import graph.annotations.NotNull;
+import graph.gui.Node;
+
+/**
+ * Sequential breadth first search on a {@link CsrGraph}, see
+ * {@link DirectionOptimizingBfs} for the parallel version.
+ */
+
+public final class Bfs {
+
+	private Bfs() {
+	}
+
+	/**
+	 * @param g    the graph
+	 * @param root the root node
+	 * @return parents and depths of the nodes
+	 * @throws IllegalArgumentException if root is not in the graph
+	 */
+
+	@NotNull
+	public static <T> BfsResult<T> run(@NotNull CsrGraph<T> g, @NotNull Node<T> root) {
+		Objects.requireNonNull(g);
+		Objects.requireNonNull(root);
+
+		int r = g.indexOf(root);
+		if (r == -1)
+			throw new IllegalArgumentException("Invalid node. Node is not in the graph");
+
+		int n = g.size();
+		int[] parent = new int[n];
+		int[] depth = new int[n];
+		Arrays.fill(parent, -1);
+		Arrays.fill(depth, BfsResult.UNREACHED);
+
+		// the queue is a plain array, each node is added once when discovered
+		int[] queue = new int[n];
+		int head = 0;
+		int tail = 0;
+
+		AlgorithmRun run = AlgorithmRun.start("BFS", n, g.edgeCount());
+		long relaxations = 0;
+
+		depth[r] = 0;
+		queue[tail++] = r;
+
+		while (head < tail) {
+			int u = queue[head++];
+			relaxations += g.outDegree(u);
+
+			for (int e = g.outStart(u); e < g.outEnd(u); e++) {
+				int v = g.target(e);
+				if (depth[v] == BfsResult.UNREACHED) {
+					depth[v] = depth[u] + 1;
+					parent[v] = u;
+					queue[tail++] = v;
+				}
+			}
+		}
+
+		run.addIterations(tail);
+		run.addRelaxations(relaxations);
+		run.end();
+
+		return new BfsResult<>(g, r, parent, depth, tail);
+	}
+}
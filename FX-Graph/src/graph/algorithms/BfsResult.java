@@ -0,0 +1,117 @@
+package graph.algorithms;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import graph.annotations.NotNull;
+import graph.annotations.Nullable;
+import graph.gui.Node;
+
+/**
+ * Result of a breadth first search. Parents and depths are stored in primitive
+ * arrays indexed by the node index of the searched {@link CsrGraph}.
+ *
+ * @param <T> the node value type
+ */
+
+public final class BfsResult<T> {
+
+	/**
+	 * depth of the nodes not reached by the search
+	 */
+	public static final int UNREACHED = -1;
+
+	private final CsrGraph<T> graph;
+	private final int root;
+	private final int[] parent;
+	private final int[] depth;
+	private final int reached;
+
+	BfsResult(CsrGraph<T> graph, int root, int[] parent, int[] depth, int reached) {
+		this.graph = graph;
+		this.root = root;
+		this.parent = parent;
+		this.depth = depth;
+		this.reached = reached;
+	}
+
+	@NotNull
+	public CsrGraph<T> getGraph() {
+		return graph;
+	}
+
+	@NotNull
+	public Node<T> getRoot() {
+		return graph.getNode(root);
+	}
+
+	/**
+	 * @return the number of nodes reached from the root (root included)
+	 */
+
+	public int getReachedCount() {
+		return reached;
+	}
+
+	public boolean isReachable(@NotNull Node<T> n) {
+		int i = graph.indexOf(n);
+		return i != -1 && depth[i] != UNREACHED;
+	}
+
+	/**
+	 * @return the number of edges from the root or {@link #UNREACHED}
+	 */
+
+	public int getDepth(@NotNull Node<T> n) {
+		int i = graph.indexOf(n);
+		return i == -1 ? UNREACHED : depth[i];
+	}
+
+	@Nullable
+	public Node<T> getParent(@NotNull Node<T> n) {
+		int i = graph.indexOf(n);
+		return i == -1 || parent[i] == -1 ? null : graph.getNode(parent[i]);
+	}
+
+	/**
+	 * get the path from the root to a node
+	 *
+	 * @param n the destination node
+	 * @return the nodes of the path, root included, or an empty list if the node
+	 *         is not reachable
+	 */
+
+	@NotNull
+	public List<Node<T>> getPathTo(@NotNull Node<T> n) {
+		if (!isReachable(n))
+			return Collections.emptyList();
+
+		ArrayList<Node<T>> path = new ArrayList<>();
+		for (int i = graph.indexOf(n); i != -1; i = parent[i])
+			path.add(graph.getNode(i));
+
+		Collections.reverse(path);
+		return path;
+	}
+
+	/**
+	 * @return the parent index of each node, -1 for the root and the unreached
+	 *         nodes. The array is not copied
+	 */
+
+	@NotNull
+	public int[] getParents() {
+		return parent;
+	}
+
+	/**
+	 * @return the depth of each node, {@link #UNREACHED} for the unreached nodes.
+	 *         The array is not copied
+	 */
+
+	@NotNull
+	public int[] getDepths() {
+		return depth;
+	}
+}
@@ -0,0 +1,69 @@
+package graph.algorithms;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import graph.annotations.NotNull;
+import graph.gui.Edge;
+import graph.gui.Node;
+
+/**
+ * Result of a bridges and articulation points search on an undirected
+ * {@link CsrGraph}. Removing a bridge or an articulation point disconnects its
+ * component.
+ *
+ * @param <T> the node value type
+ */
+
+public final class Biconnectivity<T> {
+
+	private final CsrGraph<T> graph;
+	private final boolean[] articulation;
+	private final int[] bridges;
+
+	Biconnectivity(CsrGraph<T> graph, boolean[] articulation, int[] bridges) {
+		this.graph = graph;
+		this.articulation = articulation;
+		this.bridges = bridges;
+	}
+
+	@NotNull
+	public CsrGraph<T> getGraph() {
+		return graph;
+	}
+
+	public boolean isArticulationPoint(@NotNull Node<T> n) {
+		int i = graph.indexOf(n);
+		return i != -1 && articulation[i];
+	}
+
+	@NotNull
+	public List<Node<T>> getArticulationPoints() {
+		ArrayList<Node<T>> tmp = new ArrayList<>();
+		for (int i = 0; i < articulation.length; i++)
+			if (articulation[i])
+				tmp.add(graph.getNode(i));
+
+		return Collections.unmodifiableList(tmp);
+	}
+
+	/**
+	 * @return the ids of the bridges in the csr graph, one of the 2 directed
+	 *         edges of each bridge. The array is not copied
+	 */
+
+	@NotNull
+	public int[] getBridgeIds() {
+		return bridges;
+	}
+
+	@NotNull
+	public <K> List<Edge<K>> getBridges() {
+		ArrayList<Edge<K>> tmp = new ArrayList<>(bridges.length);
+		for (int e : bridges)
+			tmp.add(graph.edge(e));
+
+		return Collections.unmodifiableList(tmp);
+	}
+}
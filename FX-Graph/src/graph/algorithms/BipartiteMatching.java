@@ -0,0 +1,392 @@
+package graph.algorithms;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import graph.annotations.NotNull;
+import graph.annotations.Nullable;
+
+/**
+ * Bipartite check and matchings of a {@link CsrGraph}. Edges are followed in
+ * both directions, so the 2 directed edges of an undirected edge are the same
+ * candidate pair and a digraph is matched as its underlying undirected graph.
+ */
+
+public final class BipartiteMatching {
+
+	private BipartiteMatching() {
+	}
+
+	/**
+	 * 2-color the graph with a breadth first search
+	 *
+	 * @param g the graph
+	 * @return the side, 0 or 1, of each node by node index, or null if the graph
+	 *         has an odd cycle
+	 */
+
+	@Nullable
+	public static int[] bipartition(@NotNull CsrGraph<?> g) {
+		Objects.requireNonNull(g);
+
+		int n = g.size();
+		int[] side = new int[n];
+		int[] queue = new int[n];
+		Arrays.fill(side, -1);
+
+		for (int r = 0; r < n; r++) {
+			if (side[r] != -1)
+				continue;
+
+			int head = 0;
+			int tail = 0;
+			side[r] = 0;
+			queue[tail++] = r;
+
+			while (head < tail) {
+				int u = queue[head++];
+
+				int out = g.outDegree(u);
+				for (int k = 0; k < out + g.inDegree(u); k++) {
+					int v = k < out ? g.target(g.outStart(u) + k) : g.source(g.inStart(u) + k - out);
+
+					if (side[v] == -1) {
+						side[v] = 1 - side[u];
+						queue[tail++] = v;
+					} else if (side[v] == side[u])
+						return null;
+				}
+			}
+		}
+
+		return side;
+	}
+
+	/**
+	 * find a maximum cardinality matching with Hopcroft-Karp algorithm in
+	 * O(E sqrt(V)). Each phase layers the graph with a breadth first search from
+	 * the free nodes of side 0 and augments a maximal set of disjoint shortest
+	 * paths with iterative depth first searches
+	 *
+	 * @param g a bipartite graph
+	 * @return the matching, with the sum of the weights of its edges if the graph
+	 *         is weighted
+	 * @throws IllegalArgumentException if the graph is not bipartite
+	 */
+
+	@NotNull
+	public static <T> Matching<T> hopcroftKarp(@NotNull CsrGraph<T> g) {
+		int[] side = requireBipartite(g);
+		Adjacency adj = new Adjacency(g, side);
+
+		int n = g.size();
+		int[] mate = new int[n];
+		int[] matched = new int[n];
+		int[] dist = new int[n];
+		int[] queue = new int[n];
+		int[] next = new int[n];
+		int[] path = new int[n];
+		int[] via = new int[n];
+		Arrays.fill(mate, -1);
+
+		AlgorithmRun run = AlgorithmRun.start("Hopcroft-Karp", n, g.edgeCount(), "layers", "augment");
+		long augmentations = 0;
+
+		while (true) {
+			run.phase(0);
+			run.addIterations(1);
+
+			int tail = 0;
+			for (int u = 0; u < n; u++)
+				if (side[u] == 0) {
+					dist[u] = mate[u] == -1 ? 0 : Integer.MAX_VALUE;
+					if (mate[u] == -1)
+						queue[tail++] = u;
+				}
+
+			// layer of the shortest augmenting paths, the search stops there
+			int limit = Integer.MAX_VALUE;
+			for (int head = 0; head < tail && dist[queue[head]] < limit; head++) {
+				int u = queue[head];
+
+				for (int p = adj.start[u]; p < adj.start[u + 1]; p++) {
+					int w = mate[adj.node[p]];
+
+					if (w == -1)
+						limit = Math.min(limit, dist[u] + 1);
+					else if (dist[w] == Integer.MAX_VALUE) {
+						dist[w] = dist[u] + 1;
+						queue[tail++] = w;
+					}
+				}
+			}
+
+			if (limit == Integer.MAX_VALUE)
+				break;
+
+			run.phase(1);
+			for (int u = 0; u < n; u++)
+				next[u] = adj.start[u];
+
+			for (int r = 0; r < n; r++) {
+				if (side[r] != 0 || mate[r] != -1)
+					continue;
+
+				int depth = 0;
+				path[depth++] = r;
+
+				while (depth > 0) {
+					int x = path[depth - 1];
+
+					if (next[x] == adj.start[x + 1]) {
+						// dead end, no other path of this phase goes through x
+						dist[x] = Integer.MAX_VALUE;
+						depth--;
+						continue;
+					}
+
+					int p = next[x]++;
+					int w = mate[adj.node[p]];
+
+					if (w == -1 && dist[x] + 1 == limit) {
+						via[x] = p;
+
+						// flip the edges of the path
+						for (int i = 0; i < depth; i++) {
+							int y = path[i];
+							int v = adj.node[via[y]];
+							mate[y] = v;
+							mate[v] = y;
+							matched[y] = via[y];
+						}
+
+						augmentations++;
+						break;
+					}
+
+					if (w != -1 && dist[w] == dist[x] + 1) {
+						via[x] = p;
+						path[depth++] = w;
+					}
+				}
+			}
+		}
+
+		IntList edges = new IntList();
+		double cost = 0;
+
+		for (int u = 0; u < n; u++)
+			if (side[u] == 0 && mate[u] != -1) {
+				int e = adj.edge[matched[u]];
+				edges.add(e);
+
+				if (g.isWeighted())
+					cost += g.weight(e);
+			}
+
+		run.addAugmentations(augmentations);
+		run.end();
+
+		return new Matching<>(g, mate, edges.toArray(), cost);
+	}
+
+	/**
+	 * find a maximum cardinality matching of minimum weight with the hungarian
+	 * algorithm in O(A^2 B), where A and B are the sizes of the smaller and of the
+	 * larger side. The cost matrix is dense, so the algorithm suits assignment
+	 * problems of a few thousand nodes. For a maximum weight matching use a
+	 * converter returning the negated weight
+	 *
+	 * @param g a weighted bipartite graph
+	 * @return the matching and the sum of the weights of its edges
+	 * @throws IllegalArgumentException if the graph is not bipartite
+	 * @throws IllegalStateException    if the graph has no weights
+	 */
+
+	@NotNull
+	public static <T> Matching<T> hungarian(@NotNull CsrGraph<T> g) {
+		int[] side = requireBipartite(g);
+
+		if (!g.isWeighted())
+			throw new IllegalStateException("Graph has been built without weight converter");
+
+		int n = g.size();
+		AlgorithmRun run = AlgorithmRun.start("Hungarian", n, g.edgeCount(), "cost matrix", "augment");
+		run.phase(0);
+
+		int ones = 0;
+		for (int s : side)
+			ones += s;
+
+		// rows are the smaller side
+		int rowSide = ones < n - ones ? 1 : 0;
+		int[] pos = new int[n];
+		int[] rowNode = new int[Math.min(ones, n - ones)];
+		int[] colNode = new int[n - rowNode.length];
+		int a = 0;
+		int b = 0;
+
+		for (int u = 0; u < n; u++)
+			if (side[u] == rowSide) {
+				pos[u] = a;
+				rowNode[a++] = u;
+			} else {
+				pos[u] = b;
+				colNode[b++] = u;
+			}
+
+		// cheapest edge of each pair, in either direction
+		int[] best = new int[a * b];
+		double[] cost = new double[a * b];
+		Arrays.fill(best, -1);
+		double maxAbs = 0;
+
+		for (int u = 0; u < n; u++)
+			for (int e = g.outStart(u); e < g.outEnd(u); e++) {
+				int v = g.target(e);
+				int cell = side[u] == rowSide ? pos[u] * b + pos[v] : pos[v] * b + pos[u];
+				double w = g.weight(e);
+
+				if (best[cell] == -1 || w < cost[cell]) {
+					best[cell] = e;
+					cost[cell] = w;
+				}
+
+				maxAbs = Math.max(maxAbs, Math.abs(w));
+			}
+
+		// missing pairs cost more than any change of the real edges, so the
+		// matching has maximum cardinality first
+		double missing = (a + 1) * (2 * maxAbs + 1);
+		for (int cell = 0; cell < best.length; cell++)
+			if (best[cell] == -1)
+				cost[cell] = missing;
+
+		// potentials and shortest augmenting paths, rows and columns from 1
+		double[] ru = new double[a + 1];
+		double[] cv = new double[b + 1];
+		int[] rowOf = new int[b + 1];
+		int[] way = new int[b + 1];
+		double[] minv = new double[b + 1];
+		boolean[] used = new boolean[b + 1];
+
+		run.phase(1);
+		long iterations = 0;
+
+		for (int i = 1; i <= a; i++) {
+			rowOf[0] = i;
+			int j0 = 0;
+			Arrays.fill(minv, Double.POSITIVE_INFINITY);
+			Arrays.fill(used, false);
+
+			do {
+				iterations++;
+				used[j0] = true;
+				int i0 = rowOf[j0];
+				double delta = Double.POSITIVE_INFINITY;
+				int j1 = 0;
+
+				for (int j = 1; j <= b; j++)
+					if (!used[j]) {
+						double cur = cost[(i0 - 1) * b + j - 1] - ru[i0] - cv[j];
+						if (cur < minv[j]) {
+							minv[j] = cur;
+							way[j] = j0;
+						}
+
+						if (minv[j] < delta) {
+							delta = minv[j];
+							j1 = j;
+						}
+					}
+
+				for (int j = 0; j <= b; j++)
+					if (used[j]) {
+						ru[rowOf[j]] += delta;
+						cv[j] -= delta;
+					} else
+						minv[j] -= delta;
+
+				j0 = j1;
+			} while (rowOf[j0] != 0);
+
+			do {
+				int j1 = way[j0];
+				rowOf[j0] = rowOf[j1];
+				j0 = j1;
+			} while (j0 != 0);
+		}
+
+		int[] mate = new int[n];
+		Arrays.fill(mate, -1);
+		IntList edges = new IntList();
+		double total = 0;
+
+		for (int j = 1; j <= b; j++) {
+			int cell = rowOf[j] == 0 ? -1 : (rowOf[j] - 1) * b + j - 1;
+			if (cell == -1 || best[cell] == -1)
+				continue;
+
+			int u = rowNode[rowOf[j] - 1];
+			int v = colNode[j - 1];
+			mate[u] = v;
+			mate[v] = u;
+			edges.add(best[cell]);
+			total += cost[cell];
+		}
+
+		// a row is added to the matching by each augmentation
+		run.addIterations(iterations);
+		run.addAugmentations(a);
+		run.end();
+
+		return new Matching<>(g, mate, edges.toArray(), total);
+	}
+
+	private static int[] requireBipartite(CsrGraph<?> g) {
+		int[] side = bipartition(g);
+		if (side == null)
+			throw new IllegalArgumentException("Graph is not bipartite");
+
+		return side;
+	}
+
+	/**
+	 * edges of the nodes of side 0 in both directions, with the node on side 1
+	 * and the id of the edge
+	 */
+
+	private static final class Adjacency {
+
+		private final int[] start;
+		private final int[] node;
+		private final int[] edge;
+
+		private Adjacency(CsrGraph<?> g, int[] side) {
+			int n = g.size();
+			start = new int[n + 1];
+
+			for (int u = 0; u < n; u++)
+				start[u + 1] = start[u] + (side[u] == 0 ? g.outDegree(u) + g.inDegree(u) : 0);
+
+			node = new int[start[n]];
+			edge = new int[start[n]];
+
+			for (int u = 0; u < n; u++) {
+				if (side[u] != 0)
+					continue;
+
+				int p = start[u];
+				for (int e = g.outStart(u); e < g.outEnd(u); e++, p++) {
+					node[p] = g.target(e);
+					edge[p] = e;
+				}
+
+				for (int i = g.inStart(u); i < g.inEnd(u); i++, p++) {
+					node[p] = g.source(i);
+					edge[p] = g.inEdge(i);
+				}
+			}
+		}
+	}
+}
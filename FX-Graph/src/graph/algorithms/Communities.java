@@ -0,0 +1,95 @@
+package graph.algorithms;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import graph.annotations.NotNull;
+import graph.gui.Node;
+
+/**
+ * Result of a community detection algorithm. The community of each node is
+ * stored in a primitive array indexed by the node index of the searched
+ * {@link CsrGraph}, communities are numbered from 0.
+ *
+ * @param <T> the node value type
+ */
+
+public final class Communities<T> {
+
+	private final CsrGraph<T> graph;
+	private final int[] community;
+	private final int count;
+	private final double modularity;
+	private final int levels;
+
+	Communities(CsrGraph<T> graph, int[] community, int count, double modularity, int levels) {
+		this.graph = graph;
+		this.community = community;
+		this.count = count;
+		this.modularity = modularity;
+		this.levels = levels;
+	}
+
+	@NotNull
+	public CsrGraph<T> getGraph() {
+		return graph;
+	}
+
+	public int getCommunityCount() {
+		return count;
+	}
+
+	/**
+	 * @return the modularity of the partition, from -1/2 to 1
+	 */
+
+	public double getModularity() {
+		return modularity;
+	}
+
+	/**
+	 * @return the number of aggregation levels of the search
+	 */
+
+	public int getLevels() {
+		return levels;
+	}
+
+	/**
+	 * @return the community of the node or -1 if the node is not in the graph
+	 */
+
+	public int getCommunity(@NotNull Node<T> n) {
+		int i = graph.indexOf(n);
+		return i == -1 ? -1 : community[i];
+	}
+
+	/**
+	 * @return the community of each node. The array is not copied
+	 */
+
+	@NotNull
+	public int[] getCommunityIds() {
+		return community;
+	}
+
+	/**
+	 * @return the nodes of each community
+	 */
+
+	@NotNull
+	public List<List<Node<T>>> getCommunities() {
+		ArrayList<List<Node<T>>> tmp = new ArrayList<>(count);
+		for (int c = 0; c < count; c++)
+			tmp.add(new ArrayList<>());
+
+		for (int i = 0; i < community.length; i++)
+			tmp.get(community[i]).add(graph.getNode(i));
+
+		for (int c = 0; c < count; c++)
+			tmp.set(c, Collections.unmodifiableList(tmp.get(c)));
+
+		return Collections.unmodifiableList(tmp);
+	}
+}
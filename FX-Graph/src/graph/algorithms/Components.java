@@ -0,0 +1,87 @@
+package graph.algorithms;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import graph.annotations.NotNull;
+import graph.gui.Node;
+
+/**
+ * Result of a strongly connected components algorithm. The component of each
+ * node is stored in a primitive array indexed by the node index of the
+ * searched {@link CsrGraph}.
+ *
+ * @param <T> the node value type
+ */
+
+public final class Components<T> {
+
+	private final CsrGraph<T> graph;
+	private final int[] component;
+	private final int count;
+	private final boolean acyclic;
+
+	Components(CsrGraph<T> graph, int[] component, int count, boolean acyclic) {
+		this.graph = graph;
+		this.component = component;
+		this.count = count;
+		this.acyclic = acyclic;
+	}
+
+	@NotNull
+	public CsrGraph<T> getGraph() {
+		return graph;
+	}
+
+	public int getComponentCount() {
+		return count;
+	}
+
+	/**
+	 * @return true if the graph has no directed cycle, self loops included
+	 */
+
+	public boolean isAcyclic() {
+		return acyclic;
+	}
+
+	/**
+	 * @return the component of the node, in [0, count), or -1 if the node is not
+	 *         in the graph. An edge between different components always goes to
+	 *         a lower component
+	 */
+
+	public int getComponent(@NotNull Node<T> n) {
+		int i = graph.indexOf(n);
+		return i == -1 ? -1 : component[i];
+	}
+
+	/**
+	 * @return the component of each node by node index. The array is not copied
+	 */
+
+	@NotNull
+	public int[] getComponentIds() {
+		return component;
+	}
+
+	/**
+	 * @return the nodes of each component
+	 */
+
+	@NotNull
+	public List<List<Node<T>>> getComponents() {
+		ArrayList<List<Node<T>>> tmp = new ArrayList<>(count);
+		for (int c = 0; c < count; c++)
+			tmp.add(new ArrayList<>());
+
+		for (int i = 0; i < component.length; i++)
+			tmp.get(component[i]).add(graph.getNode(i));
+
+		for (int c = 0; c < count; c++)
+			tmp.set(c, Collections.unmodifiableList(tmp.get(c)));
+
+		return Collections.unmodifiableList(tmp);
+	}
+}
@@ -0,0 +1,88 @@
+package graph.algorithms;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Lock free union find. Roots are linked with a compare and set from the
+ * smaller to the greater index and paths are shortened with path halving, so
+ * find and union can be called concurrently by any number of threads.
+ */
+
+public final class ConcurrentUnionFind {
+
+	private final AtomicIntegerArray parent;
+
+	/**
+	 * create a union find where each element is in its own set
+	 *
+	 * @param size number of elements
+	 */
+
+	public ConcurrentUnionFind(int size) {
+		parent = new AtomicIntegerArray(size);
+		for (int i = 0; i < size; i++)
+			parent.set(i, i);
+	}
+
+	public int size() {
+		return parent.length();
+	}
+
+	/**
+	 * @return the representative of the set of x
+	 */
+
+	public int find(int x) {
+		while (true) {
+			int p = parent.get(x);
+			if (p == x)
+				return x;
+
+			int gp = parent.get(p);
+			if (gp != p)
+				parent.compareAndSet(x, p, gp);
+
+			x = gp;
+		}
+	}
+
+	/**
+	 * merge the sets of x and y
+	 *
+	 * @return true if the sets were different
+	 */
+
+	public boolean union(int x, int y) {
+		while (true) {
+			int rx = find(x);
+			int ry = find(y);
+
+			if (rx == ry)
+				return false;
+
+			if (rx > ry) {
+				int tmp = rx;
+				rx = ry;
+				ry = tmp;
+			}
+
+			// rx may have been linked by another thread, in that case retry
+			if (parent.compareAndSet(rx, rx, ry))
+				return true;
+		}
+	}
+
+	public boolean connected(int x, int y) {
+		while (true) {
+			int rx = find(x);
+			int ry = find(y);
+
+			if (rx == ry)
+				return true;
+
+			// rx is still a root so the sets were different at this moment
+			if (parent.get(rx) == rx)
+				return false;
+		}
+	}
+}
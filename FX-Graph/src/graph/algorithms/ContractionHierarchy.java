@@ -0,0 +1,646 @@
+package graph.algorithms;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+
+import graph.annotations.NotNull;
+import graph.gui.Node;
+
+/**
+ * Contraction hierarchy of a {@link CsrGraph} for fast point to point shortest
+ * path queries. Nodes are contracted one at a time by increasing edge
+ * difference: the shortcuts added by the contraction minus the edges removed,
+ * plus the neighbours already contracted to spread the contraction over the
+ * graph. A shortcut u -&gt; w replaces the path u -&gt; v -&gt; w only if a
+ * witness search from u avoiding v finds no path as short. Witness searches are
+ * bounded, a missed witness only adds a useless shortcut. The witness searches
+ * of the initial order and of the in-neighbours of a contracted node run in
+ * parallel, later priorities are updated lazily when a node reaches the top of
+ * the queue.
+ *
+ * A query is a bidirectional dijkstra which only climbs the hierarchy, shortcuts
+ * are stored in the hierarchy and unpacked into the edges of the graph. The
+ * hierarchy is immutable and queries can run concurrently, it does not follow
+ * the changes of the graph it was built from. Weights must not be negative.
+ *
+ * @param <T> the node value type
+ */
+
+public final class ContractionHierarchy<T> {
+
+	// nodes processed by a single task
+	private static final int GRAIN = 256;
+
+	// in-neighbours processed by a single task
+	private static final int ARC_GRAIN = 32;
+
+	// nodes settled by a witness search before giving up
+	private static final int SETTLE_LIMIT = 1000;
+
+	private final CsrGraph<T> graph;
+
+	// arcs are the edges of the graph, with the same ids, followed by the
+	// shortcuts. A shortcut is made of 2 arcs, -1 for edges
+	private final int[] arcSource;
+	private final int[] arcTarget;
+	private final double[] arcWeight;
+	private final int[] arcFirst;
+	private final int[] arcSecond;
+
+	// arcs to higher ranked nodes, by source for the forward search and by
+	// target for the backward search
+	private final int[] upStart;
+	private final int[] upArcs;
+	private final int[] downStart;
+	private final int[] downArcs;
+
+	private final ThreadLocal<Query> queries;
+
+	private ContractionHierarchy(CsrGraph<T> graph, Builder b) {
+		this.graph = graph;
+
+		arcSource = Arrays.copyOf(b.source, b.arcs);
+		arcTarget = Arrays.copyOf(b.target, b.arcs);
+		arcWeight = Arrays.copyOf(b.weight, b.arcs);
+		arcFirst = Arrays.copyOf(b.first, b.arcs);
+		arcSecond = Arrays.copyOf(b.second, b.arcs);
+
+		upStart = new int[b.n + 1];
+		downStart = new int[b.n + 1];
+		upArcs = flatten(b.up, upStart);
+		downArcs = flatten(b.down, downStart);
+
+		queries = ThreadLocal.withInitial(() -> new Query(b.n));
+	}
+
+	/**
+	 * build the hierarchy on the common fork join pool
+	 *
+	 * @param g a weighted graph
+	 * @return the hierarchy
+	 * @throws IllegalStateException    if the graph has no weights
+	 * @throws IllegalArgumentException if a negative weight is found
+	 */
+
+	@NotNull
+	public static <T> ContractionHierarchy<T> build(@NotNull CsrGraph<T> g) {
+		return build(g, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * build the hierarchy on the given pool, see {@link #build(CsrGraph)}
+	 */
+
+	@NotNull
+	public static <T> ContractionHierarchy<T> build(@NotNull CsrGraph<T> g, @NotNull ForkJoinPool pool) {
+		Objects.requireNonNull(g);
+		Objects.requireNonNull(pool);
+
+		if (!g.isWeighted())
+			throw new IllegalStateException("Graph has been built without weight converter");
+
+		AlgorithmRun run = AlgorithmRun.start("Contraction hierarchy", g.size(), g.edgeCount(), "priorities",
+				"contraction", "arrays");
+		run.phase(0);
+
+		Builder b = new Builder(g, pool);
+		b.contractAll(run);
+
+		run.phase(2);
+		ContractionHierarchy<T> ch = new ContractionHierarchy<>(g, b);
+		run.end();
+
+		return ch;
+	}
+
+	@NotNull
+	public CsrGraph<T> getGraph() {
+		return graph;
+	}
+
+	/**
+	 * @return the number of shortcuts added by the contraction
+	 */
+
+	public int getShortcutCount() {
+		return arcSource.length - graph.edgeCount();
+	}
+
+	/**
+	 * @return the length of the shortest path or {@link Double#POSITIVE_INFINITY}
+	 *         if the target is not reachable
+	 * @throws IllegalArgumentException if a node is not in the graph
+	 */
+
+	public double getDistance(@NotNull Node<T> from, @NotNull Node<T> to) {
+		Query q = queries.get();
+		q.run(indexOf(from), indexOf(to));
+
+		return q.best;
+	}
+
+	/**
+	 * find the shortest path between 2 nodes
+	 *
+	 * @param from the source node
+	 * @param to   the target node
+	 * @return the path with its edges unpacked from the shortcuts
+	 * @throws IllegalArgumentException if a node is not in the graph
+	 */
+
+	@NotNull
+	public PathResult<T> query(@NotNull Node<T> from, @NotNull Node<T> to) {
+		int s = indexOf(from);
+		int t = indexOf(to);
+
+		Query q = queries.get();
+		q.run(s, t);
+
+		if (q.meet == -1)
+			return new PathResult<>(graph, s, new int[0], Double.POSITIVE_INFINITY, q.settled);
+
+		// arcs from the source to the meeting node are found backwards
+		IntList half = new IntList();
+		for (int x = q.meet; x != s; x = arcSource[q.parentF[x]])
+			half.add(q.parentF[x]);
+
+		IntList path = new IntList();
+		for (int i = half.size - 1; i >= 0; i--)
+			unpack(half.data[i], path);
+
+		for (int x = q.meet; x != t; x = arcTarget[q.parentB[x]])
+			unpack(q.parentB[x], path);
+
+		return new PathResult<>(graph, s, path.toArray(), q.best, q.settled);
+	}
+
+	private int indexOf(Node<T> n) {
+		int i = graph.indexOf(Objects.requireNonNull(n));
+		if (i == -1)
+			throw new IllegalArgumentException("Invalid node. Node is not in the graph");
+
+		return i;
+	}
+
+	/**
+	 * append the edges of an arc to the path, shortcuts are expanded in order
+	 */
+
+	private void unpack(int arc, IntList path) {
+		IntList stack = new IntList();
+		stack.add(arc);
+
+		while (stack.size > 0) {
+			int a = stack.data[--stack.size];
+
+			if (arcFirst[a] == -1)
+				path.add(a);
+			else {
+				stack.add(arcSecond[a]);
+				stack.add(arcFirst[a]);
+			}
+		}
+	}
+
+	private static int[] flatten(IntList[] lists, int[] start) {
+		for (int v = 0; v < lists.length; v++)
+			start[v + 1] = start[v] + lists[v].size;
+
+		int[] flat = new int[start[lists.length]];
+		for (int v = 0; v < lists.length; v++)
+			System.arraycopy(lists[v].data, 0, flat, start[v], lists[v].size);
+
+		return flat;
+	}
+
+	/**
+	 * per thread state of the queries, distances are reset only on the nodes
+	 * touched by the previous query
+	 */
+
+	private final class Query {
+
+		private final double[] distF;
+		private final double[] distB;
+		private final int[] parentF;
+		private final int[] parentB;
+		private final IndexedHeap heapF;
+		private final IndexedHeap heapB;
+		private final IntList touched = new IntList();
+
+		private double best;
+		private int meet;
+		private int settled;
+
+		private Query(int n) {
+			distF = new double[n];
+			distB = new double[n];
+			parentF = new int[n];
+			parentB = new int[n];
+			heapF = new IndexedHeap(n);
+			heapB = new IndexedHeap(n);
+
+			Arrays.fill(distF, Double.POSITIVE_INFINITY);
+			Arrays.fill(distB, Double.POSITIVE_INFINITY);
+		}
+
+		private void run(int s, int t) {
+			AlgorithmRun run = AlgorithmRun.start("CH query", distF.length, graph.edgeCount());
+			long relaxations = 0;
+
+			for (int i = 0; i < touched.size; i++) {
+				distF[touched.data[i]] = Double.POSITIVE_INFINITY;
+				distB[touched.data[i]] = Double.POSITIVE_INFINITY;
+			}
+
+			touched.size = 0;
+			heapF.clear();
+			heapB.clear();
+
+			distF[s] = 0;
+			distB[t] = 0;
+			touched.add(s);
+			touched.add(t);
+			heapF.offer(s, 0);
+			heapB.offer(t, 0);
+
+			best = s == t ? 0 : Double.POSITIVE_INFINITY;
+			meet = s == t ? s : -1;
+			settled = 0;
+
+			// each search stops when it cannot improve the best meeting path
+			while (true) {
+				boolean forward = !heapF.isEmpty() && heapF.minKey() < best;
+				boolean backward = !heapB.isEmpty() && heapB.minKey() < best;
+				if (!forward && !backward)
+					break;
+
+				if (forward && backward)
+					forward = heapF.minKey() <= heapB.minKey();
+
+				settled++;
+
+				if (forward) {
+					int u = heapF.poll();
+					relaxations += upStart[u + 1] - upStart[u];
+					for (int i = upStart[u]; i < upStart[u + 1]; i++)
+						relax(upArcs[i], arcTarget[upArcs[i]], distF[u], distF, parentF, heapF, distB);
+				} else {
+					int u = heapB.poll();
+					relaxations += downStart[u + 1] - downStart[u];
+					for (int i = downStart[u]; i < downStart[u + 1]; i++)
+						relax(downArcs[i], arcSource[downArcs[i]], distB[u], distB, parentB, heapB, distF);
+				}
+			}
+
+			run.addIterations(settled);
+			run.addRelaxations(relaxations);
+			run.end();
+		}
+
+		private void relax(int a, int x, double du, double[] dist, int[] parent, IndexedHeap heap, double[] other) {
+			double d = du + arcWeight[a];
+			if (d >= dist[x])
+				return;
+
+			if (dist[x] == Double.POSITIVE_INFINITY && other[x] == Double.POSITIVE_INFINITY)
+				touched.add(x);
+
+			dist[x] = d;
+			parent[x] = a;
+			heap.offer(x, d);
+
+			if (d + other[x] < best) {
+				best = d + other[x];
+				meet = x;
+			}
+		}
+	}
+
+	/**
+	 * mutable state of the contraction. The adjacency lists hold the arcs between
+	 * nodes not yet contracted
+	 */
+
+	private static final class Builder {
+
+		private final int n;
+		private final ForkJoinPool pool;
+
+		private int arcs;
+		private int[] source;
+		private int[] target;
+		private double[] weight;
+		private int[] first;
+		private int[] second;
+
+		private final IntList[] out;
+		private final IntList[] in;
+		private final IntList[] up;
+		private final IntList[] down;
+		private final int[] deleted;
+
+		private final ThreadLocal<Witness> witness;
+
+		private Builder(CsrGraph<?> g, ForkJoinPool pool) {
+			this.n = g.size();
+			this.pool = pool;
+
+			int m = g.edgeCount();
+			source = new int[m + 16];
+			target = new int[m + 16];
+			weight = new double[m + 16];
+			first = new int[m + 16];
+			second = new int[m + 16];
+
+			out = new IntList[n];
+			in = new IntList[n];
+			up = new IntList[n];
+			down = new IntList[n];
+			deleted = new int[n];
+
+			for (int v = 0; v < n; v++) {
+				out[v] = new IntList(g.outDegree(v));
+				in[v] = new IntList(g.inDegree(v));
+			}
+
+			for (int u = 0; u < n; u++)
+				for (int e = g.outStart(u); e < g.outEnd(u); e++) {
+					if (g.weight(e) < 0)
+						throw new IllegalArgumentException("Negative weight found on edge " + g.edge(e));
+
+					// self loops keep their id but are never part of a shortest path
+					int a = addArc(u, g.target(e), g.weight(e), -1, -1);
+					if (u != g.target(e)) {
+						out[u].add(a);
+						in[g.target(e)].add(a);
+					}
+				}
+
+			witness = ThreadLocal.withInitial(() -> new Witness(n));
+		}
+
+		private void contractAll(AlgorithmRun run) {
+			double[] priority = new double[n];
+			Parallel.forEach(pool, Parallel.chunks(n, GRAIN), c -> {
+				Witness ws = witness.get();
+				IntList pairs = new IntList();
+
+				int end = Math.min(n, (c + 1) * GRAIN);
+				for (int v = c * GRAIN; v < end; v++)
+					priority[v] = priority(v, ws, pairs);
+			});
+
+			IndexedHeap order = new IndexedHeap(n);
+			for (int v = 0; v < n; v++)
+				order.offer(v, priority[v]);
+
+			Witness ws = witness.get();
+			IntList pairs = new IntList();
+			int[] mark = new int[n];
+			Arrays.fill(mark, -1);
+
+			run.phase(1);
+			long heapOperations = n;
+
+			while (!order.isEmpty()) {
+				int v = order.poll();
+				heapOperations++;
+
+				// contractions of the neighbours change the shortcuts needed, the
+				// priority is computed again and the node put back if not minimal
+				if (!order.isEmpty()) {
+					double p = priority(v, ws, pairs);
+					if (p > order.minKey()) {
+						order.offer(v, p);
+						heapOperations++;
+						continue;
+					}
+				}
+
+				// the neighbours lose an edge to a contracted node
+				for (IntList l : new IntList[] { out[v], in[v] })
+					for (int i = 0; i < l.size; i++) {
+						int x = source[l.data[i]] == v ? target[l.data[i]] : source[l.data[i]];
+						if (mark[x] != v) {
+							mark[x] = v;
+							deleted[x]++;
+							order.update(x, order.keyOf(x) + 1);
+							heapOperations++;
+						}
+					}
+
+				contract(v);
+			}
+
+			run.addIterations(n);
+			run.addHeapOperations(heapOperations);
+		}
+
+		/**
+		 * edge difference of a node plus the number of its contracted neighbours
+		 */
+
+		private double priority(int v, Witness ws, IntList pairs) {
+			pairs.size = 0;
+			for (int i = 0; i < in[v].size; i++)
+				findShortcuts(v, in[v].data[i], ws, pairs);
+
+			return pairs.size / 2 - in[v].size - out[v].size + deleted[v];
+		}
+
+		private void contract(int v) {
+			IntList incoming = in[v];
+			IntList outgoing = out[v];
+
+			int k = incoming.size;
+			int chunks = Parallel.chunks(k, ARC_GRAIN);
+			IntList[] found = new IntList[chunks];
+
+			Parallel.forEach(pool, chunks, c -> {
+				Witness ws = witness.get();
+				found[c] = new IntList(4);
+
+				int end = Math.min(k, (c + 1) * ARC_GRAIN);
+				for (int i = c * ARC_GRAIN; i < end; i++)
+					findShortcuts(v, incoming.data[i], ws, found[c]);
+			});
+
+			// the remaining arcs of v lead to nodes contracted later
+			up[v] = outgoing;
+			down[v] = incoming;
+			out[v] = new IntList(1);
+			in[v] = new IntList(1);
+
+			for (int i = 0; i < outgoing.size; i++)
+				remove(in[target[outgoing.data[i]]], outgoing.data[i]);
+
+			for (int i = 0; i < incoming.size; i++)
+				remove(out[source[incoming.data[i]]], incoming.data[i]);
+
+			for (IntList pairs : found)
+				for (int i = 0; i < pairs.size; i += 2)
+					addShortcut(pairs.data[i], pairs.data[i + 1]);
+		}
+
+		/**
+		 * find the out arcs of v which need a shortcut from the source of an in arc
+		 * of v, each pair of arcs is appended to the list
+		 */
+
+		private void findShortcuts(int v, int inArc, Witness ws, IntList pairs) {
+			int u = source[inArc];
+			IntList outgoing = out[v];
+
+			double limit = -1;
+			for (int i = 0; i < outgoing.size; i++) {
+				int a = outgoing.data[i];
+				if (target[a] != u)
+					limit = Math.max(limit, weight[inArc] + weight[a]);
+			}
+
+			if (limit < 0)
+				return;
+
+			ws.run(u, v, limit, outgoing);
+
+			for (int i = 0; i < outgoing.size; i++) {
+				int a = outgoing.data[i];
+				if (target[a] != u && ws.dist[target[a]] > weight[inArc] + weight[a]) {
+					pairs.add(inArc);
+					pairs.add(a);
+				}
+			}
+		}
+
+		private void addShortcut(int inArc, int outArc) {
+			int u = source[inArc];
+			int w = target[outArc];
+			double d = weight[inArc] + weight[outArc];
+
+			// a direct arc is replaced only if longer
+			IntList l = out[u];
+			for (int i = 0; i < l.size; i++) {
+				int a = l.data[i];
+				if (target[a] == w) {
+					if (weight[a] <= d)
+						return;
+
+					remove(l, a);
+					remove(in[w], a);
+					break;
+				}
+			}
+
+			int a = addArc(u, w, d, inArc, outArc);
+			out[u].add(a);
+			in[w].add(a);
+		}
+
+		private int addArc(int u, int v, double w, int a, int b) {
+			if (arcs == source.length) {
+				int size = arcs * 2;
+				source = Arrays.copyOf(source, size);
+				target = Arrays.copyOf(target, size);
+				weight = Arrays.copyOf(weight, size);
+				first = Arrays.copyOf(first, size);
+				second = Arrays.copyOf(second, size);
+			}
+
+			source[arcs] = u;
+			target[arcs] = v;
+			weight[arcs] = w;
+			first[arcs] = a;
+			second[arcs] = b;
+
+			return arcs++;
+		}
+
+		private static void remove(IntList l, int a) {
+			for (int i = 0; i < l.size; i++)
+				if (l.data[i] == a) {
+					l.data[i] = l.data[--l.size];
+					return;
+				}
+		}
+
+		/**
+		 * per thread state of the witness searches
+		 */
+
+		private final class Witness {
+
+			private final double[] dist;
+			private final IndexedHeap heap;
+			private final IntList touched = new IntList();
+
+			// targets not yet settled are marked with the number of the search
+			private final int[] mark;
+			private int round;
+
+			private Witness(int n) {
+				dist = new double[n];
+				mark = new int[n];
+				heap = new IndexedHeap(n);
+
+				Arrays.fill(dist, Double.POSITIVE_INFINITY);
+			}
+
+			/**
+			 * dijkstra from a node avoiding another one, stopped when the targets of
+			 * the given arcs are settled, at the given distance or after
+			 * {@link ContractionHierarchy#SETTLE_LIMIT} nodes
+			 */
+
+			private void run(int s, int avoid, double limit, IntList targets) {
+				for (int i = 0; i < touched.size; i++)
+					dist[touched.data[i]] = Double.POSITIVE_INFINITY;
+
+				touched.size = 0;
+				heap.clear();
+				round++;
+
+				int left = 0;
+				for (int i = 0; i < targets.size; i++) {
+					int t = target[targets.data[i]];
+					if (mark[t] != round) {
+						mark[t] = round;
+						left++;
+					}
+				}
+
+				dist[s] = 0;
+				touched.add(s);
+				heap.offer(s, 0);
+
+				for (int settled = 0; !heap.isEmpty() && settled < SETTLE_LIMIT && left > 0; settled++) {
+					if (heap.minKey() > limit)
+						break;
+
+					int x = heap.poll();
+					if (mark[x] == round) {
+						mark[x] = 0;
+						left--;
+					}
+
+					IntList l = out[x];
+
+					for (int i = 0; i < l.size; i++) {
+						int a = l.data[i];
+						int y = target[a];
+						double d = dist[x] + weight[a];
+
+						if (y != avoid && d < dist[y]) {
+							if (dist[y] == Double.POSITIVE_INFINITY)
+								touched.add(y);
+
+							dist[y] = d;
+							heap.offer(y, d);
+						}
+					}
+				}
+			}
+		}
+	}
+}
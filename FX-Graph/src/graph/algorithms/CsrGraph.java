@@ -0,0 +1,271 @@
+package graph.algorithms;
+
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+import graph.annotations.NotNull;
+import graph.annotations.Nullable;
+import graph.dataclasses.WeightConverter;
+import graph.gui.Edge;
+import graph.gui.GraphSnapshot;
+import graph.gui.Node;
+
+/**
+ * Immutable compressed sparse row copy of a graph. Nodes are identified by a
+ * dense index in [0, size) and both the outgoing and the incoming adjacency
+ * are stored in flat primitive arrays, so algorithms working on it do not
+ * touch the scene graph and can run on any thread.
+ *
+ * @param <T> the node value type
+ */
+
+public final class CsrGraph<T> {
+
+	private final Node<T>[] nodes;
+	private final Map<Node<T>, Integer> index;
+
+	// outgoing adjacency: targets of node i are in [outOffsets[i], outOffsets[i + 1])
+	private final int[] outOffsets;
+	private final int[] outTargets;
+	private final Edge<?>[] outEdges;
+	private final double[] outWeights;
+
+	// incoming adjacency: sources of node i are in [inOffsets[i], inOffsets[i + 1])
+	private final int[] inOffsets;
+	private final int[] inSources;
+	private final int[] inEdgeIds;
+
+	/**
+	 * create a csr copy of a graph
+	 *
+	 * @param nodes the nodes of the graph, the position in the list is the node
+	 *              index
+	 * @param out   function returning the outgoing edges of a node
+	 * @param conv  converter used to store edge weights, if null no weight is
+	 *              stored
+	 * @throws IllegalArgumentException if an edge points to a node which is not
+	 *                                  in the list
+	 */
+
+	public <K> CsrGraph(@NotNull List<Node<T>> nodes, @NotNull Function<Node<T>, Collection<Edge<K>>> out,
+			@Nullable WeightConverter<K> conv) {
+		this(nodes, null, out, null, conv);
+	}
+
+	/**
+	 * create a csr copy of a graph snapshot. Weights are taken from the snapshot,
+	 * not from the edges, and the node index of the snapshot is reused
+	 *
+	 * @param snapshot the snapshot to copy
+	 * @param conv     converter used to store edge weights, if null no weight is
+	 *                 stored
+	 */
+
+	public <K> CsrGraph(@NotNull GraphSnapshot<T, K> snapshot, @Nullable WeightConverter<K> conv) {
+		this(snapshot.getNodes(), snapshot.getIndex(), snapshot::getEdges, snapshot::getWeights, conv);
+	}
+
+	@SuppressWarnings("unchecked")
+	private <K> CsrGraph(List<Node<T>> nodes, Map<Node<T>, Integer> index,
+			Function<Node<T>, ? extends Collection<Edge<K>>> out, Function<Node<T>, List<K>> weights,
+			WeightConverter<K> conv) {
+		Objects.requireNonNull(nodes);
+		Objects.requireNonNull(out);
+
+		int n = nodes.size();
+		this.nodes = nodes.toArray((Node<T>[]) Array.newInstance(Node.class, n));
+
+		if (index == null) {
+			index = new HashMap<>(n * 2);
+			for (int i = 0; i < n; i++)
+				index.put(this.nodes[i], i);
+		}
+
+		this.index = index;
+
+		// count edges to size the arrays
+		outOffsets = new int[n + 1];
+		for (int i = 0; i < n; i++)
+			outOffsets[i + 1] = outOffsets[i] + out.apply(this.nodes[i]).size();
+
+		int m = outOffsets[n];
+		outTargets = new int[m];
+		outEdges = new Edge<?>[m];
+		outWeights = conv == null ? null : new double[m];
+
+		int[] inDegree = new int[n + 1];
+		for (int i = 0; i < n; i++) {
+			int pos = outOffsets[i];
+			// weights stored apart from the edges, aligned with the edge order
+			List<K> w = weights == null || conv == null ? null : weights.apply(this.nodes[i]);
+
+			for (Edge<K> e : out.apply(this.nodes[i])) {
+				Integer to = index.get(e.getNodeTo());
+				if (to == null)
+					throw new IllegalArgumentException("Invalid edge. Node is not in the graph");
+
+				outTargets[pos] = to;
+				outEdges[pos] = e;
+				if (conv != null)
+					outWeights[pos] = conv.convert(w == null ? e.getWeight() : w.get(pos - outOffsets[i]));
+
+				inDegree[to + 1]++;
+				pos++;
+			}
+		}
+
+		// build the reverse adjacency with a counting sort on targets
+		inOffsets = new int[n + 1];
+		for (int i = 0; i < n; i++)
+			inOffsets[i + 1] = inOffsets[i] + inDegree[i + 1];
+
+		inSources = new int[m];
+		inEdgeIds = new int[m];
+		int[] fill = new int[n];
+		System.arraycopy(inOffsets, 0, fill, 0, n);
+
+		for (int u = 0; u < n; u++)
+			for (int e = outOffsets[u]; e < outOffsets[u + 1]; e++) {
+				int pos = fill[outTargets[e]]++;
+				inSources[pos] = u;
+				inEdgeIds[pos] = e;
+			}
+	}
+
+	/**
+	 * @return the number of nodes
+	 */
+
+	public int size() {
+		return nodes.length;
+	}
+
+	/**
+	 * @return the number of directed edges
+	 */
+
+	public int edgeCount() {
+		return outTargets.length;
+	}
+
+	/**
+	 * @return true if edge weights have been stored
+	 */
+
+	public boolean isWeighted() {
+		return outWeights != null;
+	}
+
+	/**
+	 * get the index of a node
+	 *
+	 * @param n the node
+	 * @return the index of the node or -1 if the node is not in the graph
+	 */
+
+	public int indexOf(@Nullable Node<T> n) {
+		Integer i = index.get(n);
+		return i == null ? -1 : i;
+	}
+
+	@NotNull
+	public Node<T> getNode(int i) {
+		return nodes[i];
+	}
+
+	public int outStart(int u) {
+		return outOffsets[u];
+	}
+
+	public int outEnd(int u) {
+		return outOffsets[u + 1];
+	}
+
+	public int outDegree(int u) {
+		return outOffsets[u + 1] - outOffsets[u];
+	}
+
+	/**
+	 * @return the source node of an edge, found by binary search on the offsets
+	 */
+
+	public int edgeSource(int e) {
+		int lo = 0;
+		int hi = nodes.length - 1;
+
+		while (lo < hi) {
+			int mid = (lo + hi + 1) >>> 1;
+			if (outOffsets[mid] <= e)
+				lo = mid;
+			else
+				hi = mid - 1;
+		}
+
+		return lo;
+	}
+
+	public int target(int e) {
+		return outTargets[e];
+	}
+
+	/**
+	 * @throws IllegalStateException if the graph has been built without converter
+	 */
+
+	public double weight(int e) {
+		if (outWeights == null)
+			throw new IllegalStateException("Graph has been built without weight converter");
+
+		return outWeights[e];
+	}
+
+	@SuppressWarnings("unchecked")
+	@NotNull
+	public <K> Edge<K> edge(int e) {
+		return (Edge<K>) outEdges[e];
+	}
+
+	public int inStart(int v) {
+		return inOffsets[v];
+	}
+
+	public int inEnd(int v) {
+		return inOffsets[v + 1];
+	}
+
+	public int inDegree(int v) {
+		return inOffsets[v + 1] - inOffsets[v];
+	}
+
+	public int source(int i) {
+		return inSources[i];
+	}
+
+	/**
+	 * @param i position in the incoming adjacency
+	 * @return the id of the outgoing edge stored at the given position
+	 */
+
+	public int inEdge(int i) {
+		return inEdgeIds[i];
+	}
+
+	/**
+	 * find the id of the edge u -> v
+	 *
+	 * @return the edge id or -1 if there is no such edge
+	 */
+
+	public int findEdge(int u, int v) {
+		for (int e = outOffsets[u]; e < outOffsets[u + 1]; e++)
+			if (outTargets[e] == v)
+				return e;
+
+		return -1;
+	}
+}
@@ -0,0 +1,86 @@
+package graph.algorithms;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import graph.annotations.NotNull;
+import graph.gui.Node;
+
+/**
+ * Result of a global minimum cut algorithm: a partition of the nodes of the
+ * searched {@link CsrGraph} in 2 non empty sides.
+ *
+ * @param <T> the node value type
+ */
+
+public final class Cut<T> {
+
+	private final CsrGraph<T> graph;
+	private final boolean[] first;
+	private final double value;
+
+	Cut(CsrGraph<T> graph, boolean[] first, double value) {
+		this.graph = graph;
+		this.first = first;
+		this.value = value;
+	}
+
+	@NotNull
+	public CsrGraph<T> getGraph() {
+		return graph;
+	}
+
+	/**
+	 * @return the total weight of the edges between the 2 sides, each undirected
+	 *         edge counted once
+	 */
+
+	public double getValue() {
+		return value;
+	}
+
+	/**
+	 * @return true if the node is on the first side of the cut
+	 */
+
+	public boolean isOnFirstSide(@NotNull Node<T> n) {
+		int i = graph.indexOf(n);
+		return i != -1 && first[i];
+	}
+
+	@NotNull
+	public List<Node<T>> getFirstSide() {
+		return side(true);
+	}
+
+	@NotNull
+	public List<Node<T>> getSecondSide() {
+		return side(false);
+	}
+
+	/**
+	 * @return the ids of the edges going from a side to the other, in both
+	 *         directions
+	 */
+
+	@NotNull
+	public int[] getCutEdgeIds() {
+		IntList tmp = new IntList();
+		for (int u = 0; u < graph.size(); u++)
+			for (int e = graph.outStart(u); e < graph.outEnd(u); e++)
+				if (first[u] != first[graph.target(e)])
+					tmp.add(e);
+
+		return tmp.toArray();
+	}
+
+	private List<Node<T>> side(boolean which) {
+		ArrayList<Node<T>> tmp = new ArrayList<>();
+		for (int i = 0; i < first.length; i++)
+			if (first[i] == which)
+				tmp.add(graph.getNode(i));
+
+		return Collections.unmodifiableList(tmp);
+	}
+}
@@ -0,0 +1,150 @@
+package graph.algorithms;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import graph.annotations.NotNull;
+import graph.annotations.Nullable;
+import graph.gui.Node;
+
+/**
+ * Topological order and single source shortest or longest paths of a directed
+ * acyclic {@link CsrGraph}. Relaxing the edges of the nodes in topological
+ * order takes linear time and accepts negative weights, the longest paths give
+ * the critical path of a dependency graph.
+ */
+
+public final class DagPaths {
+
+	private DagPaths() {
+	}
+
+	/**
+	 * sort the nodes with Kahn's algorithm
+	 *
+	 * @param g the graph
+	 * @return the node indexes with each edge going to a later node, or null if
+	 *         the graph has a cycle
+	 */
+
+	@Nullable
+	public static int[] topologicalOrder(@NotNull CsrGraph<?> g) {
+		Objects.requireNonNull(g);
+
+		int n = g.size();
+		int[] pending = new int[n];
+		int[] order = new int[n];
+		int tail = 0;
+
+		for (int v = 0; v < n; v++) {
+			pending[v] = g.inDegree(v);
+			if (pending[v] == 0)
+				order[tail++] = v;
+		}
+
+		for (int head = 0; head < tail; head++) {
+			int u = order[head];
+
+			for (int e = g.outStart(u); e < g.outEnd(u); e++)
+				if (--pending[g.target(e)] == 0)
+					order[tail++] = g.target(e);
+		}
+
+		return tail == n ? order : null;
+	}
+
+	/**
+	 * @param g    a weighted acyclic graph
+	 * @param root the root node
+	 * @return distances and shortest path tree
+	 * @throws IllegalArgumentException if root is not in the graph
+	 * @throws IllegalStateException    if the graph has no weights or has a cycle
+	 */
+
+	@NotNull
+	public static <T> ShortestPaths<T> shortest(@NotNull CsrGraph<T> g, @NotNull Node<T> root) {
+		return run(g, root, order(g), false);
+	}
+
+	/**
+	 * @param g    a weighted acyclic graph
+	 * @param root the root node
+	 * @return distances and tree of the longest paths, the unreachable nodes have
+	 *         distance {@link Double#POSITIVE_INFINITY}
+	 * @throws IllegalArgumentException if root is not in the graph
+	 * @throws IllegalStateException    if the graph has no weights or has a cycle
+	 */
+
+	@NotNull
+	public static <T> ShortestPaths<T> longest(@NotNull CsrGraph<T> g, @NotNull Node<T> root) {
+		return run(g, root, order(g), true);
+	}
+
+	/**
+	 * relax the edges in the given order, see {@link #shortest(CsrGraph, Node)}
+	 * and {@link #longest(CsrGraph, Node)}
+	 *
+	 * @param order a topological order of the graph, see
+	 *              {@link #topologicalOrder(CsrGraph)}
+	 */
+
+	@NotNull
+	public static <T> ShortestPaths<T> run(@NotNull CsrGraph<T> g, @NotNull Node<T> root, @NotNull int[] order,
+			boolean longest) {
+		Objects.requireNonNull(g);
+		Objects.requireNonNull(root);
+		Objects.requireNonNull(order);
+
+		if (!g.isWeighted())
+			throw new IllegalStateException("Graph has been built without weight converter");
+
+		int r = g.indexOf(root);
+		if (r == -1)
+			throw new IllegalArgumentException("Invalid node. Node is not in the graph");
+
+		int n = g.size();
+		double[] dist = new double[n];
+		int[] parent = new int[n];
+		Arrays.fill(dist, Double.POSITIVE_INFINITY);
+		Arrays.fill(parent, -1);
+
+		AlgorithmRun run = AlgorithmRun.start(longest ? "DAG longest paths" : "DAG shortest paths", n,
+				g.edgeCount());
+		long iterations = 0;
+		long relaxations = 0;
+
+		dist[r] = 0;
+
+		for (int u : order) {
+			if (dist[u] == Double.POSITIVE_INFINITY)
+				continue;
+
+			iterations++;
+			relaxations += g.outDegree(u);
+
+			for (int e = g.outStart(u); e < g.outEnd(u); e++) {
+				int v = g.target(e);
+				double d = dist[u] + g.weight(e);
+
+				if (dist[v] == Double.POSITIVE_INFINITY || (longest ? d > dist[v] : d < dist[v])) {
+					dist[v] = d;
+					parent[v] = u;
+				}
+			}
+		}
+
+		run.addIterations(iterations);
+		run.addRelaxations(relaxations);
+		run.end();
+
+		return new ShortestPaths<>(g, r, dist, parent, false);
+	}
+
+	private static int[] order(CsrGraph<?> g) {
+		int[] order = topologicalOrder(g);
+		if (order == null)
+			throw new IllegalStateException("Graph is not acyclic");
+
+		return order;
+	}
+}
@@ -0,0 +1,390 @@
+package graph.algorithms;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import graph.annotations.NotNull;
+import graph.gui.Node;
+
+/**
+ * Parallel single source shortest paths with the delta-stepping algorithm of
+ * Meyer and Sanders. Nodes are kept in buckets of width delta, light edges
+ * (weight &lt;= delta) of the current bucket are relaxed in parallel until the
+ * bucket is empty, then the heavy edges of the settled nodes are relaxed once.
+ * Distances are updated with an atomic min on a primitive array and the tree
+ * is rebuilt from the tight edges at the end.
+ */
+
+public final class DeltaStepping {
+
+	// frontier nodes processed by a single task
+	private static final int GRAIN = 1024;
+
+	// max number of bucket slots
+	private static final int MAX_SLOTS = 1 << 20;
+
+	private final CsrGraph<?> g;
+	private final ForkJoinPool pool;
+	private final double delta;
+	private final int n;
+
+	// distances stored as double bits
+	private final AtomicLongArray dist;
+
+	// cyclic array of buckets, bucket k is stored in slot k % buckets.length.
+	// Slots are allocated on first use
+	private final IntList[] buckets;
+	private long queued;
+
+	// slots allocated so far
+	private final IntList used = new IntList();
+
+	// stamp used to skip duplicated nodes in a frontier
+	private final int[] seen;
+	private int phase;
+
+	// edges looked at by the relaxations
+	private long relaxations;
+
+	private DeltaStepping(CsrGraph<?> g, ForkJoinPool pool, double delta, double maxWeight) {
+		this.g = g;
+		this.pool = pool;
+		this.delta = delta;
+		this.n = g.size();
+		this.dist = new AtomicLongArray(n);
+		this.seen = new int[n];
+
+		// updated nodes are at most maxWeight after the current bucket, with fewer
+		// slots a slot can also hold nodes of later buckets
+		this.buckets = new IntList[(int) Math.min(MAX_SLOTS, Math.ceil(maxWeight / delta) + 2)];
+
+		long inf = Double.doubleToLongBits(Double.POSITIVE_INFINITY);
+		for (int i = 0; i < n; i++)
+			dist.set(i, inf);
+	}
+
+	/**
+	 * run delta-stepping on the common fork join pool choosing delta as the max
+	 * edge weight divided by the average degree
+	 *
+	 * @param g    a weighted graph
+	 * @param root the root node
+	 * @return distances and shortest path tree
+	 * @throws IllegalArgumentException if root is not in the graph or an edge has
+	 *                                  a negative weight
+	 * @throws IllegalStateException    if the graph has no weights
+	 */
+
+	@NotNull
+	public static <T> ShortestPaths<T> run(@NotNull CsrGraph<T> g, @NotNull Node<T> root) {
+		return run(g, root, defaultDelta(g), ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * run delta-stepping on the given pool
+	 *
+	 * @param g     a weighted graph
+	 * @param root  the root node
+	 * @param delta the bucket width, must be positive. Runs of empty buckets are
+	 *              skipped, but with a delta much smaller than the weights each
+	 *              node gets its own bucket and the search is sequential
+	 * @param pool  the pool used to relax the edges
+	 * @return distances and shortest path tree
+	 * @throws IllegalArgumentException if root is not in the graph, delta is not
+	 *                                  positive or an edge has a negative weight
+	 * @throws IllegalStateException    if the graph has no weights
+	 */
+
+	@NotNull
+	public static <T> ShortestPaths<T> run(@NotNull CsrGraph<T> g, @NotNull Node<T> root, double delta,
+			@NotNull ForkJoinPool pool) {
+		Objects.requireNonNull(g);
+		Objects.requireNonNull(root);
+		Objects.requireNonNull(pool);
+
+		if (!g.isWeighted())
+			throw new IllegalStateException("Graph has been built without weight converter");
+
+		if (!(delta > 0))
+			throw new IllegalArgumentException("Delta must be positive");
+
+		int r = g.indexOf(root);
+		if (r == -1)
+			throw new IllegalArgumentException("Invalid node. Node is not in the graph");
+
+		double max = 0;
+		for (int e = 0; e < g.edgeCount(); e++) {
+			if (g.weight(e) < 0 || Double.isNaN(g.weight(e)))
+				throw new IllegalArgumentException("Delta-stepping cannot be applied to negative edge weights");
+			max = Math.max(max, g.weight(e));
+		}
+
+		DeltaStepping ds = new DeltaStepping(g, pool, delta, max);
+		AlgorithmRun run = AlgorithmRun.start("Delta-stepping", ds.n, g.edgeCount(), "light edges", "heavy edges",
+				"tree");
+		ds.search(r, run);
+
+		run.phase(2);
+		double[] d = new double[ds.n];
+		for (int i = 0; i < ds.n; i++)
+			d[i] = ds.get(i);
+
+		int[] parent = ds.buildTree(r, d);
+
+		run.addRelaxations(ds.relaxations);
+		run.end();
+
+		return new ShortestPaths<>(g, r, d, parent, false);
+	}
+
+	/**
+	 * @return max weight divided by the average out degree, or 1 if the graph has
+	 *         no positive weights
+	 */
+
+	public static double defaultDelta(@NotNull CsrGraph<?> g) {
+		double max = 0;
+		for (int e = 0; e < g.edgeCount(); e++)
+			max = Math.max(max, g.weight(e));
+
+		if (max <= 0 || g.edgeCount() == 0)
+			return 1;
+
+		return max / Math.max(1, (double) g.edgeCount() / g.size());
+	}
+
+	private void search(int root, AlgorithmRun run) {
+		dist.set(root, Double.doubleToLongBits(0));
+		add(root);
+
+		IntList settled = new IntList();
+		long empty = 0;
+
+		for (long k = 0; queued > 0; k++) {
+			IntList bucket = buckets[(int) (k % buckets.length)];
+			int[] frontier = bucket == null ? new int[0] : takeFrontier(bucket, k);
+
+			if (frontier.length == 0) {
+				// a small delta leaves long runs of empty buckets. After walking as
+				// many of them as a scan of the queued nodes costs, jump to the first
+				// bucket still queued
+				if (++empty >= used.size + queued) {
+					k = firstBucket(k) - 1;
+					empty = 0;
+				}
+
+				continue;
+			}
+
+			empty = 0;
+			settled.size = 0;
+			run.addIterations(1);
+			run.phase(0);
+
+			// relax light edges until no node is moved back into the bucket
+			for (; frontier.length > 0; frontier = takeFrontier(bucket, k)) {
+				settled.addAll(frontier);
+				relax(frontier, true);
+			}
+
+			run.phase(1);
+			relax(settled.toArray(), false);
+		}
+	}
+
+	/**
+	 * remove from a slot the nodes which belong to bucket k, without duplicates.
+	 * Stale copies of nodes moved to a lower bucket are dropped and nodes of later
+	 * buckets sharing the slot are kept
+	 */
+
+	private int[] takeFrontier(IntList bucket, long k) {
+		phase++;
+
+		IntList frontier = new IntList();
+		int kept = 0;
+
+		for (int i = 0; i < bucket.size; i++) {
+			int v = bucket.data[i];
+			long b = bucketOf(get(v));
+
+			if (b > k)
+				bucket.data[kept++] = v;
+			else if (b == k && seen[v] != phase) {
+				seen[v] = phase;
+				frontier.add(v);
+			}
+		}
+
+		queued -= bucket.size - kept;
+		bucket.size = kept;
+
+		return frontier.toArray();
+	}
+
+	/**
+	 * drop the stale copies of nodes settled before bucket k
+	 *
+	 * @return the first bucket after k holding a node
+	 */
+
+	private long firstBucket(long k) {
+		long first = Long.MAX_VALUE;
+
+		for (int i = 0; i < used.size; i++) {
+			IntList bucket = buckets[used.data[i]];
+			int kept = 0;
+
+			for (int j = 0; j < bucket.size; j++) {
+				int v = bucket.data[j];
+				long b = bucketOf(get(v));
+
+				if (b > k) {
+					bucket.data[kept++] = v;
+					first = Math.min(first, b);
+				}
+			}
+
+			queued -= bucket.size - kept;
+			bucket.size = kept;
+		}
+
+		return queued == 0 ? k : first;
+	}
+
+	private void relax(int[] frontier, boolean light) {
+		int chunks = Parallel.chunks(frontier.length, GRAIN);
+		IntList[] updated = new IntList[chunks];
+		long[] scanned = new long[chunks];
+
+		Parallel.forEach(pool, chunks, c -> {
+			IntList local = new IntList();
+			long scans = 0;
+
+			int end = Math.min(frontier.length, (c + 1) * GRAIN);
+			for (int i = c * GRAIN; i < end; i++) {
+				int u = frontier[i];
+				double du = get(u);
+				scans += g.outDegree(u);
+
+				for (int e = g.outStart(u); e < g.outEnd(u); e++) {
+					double w = g.weight(e);
+					if ((w <= delta) != light)
+						continue;
+
+					int v = g.target(e);
+					if (min(v, du + w))
+						local.add(v);
+				}
+			}
+
+			updated[c] = local;
+			scanned[c] = scans;
+		});
+
+		for (long scans : scanned)
+			relaxations += scans;
+
+		// move updated nodes to their new bucket, stale copies are skipped later
+		for (IntList list : updated)
+			for (int i = 0; i < list.size; i++)
+				add(list.data[i]);
+	}
+
+	private void add(int v) {
+		int slot = (int) (bucketOf(get(v)) % buckets.length);
+		if (buckets[slot] == null) {
+			buckets[slot] = new IntList();
+			used.add(slot);
+		}
+
+		buckets[slot].add(v);
+		queued++;
+	}
+
+	/**
+	 * rebuild the tree from the tight edges. A node with a tight edge from a
+	 * strictly closer node takes it in parallel, nodes reached only through zero
+	 * weight edges are resolved with a sequential search
+	 */
+
+	private int[] buildTree(int root, double[] d) {
+		int[] parent = new int[n];
+		Arrays.fill(parent, -1);
+
+		boolean[] pending = new boolean[n];
+		Parallel.forEach(pool, Parallel.chunks(n, GRAIN), c -> {
+			int end = Math.min(n, (c + 1) * GRAIN);
+
+			for (int v = c * GRAIN; v < end; v++) {
+				if (v == root || d[v] == Double.POSITIVE_INFINITY)
+					continue;
+
+				for (int i = g.inStart(v); i < g.inEnd(v); i++) {
+					int u = g.source(i);
+					if (d[u] < d[v] && d[u] + g.weight(g.inEdge(i)) == d[v]) {
+						parent[v] = u;
+						break;
+					}
+				}
+
+				pending[v] = parent[v] == -1;
+			}
+		});
+
+		ArrayDeque<Integer> queue = new ArrayDeque<>();
+		for (int v = 0; v < n; v++)
+			if (pending[v])
+				for (int i = g.inStart(v); i < g.inEnd(v); i++) {
+					int u = g.source(i);
+					if (!pending[u] && d[u] + g.weight(g.inEdge(i)) == d[v]) {
+						parent[v] = u;
+						pending[v] = false;
+						queue.add(v);
+						break;
+					}
+				}
+
+		while (!queue.isEmpty()) {
+			int u = queue.poll();
+
+			for (int e = g.outStart(u); e < g.outEnd(u); e++) {
+				int v = g.target(e);
+				if (pending[v] && d[u] + g.weight(e) == d[v]) {
+					parent[v] = u;
+					pending[v] = false;
+					queue.add(v);
+				}
+			}
+		}
+
+		return parent;
+	}
+
+	private long bucketOf(double d) {
+		return (long) (d / delta);
+	}
+
+	private double get(int v) {
+		return Double.longBitsToDouble(dist.get(v));
+	}
+
+	/**
+	 * atomically lower the distance of a node
+	 *
+	 * @return true if the distance has been lowered
+	 */
+
+	private boolean min(int v, double d) {
+		while (true) {
+			long old = dist.get(v);
+			if (Double.longBitsToDouble(old) <= d)
+				return false;
+			if (dist.compareAndSet(v, old, Double.doubleToLongBits(d)))
+				return true;
+		}
+	}
+}
@@ -0,0 +1,215 @@
+package graph.algorithms;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import graph.annotations.NotNull;
+import graph.dataclasses.EdgeType;
+import graph.gui.Node;
+
+/**
+ * Depth first search on a {@link CsrGraph} with an explicit stack, so long
+ * paths do not overflow the call stack. Each node on the stack keeps the next
+ * out edge to explore, every node and edge is visited once in O(V + E).
+ */
+
+public final class Dfs {
+
+	private Dfs() {
+	}
+
+	/**
+	 * search the whole graph, a new tree is started from each node not reached
+	 * yet in node index order
+	 *
+	 * @param g the graph
+	 * @return times, parents and edge classes of the depth first forest
+	 */
+
+	@NotNull
+	public static <T> DfsResult<T> run(@NotNull CsrGraph<T> g) {
+		Objects.requireNonNull(g);
+
+		Search<T> s = new Search<>(g);
+		for (int r = 0; r < g.size(); r++)
+			if (s.discovery[r] == DfsResult.UNREACHED)
+				s.visit(r);
+
+		s.end();
+		return s.result();
+	}
+
+	/**
+	 * search the nodes reachable from a root
+	 *
+	 * @param g    the graph
+	 * @param root the root node
+	 * @return times, parents and edge classes of the depth first tree
+	 * @throws IllegalArgumentException if root is not in the graph
+	 */
+
+	@NotNull
+	public static <T> DfsResult<T> run(@NotNull CsrGraph<T> g, @NotNull Node<T> root) {
+		Objects.requireNonNull(g);
+		Objects.requireNonNull(root);
+
+		int r = g.indexOf(root);
+		if (r == -1)
+			throw new IllegalArgumentException("Invalid node. Node is not in the graph");
+
+		Search<T> s = new Search<>(g);
+		s.visit(r);
+
+		s.end();
+		return s.result();
+	}
+
+	/**
+	 * find the bridges and the articulation points of an undirected graph, where
+	 * each edge u -&gt; v has a twin v -&gt; u, with the low link of the depth
+	 * first forest. The low link of a node is the smallest discovery time reached
+	 * from its subtree with a single edge that is not the edge to the parent
+	 *
+	 * @param g an undirected graph
+	 * @return bridges and articulation points
+	 */
+
+	@NotNull
+	public static <T> Biconnectivity<T> biconnectivity(@NotNull CsrGraph<T> g) {
+		AlgorithmRun run = AlgorithmRun.start("Biconnectivity", g.size(), g.edgeCount(), "search", "low links");
+		run.phase(0);
+		DfsResult<T> dfs = run(g);
+		run.phase(1);
+
+		int n = g.size();
+		int[] disc = dfs.getDiscoveryTimes();
+		int[] parent = dfs.getParents();
+		int[] low = new int[n];
+		int[] children = new int[n];
+		boolean[] articulation = new boolean[n];
+		IntList bridges = new IntList();
+
+		// children are finished before their parent
+		for (int u : dfs.getPostorder()) {
+			low[u] = disc[u];
+
+			for (int e = g.outStart(u); e < g.outEnd(u); e++) {
+				int v = g.target(e);
+
+				if (dfs.getEdgeType(e) == EdgeType.TREE) {
+					low[u] = Math.min(low[u], low[v]);
+					children[u]++;
+
+					if (low[v] > disc[u])
+						bridges.add(e);
+
+					if (parent[u] != -1 && low[v] >= disc[u])
+						articulation[u] = true;
+				} else if (v != parent[u])
+					low[u] = Math.min(low[u], disc[v]);
+			}
+
+			// a root separates its subtrees
+			if (parent[u] == -1 && children[u] > 1)
+				articulation[u] = true;
+		}
+
+		run.addIterations(n);
+		run.addRelaxations(g.edgeCount());
+		run.end();
+
+		return new Biconnectivity<>(g, articulation, bridges.toArray());
+	}
+
+	/**
+	 * state of a search, trees are added by {@link #visit(int)}
+	 */
+
+	private static final class Search<T> {
+
+		private final CsrGraph<T> g;
+		private final int[] discovery;
+		private final int[] finish;
+		private final int[] parent;
+		private final byte[] type;
+
+		// next out edge of each node on the stack
+		private final int[] next;
+		private final int[] stack;
+		private final IntList preorder = new IntList();
+		private final IntList postorder = new IntList();
+		private int time;
+		private long relaxations;
+		private final AlgorithmRun run;
+
+		private Search(CsrGraph<T> g) {
+			int n = g.size();
+
+			this.g = g;
+			this.discovery = new int[n];
+			this.finish = new int[n];
+			this.parent = new int[n];
+			this.type = new byte[g.edgeCount()];
+			this.next = new int[n];
+			this.stack = new int[n];
+
+			Arrays.fill(discovery, DfsResult.UNREACHED);
+			Arrays.fill(finish, DfsResult.UNREACHED);
+			Arrays.fill(parent, -1);
+			Arrays.fill(type, (byte) -1);
+
+			run = AlgorithmRun.start("DFS", n, g.edgeCount());
+		}
+
+		private void visit(int r) {
+			int top = 0;
+			discover(r);
+			stack[top++] = r;
+
+			while (top > 0) {
+				int u = stack[top - 1];
+
+				if (next[u] == g.outEnd(u)) {
+					finish[u] = time++;
+					postorder.add(u);
+					top--;
+					continue;
+				}
+
+				int e = next[u]++;
+				int v = g.target(e);
+				relaxations++;
+
+				// an open node is an ancestor, a finished one is a descendant if it
+				// has been discovered later
+				if (discovery[v] == DfsResult.UNREACHED) {
+					type[e] = (byte) EdgeType.TREE.ordinal();
+					parent[v] = u;
+					discover(v);
+					stack[top++] = v;
+				} else if (finish[v] == DfsResult.UNREACHED)
+					type[e] = (byte) EdgeType.BACK.ordinal();
+				else if (discovery[v] > discovery[u])
+					type[e] = (byte) EdgeType.FORWARD.ordinal();
+				else
+					type[e] = (byte) EdgeType.CROSS.ordinal();
+			}
+		}
+
+		private void discover(int v) {
+			discovery[v] = time++;
+			next[v] = g.outStart(v);
+			preorder.add(v);
+		}
+
+		private void end() {
+			run.addIterations(preorder.size);
+			run.addRelaxations(relaxations);
+			run.end();
+		}
+
+		private DfsResult<T> result() {
+			return new DfsResult<>(g, discovery, finish, parent, type, preorder.toArray(), postorder.toArray());
+		}
+	}
+}
@@ -0,0 +1,160 @@
+package graph.algorithms;
+
+import graph.annotations.NotNull;
+import graph.annotations.Nullable;
+import graph.dataclasses.EdgeType;
+import graph.gui.Node;
+
+/**
+ * Result of a depth first search. Discovery and finish times and parents are
+ * stored in primitive arrays indexed by the node index of the searched
+ * {@link CsrGraph}, the class of each edge is indexed by edge id. Times are
+ * taken from a single clock, so the interval of a node contains the intervals
+ * of its descendants.
+ *
+ * @param <T> the node value type
+ */
+
+public final class DfsResult<T> {
+
+	/**
+	 * time of the nodes not reached by the search
+	 */
+	public static final int UNREACHED = -1;
+
+	private static final EdgeType[] TYPES = EdgeType.values();
+
+	private final CsrGraph<T> graph;
+	private final int[] discovery;
+	private final int[] finish;
+	private final int[] parent;
+	private final byte[] type;
+	private final int[] preorder;
+	private final int[] postorder;
+
+	DfsResult(CsrGraph<T> graph, int[] discovery, int[] finish, int[] parent, byte[] type, int[] preorder,
+			int[] postorder) {
+		this.graph = graph;
+		this.discovery = discovery;
+		this.finish = finish;
+		this.parent = parent;
+		this.type = type;
+		this.preorder = preorder;
+		this.postorder = postorder;
+	}
+
+	@NotNull
+	public CsrGraph<T> getGraph() {
+		return graph;
+	}
+
+	/**
+	 * @return the number of nodes reached by the search
+	 */
+
+	public int getReachedCount() {
+		return preorder.length;
+	}
+
+	public boolean isReachable(@NotNull Node<T> n) {
+		return getDiscoveryTime(n) != UNREACHED;
+	}
+
+	/**
+	 * @return the time the node has been reached or {@link #UNREACHED}
+	 */
+
+	public int getDiscoveryTime(@NotNull Node<T> n) {
+		int i = graph.indexOf(n);
+		return i == -1 ? UNREACHED : discovery[i];
+	}
+
+	/**
+	 * @return the time all the edges of the node have been explored or
+	 *         {@link #UNREACHED}
+	 */
+
+	public int getFinishTime(@NotNull Node<T> n) {
+		int i = graph.indexOf(n);
+		return i == -1 ? UNREACHED : finish[i];
+	}
+
+	@Nullable
+	public Node<T> getParent(@NotNull Node<T> n) {
+		int i = graph.indexOf(n);
+		return i == -1 || parent[i] == -1 ? null : graph.getNode(parent[i]);
+	}
+
+	/**
+	 * @param e the id of an edge in the csr graph
+	 * @return the class of the edge or null if the search has not explored it
+	 */
+
+	@Nullable
+	public EdgeType getEdgeType(int e) {
+		return type[e] == -1 ? null : TYPES[type[e]];
+	}
+
+	/**
+	 * @return the ids of the edges of the given class
+	 */
+
+	@NotNull
+	public int[] getEdgeIds(@NotNull EdgeType t) {
+		IntList tmp = new IntList();
+		for (int e = 0; e < type.length; e++)
+			if (type[e] == t.ordinal())
+				tmp.add(e);
+
+		return tmp.toArray();
+	}
+
+	/**
+	 * @return the reached nodes in order of discovery. The array is not copied
+	 */
+
+	@NotNull
+	public int[] getPreorder() {
+		return preorder;
+	}
+
+	/**
+	 * @return the reached nodes in order of finish, the reverse is a topological
+	 *         order of an acyclic graph. The array is not copied
+	 */
+
+	@NotNull
+	public int[] getPostorder() {
+		return postorder;
+	}
+
+	/**
+	 * @return the discovery time of each node, {@link #UNREACHED} for the
+	 *         unreached nodes. The array is not copied
+	 */
+
+	@NotNull
+	public int[] getDiscoveryTimes() {
+		return discovery;
+	}
+
+	/**
+	 * @return the finish time of each node, {@link #UNREACHED} for the unreached
+	 *         nodes. The array is not copied
+	 */
+
+	@NotNull
+	public int[] getFinishTimes() {
+		return finish;
+	}
+
+	/**
+	 * @return the parent index of each node, -1 for the roots and the unreached
+	 *         nodes. The array is not copied
+	 */
+
+	@NotNull
+	public int[] getParents() {
+		return parent;
+	}
+}
@@ -0,0 +1,80 @@
+package graph.algorithms;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import graph.annotations.NotNull;
+import graph.gui.Node;
+
+/**
+ * Sequential Dijkstra on a {@link CsrGraph} with an indexed binary heap. No
+ * check is done for negative weights, a node whose distance is lowered after
+ * extraction is inserted again.
+ */
+
+public final class Dijkstra {
+
+	private Dijkstra() {
+	}
+
+	/**
+	 * @param g    a weighted graph
+	 * @param root the root node
+	 * @return distances and shortest path tree
+	 * @throws IllegalArgumentException if root is not in the graph
+	 * @throws IllegalStateException    if the graph has no weights
+	 */
+
+	@NotNull
+	public static <T> ShortestPaths<T> run(@NotNull CsrGraph<T> g, @NotNull Node<T> root) {
+		Objects.requireNonNull(g);
+		Objects.requireNonNull(root);
+
+		if (!g.isWeighted())
+			throw new IllegalStateException("Graph has been built without weight converter");
+
+		int r = g.indexOf(root);
+		if (r == -1)
+			throw new IllegalArgumentException("Invalid node. Node is not in the graph");
+
+		int n = g.size();
+		double[] dist = new double[n];
+		int[] parent = new int[n];
+		Arrays.fill(dist, Double.POSITIVE_INFINITY);
+		Arrays.fill(parent, -1);
+
+		AlgorithmRun run = AlgorithmRun.start("Dijkstra", n, g.edgeCount());
+		IndexedHeap heap = new IndexedHeap(n);
+		dist[r] = 0;
+		heap.offer(r, 0);
+
+		// counted in locals, which cost nothing next to the heap
+		long polls = 0;
+		long offers = 1;
+		long relaxations = 0;
+
+		while (!heap.isEmpty()) {
+			int u = heap.poll();
+			polls++;
+			relaxations += g.outDegree(u);
+
+			for (int e = g.outStart(u); e < g.outEnd(u); e++) {
+				int v = g.target(e);
+				double d = dist[u] + g.weight(e);
+
+				if (d < dist[v]) {
+					dist[v] = d;
+					parent[v] = u;
+					heap.offer(v, d);
+					offers++;
+				}
+			}
+		}
+
+		run.addRelaxations(relaxations);
+		run.addHeapOperations(polls + offers);
+		run.end();
+
+		return new ShortestPaths<>(g, r, dist, parent, false);
+	}
+}
@@ -0,0 +1,299 @@
+package graph.algorithms;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import graph.annotations.NotNull;
+import graph.gui.Node;
+
+/**
+ * Level synchronous breadth first search which switches between top-down steps
+ * (expand the frontier over outgoing edges) and bottom-up steps (every
+ * unvisited node looks for a parent in the frontier over its incoming edges),
+ * as described by Beamer et al. Each level is processed in parallel on a fork
+ * join pool.
+ */
+
+public final class DirectionOptimizingBfs {
+
+	// switch to bottom-up when the frontier edges exceed unexplored edges / ALPHA
+	private static final int ALPHA = 14;
+	// switch back to top-down when the frontier is smaller than nodes / BETA
+	private static final int BETA = 24;
+
+	// nodes processed by a single task, multiple of 64 to own whole bitmap words
+	private static final int GRAIN = 4096;
+
+	private final CsrGraph<?> g;
+	private final ForkJoinPool pool;
+	private final int n;
+
+	private final int[] parent;
+	private final int[] depth;
+	private final AtomicLongArray visited;
+
+	// size of the last frontier and sum of the out degrees of its nodes
+	private int frontierSize;
+	private long frontierEdges;
+
+	// edges looked at by the steps
+	private long relaxations;
+
+	private DirectionOptimizingBfs(CsrGraph<?> g, ForkJoinPool pool) {
+		this.g = g;
+		this.pool = pool;
+		this.n = g.size();
+		this.parent = new int[n];
+		this.depth = new int[n];
+		this.visited = new AtomicLongArray((n + 63) >>> 6);
+
+		Arrays.fill(parent, -1);
+		Arrays.fill(depth, BfsResult.UNREACHED);
+	}
+
+	/**
+	 * run the search on the common fork join pool
+	 *
+	 * @param g    the graph
+	 * @param root the root node
+	 * @return parents and depths of the nodes
+	 * @throws IllegalArgumentException if root is not in the graph
+	 */
+
+	@NotNull
+	public static <T> BfsResult<T> run(@NotNull CsrGraph<T> g, @NotNull Node<T> root) {
+		return run(g, root, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * run the search on the given pool
+	 *
+	 * @param g    the graph
+	 * @param root the root node
+	 * @param pool the pool used to process each level
+	 * @return parents and depths of the nodes
+	 * @throws IllegalArgumentException if root is not in the graph
+	 */
+
+	@NotNull
+	public static <T> BfsResult<T> run(@NotNull CsrGraph<T> g, @NotNull Node<T> root, @NotNull ForkJoinPool pool) {
+		Objects.requireNonNull(g);
+		Objects.requireNonNull(root);
+		Objects.requireNonNull(pool);
+
+		int r = g.indexOf(root);
+		if (r == -1)
+			throw new IllegalArgumentException("Invalid node. Node is not in the graph");
+
+		DirectionOptimizingBfs bfs = new DirectionOptimizingBfs(g, pool);
+		AlgorithmRun run = AlgorithmRun.start("Direction optimizing BFS", g.size(), g.edgeCount(), "top down",
+				"bottom up");
+		int reached = bfs.search(r, run);
+
+		run.addRelaxations(bfs.relaxations);
+		run.end();
+
+		return new BfsResult<>(g, r, bfs.parent, bfs.depth, reached);
+	}
+
+	private int search(int root, AlgorithmRun run) {
+		visit(root);
+		depth[root] = 0;
+
+		int[] queue = { root };
+		long[] bitmap = null;
+
+		frontierSize = 1;
+		frontierEdges = g.outDegree(root);
+
+		long unexplored = g.edgeCount() - frontierEdges;
+		int reached = 1;
+
+		for (int level = 0; frontierSize > 0; level++) {
+
+			// choose the direction of the next step
+			if (bitmap == null && frontierEdges > unexplored / ALPHA) {
+				bitmap = toBitmap(queue);
+				queue = null;
+			} else if (bitmap != null && frontierSize < n / BETA) {
+				queue = toQueue(bitmap);
+				bitmap = null;
+			}
+
+			run.phase(bitmap == null ? 0 : 1);
+			run.addIterations(1);
+
+			if (bitmap == null) {
+				relaxations += frontierEdges;
+				queue = topDown(queue, level);
+			} else
+				bitmap = bottomUp(bitmap, level);
+
+			reached += frontierSize;
+			unexplored -= frontierEdges;
+		}
+
+		return reached;
+	}
+
+	private int[] topDown(int[] frontier, int level) {
+		int chunks = Parallel.chunks(frontier.length, GRAIN);
+		int[][] found = new int[chunks][];
+		int[] counts = new int[chunks];
+		long[] edges = new long[chunks];
+
+		Parallel.forEach(pool, chunks, c -> {
+			int[] local = new int[16];
+			int count = 0;
+			long degrees = 0;
+
+			int end = Math.min(frontier.length, (c + 1) * GRAIN);
+			for (int i = c * GRAIN; i < end; i++) {
+				int u = frontier[i];
+
+				for (int e = g.outStart(u); e < g.outEnd(u); e++) {
+					int v = g.target(e);
+
+					// claim the node, only one thread can win
+					if (isVisited(v) || !visit(v))
+						continue;
+
+					parent[v] = u;
+					depth[v] = level + 1;
+					degrees += g.outDegree(v);
+
+					if (count == local.length)
+						local = Arrays.copyOf(local, count * 2);
+					local[count++] = v;
+				}
+			}
+
+			found[c] = local;
+			counts[c] = count;
+			edges[c] = degrees;
+		});
+
+		// concatenate the partial frontiers
+		int size = 0;
+		long degrees = 0;
+		for (int c = 0; c < chunks; c++) {
+			size += counts[c];
+			degrees += edges[c];
+		}
+
+		int[] next = new int[size];
+		int pos = 0;
+		for (int c = 0; c < chunks; c++) {
+			System.arraycopy(found[c], 0, next, pos, counts[c]);
+			pos += counts[c];
+		}
+
+		frontierSize = size;
+		frontierEdges = degrees;
+
+		return next;
+	}
+
+	private long[] bottomUp(long[] frontier, int level) {
+		long[] next = new long[frontier.length];
+		int chunks = Parallel.chunks(n, GRAIN);
+		int[] counts = new int[chunks];
+		long[] edges = new long[chunks];
+		long[] scanned = new long[chunks];
+
+		Parallel.forEach(pool, chunks, c -> {
+			int count = 0;
+			long degrees = 0;
+			long scans = 0;
+
+			// GRAIN is a multiple of 64 so the words written here belong only to this
+			// chunk
+			int end = Math.min(n, (c + 1) * GRAIN);
+			for (int v = c * GRAIN; v < end; v++) {
+				if (isVisited(v))
+					continue;
+
+				for (int i = g.inStart(v); i < g.inEnd(v); i++) {
+					int u = g.source(i);
+					scans++;
+
+					if ((frontier[u >>> 6] & (1L << u)) != 0) {
+						parent[v] = u;
+						depth[v] = level + 1;
+						next[v >>> 6] |= 1L << v;
+						visit(v);
+
+						count++;
+						degrees += g.outDegree(v);
+						break;
+					}
+				}
+			}
+
+			counts[c] = count;
+			edges[c] = degrees;
+			scanned[c] = scans;
+		});
+
+		int size = 0;
+		long degrees = 0;
+		for (int c = 0; c < chunks; c++) {
+			size += counts[c];
+			degrees += edges[c];
+			relaxations += scanned[c];
+		}
+
+		frontierSize = size;
+		frontierEdges = degrees;
+
+		return next;
+	}
+
+	private long[] toBitmap(int[] queue) {
+		long[] bitmap = new long[(n + 63) >>> 6];
+		for (int v : queue)
+			bitmap[v >>> 6] |= 1L << v;
+
+		return bitmap;
+	}
+
+	private int[] toQueue(long[] bitmap) {
+		int[] queue = new int[frontierSize];
+		int pos = 0;
+
+		for (int w = 0; w < bitmap.length; w++) {
+			long word = bitmap[w];
+			while (word != 0) {
+				queue[pos++] = (w << 6) + Long.numberOfTrailingZeros(word);
+				word &= word - 1;
+			}
+		}
+
+		return queue;
+	}
+
+	private boolean isVisited(int v) {
+		return (visited.get(v >>> 6) & (1L << v)) != 0;
+	}
+
+	/**
+	 * atomically mark a node as visited
+	 *
+	 * @return true if the node was not visited before
+	 */
+
+	private boolean visit(int v) {
+		int w = v >>> 6;
+		long bit = 1L << v;
+
+		while (true) {
+			long old = visited.get(w);
+			if ((old & bit) != 0)
+				return false;
+			if (visited.compareAndSet(w, old, old | bit))
+				return true;
+		}
+	}
+}
@@ -0,0 +1,126 @@
+package graph.algorithms;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import graph.annotations.NotNull;
+import graph.annotations.Nullable;
+import graph.gui.Node;
+
+/**
+ * Result of an all pairs shortest path algorithm. For each pair of nodes the
+ * matrix stores the distance and the next node on a shortest path, so any path
+ * can be rebuilt without running the algorithm again. Large matrices can be
+ * backed by a memory mapped file, in that case {@link #close()} releases it.
+ *
+ * @param <T> the node value type
+ */
+
+public final class DistanceMatrix<T> implements AutoCloseable {
+
+	private final CsrGraph<T> graph;
+	private final MatrixStorage storage;
+
+	DistanceMatrix(CsrGraph<T> graph, MatrixStorage storage) {
+		this.graph = graph;
+		this.storage = storage;
+	}
+
+	@NotNull
+	public CsrGraph<T> getGraph() {
+		return graph;
+	}
+
+	public int size() {
+		return storage.n;
+	}
+
+	/**
+	 * @return true if the matrix is stored in a memory mapped file
+	 */
+
+	public boolean isMapped() {
+		return storage.isMapped();
+	}
+
+	/**
+	 * @return the distance between the nodes of index i and j or
+	 *         {@link Double#POSITIVE_INFINITY} if j is not reachable from i
+	 */
+
+	public double getDistance(int i, int j) {
+		return storage.dist(i, j);
+	}
+
+	/**
+	 * @return the index of the node after i on a shortest path to j, -1 if i == j
+	 *         or j is not reachable
+	 */
+
+	public int getNextHop(int i, int j) {
+		return storage.next(i, j);
+	}
+
+	/**
+	 * @throws IllegalArgumentException if a node is not in the graph
+	 */
+
+	public double getDistance(@NotNull Node<T> from, @NotNull Node<T> to) {
+		return storage.dist(index(from), index(to));
+	}
+
+	/**
+	 * @throws IllegalArgumentException if a node is not in the graph
+	 */
+
+	@Nullable
+	public Node<T> getNextHop(@NotNull Node<T> from, @NotNull Node<T> to) {
+		int next = storage.next(index(from), index(to));
+		return next == -1 ? null : graph.getNode(next);
+	}
+
+	/**
+	 * get a shortest path between 2 nodes
+	 *
+	 * @return the nodes of the path, from and to included, or an empty list if to
+	 *         is not reachable
+	 * @throws IllegalArgumentException if a node is not in the graph
+	 */
+
+	@NotNull
+	public List<Node<T>> getPath(@NotNull Node<T> from, @NotNull Node<T> to) {
+		int i = index(from);
+		int j = index(to);
+
+		if (storage.dist(i, j) == Double.POSITIVE_INFINITY)
+			return Collections.emptyList();
+
+		ArrayList<Node<T>> path = new ArrayList<>();
+		path.add(from);
+
+		while (i != j) {
+			i = storage.next(i, j);
+			path.add(graph.getNode(i));
+		}
+
+		return path;
+	}
+
+	/**
+	 * release the mapped file, if any. The matrix cannot be used after this call
+	 */
+
+	@Override
+	public void close() {
+		storage.close();
+	}
+
+	private int index(Node<T> n) {
+		int i = graph.indexOf(n);
+		if (i == -1)
+			throw new IllegalArgumentException("Invalid node. Node is not in the graph");
+
+		return i;
+	}
+}
@@ -0,0 +1,111 @@
+package graph.algorithms;
+
+import graph.annotations.NotNull;
+import graph.gui.Node;
+
+/**
+ * Result of a flow algorithm. The flow of each edge is stored in a primitive
+ * array indexed by the edge index of the {@link CsrGraph}. A cancelled result
+ * holds the feasible flow found before the cancellation.
+ *
+ * @param <T> the node value type
+ */
+
+public final class FlowResult<T> {
+
+	private final CsrGraph<T> graph;
+	private final int[] flow;
+	private final long value;
+	private final long cost;
+	private final long augmentations;
+	private final boolean[] sourceSide;
+	private final boolean cancelled;
+
+	FlowResult(CsrGraph<T> graph, int[] flow, long value, long cost, long augmentations, boolean[] sourceSide,
+			boolean cancelled) {
+		this.graph = graph;
+		this.flow = flow;
+		this.value = value;
+		this.cost = cost;
+		this.augmentations = augmentations;
+		this.sourceSide = sourceSide;
+		this.cancelled = cancelled;
+	}
+
+	@NotNull
+	public CsrGraph<T> getGraph() {
+		return graph;
+	}
+
+	/**
+	 * @return true if the algorithm has been cancelled before the end
+	 */
+
+	public boolean isCancelled() {
+		return cancelled;
+	}
+
+	/**
+	 * @return the value of the flow, the initial flow included
+	 */
+
+	public long getValue() {
+		return value;
+	}
+
+	/**
+	 * @return the total cost of the flow sent, the sum of flow times cost over the
+	 *         edges, 0 for the max flow algorithms. FXGraph.minFlow returns the
+	 *         sum of the unit costs of its paths instead
+	 */
+
+	public long getCost() {
+		return cost;
+	}
+
+	public long getAugmentations() {
+		return augmentations;
+	}
+
+	/**
+	 * @return the flow on the edge with the given index
+	 */
+
+	public int getFlow(int e) {
+		return flow[e];
+	}
+
+	/**
+	 * @return the flow on the edge from -&gt; to, 0 if there is no such edge
+	 */
+
+	public int getFlow(@NotNull Node<T> from, @NotNull Node<T> to) {
+		int u = graph.indexOf(from);
+		int v = graph.indexOf(to);
+		if (u == -1 || v == -1)
+			return 0;
+
+		int e = graph.findEdge(u, v);
+		return e == -1 ? 0 : flow[e];
+	}
+
+	/**
+	 * @return true if the node is reachable from the source in the residual
+	 *         network. For a complete max flow these nodes are the source side
+	 *         of a minimum cut
+	 */
+
+	public boolean isOnSourceSide(@NotNull Node<T> n) {
+		int i = graph.indexOf(n);
+		return i != -1 && sourceSide != null && sourceSide[i];
+	}
+
+	/**
+	 * @return the flow of each edge. The array is not copied
+	 */
+
+	@NotNull
+	public int[] getFlows() {
+		return flow;
+	}
+}
@@ -0,0 +1,150 @@
+package graph.algorithms;
+
+import java.util.Arrays;
+
+/**
+ * Binary min heap of node indexes in [0, capacity) with double keys and
+ * decrease key. Positions are tracked in a primitive array so the heap can be
+ * cleared and reused without allocations.
+ */
+
+final class IndexedHeap {
+
+	private final int[] heap;
+	private final int[] pos;
+	private final double[] key;
+	private int size;
+
+	IndexedHeap(int capacity) {
+		heap = new int[capacity];
+		pos = new int[capacity];
+		key = new double[capacity];
+
+		Arrays.fill(pos, -1);
+	}
+
+	boolean isEmpty() {
+		return size == 0;
+	}
+
+	int size() {
+		return size;
+	}
+
+	boolean contains(int v) {
+		return pos[v] != -1;
+	}
+
+	double minKey() {
+		return key[heap[0]];
+	}
+
+	double keyOf(int v) {
+		return key[v];
+	}
+
+	/**
+	 * insert a node or lower its key
+	 *
+	 * @return false if the node is already in the heap with a lower or equal key
+	 */
+
+	boolean offer(int v, double k) {
+		if (pos[v] == -1) {
+			pos[v] = size;
+			heap[size++] = v;
+		} else if (k >= key[v])
+			return false;
+
+		key[v] = k;
+		up(pos[v]);
+		return true;
+	}
+
+	/**
+	 * change the key of a node in the heap in any direction
+	 */
+
+	void update(int v, double k) {
+		double old = key[v];
+		key[v] = k;
+
+		if (k < old)
+			up(pos[v]);
+		else
+			down(pos[v]);
+	}
+
+	int poll() {
+		int min = heap[0];
+		removeAt(0);
+		return min;
+	}
+
+	/**
+	 * remove a node from the heap if present
+	 */
+
+	void remove(int v) {
+		if (pos[v] != -1)
+			removeAt(pos[v]);
+	}
+
+	void clear() {
+		for (int i = 0; i < size; i++)
+			pos[heap[i]] = -1;
+
+		size = 0;
+	}
+
+	private void removeAt(int i) {
+		int v = heap[i];
+		pos[v] = -1;
+		size--;
+
+		if (i == size)
+			return;
+
+		heap[i] = heap[size];
+		pos[heap[i]] = i;
+
+		up(i);
+		down(pos[heap[i]]);
+	}
+
+	private void up(int i) {
+		int v = heap[i];
+		while (i > 0) {
+			int p = (i - 1) >>> 1;
+			if (key[heap[p]] <= key[v])
+				break;
+
+			heap[i] = heap[p];
+			pos[heap[i]] = i;
+			i = p;
+		}
+
+		heap[i] = v;
+		pos[v] = i;
+	}
+
+	private void down(int i) {
+		int v = heap[i];
+		while (true) {
+			int c = 2 * i + 1;
+			if (c >= size)
+				break;
+			if (c + 1 < size && key[heap[c + 1]] < key[heap[c]])
+				c++;
+			if (key[v] <= key[heap[c]])
+				break;
+
+			heap[i] = heap[c];
+			pos[heap[i]] = i;
+			i = c;
+		}
+
+		heap[i] = v;
+		pos[v] = i;
+	}
+}
@@ -0,0 +1,40 @@
+package graph.algorithms;
+
+import java.util.Arrays;
+
+/**
+ * Growable array of primitive ints.
+ */
+
+final class IntList {
+
+	int[] data;
+	int size;
+
+	IntList() {
+		this(16);
+	}
+
+	IntList(int capacity) {
+		data = new int[Math.max(1, capacity)];
+	}
+
+	void add(int v) {
+		if (size == data.length)
+			data = Arrays.copyOf(data, size * 2);
+
+		data[size++] = v;
+	}
+
+	void addAll(int[] values) {
+		if (size + values.length > data.length)
+			data = Arrays.copyOf(data, Math.max(size * 2, size + values.length));
+
+		System.arraycopy(values, 0, data, size, values.length);
+		size += values.length;
+	}
+
+	int[] toArray() {
+		return Arrays.copyOf(data, size);
+	}
+}
@@ -0,0 +1,352 @@
+package graph.algorithms;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+
+import graph.annotations.NotNull;
+import graph.gui.Node;
+
+/**
+ * K shortest loopless paths between 2 nodes with Yen algorithm. Each new path
+ * deviates from the last one found at a spur node: the edges before it are
+ * kept, and the rest is the shortest path from the spur node which avoids the
+ * nodes already used and the edges that would repeat a known path. The graph
+ * is never changed, removed nodes and edges are masks stamped on primitive
+ * arrays of each search.
+ *
+ * The distances to the target of a single reverse shortest path tree are
+ * reused by all the spur searches. Removing nodes and edges only makes the
+ * paths longer, so they are a consistent A* heuristic, and a spur node whose
+ * path in the tree avoids the masks needs no search at all. The spur searches
+ * of a path run in parallel.
+ */
+
+public final class KShortestPaths {
+
+	private KShortestPaths() {
+	}
+
+	/**
+	 * run Yen algorithm on the common fork join pool
+	 *
+	 * @param g    a weighted graph
+	 * @param from the source node
+	 * @param to   the target node
+	 * @param k    the max number of paths
+	 * @return up to k paths without repeated nodes, by increasing cost. The list
+	 *         is empty if the target is not reachable
+	 * @throws IllegalArgumentException if a node is not in the graph, k is not
+	 *                                  positive or an edge has a negative weight
+	 * @throws IllegalStateException    if the graph has no weights
+	 */
+
+	@NotNull
+	public static <T> List<PathResult<T>> yen(@NotNull CsrGraph<T> g, @NotNull Node<T> from, @NotNull Node<T> to,
+			int k) {
+		return yen(g, from, to, k, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * run Yen algorithm on the given pool, see
+	 * {@link #yen(CsrGraph, Node, Node, int)}
+	 */
+
+	@NotNull
+	public static <T> List<PathResult<T>> yen(@NotNull CsrGraph<T> g, @NotNull Node<T> from, @NotNull Node<T> to,
+			int k, @NotNull ForkJoinPool pool) {
+		Objects.requireNonNull(g);
+		Objects.requireNonNull(from);
+		Objects.requireNonNull(to);
+		Objects.requireNonNull(pool);
+
+		if (!g.isWeighted())
+			throw new IllegalStateException("Graph has been built without weight converter");
+
+		if (k <= 0)
+			throw new IllegalArgumentException("K must be positive");
+
+		int s = g.indexOf(from);
+		int t = g.indexOf(to);
+		if (s == -1 || t == -1)
+			throw new IllegalArgumentException("Invalid node. Node is not in the graph");
+
+		for (int e = 0; e < g.edgeCount(); e++)
+			if (g.weight(e) < 0)
+				throw new IllegalArgumentException("Negative weight found on edge " + g.edge(e));
+
+		AlgorithmRun run = AlgorithmRun.start("Yen", g.size(), g.edgeCount(), "tree", "spur searches");
+		run.phase(0);
+
+		Tree tree = new Tree(g, t);
+		ArrayList<PathResult<T>> found = new ArrayList<>();
+		if (tree.dist[s] == Double.POSITIVE_INFINITY) {
+			run.end();
+			return found;
+		}
+
+		int[] first = tree.path(s, t);
+		found.add(new PathResult<>(g, s, first, tree.dist[s], tree.settled));
+
+		ArrayList<int[]> paths = new ArrayList<>();
+		paths.add(first);
+
+		PriorityQueue<Candidate> candidates = new PriorityQueue<>();
+		HashSet<Candidate> seen = new HashSet<>();
+		seen.add(new Candidate(first, tree.dist[s], tree.settled));
+
+		ThreadLocal<Spur> spurs = ThreadLocal.withInitial(() -> new Spur(g, tree, t));
+		run.phase(1);
+		long heapOperations = 0;
+
+		while (found.size() < k) {
+			int[] prev = paths.get(paths.size() - 1);
+
+			// nodes of the last path and cost of its prefixes
+			int[] nodes = new int[prev.length + 1];
+			double[] rootCost = new double[prev.length + 1];
+			nodes[0] = s;
+			for (int i = 0; i < prev.length; i++) {
+				nodes[i + 1] = g.target(prev[i]);
+				rootCost[i + 1] = rootCost[i] + g.weight(prev[i]);
+			}
+
+			Candidate[] spur = new Candidate[prev.length];
+			Parallel.forEach(pool, prev.length, i -> spur[i] = spurs.get().search(paths, prev, nodes, i, rootCost[i]));
+			run.addIterations(prev.length);
+
+			for (Candidate c : spur)
+				if (c != null && seen.add(c)) {
+					candidates.add(c);
+					heapOperations++;
+				}
+
+			Candidate best = candidates.poll();
+			heapOperations++;
+			if (best == null)
+				break;
+
+			paths.add(best.edges);
+			found.add(new PathResult<>(g, s, best.edges, best.cost, best.settled));
+		}
+
+		run.addHeapOperations(heapOperations);
+		run.end();
+
+		return found;
+	}
+
+	/**
+	 * shortest path tree to the target, built with dijkstra on the in edges
+	 */
+
+	private static final class Tree {
+
+		private final CsrGraph<?> g;
+		private final double[] dist;
+
+		// first edge of the shortest path to the target
+		private final int[] next;
+		private int settled;
+
+		private Tree(CsrGraph<?> g, int t) {
+			int n = g.size();
+
+			this.g = g;
+			this.dist = new double[n];
+			this.next = new int[n];
+			Arrays.fill(dist, Double.POSITIVE_INFINITY);
+			Arrays.fill(next, -1);
+
+			IndexedHeap heap = new IndexedHeap(n);
+			dist[t] = 0;
+			heap.offer(t, 0);
+
+			while (!heap.isEmpty()) {
+				int v = heap.poll();
+				settled++;
+
+				for (int i = g.inStart(v); i < g.inEnd(v); i++) {
+					int u = g.source(i);
+					double d = dist[v] + g.weight(g.inEdge(i));
+
+					if (d < dist[u]) {
+						dist[u] = d;
+						next[u] = g.inEdge(i);
+						heap.offer(u, d);
+					}
+				}
+			}
+		}
+
+		private int[] path(int v, int t) {
+			IntList tmp = new IntList();
+			for (int x = v; x != t; x = g.target(next[x]))
+				tmp.add(next[x]);
+
+			return tmp.toArray();
+		}
+	}
+
+	/**
+	 * state of the spur searches of a thread, a node or edge is masked if its
+	 * stamp is the one of the current search
+	 */
+
+	private static final class Spur {
+
+		private final CsrGraph<?> g;
+		private final Tree tree;
+		private final int t;
+
+		private final int[] blockedNode;
+		private final int[] blockedEdge;
+		private final int[] reached;
+		private final double[] dist;
+		private final int[] via;
+		private final IndexedHeap heap;
+		private int stamp;
+
+		private Spur(CsrGraph<?> g, Tree tree, int t) {
+			int n = g.size();
+
+			this.g = g;
+			this.tree = tree;
+			this.t = t;
+			this.blockedNode = new int[n];
+			this.blockedEdge = new int[g.edgeCount()];
+			this.reached = new int[n];
+			this.dist = new double[n];
+			this.via = new int[n];
+			this.heap = new IndexedHeap(n);
+		}
+
+		/**
+		 * find the path deviating from prev at its node i
+		 *
+		 * @return the path or null if the spur node cannot reach the target
+		 */
+
+		private Candidate search(List<int[]> paths, int[] prev, int[] nodes, int i, double rootCost) {
+			int v = nodes[i];
+			if (tree.dist[v] == Double.POSITIVE_INFINITY)
+				return null;
+
+			stamp++;
+
+			for (int j = 0; j < i; j++)
+				blockedNode[nodes[j]] = stamp;
+
+			// the next edge of each known path sharing the root
+			for (int[] p : paths)
+				if (p.length > i && Arrays.equals(p, 0, i, prev, 0, i))
+					blockedEdge[p[i]] = stamp;
+
+			IntList spur = new IntList();
+			double cost;
+			int settled = 0;
+
+			if (treeAvoidsMasks(v)) {
+				for (int x = v; x != t; x = g.target(tree.next[x]))
+					spur.add(tree.next[x]);
+
+				cost = tree.dist[v];
+			} else {
+				heap.clear();
+				reached[v] = stamp;
+				dist[v] = 0;
+				heap.offer(v, tree.dist[v]);
+
+				int u = -1;
+				while (!heap.isEmpty()) {
+					u = heap.poll();
+					settled++;
+
+					if (u == t)
+						break;
+
+					for (int e = g.outStart(u); e < g.outEnd(u); e++) {
+						int w = g.target(e);
+
+						if (blockedEdge[e] == stamp || blockedNode[w] == stamp
+								|| tree.dist[w] == Double.POSITIVE_INFINITY)
+							continue;
+
+						double d = dist[u] + g.weight(e);
+						if (reached[w] != stamp || d < dist[w]) {
+							reached[w] = stamp;
+							dist[w] = d;
+							via[w] = e;
+							heap.offer(w, d + tree.dist[w]);
+						}
+					}
+				}
+
+				if (u != t)
+					return null;
+
+				for (int x = t; x != v; x = g.edgeSource(via[x]))
+					spur.add(via[x]);
+
+				// the edges have been added from the target
+				for (int a = 0, b = spur.size - 1; a < b; a++, b--) {
+					int tmp = spur.data[a];
+					spur.data[a] = spur.data[b];
+					spur.data[b] = tmp;
+				}
+
+				cost = dist[t];
+			}
+
+			int[] edges = Arrays.copyOf(prev, i + spur.size);
+			System.arraycopy(spur.data, 0, edges, i, spur.size);
+
+			return new Candidate(edges, rootCost + cost, settled);
+		}
+
+		private boolean treeAvoidsMasks(int v) {
+			for (int x = v; x != t; x = g.target(tree.next[x]))
+				if (blockedEdge[tree.next[x]] == stamp || blockedNode[g.target(tree.next[x])] == stamp)
+					return false;
+
+			return true;
+		}
+	}
+
+	/**
+	 * a path waiting to be chosen, equal paths have the same edges
+	 */
+
+	private static final class Candidate implements Comparable<Candidate> {
+
+		private final int[] edges;
+		private final double cost;
+		private final int settled;
+
+		private Candidate(int[] edges, double cost, int settled) {
+			this.edges = edges;
+			this.cost = cost;
+			this.settled = settled;
+		}
+
+		@Override
+		public int compareTo(Candidate o) {
+			int c = Double.compare(cost, o.cost);
+			return c != 0 ? c : Integer.compare(edges.length, o.edges.length);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			return o instanceof Candidate && Arrays.equals(edges, ((Candidate) o).edges);
+		}
+
+		@Override
+		public int hashCode() {
+			return Arrays.hashCode(edges);
+		}
+	}
+}
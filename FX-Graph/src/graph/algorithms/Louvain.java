@@ -0,0 +1,512 @@
+package graph.algorithms;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+
+import graph.annotations.NotNull;
+
+/**
+ * Community detection with the Louvain method. Each level moves nodes to the
+ * neighbour community with the largest modularity gain until the modularity
+ * stops growing, then the communities become the nodes of the next level with
+ * the weights between them summed. Edge directions are ignored, an undirected
+ * graph stored with twin edges counts each edge twice and has the same
+ * modularity.
+ *
+ * A sweep splits the nodes in a few rounds. The moves of a round are chosen in
+ * parallel against the communities left by the previous round and then
+ * applied together, so the result does not depend on the number of threads
+ * and few neighbours move at the same time. 2 single nodes moving into each
+ * other are kept apart by letting only the one with the larger label move. A
+ * community of the final partition which is not connected is split in its
+ * connected parts, which raises the modularity, the guarantee of the Leiden
+ * method without its refinement phase.
+ */
+
+public final class Louvain {
+
+	// nodes evaluated by a single task
+	private static final int GRAIN = 1024;
+
+	// a sweep moves the nodes in this many rounds, each round sees the moves
+	// of the previous ones
+	private static final int ROUNDS = 4;
+
+	// max number of sweeps of a level
+	private static final int MAX_SWEEPS = 32;
+
+	// smallest modularity gain of a sweep
+	private static final double TOLERANCE = 1e-7;
+
+	private Louvain() {
+	}
+
+	/**
+	 * find the communities with resolution 1 on the common fork join pool
+	 *
+	 * @param g the graph, weights are used if present
+	 * @return the community of each node
+	 * @throws IllegalArgumentException if an edge has a negative weight
+	 */
+
+	@NotNull
+	public static <T> Communities<T> run(@NotNull CsrGraph<T> g) {
+		return run(g, 1, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * find the communities on the given pool
+	 *
+	 * @param g          the graph, weights are used if present
+	 * @param resolution the weight of the expected edges in the modularity, higher
+	 *                   values find smaller communities
+	 * @param pool       the pool running the sweeps
+	 * @return the community of each node
+	 * @throws IllegalArgumentException if resolution is not positive or an edge
+	 *                                  has a negative weight
+	 */
+
+	@NotNull
+	public static <T> Communities<T> run(@NotNull CsrGraph<T> g, double resolution, @NotNull ForkJoinPool pool) {
+		Objects.requireNonNull(g);
+		Objects.requireNonNull(pool);
+
+		if (!(resolution > 0))
+			throw new IllegalArgumentException("Resolution must be positive");
+
+		int n = g.size();
+		AlgorithmRun run = AlgorithmRun.start("Louvain", n, g.edgeCount(), "move", "aggregate", "modularity");
+		run.phase(1);
+		Level base = Level.of(g);
+
+		// node of the current level of each node of the graph
+		int[] member = new int[n];
+		for (int v = 0; v < n; v++)
+			member[v] = v;
+
+		Level level = base;
+		int levels = 0;
+
+		while (level.n > 0 && level.m2 > 0) {
+			run.phase(0);
+			int[] comm = level.move(resolution, pool);
+			int count = renumber(comm);
+			levels++;
+
+			for (int v = 0; v < n; v++)
+				member[v] = comm[member[v]];
+
+			if (count == level.n)
+				break;
+
+			run.phase(1);
+			level = level.aggregate(comm, count);
+		}
+
+		run.phase(2);
+		int count = base.split(member);
+		double modularity = base.modularity(member, count, resolution, pool);
+
+		run.addIterations(levels);
+		run.end();
+
+		return new Communities<>(g, member, count, modularity, levels);
+	}
+
+	private static int round(int i) {
+		int h = i * 0x9e3779b1;
+		return ((h ^ h >>> 16) & 0x7fffffff) % ROUNDS;
+	}
+
+	/**
+	 * number the communities from 0 in order of first node
+	 *
+	 * @return the number of communities
+	 */
+
+	private static int renumber(int[] comm) {
+		int[] label = new int[comm.length];
+		Arrays.fill(label, -1);
+		int count = 0;
+
+		for (int i = 0; i < comm.length; i++) {
+			if (label[comm[i]] == -1)
+				label[comm[i]] = count++;
+
+			comm[i] = label[comm[i]];
+		}
+
+		return count;
+	}
+
+	/**
+	 * symmetric weighted graph of a level, a node of a level above the first is a
+	 * community of the level below and its self loop weight is the weight inside
+	 * the community
+	 */
+
+	private static final class Level {
+
+		private final int n;
+		private final int[] start;
+		private final int[] adj;
+		private final double[] w;
+		private final double[] self;
+
+		// weighted degree of each node, self loop included, and their sum
+		private final double[] k;
+		private final double m2;
+
+		private Level(int n, int[] start, int[] adj, double[] w, double[] self) {
+			this.n = n;
+			this.start = start;
+			this.adj = adj;
+			this.w = w;
+			this.self = self;
+			this.k = new double[n];
+
+			double sum = 0;
+			for (int i = 0; i < n; i++) {
+				k[i] = self[i];
+				for (int p = start[i]; p < start[i + 1]; p++)
+					k[i] += w[p];
+
+				sum += k[i];
+			}
+
+			this.m2 = sum;
+		}
+
+		/**
+		 * the adjacency of each node holds its out and in edges
+		 */
+
+		private static Level of(CsrGraph<?> g) {
+			int n = g.size();
+			int[] start = new int[n + 1];
+			double[] self = new double[n];
+
+			for (int u = 0; u < n; u++) {
+				int d = 0;
+				for (int e = g.outStart(u); e < g.outEnd(u); e++) {
+					if (g.isWeighted() && g.weight(e) < 0)
+						throw new IllegalArgumentException("Negative weight found on edge " + g.edge(e));
+
+					if (g.target(e) != u)
+						d++;
+				}
+
+				for (int i = g.inStart(u); i < g.inEnd(u); i++)
+					if (g.source(i) != u)
+						d++;
+
+				start[u + 1] = start[u] + d;
+			}
+
+			int[] adj = new int[start[n]];
+			double[] w = new double[start[n]];
+
+			for (int u = 0; u < n; u++) {
+				int p = start[u];
+
+				for (int e = g.outStart(u); e < g.outEnd(u); e++) {
+					double x = g.isWeighted() ? g.weight(e) : 1;
+
+					// a self loop is seen from both ends
+					if (g.target(e) == u)
+						self[u] += 2 * x;
+					else {
+						adj[p] = g.target(e);
+						w[p++] = x;
+					}
+				}
+
+				for (int i = g.inStart(u); i < g.inEnd(u); i++)
+					if (g.source(i) != u) {
+						adj[p] = g.source(i);
+						w[p++] = g.isWeighted() ? g.weight(g.inEdge(i)) : 1;
+					}
+			}
+
+			return new Level(n, start, adj, w, self);
+		}
+
+		/**
+		 * run the sweeps of this level starting from single node communities
+		 *
+		 * @return the community of each node
+		 */
+
+		private int[] move(double resolution, ForkJoinPool pool) {
+			int[] comm = new int[n];
+			double[] tot = new double[n];
+			int[] size = new int[n];
+
+			for (int i = 0; i < n; i++) {
+				comm[i] = i;
+				tot[i] = k[i];
+				size[i] = 1;
+			}
+
+			// nodes of each round, spread by a hash of their index
+			int[] first = new int[ROUNDS + 1];
+			for (int i = 0; i < n; i++)
+				first[round(i) + 1]++;
+
+			for (int r = 0; r < ROUNDS; r++)
+				first[r + 1] += first[r];
+
+			int[] order = new int[n];
+			int[] fill = Arrays.copyOf(first, ROUNDS);
+			for (int i = 0; i < n; i++)
+				order[fill[round(i)]++] = i;
+
+			int[] target = new int[n];
+			ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(() -> new Scratch(n));
+
+			int[] best = comm.clone();
+			double q = modularity(comm, n, resolution, pool);
+
+			for (int sweep = 0; sweep < MAX_SWEEPS; sweep++) {
+				int moved = 0;
+
+				for (int r = 0; r < ROUNDS; r++) {
+					int lo = first[r];
+					int hi = first[r + 1];
+
+					Parallel.forEach(pool, Parallel.chunks(hi - lo, GRAIN), c -> {
+						Scratch s = scratch.get();
+
+						int end = Math.min(hi, lo + (c + 1) * GRAIN);
+						for (int j = lo + c * GRAIN; j < end; j++)
+							target[order[j]] = bestCommunity(order[j], comm, tot, size, resolution, s);
+					});
+
+					for (int j = lo; j < hi; j++) {
+						int i = order[j];
+
+						if (target[i] != comm[i]) {
+							tot[comm[i]] -= k[i];
+							size[comm[i]]--;
+							tot[target[i]] += k[i];
+							size[target[i]]++;
+							comm[i] = target[i];
+							moved++;
+						}
+					}
+				}
+
+				if (moved == 0)
+					break;
+
+				// moves applied together can lower the modularity, the best
+				// partition is kept
+				double nq = modularity(comm, n, resolution, pool);
+				if (nq > q)
+					System.arraycopy(comm, 0, best, 0, n);
+
+				if (nq - q < TOLERANCE)
+					break;
+
+				q = nq;
+			}
+
+			return best;
+		}
+
+		private int bestCommunity(int i, int[] comm, double[] tot, int[] size, double resolution, Scratch s) {
+			int own = comm[i];
+			s.round++;
+
+			for (int p = start[i]; p < start[i + 1]; p++) {
+				int c = comm[adj[p]];
+
+				if (s.mark[c] != s.round) {
+					s.mark[c] = s.round;
+					s.weight[c] = 0;
+					s.touched.add(c);
+				}
+
+				s.weight[c] += w[p];
+			}
+
+			// gain of joining a community, up to a constant factor, with i taken
+			// out of its own
+			double scale = resolution * k[i] / m2;
+			int best = own;
+			double bestGain = (s.mark[own] == s.round ? s.weight[own] : 0) - scale * (tot[own] - k[i]);
+
+			for (int j = 0; j < s.touched.size; j++) {
+				int c = s.touched.data[j];
+				double gain = s.weight[c] - scale * tot[c];
+
+				if (c != own && gain > bestGain) {
+					best = c;
+					bestGain = gain;
+				}
+			}
+
+			s.touched.size = 0;
+
+			if (size[own] == 1 && best != own && size[best] == 1 && best > own)
+				return own;
+
+			return best;
+		}
+
+		/**
+		 * modularity of a partition of this level
+		 */
+
+		private double modularity(int[] comm, int count, double resolution, ForkJoinPool pool) {
+			int chunks = Parallel.chunks(n, GRAIN);
+			double[] partial = new double[chunks];
+
+			Parallel.forEach(pool, chunks, c -> {
+				double in = 0;
+
+				int end = Math.min(n, (c + 1) * GRAIN);
+				for (int i = c * GRAIN; i < end; i++) {
+					in += self[i];
+					for (int p = start[i]; p < start[i + 1]; p++)
+						if (comm[adj[p]] == comm[i])
+							in += w[p];
+				}
+
+				partial[c] = in;
+			});
+
+			double[] tot = new double[count];
+			for (int i = 0; i < n; i++)
+				tot[comm[i]] += k[i];
+
+			double in = 0;
+			for (double x : partial)
+				in += x;
+
+			double expected = 0;
+			for (double t : tot)
+				expected += t * t;
+
+			return m2 == 0 ? 0 : in / m2 - resolution * expected / (m2 * m2);
+		}
+
+		/**
+		 * merge the nodes of each community, parallel edges between 2
+		 * communities are summed and the edges inside a community become its self
+		 * loop
+		 */
+
+		private Level aggregate(int[] comm, int count) {
+			// nodes bucketed by community
+			int[] first = new int[count + 1];
+			for (int i = 0; i < n; i++)
+				first[comm[i] + 1]++;
+
+			for (int c = 0; c < count; c++)
+				first[c + 1] += first[c];
+
+			int[] nodes = new int[n];
+			int[] fill = Arrays.copyOf(first, count);
+			for (int i = 0; i < n; i++)
+				nodes[fill[comm[i]]++] = i;
+
+			int[] cstart = new int[count + 1];
+			IntList cadj = new IntList();
+			double[] cw = new double[16];
+			double[] cself = new double[count];
+
+			// slot of the edge to each community from the current one
+			int[] slot = new int[count];
+			Arrays.fill(slot, -1);
+
+			for (int c = 0; c < count; c++) {
+				for (int j = first[c]; j < first[c + 1]; j++) {
+					int i = nodes[j];
+					cself[c] += self[i];
+
+					for (int p = start[i]; p < start[i + 1]; p++) {
+						int d = comm[adj[p]];
+
+						if (d == c)
+							cself[c] += w[p];
+						else if (slot[d] >= cstart[c])
+							cw[slot[d]] += w[p];
+						else {
+							if (cadj.size == cw.length)
+								cw = Arrays.copyOf(cw, 2 * cw.length);
+
+							slot[d] = cadj.size;
+							cw[cadj.size] = w[p];
+							cadj.add(d);
+						}
+					}
+				}
+
+				cstart[c + 1] = cadj.size;
+			}
+
+			return new Level(count, cstart, cadj.toArray(), Arrays.copyOf(cw, cadj.size), cself);
+		}
+
+		/**
+		 * split the communities of this level in their connected parts
+		 *
+		 * @return the number of communities
+		 */
+
+		private int split(int[] comm) {
+			int[] label = new int[n];
+			int[] queue = new int[n];
+			Arrays.fill(label, -1);
+			int count = 0;
+
+			for (int r = 0; r < n; r++) {
+				if (label[r] != -1)
+					continue;
+
+				int head = 0;
+				int tail = 0;
+				label[r] = count;
+				queue[tail++] = r;
+
+				while (head < tail) {
+					int u = queue[head++];
+
+					for (int p = start[u]; p < start[u + 1]; p++) {
+						int v = adj[p];
+
+						if (label[v] == -1 && comm[v] == comm[r]) {
+							label[v] = count;
+							queue[tail++] = v;
+						}
+					}
+				}
+
+				count++;
+			}
+
+			System.arraycopy(label, 0, comm, 0, n);
+			return count;
+		}
+	}
+
+	/**
+	 * weights from a node to the neighbour communities, valid where mark is the
+	 * current round
+	 */
+
+	private static final class Scratch {
+
+		private final double[] weight;
+		private final int[] mark;
+		private final IntList touched = new IntList();
+		private int round;
+
+		private Scratch(int n) {
+			weight = new double[n];
+			mark = new int[n];
+		}
+	}
+}
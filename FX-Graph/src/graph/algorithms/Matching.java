@@ -0,0 +1,84 @@
+package graph.algorithms;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import graph.annotations.NotNull;
+import graph.annotations.Nullable;
+import graph.gui.Edge;
+import graph.gui.Node;
+
+/**
+ * Result of a bipartite matching algorithm. Each matched pair is stored with
+ * the id of the edge joining it in the searched {@link CsrGraph}, the edge can
+ * go in either direction.
+ *
+ * @param <T> the node value type
+ */
+
+public final class Matching<T> {
+
+	private final CsrGraph<T> graph;
+	private final int[] mate;
+	private final int[] edges;
+	private final double cost;
+
+	Matching(CsrGraph<T> graph, int[] mate, int[] edges, double cost) {
+		this.graph = graph;
+		this.mate = mate;
+		this.edges = edges;
+		this.cost = cost;
+	}
+
+	@NotNull
+	public CsrGraph<T> getGraph() {
+		return graph;
+	}
+
+	/**
+	 * @return the number of matched pairs
+	 */
+
+	public int getSize() {
+		return edges.length;
+	}
+
+	/**
+	 * @return the sum of the weights of the matched edges, 0 if the graph has no
+	 *         weights
+	 */
+
+	public double getCost() {
+		return cost;
+	}
+
+	public boolean isMatched(@NotNull Node<T> n) {
+		return getMate(n) != null;
+	}
+
+	@Nullable
+	public Node<T> getMate(@NotNull Node<T> n) {
+		int i = graph.indexOf(n);
+		return i == -1 || mate[i] == -1 ? null : graph.getNode(mate[i]);
+	}
+
+	/**
+	 * @return the ids of the matched edges in the csr graph. The array is not
+	 *         copied
+	 */
+
+	@NotNull
+	public int[] getEdgeIds() {
+		return edges;
+	}
+
+	@NotNull
+	public <K> List<Edge<K>> getEdges() {
+		ArrayList<Edge<K>> tmp = new ArrayList<>(edges.length);
+		for (int e : edges)
+			tmp.add(graph.edge(e));
+
+		return Collections.unmodifiableList(tmp);
+	}
+}
@@ -0,0 +1,179 @@
+package graph.algorithms;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Square matrix of distances and next hops, stored row major either on the
+ * heap or in a memory mapped file. Different cells can be written
+ * concurrently.
+ */
+
+abstract class MatrixStorage {
+
+	final int n;
+
+	MatrixStorage(int n) {
+		this.n = n;
+	}
+
+	abstract double dist(int i, int j);
+
+	abstract void dist(int i, int j, double d);
+
+	abstract int next(int i, int j);
+
+	abstract void next(int i, int j, int v);
+
+	boolean isMapped() {
+		return false;
+	}
+
+	void close() {
+	}
+
+	/**
+	 * @return true if a matrix of the given size fits in a flat java array
+	 */
+
+	static boolean fitsHeapArray(int n) {
+		return (long) n * n <= Integer.MAX_VALUE - 8;
+	}
+
+	static final class Heap extends MatrixStorage {
+
+		final double[] dist;
+		final int[] next;
+
+		Heap(int n) {
+			super(n);
+			if (!fitsHeapArray(n))
+				throw new IllegalArgumentException("Matrix too large for the heap, use a mapped matrix");
+
+			dist = new double[n * n];
+			next = new int[n * n];
+			Arrays.fill(dist, Double.POSITIVE_INFINITY);
+			Arrays.fill(next, -1);
+		}
+
+		@Override
+		double dist(int i, int j) {
+			return dist[i * n + j];
+		}
+
+		@Override
+		void dist(int i, int j, double d) {
+			dist[i * n + j] = d;
+		}
+
+		@Override
+		int next(int i, int j) {
+			return next[i * n + j];
+		}
+
+		@Override
+		void next(int i, int j, int v) {
+			next[i * n + j] = v;
+		}
+	}
+
+	static final class Mapped extends MatrixStorage {
+
+		// max bytes of a single mapping
+		private static final long SEGMENT = 1L << 30;
+
+		private final Path file;
+		private final boolean temporary;
+		private final FileChannel channel;
+		private final int rowsPerSegment;
+		private final DoubleBuffer[] dist;
+		private final IntBuffer[] next;
+
+		/**
+		 * @param file the backing file or null to use a temporary file deleted on
+		 *             close
+		 */
+
+		Mapped(int n, Path file) {
+			super(n);
+
+			try {
+				this.temporary = file == null;
+				this.file = temporary ? Files.createTempFile("fxgraph-apsp", ".bin") : file;
+				this.channel = FileChannel.open(this.file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+						StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+
+				rowsPerSegment = (int) Math.max(1, Math.min(n, SEGMENT / (8L * Math.max(1, n))));
+				int segments = Math.max(1, (n + rowsPerSegment - 1) / rowsPerSegment);
+
+				dist = new DoubleBuffer[segments];
+				next = new IntBuffer[segments];
+
+				// distances first, then next hops
+				long nextBase = 8L * n * n;
+				for (int s = 0; s < segments; s++) {
+					int rows = Math.min(rowsPerSegment, n - s * rowsPerSegment);
+					long cells = (long) rows * n;
+					long first = (long) s * rowsPerSegment * n;
+
+					dist[s] = channel.map(MapMode.READ_WRITE, 8L * first, 8L * cells).order(ByteOrder.nativeOrder())
+							.asDoubleBuffer();
+					next[s] = channel.map(MapMode.READ_WRITE, nextBase + 4L * first, 4L * cells)
+							.order(ByteOrder.nativeOrder()).asIntBuffer();
+
+					for (int c = 0; c < cells; c++) {
+						dist[s].put(c, Double.POSITIVE_INFINITY);
+						next[s].put(c, -1);
+					}
+				}
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		@Override
+		double dist(int i, int j) {
+			return dist[i / rowsPerSegment].get((i % rowsPerSegment) * n + j);
+		}
+
+		@Override
+		void dist(int i, int j, double d) {
+			dist[i / rowsPerSegment].put((i % rowsPerSegment) * n + j, d);
+		}
+
+		@Override
+		int next(int i, int j) {
+			return next[i / rowsPerSegment].get((i % rowsPerSegment) * n + j);
+		}
+
+		@Override
+		void next(int i, int j, int v) {
+			next[i / rowsPerSegment].put((i % rowsPerSegment) * n + j, v);
+		}
+
+		@Override
+		boolean isMapped() {
+			return true;
+		}
+
+		@Override
+		void close() {
+			try {
+				channel.close();
+				if (temporary)
+					Files.deleteIfExists(file);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+}
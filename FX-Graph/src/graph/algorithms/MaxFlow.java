@@ -0,0 +1,221 @@
+package graph.algorithms;
+
+import java.util.Objects;
+
+import graph.annotations.NotNull;
+import graph.annotations.Nullable;
+import graph.gui.Node;
+
+/**
+ * Augmenting path max flow algorithms on a residual network built from a
+ * {@link CsrGraph}. The graph is not changed, the flow of each edge is
+ * returned in a {@link FlowResult}. The monitor is polled between and during
+ * the searches, a cancelled run returns the flow sent so far.
+ */
+
+public final class MaxFlow {
+
+	// nodes visited by a search between two polls of the monitor
+	private static final int POLL_MASK = (1 << 14) - 1;
+
+	private MaxFlow() {
+	}
+
+	/**
+	 * Edmonds-Karp: augment along the shortest path found with a bfs
+	 *
+	 * @param g        the graph
+	 * @param capacity the capacity of each edge, indexed by edge index
+	 * @param flow     the initial flow of each edge, null for no flow
+	 * @param source   the source of the flow
+	 * @param sink     the destination of the flow
+	 * @param monitor  the monitor polled for cancellation
+	 * @return the flow of each edge, its value includes the initial flow
+	 * @throws IllegalArgumentException if source or sink are not in the graph or
+	 *                                  are the same node, or if a capacity or a
+	 *                                  flow is not valid
+	 */
+
+	@NotNull
+	public static <T> FlowResult<T> edmondsKarp(@NotNull CsrGraph<T> g, @NotNull int[] capacity, @Nullable int[] flow,
+			@NotNull Node<T> source, @NotNull Node<T> sink, @NotNull AlgorithmMonitor monitor) {
+		return run(g, capacity, flow, source, sink, monitor, true);
+	}
+
+	/**
+	 * Ford-Fulkerson: augment along any path found with a dfs
+	 *
+	 * @see #edmondsKarp(CsrGraph, int[], int[], Node, Node, AlgorithmMonitor)
+	 */
+
+	@NotNull
+	public static <T> FlowResult<T> fordFulkerson(@NotNull CsrGraph<T> g, @NotNull int[] capacity,
+			@Nullable int[] flow, @NotNull Node<T> source, @NotNull Node<T> sink, @NotNull AlgorithmMonitor monitor) {
+		return run(g, capacity, flow, source, sink, monitor, false);
+	}
+
+	private static <T> FlowResult<T> run(CsrGraph<T> g, int[] capacity, int[] flow, Node<T> source, Node<T> sink,
+			AlgorithmMonitor monitor, boolean bfs) {
+		Objects.requireNonNull(g);
+		Objects.requireNonNull(capacity);
+		Objects.requireNonNull(source);
+		Objects.requireNonNull(sink);
+		Objects.requireNonNull(monitor);
+
+		int s = g.indexOf(source);
+		int t = g.indexOf(sink);
+		if (s == -1 || t == -1)
+			throw new IllegalArgumentException("Invalid node. Node is not in the graph");
+
+		if (s == t)
+			throw new IllegalArgumentException("Source and sink must be different nodes");
+
+		ProgressReporter p = new ProgressReporter(bfs ? "Edmonds-Karp" : "Ford-Fulkerson", monitor, g,
+				"residual network", "search", "augment");
+
+		p.run.phase(0);
+		ResidualNetwork net = network(g, capacity, flow);
+		p.residualInsertions = net.arcs.length;
+
+		int n = g.size();
+		int[] parentArc = new int[n];
+		int[] seen = new int[n];
+		int[] work = new int[n];
+		int[] it = new int[n];
+		int stamp = 0;
+		boolean cancelled = false;
+
+		// the initial flow leaving the source counts in the value
+		long value = 0;
+		if (flow != null) {
+			for (int e = g.outStart(s); e < g.outEnd(s); e++)
+				value += flow[e];
+			for (int i = g.inStart(s); i < g.inEnd(s); i++)
+				value -= flow[g.inEdge(i)];
+		}
+
+		while (!(cancelled = p.tick())) {
+			p.iterations++;
+			stamp++;
+
+			p.run.phase(1);
+			int found = bfs ? bfs(net, s, t, parentArc, seen, stamp, work, p)
+					: dfs(net, s, t, parentArc, seen, stamp, work, it, p);
+
+			if (found == -1) {
+				cancelled = true;
+				break;
+			}
+
+			if (found == 0)
+				break;
+
+			p.run.phase(2);
+			value += net.augment(parentArc, s, t, Integer.MAX_VALUE);
+			p.augmentations++;
+			p.flow = value;
+		}
+
+		p.done();
+
+		int[] result = new int[g.edgeCount()];
+		for (int e = 0; e < result.length; e++)
+			result[e] = net.flow(e);
+
+		return new FlowResult<>(g, result, value, 0, p.augmentations, net.reachable(s), cancelled);
+	}
+
+	/**
+	 * @return 1 if the sink has been reached, 0 if not, -1 if cancelled
+	 */
+
+	private static int bfs(ResidualNetwork net, int s, int t, int[] parentArc, int[] seen, int stamp, int[] queue,
+			ProgressReporter p) {
+		int qt = 0;
+		seen[s] = stamp;
+		queue[qt++] = s;
+
+		for (int qh = 0; qh < qt && seen[t] != stamp; qh++) {
+			if ((qh & POLL_MASK) == POLL_MASK && p.tick())
+				return -1;
+
+			int u = queue[qh];
+			for (int i = net.start[u]; i < net.start[u + 1]; i++) {
+				int a = net.arcs[i];
+				int v = net.head[a];
+				p.relaxations++;
+
+				if (net.res[a] > 0 && seen[v] != stamp) {
+					seen[v] = stamp;
+					parentArc[v] = a;
+					queue[qt++] = v;
+				}
+			}
+		}
+
+		return seen[t] == stamp ? 1 : 0;
+	}
+
+	/**
+	 * iterative dfs, it[u] is the position of the next arc to scan
+	 *
+	 * @return 1 if the sink has been reached, 0 if not, -1 if cancelled
+	 */
+
+	private static int dfs(ResidualNetwork net, int s, int t, int[] parentArc, int[] seen, int stamp, int[] stack,
+			int[] it, ProgressReporter p) {
+		int sp = 0;
+		int visited = 0;
+
+		seen[s] = stamp;
+		it[s] = net.start[s];
+		stack[sp++] = s;
+
+		while (sp > 0) {
+			int u = stack[sp - 1];
+			if (u == t)
+				return 1;
+
+			if (it[u] == net.start[u + 1]) {
+				sp--;
+				continue;
+			}
+
+			int a = net.arcs[it[u]++];
+			int v = net.head[a];
+			p.relaxations++;
+
+			if (net.res[a] > 0 && seen[v] != stamp) {
+				if ((++visited & POLL_MASK) == 0 && p.tick())
+					return -1;
+
+				seen[v] = stamp;
+				it[v] = net.start[v];
+				parentArc[v] = a;
+				stack[sp++] = v;
+			}
+		}
+
+		return 0;
+	}
+
+	private static ResidualNetwork network(CsrGraph<?> g, int[] capacity, int[] flow) {
+		int m = g.edgeCount();
+		if (capacity.length != m || (flow != null && flow.length != m))
+			throw new IllegalArgumentException("Capacities and flows must have one value for each edge");
+
+		int[] tail = new int[m];
+		int[] head = new int[m];
+
+		for (int u = 0; u < g.size(); u++)
+			for (int e = g.outStart(u); e < g.outEnd(u); e++) {
+				if (capacity[e] < 0 || (flow != null && (flow[e] < 0 || flow[e] > capacity[e])))
+					throw new IllegalArgumentException("Invalid flow or capacity on edge " + g.edge(e));
+
+				tail[e] = u;
+				head[e] = g.target(e);
+			}
+
+		return new ResidualNetwork(g.size(), tail, head, capacity, flow, null);
+	}
+}
@@ -0,0 +1,223 @@
+package graph.algorithms;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+
+import graph.annotations.NotNull;
+import graph.gui.Node;
+
+/**
+ * Successive shortest paths min cost flow on a residual network built from a
+ * {@link CsrGraph}. A virtual source is linked to the nodes in excess, at each
+ * iteration the flow is sent along the cheapest path from the virtual source
+ * to the nearest node in defect. Paths are found with a queue based
+ * Bellman-Ford because the residual costs can be negative. A cancelled run
+ * returns the flow sent so far, which leaves some nodes unbalanced.
+ */
+
+public final class MinCostFlow {
+
+	// nodes extracted from the queue between two polls of the monitor
+	private static final int POLL_MASK = (1 << 14) - 1;
+
+	private MinCostFlow() {
+	}
+
+	/**
+	 * @param g        the graph, weights are the cost of a unit of flow
+	 * @param capacity the capacity of each edge, indexed by edge index
+	 * @param ex       the nodes in excess with their positive imbalance
+	 * @param dx       the nodes in defect with their negative imbalance
+	 * @param monitor  the monitor polled for cancellation
+	 * @return the flow of each edge and the total cost
+	 * @throws IllegalArgumentException if a node is not in the graph, a capacity
+	 *                                  is negative or an imbalance has the wrong
+	 *                                  sign
+	 * @throws IllegalStateException    if the graph has no weights, the sums of
+	 *                                  the imbalances are not opposite, a
+	 *                                  negative cycle is found or the graph has
+	 *                                  no feasible flow
+	 */
+
+	@NotNull
+	public static <T> FlowResult<T> run(@NotNull CsrGraph<T> g, @NotNull int[] capacity,
+			@NotNull Map<Node<T>, Integer> ex, @NotNull Map<Node<T>, Integer> dx, @NotNull AlgorithmMonitor monitor) {
+		Objects.requireNonNull(g);
+		Objects.requireNonNull(capacity);
+		Objects.requireNonNull(ex);
+		Objects.requireNonNull(dx);
+		Objects.requireNonNull(monitor);
+
+		if (!g.isWeighted())
+			throw new IllegalStateException("Graph has been built without weight converter");
+
+		int m = g.edgeCount();
+		if (capacity.length != m)
+			throw new IllegalArgumentException("Capacities must have one value for each edge");
+
+		long supply = ex.values().stream().mapToLong(Integer::longValue).sum();
+		if (supply != -dx.values().stream().mapToLong(Integer::longValue).sum())
+			throw new IllegalStateException("Graph Ex nodes sum balances are not equal to Dx nodes sum balances");
+
+		// virtual source has index n, its edges follow the edges of the graph
+		int n = g.size();
+		int k = ex.size();
+		int[] tail = new int[m + k];
+		int[] head = new int[m + k];
+		int[] cap = Arrays.copyOf(capacity, m + k);
+		long[] cost = new long[m + k];
+
+		for (int u = 0; u < n; u++)
+			for (int e = g.outStart(u); e < g.outEnd(u); e++) {
+				if (capacity[e] < 0)
+					throw new IllegalArgumentException("Invalid capacity on edge " + g.edge(e));
+
+				tail[e] = u;
+				head[e] = g.target(e);
+				cost[e] = (long) g.weight(e);
+			}
+
+		int i = m;
+		for (Map.Entry<Node<T>, Integer> entry : ex.entrySet()) {
+			if (entry.getValue() < 0)
+				throw new IllegalArgumentException("Invalid imbalance for excess node " + entry.getKey());
+
+			tail[i] = n;
+			head[i] = index(g, entry.getKey());
+			cap[i++] = entry.getValue();
+		}
+
+		int[] demand = new int[n];
+		for (Map.Entry<Node<T>, Integer> entry : dx.entrySet()) {
+			if (entry.getValue() > 0)
+				throw new IllegalArgumentException("Invalid imbalance for defect node " + entry.getKey());
+
+			demand[index(g, entry.getKey())] += entry.getValue();
+		}
+
+		ProgressReporter p = new ProgressReporter("Min cost flow", monitor, g, "residual network", "shortest paths",
+				"augment");
+
+		p.run.phase(0);
+		ResidualNetwork net = new ResidualNetwork(n + 1, tail, head, cap, null, cost);
+		p.residualInsertions = net.arcs.length;
+
+		long[] dist = new long[n + 1];
+		int[] parentArc = new int[n + 1];
+		int[] count = new int[n + 1];
+		boolean[] queued = new boolean[n + 1];
+		int[] queue = new int[n + 1];
+
+		long sent = 0;
+		long total = 0;
+		boolean cancelled = false;
+
+		while (sent < supply) {
+			if (cancelled = p.tick())
+				break;
+
+			p.iterations++;
+
+			p.run.phase(1);
+			if (!shortestPaths(net, n, dist, parentArc, count, queued, queue, p)) {
+				cancelled = true;
+				break;
+			}
+
+			// take the nearest node in defect
+			p.run.phase(2);
+			int end = -1;
+			for (int v = 0; v < n; v++)
+				if (demand[v] < 0 && dist[v] != Long.MAX_VALUE && (end == -1 || dist[v] < dist[end]))
+					end = v;
+
+			if (end == -1)
+				throw new IllegalStateException("Given graph has no eligible flows");
+
+			int flow = net.augment(parentArc, n, end, -demand[end]);
+			demand[end] += flow;
+			sent += flow;
+			total += flow * dist[end];
+
+			p.augmentations++;
+			p.flow = sent;
+			p.cost = total;
+		}
+
+		p.done();
+
+		int[] result = new int[m];
+		for (int e = 0; e < m; e++)
+			result[e] = net.flow(e);
+
+		return new FlowResult<>(g, result, sent, total, p.augmentations, null, cancelled);
+	}
+
+	/**
+	 * queue based Bellman-Ford from s on the arcs with residual capacity
+	 *
+	 * @return false if cancelled
+	 * @throws IllegalStateException if a negative cycle is found
+	 */
+
+	private static boolean shortestPaths(ResidualNetwork net, int s, long[] dist, int[] parentArc, int[] count,
+			boolean[] queued, int[] queue, ProgressReporter p) {
+		int size = net.size;
+		Arrays.fill(dist, Long.MAX_VALUE);
+		Arrays.fill(count, 0);
+		dist[s] = 0;
+
+		// circular queue, a node is never queued twice
+		int qh = 0;
+		int length = 1;
+		queue[0] = s;
+		queued[s] = true;
+
+		for (long pops = 1; length > 0; pops++) {
+			if ((pops & POLL_MASK) == 0 && p.tick()) {
+				Arrays.fill(queued, false);
+				return false;
+			}
+
+			int u = queue[qh];
+			qh = (qh + 1) % size;
+			length--;
+			queued[u] = false;
+
+			for (int i = net.start[u]; i < net.start[u + 1]; i++) {
+				int a = net.arcs[i];
+				if (net.res[a] == 0)
+					continue;
+
+				int v = net.head[a];
+				long d = dist[u] + net.cost[a];
+				p.relaxations++;
+
+				if (d < dist[v]) {
+					dist[v] = d;
+					parentArc[v] = a;
+
+					if (++count[v] > size)
+						throw new IllegalStateException(
+								"Pseudoflux is not ammissible. Negative cycle found in residual graph");
+
+					if (!queued[v]) {
+						queued[v] = true;
+						queue[(qh + length++) % size] = v;
+					}
+				}
+			}
+		}
+
+		return true;
+	}
+
+	private static <T> int index(CsrGraph<T> g, Node<T> n) {
+		int i = g.indexOf(n);
+		if (i == -1)
+			throw new IllegalArgumentException("Invalid node. Node is not in the graph");
+
+		return i;
+	}
+}
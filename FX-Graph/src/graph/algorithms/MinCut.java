@@ -0,0 +1,445 @@
+package graph.algorithms;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import graph.annotations.NotNull;
+
+/**
+ * Global minimum cut of an undirected {@link CsrGraph}. The graph is read from
+ * its out edges, where each edge u -&gt; v has a twin v -&gt; u with the same
+ * weight, like the csr copy of an undirected {@link graph.gui.FXGraph}. A graph
+ * without weights counts the edges of the cut.
+ *
+ * Stoer-Wagner algorithm is exact and runs V phases of maximum adjacency
+ * search with a binary heap, O(V E log V) overall. Karger-Stein algorithm
+ * contracts random edges, chosen with probability proportional to their
+ * weight, down to V / sqrt(2) nodes twice and recurses on both graphs. A trial
+ * takes O(V^2 log V) and finds a minimum cut with probability at least about
+ * 1 / log V, the 2 branches of large graphs and the trials run in parallel.
+ */
+
+public final class MinCut {
+
+	// graphs smaller than this are not split in parallel branches
+	private static final int FORK_THRESHOLD = 2048;
+
+	// graphs solved exactly with Stoer-Wagner at the leaves of Karger-Stein
+	private static final int BASE = 24;
+
+	private MinCut() {
+	}
+
+	/**
+	 * @param g an undirected graph with non negative weights
+	 * @return a minimum cut
+	 * @throws IllegalArgumentException if the graph has less than 2 nodes or a
+	 *                                  negative weight
+	 */
+
+	@NotNull
+	public static <T> Cut<T> stoerWagner(@NotNull CsrGraph<T> g) {
+		AlgorithmRun run = AlgorithmRun.start("Stoer-Wagner", g.size(), g.edgeCount(), "multigraph", "phases");
+		run.phase(0);
+		Multigraph mg = Multigraph.of(g);
+
+		run.phase(1);
+		Partition p = stoerWagner(mg);
+
+		// a phase for each merge of 2 nodes
+		run.addIterations(mg.k - 1);
+		run.end();
+
+		return new Cut<>(g, p.side, p.value);
+	}
+
+	/**
+	 * run Karger-Stein on the common fork join pool
+	 *
+	 * @param g      an undirected graph with non negative weights
+	 * @param trials the number of independent runs, the smallest cut is kept
+	 * @param seed   the seed of the random contractions
+	 * @return the smallest cut found
+	 * @throws IllegalArgumentException if the graph has less than 2 nodes or a
+	 *                                  negative weight, or trials is not positive
+	 */
+
+	@NotNull
+	public static <T> Cut<T> kargerStein(@NotNull CsrGraph<T> g, int trials, long seed) {
+		return kargerStein(g, trials, seed, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * run Karger-Stein on the given pool, see
+	 * {@link #kargerStein(CsrGraph, int, long)}
+	 */
+
+	@NotNull
+	public static <T> Cut<T> kargerStein(@NotNull CsrGraph<T> g, int trials, long seed,
+			@NotNull ForkJoinPool pool) {
+		Objects.requireNonNull(pool);
+
+		if (trials <= 0)
+			throw new IllegalArgumentException("Trials must be positive");
+
+		AlgorithmRun run = AlgorithmRun.start("Karger-Stein", g.size(), g.edgeCount(), "multigraph", "trials");
+		run.phase(0);
+		Multigraph mg = Multigraph.of(g);
+		SplittableRandom random = new SplittableRandom(seed);
+
+		Trial[] tasks = new Trial[trials];
+		for (int i = 0; i < trials; i++)
+			tasks[i] = new Trial(mg, random.split());
+
+		run.phase(1);
+		Partition best = pool.invoke(new RecursiveTask<Partition>() {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected Partition compute() {
+				invokeAll(tasks);
+
+				Partition min = tasks[0].join();
+				for (Trial t : tasks)
+					if (t.join().value < min.value)
+						min = t.join();
+
+				return min;
+			}
+		});
+
+		run.addIterations(trials);
+		run.end();
+
+		return new Cut<>(g, best.side, best.value);
+	}
+
+	/**
+	 * maximum adjacency search, the last node added in a phase is separated from
+	 * the rest by the cut of the phase and then merged with the node added before
+	 */
+
+	private static Partition stoerWagner(Multigraph mg) {
+		int k = mg.k;
+		int m = mg.u.length;
+
+		int[] start = new int[k + 1];
+		for (int i = 0; i < m; i++) {
+			start[mg.u[i] + 1]++;
+			start[mg.v[i] + 1]++;
+		}
+
+		for (int x = 0; x < k; x++)
+			start[x + 1] += start[x];
+
+		int[] adj = new int[2 * m];
+		double[] wt = new double[2 * m];
+		int[] fill = Arrays.copyOf(start, k);
+
+		for (int i = 0; i < m; i++) {
+			adj[fill[mg.u[i]]] = mg.v[i];
+			wt[fill[mg.u[i]]++] = mg.w[i];
+			adj[fill[mg.v[i]]] = mg.u[i];
+			wt[fill[mg.v[i]]++] = mg.w[i];
+		}
+
+		// merged nodes, members are kept in linked lists
+		int[] parent = new int[k];
+		int[] next = new int[k];
+		int[] tail = new int[k];
+		int[] active = new int[k];
+		for (int x = 0; x < k; x++) {
+			parent[x] = x;
+			next[x] = -1;
+			tail[x] = x;
+			active[x] = x;
+		}
+
+		IndexedHeap heap = new IndexedHeap(k);
+		double[] key = new double[k];
+		boolean[] added = new boolean[k];
+
+		double best = Double.POSITIVE_INFINITY;
+		boolean[] side = new boolean[k];
+
+		for (int count = k; count > 1; count--) {
+			for (int i = 0; i < count; i++) {
+				key[active[i]] = 0;
+				added[active[i]] = false;
+				heap.offer(active[i], 0);
+			}
+
+			int s = -1;
+			int t = -1;
+
+			while (!heap.isEmpty()) {
+				int a = heap.poll();
+				s = t;
+				t = a;
+				added[a] = true;
+
+				for (int x = a; x != -1; x = next[x])
+					for (int p = start[x]; p < start[x + 1]; p++) {
+						int y = find(parent, adj[p]);
+
+						// keys are negated, the heap polls the most connected node
+						if (!added[y]) {
+							key[y] += wt[p];
+							heap.update(y, -key[y]);
+						}
+					}
+			}
+
+			if (key[t] < best) {
+				best = key[t];
+				Arrays.fill(side, false);
+				for (int x = t; x != -1; x = next[x])
+					side[x] = true;
+			}
+
+			parent[t] = s;
+			next[tail[s]] = t;
+			tail[s] = tail[t];
+
+			for (int i = 0; i < count; i++)
+				if (active[i] == t)
+					active[i] = active[count - 1];
+		}
+
+		return new Partition(side, best);
+	}
+
+	private static int find(int[] parent, int x) {
+		while (parent[x] != x) {
+			parent[x] = parent[parent[x]];
+			x = parent[x];
+		}
+
+		return x;
+	}
+
+	/**
+	 * an undirected graph with parallel edges, each edge is stored once
+	 */
+
+	private static final class Multigraph {
+
+		private final int k;
+		private final int[] u;
+		private final int[] v;
+		private final double[] w;
+
+		private Multigraph(int k, int[] u, int[] v, double[] w) {
+			this.k = k;
+			this.u = u;
+			this.v = v;
+			this.w = w;
+		}
+
+		private static Multigraph of(CsrGraph<?> g) {
+			Objects.requireNonNull(g);
+
+			if (g.size() < 2)
+				throw new IllegalArgumentException("A cut needs at least 2 nodes");
+
+			IntList us = new IntList();
+			IntList vs = new IntList();
+			IntList ids = new IntList();
+
+			// the twin of each edge is skipped
+			for (int x = 0; x < g.size(); x++)
+				for (int e = g.outStart(x); e < g.outEnd(x); e++)
+					if (x < g.target(e)) {
+						if (g.isWeighted() && g.weight(e) < 0)
+							throw new IllegalArgumentException("Negative weight found on edge " + g.edge(e));
+
+						us.add(x);
+						vs.add(g.target(e));
+						ids.add(e);
+					}
+
+			double[] w = new double[ids.size];
+			for (int i = 0; i < ids.size; i++)
+				w[i] = g.isWeighted() ? g.weight(ids.data[i]) : 1;
+
+			return new Multigraph(g.size(), us.toArray(), vs.toArray(), w);
+		}
+
+		/**
+		 * merge the ends of random edges, chosen with probability proportional to
+		 * their weight, until the given number of nodes is left
+		 *
+		 * @param map filled with the node of the new graph of each node
+		 */
+
+		private Multigraph contract(int target, SplittableRandom random, int[] map) {
+			int m = u.length;
+
+			// contracting in order of exponential arrival times with rate w
+			// chooses each next edge with probability proportional to its weight.
+			// The float bits of a positive key sort as integers, the low bits
+			// keep the edge
+			long[] order = new long[m];
+			for (int i = 0; i < m; i++) {
+				float t = w[i] > 0 ? (float) (-Math.log(1 - random.nextDouble()) / w[i]) : Float.MAX_VALUE;
+				order[i] = (long) Float.floatToIntBits(t) << 32 | i;
+			}
+
+			Arrays.sort(order);
+
+			int[] parent = new int[k];
+			for (int x = 0; x < k; x++)
+				parent[x] = x;
+
+			int count = k;
+			for (int i = 0; i < m && count > target; i++) {
+				int e = (int) order[i];
+				int a = find(parent, u[e]);
+				int b = find(parent, v[e]);
+
+				if (a != b) {
+					parent[a] = b;
+					count--;
+				}
+			}
+
+			// components left by a disconnected graph are merged arbitrarily
+			int[] label = new int[k];
+			Arrays.fill(label, -1);
+			int size = 0;
+
+			for (int x = 0; x < k; x++) {
+				int r = find(parent, x);
+				if (label[r] == -1)
+					label[r] = size < target ? size++ : target - 1;
+
+				map[x] = label[r];
+			}
+
+			// parallel edges are merged, so the small graphs deep in the recursion
+			// have few edges. Edges are bucketed by their smaller end, slot holds
+			// the merged edge of the current bucket for each larger end
+			int[] bucket = new int[size + 1];
+			for (int i = 0; i < m; i++)
+				if (map[u[i]] != map[v[i]])
+					bucket[Math.min(map[u[i]], map[v[i]]) + 1]++;
+
+			for (int a = 0; a < size; a++)
+				bucket[a + 1] += bucket[a];
+
+			int[] edges = new int[bucket[size]];
+			int[] fill = Arrays.copyOf(bucket, size);
+			for (int i = 0; i < m; i++)
+				if (map[u[i]] != map[v[i]])
+					edges[fill[Math.min(map[u[i]], map[v[i]])]++] = i;
+
+			IntList us = new IntList();
+			IntList vs = new IntList();
+			double[] ws = new double[edges.length];
+			int[] slot = new int[size];
+			Arrays.fill(slot, -1);
+
+			for (int a = 0; a < size; a++)
+				for (int j = bucket[a]; j < bucket[a + 1]; j++) {
+					int i = edges[j];
+					int b = Math.max(map[u[i]], map[v[i]]);
+
+					if (slot[b] != -1 && us.data[slot[b]] == a)
+						ws[slot[b]] += w[i];
+					else {
+						slot[b] = us.size;
+						ws[us.size] = w[i];
+						us.add(a);
+						vs.add(b);
+					}
+				}
+
+			return new Multigraph(size, us.toArray(), vs.toArray(), Arrays.copyOf(ws, us.size));
+		}
+	}
+
+	private static final class Partition {
+
+		private final boolean[] side;
+		private final double value;
+
+		private Partition(boolean[] side, double value) {
+			this.side = side;
+			this.value = value;
+		}
+	}
+
+	/**
+	 * a recursion step of Karger-Stein
+	 */
+
+	private static final class Trial extends RecursiveTask<Partition> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Multigraph mg;
+		private final SplittableRandom random;
+
+		private Trial(Multigraph mg, SplittableRandom random) {
+			this.mg = mg;
+			this.random = random;
+		}
+
+		@Override
+		protected Partition compute() {
+			if (mg.k <= BASE)
+				return stoerWagner(mg);
+
+			int target = (int) Math.ceil(1 + mg.k / Math.sqrt(2));
+
+			Branch a = new Branch(mg, target, random.split());
+			Branch b = new Branch(mg, target, random.split());
+
+			if (mg.k >= FORK_THRESHOLD)
+				invokeAll(a, b);
+			else {
+				a.invoke();
+				b.invoke();
+			}
+
+			return a.join().value <= b.join().value ? a.join() : b.join();
+		}
+	}
+
+	/**
+	 * contract a graph and solve it with a new recursion step, the cut is mapped
+	 * back to the nodes of the graph
+	 */
+
+	private static final class Branch extends RecursiveTask<Partition> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Multigraph mg;
+		private final int target;
+		private final SplittableRandom random;
+
+		private Branch(Multigraph mg, int target, SplittableRandom random) {
+			this.mg = mg;
+			this.target = target;
+			this.random = random;
+		}
+
+		@Override
+		protected Partition compute() {
+			int[] map = new int[mg.k];
+			Multigraph small = mg.contract(target, random, map);
+			Partition p = new Trial(small, random).invoke();
+
+			boolean[] side = new boolean[mg.k];
+			for (int x = 0; x < mg.k; x++)
+				side[x] = p.side[map[x]];
+
+			return new Partition(side, p.value);
+		}
+	}
+}
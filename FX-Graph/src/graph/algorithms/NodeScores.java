@@ -0,0 +1,95 @@
+package graph.algorithms;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import graph.annotations.NotNull;
+import graph.gui.Node;
+
+/**
+ * Result of a centrality algorithm. The score of each node is stored in a
+ * primitive array indexed by the node index of the searched {@link CsrGraph}.
+ *
+ * @param <T> the node value type
+ */
+
+public final class NodeScores<T> {
+
+	private final CsrGraph<T> graph;
+	private final double[] scores;
+	private final int iterations;
+
+	NodeScores(CsrGraph<T> graph, double[] scores, int iterations) {
+		this.graph = graph;
+		this.scores = scores;
+		this.iterations = iterations;
+	}
+
+	@NotNull
+	public CsrGraph<T> getGraph() {
+		return graph;
+	}
+
+	/**
+	 * @return the score of the node or {@link Double#NaN} if the node is not in
+	 *         the graph
+	 */
+
+	public double getScore(@NotNull Node<T> n) {
+		int i = graph.indexOf(n);
+		return i == -1 ? Double.NaN : scores[i];
+	}
+
+	/**
+	 * @return the highest score, 0 if the graph is empty
+	 */
+
+	public double getMax() {
+		double max = 0;
+		for (double s : scores)
+			max = Math.max(max, s);
+
+		return max;
+	}
+
+	/**
+	 * @return the number of iterations of an iterative algorithm, 0 for the
+	 *         others
+	 */
+
+	public int getIterations() {
+		return iterations;
+	}
+
+	/**
+	 * get the nodes with the highest scores
+	 *
+	 * @param k the max number of nodes
+	 * @return the nodes sorted by decreasing score
+	 */
+
+	@NotNull
+	public List<Node<T>> getTop(int k) {
+		ArrayList<Integer> order = new ArrayList<>(scores.length);
+		for (int i = 0; i < scores.length; i++)
+			order.add(i);
+
+		order.sort((a, b) -> Double.compare(scores[b], scores[a]));
+
+		ArrayList<Node<T>> tmp = new ArrayList<>(Math.min(k, scores.length));
+		for (int i = 0; i < Math.min(k, scores.length); i++)
+			tmp.add(graph.getNode(order.get(i)));
+
+		return Collections.unmodifiableList(tmp);
+	}
+
+	/**
+	 * @return the score of each node. The array is not copied
+	 */
+
+	@NotNull
+	public double[] getScores() {
+		return scores;
+	}
+}
@@ -0,0 +1,160 @@
+package graph.algorithms;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+
+import graph.annotations.NotNull;
+
+/**
+ * PageRank of the nodes of a {@link CsrGraph} with parallel power iteration. A
+ * random surfer follows an out edge with probability equal to the damping
+ * factor, chosen in proportion to its weight if the graph is weighted, and
+ * jumps to a random node otherwise. Nodes without out edges spread their rank
+ * over all the nodes.
+ *
+ * Each iteration pulls the rank of a node from the sources of its in edges, so
+ * every node is written by one task only and no atomic update is needed. The
+ * iteration stops when the L1 distance between 2 rank vectors is below the
+ * tolerance.
+ */
+
+public final class PageRank {
+
+	// nodes updated by a single task
+	private static final int GRAIN = 4096;
+
+	private PageRank() {
+	}
+
+	/**
+	 * compute the PageRank on the common fork join pool with damping 0.85,
+	 * tolerance 1e-9 and at most 100 iterations
+	 *
+	 * @param g the graph, weights are used if present
+	 * @return the rank of each node, the ranks sum to 1
+	 * @throws IllegalArgumentException if an edge has a negative weight
+	 */
+
+	@NotNull
+	public static <T> NodeScores<T> run(@NotNull CsrGraph<T> g) {
+		return run(g, 0.85, 1e-9, 100, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * compute the PageRank on the given pool
+	 *
+	 * @param g             the graph, weights are used if present
+	 * @param damping       the probability to follow an edge, in [0, 1)
+	 * @param tolerance     the L1 distance between 2 iterations to stop
+	 * @param maxIterations the max number of iterations
+	 * @param pool          the pool running the iterations
+	 * @return the rank of each node, the ranks sum to 1, and the number of
+	 *         iterations
+	 * @throws IllegalArgumentException if damping is not in [0, 1), tolerance is
+	 *                                  negative, maxIterations is not positive or
+	 *                                  an edge has a negative weight
+	 */
+
+	@NotNull
+	public static <T> NodeScores<T> run(@NotNull CsrGraph<T> g, double damping, double tolerance,
+			int maxIterations, @NotNull ForkJoinPool pool) {
+		Objects.requireNonNull(g);
+		Objects.requireNonNull(pool);
+
+		if (!(damping >= 0 && damping < 1))
+			throw new IllegalArgumentException("Damping must be in [0, 1)");
+
+		if (!(tolerance >= 0))
+			throw new IllegalArgumentException("Tolerance must not be negative");
+
+		if (maxIterations <= 0)
+			throw new IllegalArgumentException("Max iterations must be positive");
+
+		int n = g.size();
+		if (n == 0)
+			return new NodeScores<>(g, new double[0], 0);
+
+		// total weight of the out edges, the out degree if there are no weights
+		double[] outWeight = new double[n];
+		for (int u = 0; u < n; u++)
+			for (int e = g.outStart(u); e < g.outEnd(u); e++) {
+				if (g.isWeighted() && g.weight(e) < 0)
+					throw new IllegalArgumentException("Negative weight found on edge " + g.edge(e));
+
+				outWeight[u] += g.isWeighted() ? g.weight(e) : 1;
+			}
+
+		AlgorithmRun run = AlgorithmRun.start("PageRank", n, g.edgeCount());
+		int chunks = Parallel.chunks(n, GRAIN);
+		double[] partial = new double[chunks];
+		double[] rank = new double[n];
+		double[] next = new double[n];
+		double[] share = new double[n];
+		Arrays.fill(rank, 1.0 / n);
+
+		int it = 0;
+		while (it < maxIterations) {
+			it++;
+
+			double[] cur = rank;
+			double[] upd = next;
+
+			// rank sent along each unit of out weight and rank of the dangling
+			// nodes
+			Parallel.forEach(pool, chunks, c -> {
+				double dangling = 0;
+
+				int end = Math.min(n, (c + 1) * GRAIN);
+				for (int u = c * GRAIN; u < end; u++)
+					if (outWeight[u] > 0)
+						share[u] = cur[u] / outWeight[u];
+					else {
+						share[u] = 0;
+						dangling += cur[u];
+					}
+
+				partial[c] = dangling;
+			});
+
+			double base = (1 - damping + damping * sum(partial)) / n;
+
+			Parallel.forEach(pool, chunks, c -> {
+				double diff = 0;
+
+				int end = Math.min(n, (c + 1) * GRAIN);
+				for (int v = c * GRAIN; v < end; v++) {
+					double in = 0;
+					for (int i = g.inStart(v); i < g.inEnd(v); i++)
+						in += share[g.source(i)] * (g.isWeighted() ? g.weight(g.inEdge(i)) : 1);
+
+					upd[v] = base + damping * in;
+					diff += Math.abs(upd[v] - cur[v]);
+				}
+
+				partial[c] = diff;
+			});
+
+			rank = upd;
+			next = cur;
+
+			if (sum(partial) < tolerance)
+				break;
+		}
+
+		// each iteration pulls the rank along every edge
+		run.addIterations(it);
+		run.addRelaxations((long) it * g.edgeCount());
+		run.end();
+
+		return new NodeScores<>(g, rank, it);
+	}
+
+	private static double sum(double[] a) {
+		double s = 0;
+		for (double x : a)
+			s += x;
+
+		return s;
+	}
+}
@@ -0,0 +1,64 @@
+package graph.algorithms;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * Small fork/join helpers shared by the parallel algorithms.
+ */
+
+final class Parallel {
+
+	private Parallel() {
+	}
+
+	/**
+	 * number of chunks needed to cover a range split in blocks of the given size
+	 */
+
+	static int chunks(int size, int grain) {
+		return (size + grain - 1) / grain;
+	}
+
+	/**
+	 * run body for each chunk index in [0, chunks) on the given pool and wait for
+	 * all of them to complete
+	 */
+
+	static void forEach(ForkJoinPool pool, int chunks, IntConsumer body) {
+		if (chunks <= 0)
+			return;
+
+		if (chunks == 1)
+			body.accept(0);
+		else
+			pool.invoke(new ChunkAction(0, chunks, body));
+	}
+
+	private static final class ChunkAction extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int lo;
+		private final int hi;
+		private final IntConsumer body;
+
+		ChunkAction(int lo, int hi, IntConsumer body) {
+			this.lo = lo;
+			this.hi = hi;
+			this.body = body;
+		}
+
+		@Override
+		protected void compute() {
+			if (hi - lo == 1) {
+				body.accept(lo);
+				return;
+			}
+
+			int mid = (lo + hi) >>> 1;
+			invokeAll(new ChunkAction(lo, mid, body), new ChunkAction(mid, hi, body));
+		}
+	}
+}
@@ -0,0 +1,160 @@
+package graph.algorithms;
+
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import graph.annotations.NotNull;
+
+/**
+ * Parallel minimum spanning forest with Boruvka's algorithm. Each round finds
+ * in parallel the cheapest edge leaving every component and contracts the
+ * components with a {@link ConcurrentUnionFind}. Edges are compared by weight
+ * and then by their endpoints, so the order is strict and the chosen edges can
+ * never close a cycle.
+ */
+
+public final class ParallelBoruvka {
+
+	// nodes processed by a single task
+	private static final int GRAIN = 1024;
+
+	private ParallelBoruvka() {
+	}
+
+	/**
+	 * run the algorithm on the common fork join pool
+	 *
+	 * @param g a weighted graph where each edge u -&gt; v has a twin v -&gt; u
+	 *          with the same weight, like the csr copy of an undirected
+	 *          {@link graph.gui.FXGraph}
+	 * @return the minimum spanning forest
+	 * @throws IllegalStateException if the graph has no weights
+	 */
+
+	@NotNull
+	public static <T> SpanningForest<T> run(@NotNull CsrGraph<T> g) {
+		return run(g, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * run the algorithm on the given pool, see {@link #run(CsrGraph)}
+	 */
+
+	@NotNull
+	public static <T> SpanningForest<T> run(@NotNull CsrGraph<T> g, @NotNull ForkJoinPool pool) {
+		Objects.requireNonNull(g);
+		Objects.requireNonNull(pool);
+
+		if (!g.isWeighted())
+			throw new IllegalStateException("Graph has been built without weight converter");
+
+		int n = g.size();
+		int chunks = Parallel.chunks(n, GRAIN);
+
+		ConcurrentUnionFind uf = new ConcurrentUnionFind(n);
+		AtomicIntegerArray cheapest = new AtomicIntegerArray(n);
+		IntList forest = new IntList();
+		int components = n;
+
+		AlgorithmRun run = AlgorithmRun.start("Boruvka", n, g.edgeCount(), "cheapest edges", "merge");
+
+		while (true) {
+			run.phase(0);
+			run.addIterations(1);
+			// every edge is looked at in each round
+			run.addRelaxations(g.edgeCount());
+
+			for (int i = 0; i < n; i++)
+				cheapest.set(i, -1);
+
+			// find the cheapest edge leaving each component
+			Parallel.forEach(pool, chunks, c -> {
+				int end = Math.min(n, (c + 1) * GRAIN);
+
+				for (int u = c * GRAIN; u < end; u++) {
+					int cu = uf.find(u);
+
+					for (int e = g.outStart(u); e < g.outEnd(u); e++)
+						if (uf.find(g.target(e)) != cu)
+							offer(g, cheapest, cu, e);
+				}
+			});
+
+			// merge the components, an edge chosen by both its components is taken
+			// only once
+			run.phase(1);
+			IntList[] taken = new IntList[chunks];
+			Parallel.forEach(pool, chunks, c -> {
+				IntList local = new IntList();
+				int end = Math.min(n, (c + 1) * GRAIN);
+
+				for (int r = c * GRAIN; r < end; r++) {
+					int e = cheapest.get(r);
+					if (e == -1)
+						continue;
+
+					int u = g.edgeSource(e);
+					int v = g.target(e);
+					if (uf.union(u, v))
+						local.add(e);
+				}
+
+				taken[c] = local;
+			});
+
+			int merged = 0;
+			for (IntList local : taken) {
+				forest.addAll(local.toArray());
+				merged += local.size;
+			}
+
+			if (merged == 0)
+				break;
+
+			components -= merged;
+		}
+
+		int[] ids = forest.toArray();
+		double cost = 0;
+		for (int e : ids)
+			cost += g.weight(e);
+
+		run.end();
+
+		return new SpanningForest<>(g, ids, cost, components);
+	}
+
+	/**
+	 * atomically replace the cheapest edge of a component if e is lighter
+	 */
+
+	private static void offer(CsrGraph<?> g, AtomicIntegerArray cheapest, int c, int e) {
+		while (true) {
+			int old = cheapest.get(c);
+			if (old != -1 && !lighter(g, e, old))
+				return;
+			if (cheapest.compareAndSet(c, old, e))
+				return;
+		}
+	}
+
+	/**
+	 * strict order on undirected edges: weight, then lower endpoint, then higher
+	 * endpoint. The two directions of an edge are equal
+	 */
+
+	private static boolean lighter(CsrGraph<?> g, int e1, int e2) {
+		int c = Double.compare(g.weight(e1), g.weight(e2));
+		if (c != 0)
+			return c < 0;
+
+		return Long.compare(key(g, e1), key(g, e2)) < 0;
+	}
+
+	private static long key(CsrGraph<?> g, int e) {
+		int u = g.edgeSource(e);
+		int v = g.target(e);
+		return ((long) Math.min(u, v) << 32) | Math.max(u, v);
+	}
+}
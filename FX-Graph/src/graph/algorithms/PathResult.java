@@ -0,0 +1,95 @@
+package graph.algorithms;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import graph.annotations.NotNull;
+import graph.gui.Edge;
+import graph.gui.Node;
+
+/**
+ * Result of a point to point shortest path query, the path is stored as the
+ * ids of its edges in the searched {@link CsrGraph}.
+ *
+ * @param <T> the node value type
+ */
+
+public final class PathResult<T> {
+
+	private final CsrGraph<T> graph;
+	private final int source;
+	private final int[] edges;
+	private final double cost;
+	private final int settled;
+
+	PathResult(CsrGraph<T> graph, int source, int[] edges, double cost, int settled) {
+		this.graph = graph;
+		this.source = source;
+		this.edges = edges;
+		this.cost = cost;
+		this.settled = settled;
+	}
+
+	@NotNull
+	public CsrGraph<T> getGraph() {
+		return graph;
+	}
+
+	public boolean isFound() {
+		return cost != Double.POSITIVE_INFINITY;
+	}
+
+	/**
+	 * @return the length of the path or {@link Double#POSITIVE_INFINITY} if the
+	 *         target is not reachable
+	 */
+
+	public double getCost() {
+		return cost;
+	}
+
+	/**
+	 * @return the number of nodes settled by the search
+	 */
+
+	public int getSettledCount() {
+		return settled;
+	}
+
+	/**
+	 * @return the ids of the path edges in the csr graph. The array is not copied
+	 */
+
+	@NotNull
+	public int[] getEdgeIds() {
+		return edges;
+	}
+
+	/**
+	 * @return the nodes of the path, source and target included, or an empty list
+	 *         if the target is not reachable
+	 */
+
+	@NotNull
+	public List<Node<T>> getNodes() {
+		if (!isFound())
+			return Collections.emptyList();
+
+		ArrayList<Node<T>> tmp = new ArrayList<>(edges.length + 1);
+		tmp.add(graph.getNode(source));
+		for (int e : edges)
+			tmp.add(graph.getNode(graph.target(e)));
+
+		return Collections.unmodifiableList(tmp);
+	}
+
+	@NotNull
+	public <K> List<Edge<K>> getEdges() {
+		ArrayList<Edge<K>> tmp = new ArrayList<>(edges.length);
+		for (int e : edges)
+			tmp.add(graph.edge(e));
+
+		return Collections.unmodifiableList(tmp);
+	}
+}
@@ -0,0 +1,14 @@
+package graph.algorithms;
+
+import graph.annotations.NotNull;
+
+public interface ProgressListener {
+
+	/**
+	 * called periodically on the thread running the algorithm
+	 *
+	 * @param p the current progress
+	 */
+
+	public void onProgress(@NotNull AlgorithmProgress p);
+}
@@ -0,0 +1,69 @@
+package graph.algorithms;
+
+/**
+ * Counters of a running algorithm which are sent to an
+ * {@link AlgorithmMonitor} at most every {@link #PERIOD} nanoseconds, and to
+ * an {@link AlgorithmRun} when the algorithm is done.
+ */
+
+final class ProgressReporter {
+
+	private static final long PERIOD = 100_000_000L;
+
+	private final String algorithm;
+	private final AlgorithmMonitor monitor;
+	private final long start = System.nanoTime();
+	private long last = start;
+	final AlgorithmRun run;
+
+	long iterations;
+	long augmentations;
+	long flow;
+	long cost;
+	long relaxations;
+	long residualInsertions;
+
+	/**
+	 * @param phases the phases of the run, see {@link AlgorithmRun#phase(int)}
+	 */
+
+	ProgressReporter(String algorithm, AlgorithmMonitor monitor, CsrGraph<?> g, String... phases) {
+		this.algorithm = algorithm;
+		this.monitor = monitor;
+		this.run = AlgorithmRun.start(algorithm, g.size(), g.edgeCount(), phases);
+	}
+
+	/**
+	 * report the progress if the period is elapsed
+	 *
+	 * @return true if the algorithm has been cancelled
+	 */
+
+	boolean tick() {
+		long now = System.nanoTime();
+		if (now - last >= PERIOD) {
+			last = now;
+			monitor.progress(snapshot(now));
+		}
+
+		return monitor.isCancelled();
+	}
+
+	/**
+	 * report the final progress
+	 */
+
+	void done() {
+		monitor.progress(snapshot(System.nanoTime()));
+
+		run.addIterations(iterations);
+		run.addAugmentations(augmentations);
+		run.addRelaxations(relaxations);
+		run.addResidualInsertions(residualInsertions);
+		run.end();
+	}
+
+	private AlgorithmProgress snapshot(long now) {
+		return new AlgorithmProgress(algorithm, iterations, augmentations, flow, cost, relaxations, now - start);
+	}
+}
@@ -0,0 +1,125 @@
+package graph.algorithms;
+
+/**
+ * Residual network on primitive arrays. Edge i is stored as the forward arc 2i
+ * and the backward arc 2i + 1, so the reverse of arc a is a ^ 1. Arcs are
+ * grouped by tail in csr form.
+ */
+
+final class ResidualNetwork {
+
+	final int size;
+	final int[] start;
+	final int[] arcs;
+	final int[] head;
+	final int[] res;
+	final long[] cost;
+
+	/**
+	 * @param size the number of nodes
+	 * @param tail the tail of each edge
+	 * @param head the head of each edge
+	 * @param cap  the capacity of each edge
+	 * @param flow the initial flow of each edge, null for no flow
+	 * @param cost the cost of each edge, null for no costs
+	 */
+
+	ResidualNetwork(int size, int[] tail, int[] head, int[] cap, int[] flow, long[] cost) {
+		int m = tail.length;
+
+		this.size = size;
+		this.start = new int[size + 1];
+		this.arcs = new int[2 * m];
+		this.head = new int[2 * m];
+		this.res = new int[2 * m];
+		this.cost = cost == null ? null : new long[2 * m];
+
+		for (int i = 0; i < m; i++) {
+			int f = flow == null ? 0 : flow[i];
+
+			this.head[2 * i] = head[i];
+			this.head[2 * i + 1] = tail[i];
+			this.res[2 * i] = cap[i] - f;
+			this.res[2 * i + 1] = f;
+
+			if (cost != null) {
+				this.cost[2 * i] = cost[i];
+				this.cost[2 * i + 1] = -cost[i];
+			}
+
+			start[tail[i] + 1]++;
+			start[head[i] + 1]++;
+		}
+
+		for (int u = 0; u < size; u++)
+			start[u + 1] += start[u];
+
+		int[] pos = new int[size];
+		for (int u = 0; u < size; u++)
+			pos[u] = start[u];
+
+		for (int i = 0; i < m; i++) {
+			arcs[pos[tail[i]]++] = 2 * i;
+			arcs[pos[head[i]]++] = 2 * i + 1;
+		}
+	}
+
+	int tail(int a) {
+		return head[a ^ 1];
+	}
+
+	/**
+	 * @return the flow on edge i
+	 */
+
+	int flow(int i) {
+		return res[2 * i + 1];
+	}
+
+	/**
+	 * send flow along the path ending in t, described by the arc used to reach
+	 * each node
+	 *
+	 * @return the flow sent, the minimum residual capacity of the path capped by
+	 *         limit
+	 */
+
+	int augment(int[] parentArc, int s, int t, int limit) {
+		int b = limit;
+		for (int v = t; v != s; v = tail(parentArc[v]))
+			b = Math.min(b, res[parentArc[v]]);
+
+		for (int v = t; v != s; v = tail(parentArc[v])) {
+			res[parentArc[v]] -= b;
+			res[parentArc[v] ^ 1] += b;
+		}
+
+		return b;
+	}
+
+	/**
+	 * @return the nodes reachable from s through arcs with residual capacity
+	 */
+
+	boolean[] reachable(int s) {
+		boolean[] seen = new boolean[size];
+		int[] queue = new int[size];
+		int qt = 0;
+
+		seen[s] = true;
+		queue[qt++] = s;
+
+		for (int qh = 0; qh < qt; qh++) {
+			int u = queue[qh];
+			for (int i = start[u]; i < start[u + 1]; i++) {
+				int a = arcs[i];
+				if (res[a] > 0 && !seen[head[a]]) {
+					seen[head[a]] = true;
+					queue[qt++] = head[a];
+				}
+			}
+		}
+
+		return seen;
+	}
+}
@@ -0,0 +1,118 @@
+package graph.algorithms;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import graph.annotations.NotNull;
+import graph.annotations.Nullable;
+import graph.gui.Node;
+
+/**
+ * Result of a single source shortest path algorithm. Distances and parents are
+ * stored in primitive arrays indexed by the node index of the searched
+ * {@link CsrGraph}.
+ *
+ * @param <T> the node value type
+ */
+
+public final class ShortestPaths<T> {
+
+	private final CsrGraph<T> graph;
+	private final int root;
+	private final double[] dist;
+	private final int[] parent;
+	private final boolean negativeCycle;
+
+	ShortestPaths(CsrGraph<T> graph, int root, double[] dist, int[] parent, boolean negativeCycle) {
+		this.graph = graph;
+		this.root = root;
+		this.dist = dist;
+		this.parent = parent;
+		this.negativeCycle = negativeCycle;
+	}
+
+	@NotNull
+	public CsrGraph<T> getGraph() {
+		return graph;
+	}
+
+	@NotNull
+	public Node<T> getRoot() {
+		return graph.getNode(root);
+	}
+
+	/**
+	 * @return true if a negative cycle is reachable from the root. In that case
+	 *         distances and parents are not meaningful and paths cannot be
+	 *         rebuilt
+	 */
+
+	public boolean hasNegativeCycle() {
+		return negativeCycle;
+	}
+
+	/**
+	 * @return the distance from the root or {@link Double#POSITIVE_INFINITY} if
+	 *         the node is not reachable
+	 */
+
+	public double getDistance(@NotNull Node<T> n) {
+		int i = graph.indexOf(n);
+		return i == -1 ? Double.POSITIVE_INFINITY : dist[i];
+	}
+
+	public boolean hasPathTo(@NotNull Node<T> n) {
+		return getDistance(n) != Double.POSITIVE_INFINITY;
+	}
+
+	@Nullable
+	public Node<T> getParent(@NotNull Node<T> n) {
+		int i = graph.indexOf(n);
+		return i == -1 || parent[i] == -1 ? null : graph.getNode(parent[i]);
+	}
+
+	/**
+	 * get the path from the root to a node
+	 *
+	 * @param n the destination node
+	 * @return the nodes of the path, root included, or an empty list if the node
+	 *         is not reachable
+	 * @throws IllegalStateException if a negative cycle has been found
+	 */
+
+	@NotNull
+	public List<Node<T>> getPathTo(@NotNull Node<T> n) {
+		if (negativeCycle)
+			throw new IllegalStateException("Negative cycle found, paths are not defined");
+
+		if (!hasPathTo(n))
+			return Collections.emptyList();
+
+		ArrayList<Node<T>> path = new ArrayList<>();
+		for (int i = graph.indexOf(n); i != -1; i = parent[i])
+			path.add(graph.getNode(i));
+
+		Collections.reverse(path);
+		return path;
+	}
+
+	/**
+	 * @return the distance of each node. The array is not copied
+	 */
+
+	@NotNull
+	public double[] getDistances() {
+		return dist;
+	}
+
+	/**
+	 * @return the parent index of each node, -1 for the root and the unreached
+	 *         nodes. The array is not copied
+	 */
+
+	@NotNull
+	public int[] getParents() {
+		return parent;
+	}
+}
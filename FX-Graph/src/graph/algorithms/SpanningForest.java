@@ -0,0 +1,73 @@
+package graph.algorithms;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import graph.annotations.NotNull;
+import graph.gui.Edge;
+
+/**
+ * Result of a minimum spanning forest algorithm.
+ *
+ * @param <T> the node value type
+ */
+
+public final class SpanningForest<T> {
+
+	private final CsrGraph<T> graph;
+	private final int[] edges;
+	private final double cost;
+	private final int components;
+
+	SpanningForest(CsrGraph<T> graph, int[] edges, double cost, int components) {
+		this.graph = graph;
+		this.edges = edges;
+		this.cost = cost;
+		this.components = components;
+	}
+
+	@NotNull
+	public CsrGraph<T> getGraph() {
+		return graph;
+	}
+
+	/**
+	 * @return the sum of the weights of the forest edges
+	 */
+
+	public double getCost() {
+		return cost;
+	}
+
+	/**
+	 * @return the number of trees of the forest, 1 if the graph is connected
+	 */
+
+	public int getComponentCount() {
+		return components;
+	}
+
+	/**
+	 * @return the ids of the forest edges in the csr graph, one direction for each
+	 *         undirected edge. The array is not copied
+	 */
+
+	@NotNull
+	public int[] getEdgeIds() {
+		return edges;
+	}
+
+	/**
+	 * @return the forest edges, one direction for each undirected edge
+	 */
+
+	@NotNull
+	public <K> List<Edge<K>> getEdges() {
+		ArrayList<Edge<K>> tmp = new ArrayList<>(edges.length);
+		for (int e : edges)
+			tmp.add(graph.edge(e));
+
+		return Collections.unmodifiableList(tmp);
+	}
+}
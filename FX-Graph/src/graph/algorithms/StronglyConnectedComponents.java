@@ -0,0 +1,103 @@
+package graph.algorithms;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import graph.annotations.NotNull;
+
+/**
+ * Tarjan's strongly connected components on a {@link CsrGraph}. The depth first
+ * search keeps its own stack of nodes and the position reached in the edges of
+ * each of them, so the call stack does not grow with the graph.
+ */
+
+public final class StronglyConnectedComponents {
+
+	private StronglyConnectedComponents() {
+	}
+
+	/**
+	 * @param g the graph
+	 * @return the component of each node, numbered in reverse topological order of
+	 *         the condensation
+	 */
+
+	@NotNull
+	public static <T> Components<T> run(@NotNull CsrGraph<T> g) {
+		Objects.requireNonNull(g);
+
+		int n = g.size();
+		int[] index = new int[n];
+		int[] low = new int[n];
+		int[] component = new int[n];
+		int[] next = new int[n];
+		Arrays.fill(index, -1);
+		Arrays.fill(component, -1);
+
+		// nodes of the open components and nodes of the search path
+		int[] open = new int[n];
+		int[] path = new int[n];
+		int openSize = 0;
+		int counter = 0;
+		int count = 0;
+		boolean acyclic = true;
+
+		AlgorithmRun run = AlgorithmRun.start("Tarjan SCC", n, g.edgeCount());
+
+		for (int r = 0; r < n; r++) {
+			if (index[r] != -1)
+				continue;
+
+			int depth = 0;
+			index[r] = low[r] = counter++;
+			next[r] = g.outStart(r);
+			open[openSize++] = r;
+			path[depth++] = r;
+
+			while (depth > 0) {
+				int v = path[depth - 1];
+
+				if (next[v] < g.outEnd(v)) {
+					int w = g.target(next[v]++);
+
+					if (index[w] == -1) {
+						index[w] = low[w] = counter++;
+						next[w] = g.outStart(w);
+						open[openSize++] = w;
+						path[depth++] = w;
+					} else if (component[w] == -1) {
+						// w is still open, so it is on the path or reaches it
+						low[v] = Math.min(low[v], index[w]);
+						acyclic = false;
+					}
+
+					continue;
+				}
+
+				depth--;
+
+				if (low[v] == index[v]) {
+					int w;
+					do {
+						w = open[--openSize];
+						component[w] = count;
+					} while (w != v);
+
+					count++;
+				}
+
+				if (depth > 0) {
+					int u = path[depth - 1];
+					low[u] = Math.min(low[u], low[v]);
+				}
+			}
+		}
+
+		// each node is pushed and each edge followed once
+		run.addIterations(n);
+		run.addRelaxations(g.edgeCount());
+		run.end();
+
+		return new Components<>(g, component, count, acyclic);
+	}
+}
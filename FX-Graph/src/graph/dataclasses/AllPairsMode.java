@@ -0,0 +1,6 @@
+package graph.dataclasses;
+
+public enum AllPairsMode {
+
+	AUTO, JOHNSON, FLOYD_WARSHALL
+}
@@ -0,0 +1,12 @@
+package graph.dataclasses;
+
+/**
+ * Class of an edge in a depth first search forest: tree edges discover a node,
+ * back edges go to an ancestor, forward edges to a descendant already reached
+ * and cross edges to a node of a finished subtree.
+ */
+
+public enum EdgeType {
+
+	TREE, BACK, FORWARD, CROSS
+}
@@ -0,0 +1,46 @@
+package graph.dataclasses;
+
+import graph.annotations.NotNull;
+import graph.gui.Node;
+
+/**
+ * Estimate of the distance between 2 nodes used to guide point to point
+ * searches. To find shortest paths the estimate must be admissible: it must
+ * never exceed the real distance.
+ *
+ * @param <T> the node value type
+ */
+
+public interface Heuristic<T> {
+
+	public double estimate(@NotNull Node<T> n, @NotNull Node<T> target);
+
+	/**
+	 * @return the heuristic always estimating 0, which turns a* into dijkstra
+	 */
+
+	@NotNull
+	public static <T> Heuristic<T> zero() {
+		return (n, target) -> 0;
+	}
+
+	/**
+	 * straight line distance between the centers of the nodes in the layout. It
+	 * is admissible when the weight of each edge is at least scale times the
+	 * length of the edge on screen, e.g. when weights are distances and the
+	 * layout is a map
+	 *
+	 * @param scale weight units for each layout unit
+	 * @return the heuristic
+	 */
+
+	@NotNull
+	public static <T> Heuristic<T> euclidean(double scale) {
+		return (n, target) -> {
+			double dx = n.getLayoutX() + n.getPrefWidth() / 2 - target.getLayoutX() - target.getPrefWidth() / 2;
+			double dy = n.getLayoutY() + n.getPrefHeight() / 2 - target.getLayoutY() - target.getPrefHeight() / 2;
+
+			return scale * Math.sqrt(dx * dx + dy * dy);
+		};
+	}
+}
@@ -0,0 +1,167 @@
+package graph.generators;
+
+import java.util.Arrays;
+
+/**
+ * Growable primitive edge list filled by the generators. When edges are unique
+ * they are indexed by an open addressing hash table of their keys, an
+ * undirected edge has the same key in both directions, so duplicates are
+ * rejected without boxing.
+ */
+
+final class EdgeBuffer {
+
+	private static final long EMPTY = -1;
+
+	private final boolean directed;
+	private final boolean unique;
+
+	int[] from;
+	int[] to;
+	double[] weight;
+	int size;
+
+	// linear probing table of the edge keys and their edge ids
+	private long[] keys;
+	private int[] ids;
+	private int mask;
+
+	EdgeBuffer(boolean directed, boolean unique, int capacity) {
+		this.directed = directed;
+		this.unique = unique;
+
+		int c = Math.max(16, capacity);
+		from = new int[c];
+		to = new int[c];
+		weight = new double[c];
+
+		if (unique)
+			resize(Integer.highestOneBit(Math.min(c, 1 << 28)) * 4);
+	}
+
+	/**
+	 * @return false if the edge is a self loop or a rejected duplicate
+	 */
+
+	boolean add(int u, int v, double w) {
+		if (u == v || (unique && indexOf(u, v) != -1))
+			return false;
+
+		if (size == from.length) {
+			from = Arrays.copyOf(from, size * 2);
+			to = Arrays.copyOf(to, size * 2);
+			weight = Arrays.copyOf(weight, size * 2);
+		}
+
+		from[size] = u;
+		to[size] = v;
+		weight[size] = w;
+
+		if (unique)
+			put(key(u, v), size);
+
+		size++;
+		return true;
+	}
+
+	/**
+	 * @return the id of the edge or -1 if the edge does not exist
+	 */
+
+	int indexOf(int u, int v) {
+		long k = key(u, v);
+
+		for (int i = slot(k);; i = (i + 1) & mask) {
+			if (keys[i] == EMPTY)
+				return -1;
+
+			if (keys[i] == k)
+				return ids[i];
+		}
+	}
+
+	/**
+	 * move the end of an edge to another node, the new edge must not exist
+	 */
+
+	void rewire(int e, int v) {
+		remove(key(from[e], to[e]));
+		to[e] = v;
+		put(key(from[e], v), e);
+	}
+
+	private long key(int u, int v) {
+		if (!directed && u > v)
+			return (long) v << 32 | u;
+
+		return (long) u << 32 | v;
+	}
+
+	private int slot(long k) {
+		k *= 0x9e3779b97f4a7c15L;
+		return (int) (k ^ k >>> 32) & mask;
+	}
+
+	private void put(long k, int id) {
+		// keep the table at most half full
+		if (2 * (size + 1) > keys.length)
+			resize(keys.length * 2);
+
+		int i = slot(k);
+		while (keys[i] != EMPTY && keys[i] != k)
+			i = (i + 1) & mask;
+
+		keys[i] = k;
+		ids[i] = id;
+	}
+
+	/**
+	 * remove a key shifting back the keys of its probe sequence, so no tombstone
+	 * is needed
+	 */
+
+	private void remove(long k) {
+		int i = slot(k);
+		while (keys[i] != k) {
+			if (keys[i] == EMPTY)
+				return;
+
+			i = (i + 1) & mask;
+		}
+
+		for (int j = (i + 1) & mask; keys[j] != EMPTY; j = (j + 1) & mask) {
+			int home = slot(keys[j]);
+
+			// the key at j can fill the hole if its home is not between the hole
+			// and j
+			if (((j - home) & mask) >= ((j - i) & mask)) {
+				keys[i] = keys[j];
+				ids[i] = ids[j];
+				i = j;
+			}
+		}
+
+		keys[i] = EMPTY;
+	}
+
+	private void resize(int capacity) {
+		long[] oldKeys = keys;
+		int[] oldIds = ids;
+
+		keys = new long[capacity];
+		ids = new int[capacity];
+		mask = capacity - 1;
+		Arrays.fill(keys, EMPTY);
+
+		if (oldKeys != null)
+			for (int i = 0; i < oldKeys.length; i++)
+				if (oldKeys[i] != EMPTY) {
+					int j = slot(oldKeys[i]);
+					while (keys[j] != EMPTY)
+						j = (j + 1) & mask;
+
+					keys[j] = oldKeys[i];
+					ids[j] = oldIds[i];
+				}
+	}
+}
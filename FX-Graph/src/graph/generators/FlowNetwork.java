@@ -0,0 +1,96 @@
+package graph.generators;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import graph.annotations.NotNull;
+import graph.dataclasses.FlowWeight;
+import graph.gui.FXGraph;
+import graph.gui.Node;
+import javafx.geometry.Rectangle2D;
+
+/**
+ * Random flow network built by {@link Generators#flowNetwork}: a directed graph
+ * whose weights are the edge costs, the capacity of each edge and the supply of
+ * each node, positive for the nodes in excess and negative for the nodes in
+ * defect. The supplies can always be balanced within the capacities.
+ */
+
+public final class FlowNetwork {
+
+	private final GeneratedGraph graph;
+	private final int[] capacity;
+	private final int[] supply;
+
+	FlowNetwork(GeneratedGraph graph, int[] capacity, int[] supply) {
+		this.graph = graph;
+		this.capacity = capacity;
+		this.supply = supply;
+	}
+
+	@NotNull
+	public GeneratedGraph getGraph() {
+		return graph;
+	}
+
+	public int getCapacity(int e) {
+		if (e < 0 || e >= capacity.length)
+			throw new IllegalArgumentException("Invalid edge " + e);
+
+		return capacity[e];
+	}
+
+	public int getSupply(int n) {
+		if (n < 0 || n >= supply.length)
+			throw new IllegalArgumentException("Invalid node " + n);
+
+		return supply[n];
+	}
+
+	/**
+	 * create a graph whose edge weights are {@link FlowWeight} with the cost as
+	 * value, as {@link FXGraph#minFlow(Map, Map)} expects. Must be called on the
+	 * JavaFX thread
+	 *
+	 * @param range the area of the layout
+	 * @return the new graph
+	 */
+
+	@NotNull
+	public FXGraph<Integer, FlowWeight> toGraph(@NotNull Rectangle2D range) {
+		return graph.toGraph(graph.createNodes(range), e -> new FlowWeight((int) graph.getWeight(e), capacity[e]));
+	}
+
+	/**
+	 * @param g a graph created by {@link #toGraph(Rectangle2D)}
+	 * @return the nodes in excess with their supply
+	 */
+
+	@NotNull
+	public Map<Node<Integer>, Integer> getExcess(@NotNull FXGraph<Integer, FlowWeight> g) {
+		return imbalances(g.getNodes(), 1);
+	}
+
+	/**
+	 * @param g a graph created by {@link #toGraph(Rectangle2D)}
+	 * @return the nodes in defect with their negative supply
+	 */
+
+	@NotNull
+	public Map<Node<Integer>, Integer> getDefect(@NotNull FXGraph<Integer, FlowWeight> g) {
+		return imbalances(g.getNodes(), -1);
+	}
+
+	private Map<Node<Integer>, Integer> imbalances(List<Node<Integer>> nodes, int sign) {
+		HashMap<Node<Integer>, Integer> tmp = new HashMap<>();
+
+		for (Node<Integer> n : nodes) {
+			int v = n.getValue();
+			if (v >= 0 && v < supply.length && Integer.signum(supply[v]) == sign)
+				tmp.put(n, supply[v]);
+		}
+
+		return tmp;
+	}
+}
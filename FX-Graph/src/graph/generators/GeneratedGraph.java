@@ -0,0 +1,135 @@
+package graph.generators;
+
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+import java.util.function.DoubleFunction;
+import java.util.function.IntFunction;
+
+import graph.annotations.NotNull;
+import graph.dataclasses.GraphTriple;
+import graph.gui.FXGraph;
+import graph.gui.Node;
+import javafx.geometry.Rectangle2D;
+
+/**
+ * Graph built by {@link Generators}, stored as primitive arrays of edges between
+ * the nodes 0 to size-1. It holds no JavaFX object, so it can be generated off
+ * the JavaFX thread and turned into a {@link FXGraph} later. An undirected
+ * graph stores each edge once.
+ */
+
+public final class GeneratedGraph {
+
+	private final int size;
+	private final boolean directed;
+	private final int[] from;
+	private final int[] to;
+	private final double[] weight;
+	private final int edges;
+
+	// layout of the nodes in [0, 1], null for a random layout
+	private final double[] x;
+	private final double[] y;
+	private final long seed;
+
+	GeneratedGraph(int size, boolean directed, EdgeBuffer buf, double[] x, double[] y, long seed) {
+		this.size = size;
+		this.directed = directed;
+		this.from = buf.from;
+		this.to = buf.to;
+		this.weight = buf.weight;
+		this.edges = buf.size;
+		this.x = x;
+		this.y = y;
+		this.seed = seed;
+	}
+
+	/**
+	 * @return the number of nodes
+	 */
+
+	public int size() {
+		return size;
+	}
+
+	public int edgeCount() {
+		return edges;
+	}
+
+	public boolean isDirected() {
+		return directed;
+	}
+
+	public int getFrom(int e) {
+		return from[checkEdge(e)];
+	}
+
+	public int getTo(int e) {
+		return to[checkEdge(e)];
+	}
+
+	public double getWeight(int e) {
+		return weight[checkEdge(e)];
+	}
+
+	/**
+	 * create the nodes of the graph, the value of a node is its index. Nodes are
+	 * placed with the layout of the generator scaled to the range, or at seeded
+	 * random positions. Must be called on the JavaFX thread
+	 *
+	 * @param range the area of the layout
+	 * @return the nodes in index order
+	 */
+
+	@NotNull
+	public ArrayList<Node<Integer>> createNodes(@NotNull Rectangle2D range) {
+		SplittableRandom r = new SplittableRandom(seed);
+		ArrayList<Node<Integer>> tmp = new ArrayList<>(size);
+
+		for (int i = 0; i < size; i++) {
+			Node<Integer> n = new Node<>(i);
+			double px = x != null ? x[i] : r.nextDouble();
+			double py = y != null ? y[i] : r.nextDouble();
+
+			n.setLayoutX(range.getMinX() + px * range.getWidth());
+			n.setLayoutY(range.getMinY() + py * range.getHeight());
+			tmp.add(n);
+		}
+
+		return tmp;
+	}
+
+	/**
+	 * create a graph, directed if the generated graph is, with
+	 * {@link FXGraph#addAll}. Must be called on the JavaFX thread
+	 *
+	 * @param range  the area of the layout
+	 * @param weight function mapping the generated weights to edge weights
+	 * @return the new graph
+	 */
+
+	@NotNull
+	public <K> FXGraph<Integer, K> toGraph(@NotNull Rectangle2D range, @NotNull DoubleFunction<K> weight) {
+		return toGraph(createNodes(range), e -> weight.apply(this.weight[e]));
+	}
+
+	/**
+	 * @param w function mapping an edge index to its weight
+	 */
+
+	<K> FXGraph<Integer, K> toGraph(ArrayList<Node<Integer>> nodes, IntFunction<K> w) {
+		ArrayList<GraphTriple<Node<Integer>, K, Node<Integer>>> tmp = new ArrayList<>(edges);
+		for (int e = 0; e < edges; e++)
+			tmp.add(new GraphTriple<>(nodes.get(from[e]), w.apply(e), nodes.get(to[e])));
+
+		FXGraph<Integer, K> g = new FXGraph<>(directed);
+		return g.addAll(nodes, tmp);
+	}
+
+	private int checkEdge(int e) {
+		if (e < 0 || e >= edges)
+			throw new IllegalArgumentException("Invalid edge " + e);
+
+		return e;
+	}
+}
@@ -0,0 +1,482 @@
+package graph.generators;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import graph.annotations.NotNull;
+
+/**
+ * Seeded random graph generators for stress tests and benchmarks. The same
+ * arguments and seed always give the same graph. Edges are written to
+ * primitive arrays, without JavaFX objects, and loaded into a graph in bulk by
+ * {@link GeneratedGraph#toGraph}. Unless stated otherwise edge weights are
+ * uniform integers from 1 to {@link #MAX_WEIGHT}, self loops and duplicate
+ * edges are never generated.
+ */
+
+public final class Generators {
+
+	/**
+	 * max weight of the random edge weights
+	 */
+	public static final int MAX_WEIGHT = 100;
+
+	/**
+	 * max capacity of an edge of a flow network and max supply sent between 2
+	 * nodes
+	 */
+	public static final int MAX_CAPACITY = 20;
+
+	private Generators() {
+	}
+
+	/**
+	 * Erdos-Renyi G(n, p) graph: each pair of nodes is joined with probability p.
+	 * The pairs are skipped with geometric jumps, so the time is linear in the
+	 * number of nodes and edges
+	 *
+	 * @param n        number of nodes
+	 * @param p        probability of each edge
+	 * @param directed true to draw each ordered pair, false for unordered pairs
+	 * @param seed     the random seed
+	 * @return the graph
+	 * @throws IllegalArgumentException if n is negative or p is not in [0, 1]
+	 */
+
+	@NotNull
+	public static GeneratedGraph erdosRenyi(int n, double p, boolean directed, long seed) {
+		checkSize(n);
+		checkProbability(p);
+
+		SplittableRandom r = new SplittableRandom(seed);
+		long pairs = directed ? (long) n * (n - 1) : (long) n * (n - 1) / 2;
+		EdgeBuffer buf = new EdgeBuffer(directed, false, capacity(pairs * p));
+
+		if (!directed)
+			lowerPairs(n, p, null, r, buf);
+		else if (p > 0)
+			for (long k = skip(p, r); k < pairs; k += 1 + skip(p, r)) {
+				// pair k is the (k % (n-1))-th node other than k / (n-1)
+				int u = (int) (k / (n - 1));
+				int v = (int) (k % (n - 1));
+				buf.add(u, v >= u ? v + 1 : v, weight(r));
+			}
+
+		return new GeneratedGraph(n, directed, buf, null, null, seed);
+	}
+
+	/**
+	 * Barabasi-Albert preferential attachment: the graph starts as a clique of m+1
+	 * nodes and each new node is joined to m distinct nodes picked with
+	 * probability proportional to their degree. Undirected
+	 *
+	 * @param n    number of nodes
+	 * @param m    edges of each new node
+	 * @param seed the random seed
+	 * @return the graph
+	 * @throws IllegalArgumentException if m is not positive, n is not greater
+	 *                                  than m or the graph is too large
+	 */
+
+	@NotNull
+	public static GeneratedGraph barabasiAlbert(int n, int m, long seed) {
+		if (m < 1 || n <= m)
+			throw new IllegalArgumentException("Invalid size " + n + " with " + m + " edges per node");
+
+		SplittableRandom r = new SplittableRandom(seed);
+		long edges = (long) m * (m + 1) / 2 + (long) (n - m - 1) * m;
+		if (2 * edges > Integer.MAX_VALUE - 8)
+			throw new IllegalArgumentException("Too many edges " + edges);
+
+		EdgeBuffer buf = new EdgeBuffer(false, false, capacity(edges));
+
+		// each node appears once for each of its edges
+		int[] ends = new int[(int) (2 * edges)];
+		int len = 0;
+
+		for (int u = 0; u <= m; u++)
+			for (int v = 0; v < u; v++) {
+				buf.add(u, v, weight(r));
+				ends[len++] = u;
+				ends[len++] = v;
+			}
+
+		int[] chosen = new int[m];
+		for (int u = m + 1; u < n; u++) {
+			int count = 0;
+
+			while (count < m) {
+				int v = ends[r.nextInt(len)];
+
+				boolean found = false;
+				for (int i = 0; i < count && !found; i++)
+					found = chosen[i] == v;
+
+				if (!found)
+					chosen[count++] = v;
+			}
+
+			for (int i = 0; i < m; i++) {
+				buf.add(u, chosen[i], weight(r));
+				ends[len++] = u;
+				ends[len++] = chosen[i];
+			}
+		}
+
+		return new GeneratedGraph(n, false, buf, null, null, seed);
+	}
+
+	/**
+	 * Watts-Strogatz small world: a ring where each node is joined to its k
+	 * nearest nodes, then each edge has its far end moved to a random node with
+	 * probability beta. Undirected, the nodes are laid out on a circle
+	 *
+	 * @param n    number of nodes
+	 * @param k    degree of the ring, even
+	 * @param beta probability of rewiring an edge
+	 * @param seed the random seed
+	 * @return the graph
+	 * @throws IllegalArgumentException if k is odd, not positive or not smaller
+	 *                                  than n, or beta is not in [0, 1]
+	 */
+
+	@NotNull
+	public static GeneratedGraph wattsStrogatz(int n, int k, double beta, long seed) {
+		if (k < 2 || k % 2 != 0 || k >= n)
+			throw new IllegalArgumentException("Invalid degree " + k + " for " + n + " nodes");
+
+		checkProbability(beta);
+
+		SplittableRandom r = new SplittableRandom(seed);
+		EdgeBuffer buf = new EdgeBuffer(false, true, capacity((long) n * k / 2));
+
+		for (int j = 1; j <= k / 2; j++)
+			for (int u = 0; u < n; u++)
+				buf.add(u, (u + j) % n, weight(r));
+
+		for (int e = 0; e < buf.size; e++) {
+			if (r.nextDouble() >= beta)
+				continue;
+
+			int u = buf.from[e];
+
+			// a node joined to almost every other one keeps its edge
+			for (int tries = 0; tries < n; tries++) {
+				int v = r.nextInt(n);
+				if (v != u && buf.indexOf(u, v) == -1) {
+					buf.rewire(e, v);
+					break;
+				}
+			}
+		}
+
+		double[] x = new double[n];
+		double[] y = new double[n];
+		for (int u = 0; u < n; u++) {
+			x[u] = 0.5 + 0.5 * Math.cos(2 * Math.PI * u / n);
+			y[u] = 0.5 + 0.5 * Math.sin(2 * Math.PI * u / n);
+		}
+
+		return new GeneratedGraph(n, false, buf, x, y, seed);
+	}
+
+	/**
+	 * road-like grid: nodes are placed near the points of a rows x cols grid and
+	 * joined to their right and lower neighbours. Each segment is missing with
+	 * probability dropout, so the graph may be disconnected, and weighs its length
+	 * in cells times a random slowdown from 1 to 1.5. Undirected
+	 *
+	 * @param rows    number of rows
+	 * @param cols    number of columns
+	 * @param dropout probability of a missing segment
+	 * @param seed    the random seed
+	 * @return the graph, node r * cols + c is at row r and column c
+	 * @throws IllegalArgumentException if the size is negative or too large, or
+	 *                                  dropout is not in [0, 1]
+	 */
+
+	@NotNull
+	public static GeneratedGraph grid(int rows, int cols, double dropout, long seed) {
+		if (rows < 0 || cols < 0 || (long) rows * cols > Integer.MAX_VALUE)
+			throw new IllegalArgumentException("Invalid grid size " + rows + "x" + cols);
+
+		checkProbability(dropout);
+
+		SplittableRandom r = new SplittableRandom(seed);
+		int n = rows * cols;
+
+		// position of each node in cells, moved by up to a quarter of a cell
+		double[] x = new double[n];
+		double[] y = new double[n];
+		for (int i = 0; i < n; i++) {
+			x[i] = i % cols + 0.5 + (r.nextDouble() - 0.5) / 2;
+			y[i] = i / cols + 0.5 + (r.nextDouble() - 0.5) / 2;
+		}
+
+		EdgeBuffer buf = new EdgeBuffer(false, false, capacity(2L * n * (1 - dropout)));
+		for (int i = 0; i < n; i++) {
+			if (i % cols + 1 < cols && r.nextDouble() >= dropout)
+				buf.add(i, i + 1, Math.hypot(x[i + 1] - x[i], y[i + 1] - y[i]) * (1 + r.nextDouble() / 2));
+
+			if (i / cols + 1 < rows && r.nextDouble() >= dropout)
+				buf.add(i, i + cols, Math.hypot(x[i + cols] - x[i], y[i + cols] - y[i]) * (1 + r.nextDouble() / 2));
+		}
+
+		for (int i = 0; i < n; i++) {
+			x[i] /= cols;
+			y[i] /= rows;
+		}
+
+		return new GeneratedGraph(n, false, buf, x, y, seed);
+	}
+
+	/**
+	 * R-MAT graph with the Graph500 probabilities a = 0.57, b = c = 0.19
+	 *
+	 * @see #rmat(int, int, double, double, double, long)
+	 */
+
+	@NotNull
+	public static GeneratedGraph rmat(int scale, int edgeFactor, long seed) {
+		return rmat(scale, edgeFactor, 0.57, 0.19, 0.19, seed);
+	}
+
+	/**
+	 * R-MAT recursive matrix graph with 2^scale nodes: each edge picks one quarter
+	 * of the adjacency matrix with probabilities a, b, c and 1-a-b-c, then one
+	 * quarter of it, down to a single cell. Gives skewed degrees and communities.
+	 * Directed, self loops and duplicates are dropped so the graph has up to
+	 * edgeFactor * 2^scale edges. The probabilities are rounded to multiples of
+	 * 1/65536
+	 *
+	 * @param scale      log2 of the number of nodes, from 1 to 30
+	 * @param edgeFactor edges drawn per node
+	 * @param a          probability of the top left quarter
+	 * @param b          probability of the top right quarter
+	 * @param c          probability of the bottom left quarter
+	 * @param seed       the random seed
+	 * @return the graph
+	 * @throws IllegalArgumentException if scale or edgeFactor are not valid or the
+	 *                                  probabilities are negative or sum over 1
+	 */
+
+	@NotNull
+	public static GeneratedGraph rmat(int scale, int edgeFactor, double a, double b, double c, long seed) {
+		if (scale < 1 || scale > 30 || edgeFactor < 0)
+			throw new IllegalArgumentException("Invalid scale " + scale + " or edge factor " + edgeFactor);
+
+		if (!(a >= 0 && b >= 0 && c >= 0 && a + b + c <= 1))
+			throw new IllegalArgumentException("Invalid probabilities " + a + ", " + b + ", " + c);
+
+		SplittableRandom r = new SplittableRandom(seed);
+		int n = 1 << scale;
+		long edges = (long) edgeFactor * n;
+		EdgeBuffer buf = new EdgeBuffer(true, true, capacity(edges));
+
+		// the quarters are picked with 16 random bits compared without branches,
+		// which are mispredicted half of the time
+		int ta = (int) (a * 65536);
+		int tab = (int) ((a + b) * 65536);
+		int tabc = (int) ((a + b + c) * 65536);
+
+		for (long i = 0; i < edges; i++) {
+			int u = 0;
+			int v = 0;
+			long bits = 0;
+
+			for (int bit = 0; bit < scale; bit++) {
+				if ((bit & 3) == 0)
+					bits = r.nextLong();
+
+				int q = (int) (bits & 0xffff);
+				bits >>>= 16;
+
+				// 1 if q is at least the threshold
+				int x1 = (ta - 1 - q) >>> 31;
+				int x2 = (tab - 1 - q) >>> 31;
+				int x3 = (tabc - 1 - q) >>> 31;
+
+				u = u << 1 | x2;
+				v = v << 1 | (x1 ^ x2 ^ x3);
+			}
+
+			buf.add(u, v, weight(r));
+		}
+
+		return new GeneratedGraph(n, true, buf, null, null, seed);
+	}
+
+	/**
+	 * random directed acyclic graph: the nodes are shuffled and each pair is
+	 * joined with probability p by an edge from the earlier node to the later one
+	 *
+	 * @param n    number of nodes
+	 * @param p    probability of each edge
+	 * @param seed the random seed
+	 * @return the graph
+	 * @throws IllegalArgumentException if n is negative or p is not in [0, 1]
+	 */
+
+	@NotNull
+	public static GeneratedGraph randomDag(int n, double p, long seed) {
+		checkSize(n);
+		checkProbability(p);
+
+		SplittableRandom r = new SplittableRandom(seed);
+		int[] order = new int[n];
+		for (int i = 0; i < n; i++)
+			order[i] = i;
+
+		for (int i = n - 1; i > 0; i--) {
+			int j = r.nextInt(i + 1);
+			int tmp = order[i];
+			order[i] = order[j];
+			order[j] = tmp;
+		}
+
+		EdgeBuffer buf = new EdgeBuffer(true, false, capacity((long) n * (n - 1) / 2 * p));
+		lowerPairs(n, p, order, r, buf);
+
+		return new GeneratedGraph(n, true, buf, null, null, seed);
+	}
+
+	/**
+	 * random flow network for the min cost flow: random edges with costs from 1
+	 * to {@link #MAX_WEIGHT} and capacities from 1 to {@link #MAX_CAPACITY}, plus
+	 * the given number of supplies, each sent from a random node to another one
+	 * along a random path whose edges get enough capacity to carry it. The
+	 * supplies are then always feasible and, since costs are positive, no
+	 * negative cycle exists
+	 *
+	 * @param n        number of nodes
+	 * @param degree   random edges drawn per node
+	 * @param supplies number of supplies
+	 * @param seed     the random seed
+	 * @return the network
+	 * @throws IllegalArgumentException if n is smaller than 2 or degree or
+	 *                                  supplies are negative
+	 */
+
+	@NotNull
+	public static FlowNetwork flowNetwork(int n, int degree, int supplies, long seed) {
+		if (n < 2 || degree < 0 || supplies < 0)
+			throw new IllegalArgumentException("Invalid flow network " + n + ", " + degree + ", " + supplies);
+
+		SplittableRandom r = new SplittableRandom(seed);
+		EdgeBuffer buf = new EdgeBuffer(true, true, capacity((long) n * degree));
+		int[] cap = new int[buf.from.length];
+
+		for (long i = 0; i < (long) n * degree; i++)
+			cap = link(r.nextInt(n), r.nextInt(n), 1 + r.nextInt(MAX_CAPACITY), r, buf, cap);
+
+		int[] supply = new int[n];
+		int hops = 1 + 31 - Integer.numberOfLeadingZeros(n);
+
+		for (int i = 0; i < supplies; i++) {
+			int s = r.nextInt(n);
+			int t = r.nextInt(n - 1);
+			t = t >= s ? t + 1 : t;
+			int amount = 1 + r.nextInt(MAX_CAPACITY);
+
+			int u = s;
+			for (int h = r.nextInt(hops); h >= 0; h--) {
+				int v = h == 0 ? t : r.nextInt(n);
+				cap = link(u, v, amount, r, buf, cap);
+				u = v;
+			}
+
+			supply[s] += amount;
+			supply[t] -= amount;
+		}
+
+		GeneratedGraph g = new GeneratedGraph(n, true, buf, null, null, seed);
+		return new FlowNetwork(g, Arrays.copyOf(cap, buf.size), supply);
+	}
+
+	/**
+	 * add capacity to the edge u -> v, created with a random cost if needed
+	 *
+	 * @return the capacity array, grown with the edges
+	 */
+
+	private static int[] link(int u, int v, int amount, SplittableRandom r, EdgeBuffer buf, int[] cap) {
+		if (u == v)
+			return cap;
+
+		int e = buf.indexOf(u, v);
+		if (e != -1) {
+			cap[e] += amount;
+			return cap;
+		}
+
+		buf.add(u, v, weight(r));
+
+		if (cap.length < buf.from.length)
+			cap = Arrays.copyOf(cap, buf.from.length);
+
+		cap[buf.size - 1] = amount;
+		return cap;
+	}
+
+	/**
+	 * draw the unordered pairs of nodes with probability p and add an edge between
+	 * them, from the earlier to the later in the order
+	 *
+	 * @param order the order of the nodes, null for the index order
+	 */
+
+	private static void lowerPairs(int n, double p, int[] order, SplittableRandom r, EdgeBuffer buf) {
+		if (p == 0)
+			return;
+
+		// Batagelj and Brandes: w runs over the nodes before v
+		int v = 1;
+		long w = -1;
+
+		while (v < n) {
+			w += 1 + skip(p, r);
+
+			while (w >= v && v < n) {
+				w -= v;
+				v++;
+			}
+
+			if (v < n) {
+				int a = order == null ? (int) w : order[(int) w];
+				int b = order == null ? v : order[v];
+				buf.add(a, b, weight(r));
+			}
+		}
+	}
+
+	/**
+	 * @return the number of pairs skipped before the next drawn one
+	 */
+
+	private static long skip(double p, SplittableRandom r) {
+		if (p >= 1)
+			return 0;
+
+		// bounded so that adding it to a pair index does not overflow
+		double k = Math.floor(Math.log(1 - r.nextDouble()) / Math.log(1 - p));
+		return (long) Math.min(k, 1L << 61);
+	}
+
+	private static double weight(SplittableRandom r) {
+		return 1 + r.nextInt(MAX_WEIGHT);
+	}
+
+	private static int capacity(double edges) {
+		return (int) Math.min(1 << 30, edges * 1.1 + 16);
+	}
+
+	private static void checkSize(int n) {
+		if (n < 0)
+			throw new IllegalArgumentException("Invalid number of nodes " + n);
+	}
+
+	private static void checkProbability(double p) {
+		if (!(p >= 0 && p <= 1))
+			throw new IllegalArgumentException("Invalid probability " + p);
+	}
+}
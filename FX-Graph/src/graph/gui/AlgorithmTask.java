@@ -0,0 +1,109 @@
+package graph.gui;
+
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import graph.algorithms.AlgorithmMonitor;
+import graph.algorithms.AlgorithmProgress;
+import graph.algorithms.ProgressListener;
+import graph.annotations.NotNull;
+import graph.annotations.Nullable;
+import javafx.application.Platform;
+import javafx.concurrent.Task;
+
+/**
+ * Long running algorithm of a {@link FXGraph} executed off the JavaFX thread.
+ * The algorithm works on a copy of the graph taken when the task is created,
+ * the result is applied to the graph (flows, colors) on the JavaFX thread when
+ * the task succeeds or is cancelled. Cancellation is cooperative: after
+ * {@link #cancel()} the algorithm stops at the next poll and the best result
+ * found so far is available from {@link #getPartialResult()}.
+ *
+ * The task must be started by the caller, e.g. with
+ * {@code new Thread(task).start()} or an executor.
+ *
+ * @param <R> the result type
+ */
+
+public final class AlgorithmTask<R> extends Task<R> {
+
+	private final Function<AlgorithmMonitor, R> body;
+	private final Consumer<R> apply;
+	private final long totalWork;
+	private final CopyOnWriteArrayList<ProgressListener> listeners = new CopyOnWriteArrayList<>();
+
+	private volatile R partial;
+
+	/**
+	 * @param body      the algorithm, run on the task thread
+	 * @param apply     shows the result on the graph, run on the JavaFX thread
+	 * @param totalWork the number of iterations of a complete run, -1 if unknown
+	 */
+
+	AlgorithmTask(Function<AlgorithmMonitor, R> body, Consumer<R> apply, long totalWork) {
+		this.body = body;
+		this.apply = apply;
+		this.totalWork = totalWork;
+	}
+
+	/**
+	 * add a listener called periodically on the task thread. The progress is also
+	 * published on the JavaFX thread through {@link #messageProperty()} and
+	 * {@link #progressProperty()}
+	 */
+
+	public void addProgressListener(@NotNull ProgressListener l) {
+		listeners.add(Objects.requireNonNull(l));
+	}
+
+	public void removeProgressListener(@Nullable ProgressListener l) {
+		listeners.remove(l);
+	}
+
+	/**
+	 * @return the result returned by the algorithm, also when it has been
+	 *         cancelled, or null if the algorithm is still running
+	 */
+
+	@Nullable
+	public R getPartialResult() {
+		return partial;
+	}
+
+	@Override
+	protected R call() {
+		R r = body.apply(new AlgorithmMonitor() {
+
+			@Override
+			public boolean isCancelled() {
+				return AlgorithmTask.this.isCancelled();
+			}
+
+			@Override
+			public void progress(AlgorithmProgress p) {
+				for (ProgressListener l : listeners)
+					l.onProgress(p);
+
+				updateMessage(p.toString());
+				if (totalWork > 0)
+					updateProgress(Math.min(p.getIterations(), totalWork), totalWork);
+			}
+		});
+
+		partial = r;
+
+		// cancelled() may run before the algorithm stops, apply the partial result
+		// only once it is available
+		if (isCancelled())
+			Platform.runLater(() -> apply.accept(r));
+
+		return r;
+	}
+
+	@Override
+	protected void succeeded() {
+		apply.accept(getValue());
+	}
+}
@@ -0,0 +1,240 @@
+package graph.gui;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+import graph.algorithms.Communities;
+import graph.algorithms.CsrGraph;
+import graph.annotations.NotNull;
+import javafx.application.Platform;
+import javafx.scene.control.Button;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Line;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+
+/**
+ * Collapsed rendering of the communities of a {@link FXGraph}. Each community
+ * is drawn as a single node labelled with its size, and the edges between 2
+ * communities as a single line whose width grows with their total weight. A
+ * double click on a community expands it back into its nodes, the edges from
+ * them to the collapsed communities stay aggregated.
+ *
+ * Only the scene is changed: the nodes and edges of collapsed communities are
+ * taken out of the layers of the graph, which keeps the same nodes, edges
+ * and version. Lines are placed at the positions of the nodes when the view is
+ * drawn. A change of the graph closes the view on the next expansion.
+ *
+ * @param <T> the node value type
+ * @param <K> the edge weight type
+ */
+
+public final class CommunityView<T, K> {
+
+	private final FXGraph<T, K> graph;
+	private final Communities<T> communities;
+	private final long version;
+
+	private final boolean[] expanded;
+	private final Button[] aggregates;
+	private final ArrayList<Line> lines = new ArrayList<>();
+	private boolean closed;
+
+	CommunityView(FXGraph<T, K> graph, Communities<T> communities) {
+		this.graph = graph;
+		this.communities = communities;
+		this.version = graph.getVersion();
+		this.expanded = new boolean[communities.getCommunityCount()];
+		this.aggregates = new Button[expanded.length];
+
+		CsrGraph<T> g = communities.getGraph();
+		int[] comm = communities.getCommunityIds();
+		int[] size = new int[expanded.length];
+		double[] x = new double[expanded.length];
+		double[] y = new double[expanded.length];
+
+		for (int i = 0; i < g.size(); i++) {
+			Node<T> n = g.getNode(i);
+			size[comm[i]]++;
+			x[comm[i]] += n.getLayoutX() + n.getPrefWidth() / 2;
+			y[comm[i]] += n.getLayoutY() + n.getPrefHeight() / 2;
+		}
+
+		for (int c = 0; c < expanded.length; c++) {
+			// the area grows with the number of nodes
+			double d = Math.min(240, 60 + 12 * Math.sqrt(size[c]));
+			int community = c;
+
+			Button b = new Button(Integer.toString(size[c]));
+			b.setPrefSize(d, d);
+			b.setLayoutX(x[c] / size[c] - d / 2);
+			b.setLayoutY(y[c] / size[c] - d / 2);
+			b.setFont(Font.font("verbena", FontWeight.BOLD, 24));
+			b.setStyle("-fx-background-radius: " + d / 2 + "; -fx-background-color: " + web(Connectivity.color(c))
+					+ "; -fx-border-color: black; -fx-border-radius: " + d / 2 + "; -fx-border-width: 3");
+			b.setOnMouseClicked(e -> {
+				if (e.getClickCount() == 2)
+					expand(community);
+			});
+
+			aggregates[c] = b;
+		}
+
+		draw();
+	}
+
+	@NotNull
+	public Communities<T> getCommunities() {
+		return communities;
+	}
+
+	/**
+	 * @return true if the view has been closed and the whole graph is shown
+	 */
+
+	public boolean isClosed() {
+		return closed;
+	}
+
+	public boolean isExpanded(int community) {
+		return closed || expanded[community];
+	}
+
+	/**
+	 * replace a collapsed community with its nodes, the view is closed if the
+	 * graph changed
+	 *
+	 * @param community the community id
+	 * @throws IllegalArgumentException if the community does not exist
+	 * @throws IllegalStateException    if not called on the javafx thread
+	 */
+
+	public void expand(int community) {
+		checkThread();
+
+		if (community < 0 || community >= expanded.length)
+			throw new IllegalArgumentException("Invalid community " + community);
+
+		if (closed || expanded[community])
+			return;
+
+		if (version != graph.getVersion()) {
+			close();
+			return;
+		}
+
+		expanded[community] = true;
+		draw();
+	}
+
+	/**
+	 * remove the aggregates and show the whole graph again
+	 *
+	 * @throws IllegalStateException if not called on the javafx thread
+	 */
+
+	public void close() {
+		checkThread();
+
+		if (closed)
+			return;
+
+		closed = true;
+
+		ArrayList<javafx.scene.Node> edges = new ArrayList<>();
+		for (Node<T> n : graph.getNodes())
+			edges.addAll(graph.outEdges(n).values());
+
+		lines.clear();
+		graph.showLayers(edges, graph.getNodes());
+	}
+
+	/**
+	 * rebuild the layers of the graph: the lines and then the visible edges below,
+	 * the visible nodes and the collapsed communities above
+	 */
+
+	private void draw() {
+		CsrGraph<T> g = communities.getGraph();
+		int[] comm = communities.getCommunityIds();
+		int count = expanded.length;
+
+		ArrayList<javafx.scene.Node> edges = new ArrayList<>();
+		ArrayList<javafx.scene.Node> nodes = new ArrayList<>();
+
+		// each edge is drawn between its visible ends: a node of an expanded
+		// community or the aggregate of its community
+		HashMap<Long, Double> weights = new HashMap<>();
+		for (int u = 0; u < g.size(); u++) {
+			if (expanded[comm[u]])
+				nodes.add(g.getNode(u));
+
+			for (int e = g.outStart(u); e < g.outEnd(u); e++) {
+				int v = g.target(e);
+
+				if (expanded[comm[u]] && expanded[comm[v]]) {
+					edges.add(g.edge(e));
+					continue;
+				}
+
+				int a = expanded[comm[u]] ? count + u : comm[u];
+				int b = expanded[comm[v]] ? count + v : comm[v];
+
+				if (a != b)
+					weights.merge((long) Math.min(a, b) << 32 | Math.max(a, b), g.isWeighted() ? g.weight(e) : 1,
+							Double::sum);
+			}
+		}
+
+		double max = 0;
+		for (double w : weights.values())
+			max = Math.max(max, Math.abs(w));
+
+		lines.clear();
+
+		for (Map.Entry<Long, Double> w : weights.entrySet()) {
+			javafx.scene.Node a = anchor((int) (w.getKey() >>> 32));
+			javafx.scene.Node b = anchor((int) (long) w.getKey());
+
+			Line l = new Line();
+			l.setStartX(centerX(a));
+			l.setStartY(centerY(a));
+			l.setEndX(centerX(b));
+			l.setEndY(centerY(b));
+			l.setStrokeWidth(max > 0 ? 1 + 9 * Math.sqrt(Math.abs(w.getValue()) / max) : 1);
+			l.setStroke(Color.GRAY);
+			lines.add(l);
+		}
+
+		edges.addAll(0, lines);
+
+		for (int c = 0; c < count; c++)
+			if (!expanded[c])
+				nodes.add(aggregates[c]);
+
+		graph.showLayers(edges, nodes);
+	}
+
+	private javafx.scene.Node anchor(int a) {
+		return a < expanded.length ? aggregates[a] : communities.getGraph().getNode(a - expanded.length);
+	}
+
+	private static double centerX(javafx.scene.Node n) {
+		return n.getLayoutX() + ((Button) n).getPrefWidth() / 2;
+	}
+
+	private static double centerY(javafx.scene.Node n) {
+		return n.getLayoutY() + ((Button) n).getPrefHeight() / 2;
+	}
+
+	private static void checkThread() {
+		if (!Platform.isFxApplicationThread())
+			throw new IllegalStateException("Not on JavaFX application thread");
+	}
+
+	private static String web(Color c) {
+		return String.format("#%02x%02x%02x", Math.round(c.getRed() * 255), Math.round(c.getGreen() * 255),
+				Math.round(c.getBlue() * 255));
+	}
+}
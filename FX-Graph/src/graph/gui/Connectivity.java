@@ -0,0 +1,194 @@
+package graph.gui;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import javafx.application.Platform;
+import javafx.scene.paint.Color;
+
+/**
+ * Connected components of an undirected {@link FXGraph} maintained with a
+ * union find. Added nodes and edges are merged in near constant time, a
+ * removal which can split a component marks the structure stale and the union
+ * find is rebuilt on the next query.
+ *
+ * @param <T> the node value type
+ * @param <K> the edge weight type
+ */
+
+final class Connectivity<T, K> implements GraphListener<T, K> {
+
+	private final FXGraph<T, K> graph;
+
+	private final HashMap<Node<T>, Integer> index = new HashMap<>();
+	private final ArrayList<Node<T>> nodes = new ArrayList<>();
+	private int[] parent = new int[16];
+	private int[] size = new int[16];
+	private int count;
+	private boolean stale = true;
+
+	private boolean colored;
+	private boolean painting;
+
+	Connectivity(FXGraph<T, K> graph) {
+		this.graph = graph;
+	}
+
+	boolean connected(Node<T> n1, Node<T> n2) {
+		return find(indexOf(n1)) == find(indexOf(n2));
+	}
+
+	Node<T> componentOf(Node<T> n) {
+		return nodes.get(find(indexOf(n)));
+	}
+
+	int componentCount() {
+		rebuildIfStale();
+		return count;
+	}
+
+	void setColored(boolean colored) {
+		this.colored = colored;
+
+		if (colored)
+			paint();
+		else
+			for (Node<T> n : graph.getNodes())
+				n.setFill(null);
+	}
+
+	@Override
+	public void nodeAdded(Node<T> n) {
+		if (!stale)
+			add(n);
+
+		changed();
+	}
+
+	@Override
+	public void nodeRemoved(Node<T> n) {
+		Integer i = index.get(n);
+
+		// an isolated node can be dropped without rebuilding
+		if (!stale && i != null && size[find(i)] == 1) {
+			index.remove(n);
+			count--;
+		} else
+			stale = true;
+
+		changed();
+	}
+
+	@Override
+	public void edgeAdded(Node<T> from, Node<T> to, Edge<K> e) {
+		if (!stale && index.containsKey(from) && index.containsKey(to))
+			union(index.get(from), index.get(to));
+
+		changed();
+	}
+
+	@Override
+	public void edgeRemoved(Node<T> from, Node<T> to, Edge<K> e) {
+		// the nodes are still adjacent through the opposite edge
+		Map<Node<T>, Edge<K>> back = graph.outEdges(to);
+		if (back == null || back.get(from) == null)
+			stale = true;
+
+		changed();
+	}
+
+	private void changed() {
+		if (colored && !painting) {
+			painting = true;
+			Platform.runLater(this::paint);
+		}
+	}
+
+	private void paint() {
+		painting = false;
+		rebuildIfStale();
+
+		HashMap<Integer, Color> colors = new HashMap<>();
+		for (Node<T> n : graph.getNodes())
+			n.setFill(colors.computeIfAbsent(find(index.get(n)), r -> color(colors.size())));
+	}
+
+	/**
+	 * light color of the i-th component, golden angle hues keep consecutive
+	 * components apart
+	 */
+
+	static Color color(int i) {
+		return Color.hsb(i * 137.508 % 360, 0.35, 1.0);
+	}
+
+	private int indexOf(Node<T> n) {
+		rebuildIfStale();
+
+		Integer i = index.get(n);
+		if (i == null)
+			throw new IllegalArgumentException("Invalid node. Node is not in the graph");
+
+		return i;
+	}
+
+	private void rebuildIfStale() {
+		if (!stale)
+			return;
+
+		index.clear();
+		nodes.clear();
+		count = 0;
+		stale = false;
+
+		for (Node<T> n : graph.getNodes())
+			add(n);
+
+		for (Node<T> n : graph.getNodes())
+			for (Node<T> m : graph.outEdges(n).keySet())
+				if (index.containsKey(m))
+					union(index.get(n), index.get(m));
+	}
+
+	private void add(Node<T> n) {
+		int i = nodes.size();
+		if (i == parent.length) {
+			parent = Arrays.copyOf(parent, i * 2);
+			size = Arrays.copyOf(size, i * 2);
+		}
+
+		parent[i] = i;
+		size[i] = 1;
+		nodes.add(n);
+		index.put(n, i);
+		count++;
+	}
+
+	private int find(int i) {
+		while (parent[i] != i) {
+			parent[i] = parent[parent[i]];
+			i = parent[i];
+		}
+
+		return i;
+	}
+
+	private void union(int a, int b) {
+		a = find(a);
+		b = find(b);
+		if (a == b)
+			return;
+
+		if (size[a] < size[b]) {
+			int t = a;
+			a = b;
+			b = t;
+		}
+
+		parent[b] = a;
+		size[a] += size[b];
+		count--;
+	}
+}
@@ -0,0 +1,362 @@
+package graph.gui;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import graph.algorithms.CsrGraph;
+import graph.algorithms.Dijkstra;
+import graph.algorithms.ShortestPaths;
+import graph.annotations.NotNull;
+import graph.annotations.Nullable;
+import graph.dataclasses.WeightConverter;
+import javafx.scene.paint.Color;
+
+/**
+ * Shortest path tree of a {@link FXGraph} kept up to date while the graph is
+ * edited. Changes are repaired in the style of Ramalingam and Reps: a shorter
+ * path found through a new or cheaper edge is propagated with a Dijkstra
+ * limited to the nodes which improve, while a removed or more expensive tree
+ * edge invalidates only the subtree below it, whose nodes are reattached
+ * through their incoming edges and then propagated. The red highlighting of
+ * the tree is updated only on the changed edges.
+ *
+ * Weights must not be negative. A change introducing a negative weight, or
+ * the removal of the root, stops the maintenance, see {@link #isActive()}.
+ *
+ * @param <T> the node value type
+ * @param <K> the edge weight type
+ */
+
+public final class DynamicShortestPaths<T, K> implements GraphListener<T, K> {
+
+	private final FXGraph<T, K> graph;
+	private final Node<T> root;
+	private final WeightConverter<K> conv;
+	private final HashMap<Node<T>, State<T>> states = new HashMap<>();
+
+	// queue of the nodes whose distance decreased, stale entries are skipped
+	private final PriorityQueue<Entry<T>> queue = new PriorityQueue<>();
+
+	// old parent of the nodes whose parent changed during a repair
+	private final LinkedHashMap<Node<T>, Node<T>> moved = new LinkedHashMap<>();
+
+	private boolean active = true;
+
+	DynamicShortestPaths(FXGraph<T, K> graph, Node<T> root, WeightConverter<K> conv) {
+		this.graph = graph;
+		this.root = root;
+		this.conv = conv;
+
+		CsrGraph<T> g = graph.toCsr(conv);
+		for (int e = 0; e < g.edgeCount(); e++)
+			if (g.weight(e) < 0)
+				throw new IllegalArgumentException("Negative weight found on edge " + g.edge(e));
+
+		ShortestPaths<T> res = Dijkstra.run(g, root);
+		for (int i = 0; i < g.size(); i++)
+			states.put(g.getNode(i), new State<>());
+
+		for (int i = 0; i < g.size(); i++) {
+			State<T> s = states.get(g.getNode(i));
+			s.dist = res.getDistances()[i];
+
+			int p = res.getParents()[i];
+			if (p != -1)
+				attach(g.getNode(i), s, g.getNode(p));
+		}
+	}
+
+	@NotNull
+	public Node<T> getRoot() {
+		return root;
+	}
+
+	/**
+	 * @return false if the tree is not maintained anymore
+	 */
+
+	public boolean isActive() {
+		return active;
+	}
+
+	/**
+	 * @return the distance from the root or {@link Double#POSITIVE_INFINITY} if
+	 *         the node is not reachable or not in the graph
+	 */
+
+	public double getDistance(@NotNull Node<T> n) {
+		State<T> s = states.get(n);
+		return s == null ? Double.POSITIVE_INFINITY : s.dist;
+	}
+
+	public boolean hasPathTo(@NotNull Node<T> n) {
+		return getDistance(n) != Double.POSITIVE_INFINITY;
+	}
+
+	@Nullable
+	public Node<T> getParent(@NotNull Node<T> n) {
+		State<T> s = states.get(n);
+		return s == null ? null : s.parent;
+	}
+
+	/**
+	 * get the path from the root to a node
+	 *
+	 * @param n the destination node
+	 * @return the nodes of the path, root included, or an empty list if the node
+	 *         is not reachable
+	 */
+
+	@NotNull
+	public List<Node<T>> getPathTo(@NotNull Node<T> n) {
+		if (!hasPathTo(n))
+			return Collections.emptyList();
+
+		ArrayList<Node<T>> path = new ArrayList<>();
+		for (Node<T> i = n; i != null; i = states.get(i).parent)
+			path.add(i);
+
+		Collections.reverse(path);
+		return path;
+	}
+
+	/**
+	 * color the whole tree again, e.g. after another algorithm changed the colors
+	 * of the edges
+	 */
+
+	public void show() {
+		for (Map.Entry<Node<T>, State<T>> e : states.entrySet())
+			if (e.getValue().parent != null)
+				stroke(e.getValue().parent, e.getKey(), Color.RED);
+	}
+
+	/**
+	 * stop the maintenance and remove the listener from the graph. The colors are
+	 * not changed
+	 */
+
+	public void dispose() {
+		active = false;
+		graph.removeGraphListener(this);
+	}
+
+	@Override
+	public void nodeAdded(Node<T> n) {
+		states.put(n, new State<>());
+	}
+
+	@Override
+	public void nodeRemoved(Node<T> n) {
+		if (n == root) {
+			dispose();
+			return;
+		}
+
+		// outgoing edges have already been removed, so n has no children
+		State<T> s = states.remove(n);
+		if (s != null && s.parent != null) {
+			stroke(s.parent, n, Color.BLACK);
+			states.get(s.parent).children.remove(n);
+		}
+	}
+
+	@Override
+	public void edgeAdded(Node<T> from, Node<T> to, Edge<K> e) {
+		decrease(from, to, e.getWeight());
+	}
+
+	@Override
+	public void edgeRemoved(Node<T> from, Node<T> to, Edge<K> e) {
+		increase(from, to);
+	}
+
+	@Override
+	public void weightChanged(Node<T> from, Node<T> to, Edge<K> e, K oldWeight, K newWeight) {
+		double o = conv.convert(oldWeight);
+		double w = conv.convert(newWeight);
+
+		if (w < o)
+			decrease(from, to, newWeight);
+		else if (w > o)
+			increase(from, to);
+	}
+
+	/**
+	 * the edge from -&gt; to has been added or its weight decreased
+	 */
+
+	private void decrease(Node<T> from, Node<T> to, K weight) {
+		State<T> su = states.get(from);
+		State<T> sv = states.get(to);
+		if (su == null || sv == null || !checkWeight(weight))
+			return;
+
+		double d = su.dist + conv.convert(weight);
+		if (d < sv.dist) {
+			update(to, sv, from, d);
+			propagate();
+		}
+	}
+
+	/**
+	 * the edge from -&gt; to has been removed or its weight increased
+	 */
+
+	private void increase(Node<T> from, Node<T> to) {
+		State<T> sv = states.get(to);
+		if (sv == null || sv.parent != from)
+			return;
+
+		// collect the subtree hanging from the edge
+		ArrayList<Node<T>> affected = new ArrayList<>();
+		ArrayDeque<Node<T>> stack = new ArrayDeque<>();
+		stack.push(to);
+
+		while (!stack.isEmpty()) {
+			Node<T> x = stack.pop();
+			affected.add(x);
+			states.get(x).dist = Double.POSITIVE_INFINITY;
+			stack.addAll(states.get(x).children);
+		}
+
+		// reattach each node through its best incoming edge from outside the
+		// subtree, the nodes of the subtree have infinite distance
+		for (Node<T> x : affected) {
+			State<T> sx = states.get(x);
+			Node<T> best = null;
+			double bestDist = Double.POSITIVE_INFINITY;
+
+			for (Node<T> y : x.in.keySet()) {
+				State<T> sy = states.get(y);
+				Map<Node<T>, Edge<K>> yOut = graph.outEdges(y);
+				Edge<K> e = yOut == null ? null : yOut.get(x);
+
+				if (sy == null || e == null || sy.dist == Double.POSITIVE_INFINITY)
+					continue;
+
+				double d = sy.dist + conv.convert(e.getWeight());
+				if (d < bestDist) {
+					bestDist = d;
+					best = y;
+				}
+			}
+
+			update(x, sx, best, bestDist);
+		}
+
+		propagate();
+	}
+
+	/**
+	 * run Dijkstra from the queued nodes relaxing only the edges which improve a
+	 * distance, then recolor the edges of the nodes whose parent changed
+	 */
+
+	private void propagate() {
+		while (!queue.isEmpty()) {
+			Entry<T> top = queue.poll();
+			State<T> su = states.get(top.node);
+			if (su == null || top.dist > su.dist)
+				continue;
+
+			Map<Node<T>, Edge<K>> out = graph.outEdges(top.node);
+			if (out == null)
+				continue;
+
+			for (Map.Entry<Node<T>, Edge<K>> e : out.entrySet()) {
+				State<T> sv = states.get(e.getKey());
+				if (sv == null)
+					continue;
+
+				double d = su.dist + conv.convert(e.getValue().getWeight());
+				if (d < sv.dist)
+					update(e.getKey(), sv, top.node, d);
+			}
+		}
+
+		// clear all the old edges first, undirected edges share the color with
+		// their twin
+		for (Map.Entry<Node<T>, Node<T>> e : moved.entrySet())
+			if (e.getValue() != null)
+				stroke(e.getValue(), e.getKey(), Color.BLACK);
+
+		for (Node<T> n : moved.keySet()) {
+			State<T> s = states.get(n);
+			if (s != null && s.parent != null)
+				stroke(s.parent, n, Color.RED);
+		}
+
+		moved.clear();
+	}
+
+	private void update(Node<T> v, State<T> sv, Node<T> parent, double d) {
+		sv.dist = d;
+
+		if (sv.parent != parent) {
+			if (!moved.containsKey(v))
+				moved.put(v, sv.parent);
+
+			if (sv.parent != null)
+				states.get(sv.parent).children.remove(v);
+
+			sv.parent = null;
+			if (parent != null)
+				attach(v, sv, parent);
+		}
+
+		if (d != Double.POSITIVE_INFINITY)
+			queue.add(new Entry<>(v, d));
+	}
+
+	private void attach(Node<T> v, State<T> sv, Node<T> parent) {
+		sv.parent = parent;
+		states.get(parent).children.add(v);
+	}
+
+	private boolean checkWeight(K weight) {
+		if (conv.convert(weight) >= 0)
+			return true;
+
+		dispose();
+		return false;
+	}
+
+	private void stroke(Node<T> from, Node<T> to, Color c) {
+		Map<Node<T>, Edge<K>> out = graph.outEdges(from);
+		Edge<K> e = out == null ? null : out.get(to);
+
+		if (e != null)
+			e.setStroke(c);
+	}
+
+	private static final class State<T> {
+
+		private double dist = Double.POSITIVE_INFINITY;
+		private Node<T> parent;
+		private final HashSet<Node<T>> children = new HashSet<>(4);
+	}
+
+	private static final class Entry<T> implements Comparable<Entry<T>> {
+
+		private final Node<T> node;
+		private final double dist;
+
+		private Entry(Node<T> node, double dist) {
+			this.node = node;
+			this.dist = dist;
+		}
+
+		@Override
+		public int compareTo(Entry<T> o) {
+			return Double.compare(dist, o.dist);
+		}
+	}
+}
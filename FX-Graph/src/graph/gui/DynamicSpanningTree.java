@@ -0,0 +1,428 @@
+package graph.gui;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.TreeSet;
+
+import graph.annotations.NotNull;
+import graph.dataclasses.WeightConverter;
+import javafx.scene.paint.Color;
+
+/**
+ * Minimum spanning forest of an undirected {@link FXGraph} kept up to date while
+ * the graph is edited. A new or cheaper edge closing a cycle replaces the
+ * heaviest edge on the tree path between its nodes. A removed or more
+ * expensive tree edge splits its tree, which is joined again by the cheapest
+ * edge crossing the cut. The non-tree edges are indexed by weight on both their
+ * nodes, so the replacement is searched only among the edges of the smaller
+ * side of the cut, cheapest first, instead of all the edges of the graph. The
+ * tree path and the sides of the cut are found with searches on the forest
+ * instead of link-cut trees. The red highlighting and the cost follow the
+ * changes.
+ *
+ * As in {@link FXGraph#kruskal(WeightConverter)} the two directed edges of an
+ * undirected edge are separate candidates.
+ *
+ * @param <T> the node value type
+ * @param <K> the edge weight type
+ */
+
+public final class DynamicSpanningTree<T, K> implements GraphListener<T, K> {
+
+	private final FXGraph<T, K> graph;
+	private final WeightConverter<K> conv;
+
+	// forest adjacency, each tree edge is stored on both its nodes
+	private final HashMap<Node<T>, HashMap<Node<T>, Edge<K>>> tree = new HashMap<>();
+
+	// weight of the tree edges when they were linked or last changed
+	private final HashMap<Edge<K>, Double> weights = new HashMap<>();
+
+	// edges out of the forest, sorted by weight on both their nodes
+	private final HashMap<Edge<K>, Candidate<T, K>> candidates = new HashMap<>();
+	private final HashMap<Node<T>, TreeSet<Candidate<T, K>>> incident = new HashMap<>();
+	private long nextId;
+
+	private double cost;
+	private boolean active = true;
+
+	DynamicSpanningTree(FXGraph<T, K> graph, WeightConverter<K> conv) {
+		this.graph = graph;
+		this.conv = conv;
+
+		rebuild();
+	}
+
+	/**
+	 * @return the sum of the weights of the tree edges
+	 */
+
+	public double getCost() {
+		return cost;
+	}
+
+	/**
+	 * @return an unmodifiable view of the edges of the forest
+	 */
+
+	@NotNull
+	public Collection<Edge<K>> getEdges() {
+		return Collections.unmodifiableSet(weights.keySet());
+	}
+
+	public boolean contains(@NotNull Edge<K> e) {
+		return weights.containsKey(e);
+	}
+
+	/**
+	 * @return false if the forest is not maintained anymore
+	 */
+
+	public boolean isActive() {
+		return active;
+	}
+
+	/**
+	 * color the whole forest again, e.g. after another algorithm changed the
+	 * colors of the edges
+	 */
+
+	public void show() {
+		weights.keySet().forEach(e -> e.setStroke(Color.RED));
+	}
+
+	/**
+	 * stop the maintenance and remove the listener from the graph. The colors are
+	 * not changed
+	 */
+
+	public void dispose() {
+		active = false;
+		graph.removeGraphListener(this);
+	}
+
+	@Override
+	public void nodeAdded(Node<T> n) {
+		tree.put(n, new HashMap<>());
+		incident.put(n, new TreeSet<>(ORDER));
+	}
+
+	@Override
+	public void nodeRemoved(Node<T> n) {
+		// the edges of the node have already been removed
+		tree.remove(n);
+		incident.remove(n);
+	}
+
+	@Override
+	public void edgeAdded(Node<T> from, Node<T> to, Edge<K> e) {
+		insert(from, to, e);
+	}
+
+	@Override
+	public void edgeRemoved(Node<T> from, Node<T> to, Edge<K> e) {
+		if (weights.containsKey(e)) {
+			cut(from, to, e);
+			reconnect(from, to);
+		} else
+			removeCandidate(e);
+	}
+
+	@Override
+	public void weightChanged(Node<T> from, Node<T> to, Edge<K> e, K oldWeight, K newWeight) {
+		double w = conv.convert(newWeight);
+		Double old = weights.get(e);
+
+		if (old == null) {
+			removeCandidate(e);
+			addCandidate(from, to, e, w);
+
+			// a cheaper edge out of the tree can close a better cycle
+			if (w < conv.convert(oldWeight))
+				insert(from, to, e);
+		} else if (w <= old) {
+			cost += w - old;
+			weights.put(e, w);
+		} else {
+			// the edge is still a candidate for its own cut
+			cut(from, to, e);
+			addCandidate(from, to, e, w);
+			reconnect(from, to);
+		}
+	}
+
+	private void insert(Node<T> from, Node<T> to, Edge<K> e) {
+		if (from == to || !tree.containsKey(from) || !tree.containsKey(to))
+			return;
+
+		double w = conv.convert(e.getWeight());
+		ArrayList<Node<T>> path = new ArrayList<>();
+
+		if (!treePath(from, to, path)) {
+			link(from, to, e, w);
+			return;
+		}
+
+		// heaviest edge on the cycle closed by the new edge
+		int max = -1;
+		for (int i = 0; i < path.size() - 1; i++)
+			if (max == -1 || weight(path, i) > weight(path, max))
+				max = i;
+
+		if (w < weight(path, max)) {
+			Node<T> a = path.get(max);
+			Node<T> b = path.get(max + 1);
+			Edge<K> old = tree.get(a).get(b);
+			double oldWeight = weights.get(old);
+
+			cut(a, b, old);
+			link(from, to, e, w);
+
+			// the replaced edge is stored on the path in either direction
+			if (old.getNodeFrom() == a)
+				addCandidate(a, b, old, oldWeight);
+			else
+				addCandidate(b, a, old, oldWeight);
+		} else if (!candidates.containsKey(e))
+			addCandidate(from, to, e, w);
+	}
+
+	private double weight(ArrayList<Node<T>> path, int i) {
+		return weights.get(tree.get(path.get(i)).get(path.get(i + 1)));
+	}
+
+	/**
+	 * join the trees of 2 nodes, split by a cut, with the cheapest edge between
+	 * them. Only the candidates of the nodes on the smaller side are looked at,
+	 * each node in order of weight until the first edge crossing the cut
+	 */
+
+	private void reconnect(Node<T> u, Node<T> v) {
+		if (!tree.containsKey(u) || !tree.containsKey(v))
+			return;
+
+		HashSet<Node<T>> side = smallerSide(u, v);
+		if (side == null)
+			return;
+
+		Candidate<T, K> best = null;
+
+		for (Node<T> x : side)
+			for (Candidate<T, K> c : incident.get(x)) {
+				if (best != null && ORDER.compare(c, best) >= 0)
+					break;
+
+				if (!side.contains(c.from == x ? c.to : c.from)) {
+					best = c;
+					break;
+				}
+			}
+
+		if (best != null)
+			link(best.from, best.to, best.edge, best.weight);
+	}
+
+	/**
+	 * grow the trees of 2 nodes one node at a time each until one is complete
+	 *
+	 * @return the nodes of the smaller tree, null if the nodes are in the same
+	 *         tree
+	 */
+
+	private HashSet<Node<T>> smallerSide(Node<T> u, Node<T> v) {
+		HashSet<Node<T>> seenU = new HashSet<>();
+		HashSet<Node<T>> seenV = new HashSet<>();
+		ArrayDeque<Node<T>> stackU = new ArrayDeque<>();
+		ArrayDeque<Node<T>> stackV = new ArrayDeque<>();
+		seenU.add(u);
+		seenV.add(v);
+		stackU.push(u);
+		stackV.push(v);
+
+		while (true) {
+			if (stackU.isEmpty())
+				return seenU;
+
+			if (stackV.isEmpty())
+				return seenV;
+
+			for (Node<T> y : tree.get(stackU.pop()).keySet())
+				if (seenU.add(y))
+					stackU.push(y);
+
+			for (Node<T> y : tree.get(stackV.pop()).keySet())
+				if (seenV.add(y))
+					stackV.push(y);
+
+			if (seenU.contains(v))
+				return null;
+		}
+	}
+
+	/**
+	 * find the nodes on the tree path between 2 nodes, from v to u
+	 *
+	 * @return false if the nodes are in different trees
+	 */
+
+	private boolean treePath(Node<T> u, Node<T> v, ArrayList<Node<T>> path) {
+		HashMap<Node<T>, Node<T>> parent = new HashMap<>();
+		ArrayDeque<Node<T>> stack = new ArrayDeque<>();
+		parent.put(u, u);
+		stack.push(u);
+
+		while (!stack.isEmpty() && !parent.containsKey(v)) {
+			Node<T> x = stack.pop();
+			for (Node<T> y : tree.get(x).keySet())
+				if (!parent.containsKey(y)) {
+					parent.put(y, x);
+					stack.push(y);
+				}
+		}
+
+		if (!parent.containsKey(v))
+			return false;
+
+		for (Node<T> x = v; x != u; x = parent.get(x))
+			path.add(x);
+
+		path.add(u);
+
+		return true;
+	}
+
+	private void addCandidate(Node<T> from, Node<T> to, Edge<K> e, double w) {
+		if (from == to || !incident.containsKey(from) || !incident.containsKey(to))
+			return;
+
+		Candidate<T, K> c = new Candidate<>(from, to, e, w, nextId++);
+		candidates.put(e, c);
+		incident.get(from).add(c);
+		incident.get(to).add(c);
+	}
+
+	private void removeCandidate(Edge<K> e) {
+		Candidate<T, K> c = candidates.remove(e);
+		if (c == null)
+			return;
+
+		if (incident.containsKey(c.from))
+			incident.get(c.from).remove(c);
+
+		if (incident.containsKey(c.to))
+			incident.get(c.to).remove(c);
+	}
+
+	private void link(Node<T> u, Node<T> v, Edge<K> e, double w) {
+		removeCandidate(e);
+		tree.get(u).put(v, e);
+		tree.get(v).put(u, e);
+		weights.put(e, w);
+		cost += w;
+		e.setStroke(Color.RED);
+	}
+
+	private void cut(Node<T> u, Node<T> v, Edge<K> e) {
+		if (tree.containsKey(u))
+			tree.get(u).remove(v);
+
+		if (tree.containsKey(v))
+			tree.get(v).remove(u);
+
+		cost -= weights.remove(e);
+		e.setStroke(Color.BLACK);
+	}
+
+	/**
+	 * compute the forest from scratch with kruskal algorithm
+	 */
+
+	private void rebuild() {
+		weights.keySet().forEach(e -> e.setStroke(Color.BLACK));
+		tree.clear();
+		weights.clear();
+		candidates.clear();
+		incident.clear();
+		cost = 0;
+
+		for (Node<T> n : graph.getNodes()) {
+			tree.put(n, new HashMap<>());
+			incident.put(n, new TreeSet<>(ORDER));
+		}
+
+		ArrayList<Node<T>> from = new ArrayList<>();
+		ArrayList<Node<T>> to = new ArrayList<>();
+		ArrayList<Edge<K>> edges = new ArrayList<>();
+
+		for (Node<T> x : graph.getNodes())
+			for (Map.Entry<Node<T>, Edge<K>> entry : graph.outEdges(x).entrySet())
+				if (tree.containsKey(entry.getKey())) {
+					from.add(x);
+					to.add(entry.getKey());
+					edges.add(entry.getValue());
+				}
+
+		ArrayList<Integer> order = new ArrayList<>(edges.size());
+		for (int i = 0; i < edges.size(); i++)
+			order.add(i);
+
+		order.sort((i, j) -> Double.compare(conv.convert(edges.get(i).getWeight()),
+				conv.convert(edges.get(j).getWeight())));
+
+		HashMap<Node<T>, Node<T>> groups = new HashMap<>();
+		for (int i : order) {
+			Node<T> a = find(groups, from.get(i));
+			Node<T> b = find(groups, to.get(i));
+
+			if (a != b) {
+				groups.put(a, b);
+				link(from.get(i), to.get(i), edges.get(i), conv.convert(edges.get(i).getWeight()));
+			} else
+				addCandidate(from.get(i), to.get(i), edges.get(i), conv.convert(edges.get(i).getWeight()));
+		}
+	}
+
+	private static <T> Node<T> find(HashMap<Node<T>, Node<T>> groups, Node<T> n) {
+		Node<T> p;
+		while ((p = groups.get(n)) != null) {
+			Node<T> g = groups.get(p);
+			if (g != null)
+				groups.put(n, g);
+
+			n = p;
+		}
+
+		return n;
+	}
+
+	// by weight, then by insertion to keep equal weights apart
+	private static final Comparator<Candidate<?, ?>> ORDER = Comparator
+			.<Candidate<?, ?>>comparingDouble(c -> c.weight).thenComparingLong(c -> c.id);
+
+	/**
+	 * edge out of the forest with its weight when it was indexed
+	 */
+
+	private static final class Candidate<T, K> {
+
+		private final Node<T> from;
+		private final Node<T> to;
+		private final Edge<K> edge;
+		private final double weight;
+		private final long id;
+
+		private Candidate(Node<T> from, Node<T> to, Edge<K> edge, double weight, long id) {
+			this.from = from;
+			this.to = to;
+			this.edge = edge;
+			this.weight = weight;
+			this.id = id;
+		}
+	}
+}
@@ -158,6 +158,7 @@ public class Edge<K> extends Group {
 		endXProperty().addListener(updater);
 		endYProperty().addListener(updater);
 		strokeWidthProperty().addListener(updater);
+		strokeProperty().addListener(updater);
 		weightProperty().addListener(updater);
 		updater.invalidated(null);
 	}
@@ -5,24 +5,66 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
-
+import java.util.function.ObjIntConsumer;
+
+import graph.algorithms.AlgorithmRun;
+import graph.algorithms.AllPairsShortestPaths;
+import graph.algorithms.BellmanFord;
+import graph.algorithms.Betweenness;
+import graph.algorithms.Bfs;
+import graph.algorithms.BfsResult;
+import graph.algorithms.Biconnectivity;
+import graph.algorithms.BipartiteMatching;
+import graph.algorithms.Communities;
+import graph.algorithms.Components;
+import graph.algorithms.ConcurrentUnionFind;
+import graph.algorithms.CsrGraph;
+import graph.algorithms.Cut;
+import graph.algorithms.DagPaths;
+import graph.algorithms.DeltaStepping;
+import graph.algorithms.Dfs;
+import graph.algorithms.DfsResult;
+import graph.algorithms.Dijkstra;
+import graph.algorithms.DirectionOptimizingBfs;
+import graph.algorithms.DistanceMatrix;
+import graph.algorithms.FlowResult;
+import graph.algorithms.KShortestPaths;
+import graph.algorithms.Louvain;
+import graph.algorithms.Matching;
+import graph.algorithms.MaxFlow;
+import graph.algorithms.MinCostFlow;
+import graph.algorithms.MinCut;
+import graph.algorithms.NodeScores;
+import graph.algorithms.PageRank;
+import graph.algorithms.ParallelBoruvka;
+import graph.algorithms.PathResult;
+import graph.algorithms.ShortestPaths;
+import graph.algorithms.SpanningForest;
+import graph.algorithms.StronglyConnectedComponents;
 import graph.annotations.NotNull;
 import graph.annotations.Nullable;
+import graph.dataclasses.AllPairsMode;
 import graph.dataclasses.FlowWeight;
 import graph.dataclasses.GraphLayout;
+import graph.dataclasses.GraphTriple;
+import graph.dataclasses.Heuristic;
 import graph.dataclasses.WeightConverter;
 import javafx.application.Platform;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.collections.FXCollections;
-import javafx.collections.ListChangeListener;
 import javafx.collections.MapChangeListener;
-import javafx.collections.ObservableList;
 import javafx.collections.ObservableMap;
 import javafx.geometry.Rectangle2D;
 import javafx.scene.Group;
@@ -31,12 +73,47 @@ import javafx.scene.paint.Color;
 
 public class FXGraph<T, K> extends Group {
 
-	private final ObservableList<Node<T>> nodes = FXCollections.observableList(new ArrayList<>());
+	private final ArrayList<Node<T>> nodes = new ArrayList<>();
 	private final ObservableMap<Node<T>, ObservableMap<Node<T>, Edge<K>>> edges = FXCollections.observableHashMap();
 
+	// dense index of the nodes and of the edges, an element removed from the
+	// middle of its list is replaced by the last one
+	private final HashMap<Node<T>, Integer> nodeIds = new HashMap<>();
+	private final ArrayList<Edge<K>> edgeList = new ArrayList<>();
+	private final HashMap<Edge<K>, Integer> edgeIds = new HashMap<>();
+
 	private final boolean digraph;
 	private boolean lock;
 
+	// modification counter and nodes whose outgoing edges changed since the last
+	// snapshot
+	private volatile long version;
+	private final HashSet<Node<T>> dirty = new HashSet<>();
+	private volatile GraphSnapshot<T, K> snapshot;
+	private final AtomicBoolean publishing = new AtomicBoolean();
+	private final CopyOnWriteArrayList<GraphListener<T, K>> listeners = new CopyOnWriteArrayList<>();
+
+	// results of the last queries on the current version of the graph
+	private final ResultCache cache = new ResultCache(64);
+
+	// version of the graph each csr copy returned by toCsr was built on
+	private final WeakHashMap<CsrGraph<T>, Long> csrVersions = new WeakHashMap<>();
+
+	// unweighted csr copy reused by the searches while the graph is unchanged
+	private CsrGraph<T> searchCsr;
+
+	// children of the graph, the edges are drawn below the nodes
+	private final SceneLayer edgeLayer = new SceneLayer();
+	private final SceneLayer nodeLayer = new SceneLayer();
+
+	// children created by addAll, added to the scene in a single change. Null
+	// outside of addAll
+	private ArrayList<javafx.scene.Node> pendingNodes;
+	private ArrayList<javafx.scene.Node> pendingEdges;
+
+	// connected components of undirected graphs, created on the first query
+	private Connectivity<T, K> connectivity;
+
 	// cache variables to store node focused and edge focused
 	private final ObjectProperty<Node<T>> nodeFocused = new SimpleObjectProperty<>();
 	private final ObjectProperty<Edge<K>> edgeFocused = new SimpleObjectProperty<>();
@@ -70,8 +147,7 @@ public class FXGraph<T, K> extends Group {
 		checkThread();
 		this.digraph = digraph;
 
-		// listen for add or remove graphic node
-		this.nodes.addListener(this::listenNodeChange);
+		getChildren().addAll(edgeLayer, nodeLayer);
 		addEventFilter(KeyEvent.KEY_PRESSED, this::translationAnimation);
 
 		// create nodes
@@ -89,9 +165,10 @@ public class FXGraph<T, K> extends Group {
 	}
 
 	/**
-	 * get an unmodifiable set of all nodes registered in the graph
+	 * get an unmodifiable view of all nodes registered in the graph. When a node
+	 * is removed the last node takes its position
 	 * 
-	 * @return an unmodifiable set of nodes
+	 * @return an unmodifiable list of nodes
 	 */
 
 	@NotNull
@@ -109,21 +186,50 @@ public class FXGraph<T, K> extends Group {
 
 	@Nullable
 	public final Edge<K> getEdge(@NotNull Node<T> n1, @NotNull Node<T> n2) {
-		return edges.get(n1).get(n2);
+		Map<Node<T>, Edge<K>> out = edges.get(n1);
+		return out == null ? null : out.get(n2);
 	}
 
-	private void relax(Node<T> n1, Node<T> n2, K weight, WeightConverter<K> converter) {
-		double converted = converter.convert(weight); // convert weight into a number
-		if (n2.time > n1.time + converted) {
-			// reset color if new edge with lower weight is found
-			if (n2.parent != null)
-				edges.get(n2.parent).get(n2).setStroke(Color.BLACK);
+	/**
+	 * get an unmodifiable view of all the edges of the graph. The position of an
+	 * edge in the list is its id: ids are dense in [0, {@link #getEdgeCount()})
+	 * and when an edge is removed the last edge takes its id
+	 * 
+	 * @return the edges of the graph, undirected edges are counted twice
+	 */
+
+	@NotNull
+	public final List<Edge<K>> getEdges() {
+		return Collections.unmodifiableList(edgeList);
+	}
 
-			// change the color of the edge with lower weight to red
-			edges.get(n1).get(n2).setStroke(Color.RED);
-			n2.time = n1.time + converted;
-			n2.parent = n1;
-		}
+	/**
+	 * @return the number of edges, undirected edges are counted twice
+	 */
+
+	public final int getEdgeCount() {
+		return edgeList.size();
+	}
+
+	/**
+	 * get the id of an edge, see {@link #getEdges()}
+	 * 
+	 * @param e the edge
+	 * @return the position of the edge in {@link #getEdges()} or -1 if the edge is
+	 *         not in the graph
+	 */
+
+	public final int getEdgeId(@Nullable Edge<K> e) {
+		Integer id = edgeIds.get(e);
+		return id == null ? -1 : id;
+	}
+
+	/**
+	 * @return true if the node is in the graph
+	 */
+
+	public final boolean contains(@Nullable Node<T> n) {
+		return nodeIds.containsKey(n);
 	}
 
 	/**
@@ -136,46 +242,47 @@ public class FXGraph<T, K> extends Group {
 
 	public final double kruskal(@NotNull WeightConverter<K> conv) {
 		checkThread();
-		resetNodes();
+		resetEdges();
 
 		Objects.requireNonNull(conv);
 
 		if (digraph) // check if is undirected graph
 			throw new IllegalStateException("Kruskal algorithm can be applied only to undirected graphs");
 
-		ArrayList<Edge<K>> arr = new ArrayList<>(); // store all edges is a list
-		for (Map<Node<T>, Edge<K>> m : edges.values())
-			arr.addAll(m.values());
+		CsrGraph<T> g = toCsr(conv);
+		AlgorithmRun run = AlgorithmRun.start("Kruskal", g.size(), g.edgeCount(), "sort", "union");
+		run.phase(0);
+
+		// store all edges in a list
+		ArrayList<Integer> arr = new ArrayList<>(g.edgeCount());
+		for (int e = 0; e < g.edgeCount(); e++)
+			arr.add(e);
 
 		// sort edges by weight
-		arr.sort((e1, e2) -> (int) (conv.convert(e1.getWeight()) - conv.convert(e2.getWeight())));
+		arr.sort((e1, e2) -> Double.compare(g.weight(e1), g.weight(e2)));
 
-		// set time of each node to different values
-		for (int i = 0; i < nodes.size(); i++)
-			nodes.get(i).time = i;
+		// each node starts in its own group
+		run.phase(1);
+		ConcurrentUnionFind groups = new ConcurrentUnionFind(g.size());
 
 		// create empty list to store taken edges
 		ArrayList<Edge<K>> neww = new ArrayList<>();
+		long scanned = 0;
 
-		for (Edge<K> e : arr) {
+		for (int e : arr) {
 			// if n-1 edges have been selected stop
 			if (neww.size() == nodes.size() - 1)
 				break;
 
-			// else store the edge if no cycle is created and update group of each node
-			// (time)
-			if (e.getNodeFrom().time != e.getNodeTo().time) {
-				neww.add(e);
-				double max = Math.max(e.getNodeFrom().time, e.getNodeTo().time);
-				double min = Math.min(e.getNodeFrom().time, e.getNodeTo().time);
-				for (Node<T> n : nodes)
-					if (n.time == max)
-						n.time = min;
-
-			}
-
+			// else store the edge if no cycle is created and merge the groups
+			scanned++;
+			if (groups.union(g.edgeSource(e), g.target(e)))
+				neww.add(g.edge(e));
 		}
 
+		run.addRelaxations(scanned);
+		run.end();
+
 		// show selected edges
 		neww.forEach(e -> e.setStroke(Color.RED));
 
@@ -189,95 +296,1216 @@ public class FXGraph<T, K> extends Group {
 	}
 
 	/**
-	 * apply dijkstra algorithm starting from the given node (WARNING NO CHECK ARE
-	 * DONE FOR NEGATIVE EDGES VALUES)
+	 * take an immutable snapshot of the graph. The snapshot can be read from any
+	 * thread and shares the adjacency of unchanged nodes with the previous
+	 * snapshot, so only the nodes modified since then are copied
+	 * 
+	 * @return the snapshot of the current version of the graph
+	 */
+
+	@NotNull
+	public final GraphSnapshot<T, K> snapshot() {
+		checkThread();
+
+		GraphSnapshot<T, K> last = snapshot;
+		if (last != null && last.getVersion() == version)
+			return last;
+
+		last = GraphSnapshot.build(version, digraph, nodes, edges, last, dirty);
+		dirty.clear();
+		snapshot = last;
+
+		return last;
+	}
+
+	/**
+	 * get the last snapshot of the graph from any thread. Called on the JavaFX
+	 * thread it is the same as {@link #snapshot()}. Called on another thread it
+	 * does not wait for the JavaFX thread, unless no snapshot has been taken yet,
+	 * and returns the last published snapshot while a newer one is taken in
+	 * background if the graph has changed
+	 * 
+	 * @return the last published snapshot, check {@link GraphSnapshot#getVersion()}
+	 *         against {@link #getVersion()} to know if it is up to date
+	 */
+
+	@NotNull
+	public final GraphSnapshot<T, K> latestSnapshot() {
+		if (Platform.isFxApplicationThread())
+			return snapshot();
+
+		GraphSnapshot<T, K> last = snapshot;
+		if (last == null)
+			return CompletableFuture.supplyAsync(this::snapshot, Platform::runLater).join();
+
+		// schedule only one refresh at a time
+		if (last.getVersion() != version && publishing.compareAndSet(false, true))
+			Platform.runLater(() -> {
+				publishing.set(false);
+				snapshot();
+			});
+
+		return last;
+	}
+
+	/**
+	 * get the modification counter of the graph. It is increased each time a node
+	 * or an edge is added or removed or an edge weight is changed and can be read
+	 * from any thread
+	 * 
+	 * @return the current version of the graph
+	 */
+
+	public final long getVersion() {
+		return version;
+	}
+
+	/**
+	 * add a listener notified of the changes of nodes, edges and edge weights
+	 * 
+	 * @param l the listener
+	 */
+
+	public final void addGraphListener(@NotNull GraphListener<T, K> l) {
+		checkThread();
+		listeners.add(Objects.requireNonNull(l));
+	}
+
+	public final void removeGraphListener(@Nullable GraphListener<T, K> l) {
+		checkThread();
+		listeners.remove(l);
+	}
+
+	/**
+	 * @return the outgoing edges of a node, null if the node has never been added
+	 */
+
+	@Nullable
+	final Map<Node<T>, Edge<K>> outEdges(@NotNull Node<T> n) {
+		return edges.get(n);
+	}
+
+	private void unindex(Node<T> n) {
+		Integer id = nodeIds.remove(n);
+		if (id == null)
+			return;
+
+		// move the last node in the hole
+		Node<T> last = nodes.remove(nodes.size() - 1);
+		if (last != n) {
+			nodes.set(id, last);
+			nodeIds.put(last, id);
+		}
+	}
+
+	private void unindex(Edge<K> e) {
+		Integer id = edgeIds.remove(e);
+		if (id == null)
+			return;
+
+		// move the last edge in the hole
+		Edge<K> last = edgeList.remove(edgeList.size() - 1);
+		if (last != e) {
+			edgeList.set(id, last);
+			edgeIds.put(last, id);
+		}
+	}
+
+	private void touch(@Nullable Node<T> n) {
+		version++;
+
+		// nothing to track if no snapshot has been taken yet
+		if (n != null && snapshot != null)
+			dirty.add(n);
+	}
+
+	/**
+	 * compute the minimum spanning forest of an undirected graph and keep it up to
+	 * date while edges are added or removed and their weights are changed with
+	 * {@link Edge#setWeight(Object)}. Tree edges are shown in red
+	 * 
+	 * @param conv the converter to convert generic edge weight to double
+	 * @return the live forest, call {@link DynamicSpanningTree#dispose()} to stop
+	 *         the maintenance
+	 * @throws IllegalStateException if graph is a digraph
+	 */
+
+	@NotNull
+	public final DynamicSpanningTree<T, K> dynamicSpanningTree(@NotNull WeightConverter<K> conv) {
+		checkThread();
+		resetEdges();
+
+		Objects.requireNonNull(conv);
+
+		if (digraph) // check if is undirected graph
+			throw new IllegalStateException("Spanning tree can be maintained only on undirected graphs");
+
+		DynamicSpanningTree<T, K> res = new DynamicSpanningTree<>(this, conv);
+		addGraphListener(res);
+
+		return res;
+	}
+
+	/**
+	 * check if 2 nodes of an undirected graph are in the same connected
+	 * component. Components are maintained while the graph changes, added nodes
+	 * and edges are merged in near constant time while removals rebuild the
+	 * components on the next query
+	 * 
+	 * @param n1 node 1
+	 * @param n2 node 2
+	 * @return true if a path connects the nodes
+	 * @throws IllegalStateException    if graph is a digraph
+	 * @throws IllegalArgumentException if a node is not in the graph
+	 */
+
+	public final boolean connected(@NotNull Node<T> n1, @NotNull Node<T> n2) {
+		Objects.requireNonNull(n1);
+		Objects.requireNonNull(n2);
+
+		return connectivity().connected(n1, n2);
+	}
+
+	/**
+	 * get the representative of the connected component of a node of an
+	 * undirected graph, see {@link #connected(Node, Node)}. The representative
+	 * is the same for all the nodes of a component until the graph changes
+	 * 
+	 * @param n the node
+	 * @return the representative node of the component
+	 * @throws IllegalStateException    if graph is a digraph
+	 * @throws IllegalArgumentException if the node is not in the graph
+	 */
+
+	@NotNull
+	public final Node<T> componentOf(@NotNull Node<T> n) {
+		Objects.requireNonNull(n);
+
+		return connectivity().componentOf(n);
+	}
+
+	/**
+	 * get the number of connected components of an undirected graph, see
+	 * {@link #connected(Node, Node)}
+	 * 
+	 * @return the number of components
+	 * @throws IllegalStateException if graph is a digraph
+	 */
+
+	public final int componentCount() {
+		return connectivity().componentCount();
+	}
+
+	/**
+	 * color the nodes of an undirected graph by connected component. The colors
+	 * follow the changes of the graph
+	 * 
+	 * @param show true to color the components, false to restore the default
+	 *             color of the nodes
+	 * @throws IllegalStateException if graph is a digraph
+	 */
+
+	public final void setShowComponents(boolean show) {
+		connectivity().setColored(show);
+	}
+
+	/**
+	 * find the strongly connected components of the graph and color the nodes of
+	 * each component. The search is iterative, so large graphs do not overflow the
+	 * stack
+	 * 
+	 * @return the component of each node, see {@link #resetNodes()} to remove the
+	 *         colors
+	 */
+
+	@NotNull
+	public final Components<T> stronglyConnectedComponents() {
+		checkThread();
+
+		Components<T> res = cache.get(version, "stronglyConnectedComponents", null);
+		if (res == null) {
+			res = StronglyConnectedComponents.run(toCsr(null));
+			cache.put(version, res, "stronglyConnectedComponents", null);
+		}
+
+		int[] ids = res.getComponentIds();
+		for (int i = 0; i < ids.length; i++)
+			res.getGraph().getNode(i).setFill(Connectivity.color(ids[i]));
+
+		return res;
+	}
+
+	/**
+	 * restore the default color of the nodes
+	 */
+
+	public final void resetNodes() {
+		checkThread();
+
+		for (Node<T> n : nodes)
+			n.setFill(null);
+	}
+
+	/**
+	 * check if the graph has no directed cycle. Each undirected edge is a cycle of
+	 * 2 edges
+	 * 
+	 * @return true if the graph is acyclic
+	 */
+
+	public final boolean isAcyclic() {
+		checkThread();
+
+		return topologicalOrder(toCsr(null)) != null;
+	}
+
+	/**
+	 * sort the nodes so that each edge goes from a node to a later one
+	 * 
+	 * @return the nodes in topological order
+	 * @throws IllegalStateException if the graph has a cycle
+	 */
+
+	@NotNull
+	public final List<Node<T>> topologicalSort() {
+		checkThread();
+
+		CsrGraph<T> g = toCsr(null);
+		int[] order = topologicalOrder(g);
+		if (order == null)
+			throw new IllegalStateException("Graph is not acyclic");
+
+		ArrayList<Node<T>> tmp = new ArrayList<>(order.length);
+		for (int i : order)
+			tmp.add(g.getNode(i));
+
+		return tmp;
+	}
+
+	/**
+	 * find the longest paths from a node of an acyclic graph in linear time, e.g.
+	 * the critical path of a graph of tasks weighted by their duration. The tree
+	 * of the longest paths is shown in red
+	 * 
+	 * @param root the source node
+	 * @param conv the converter to convert generic edge weight to double
+	 * @return distances and parents of the nodes, the unreachable nodes have
+	 *         distance {@link Double#POSITIVE_INFINITY}
+	 * @throws IllegalStateException    if the graph has a cycle
+	 * @throws IllegalArgumentException if root is not in the graph
+	 */
+
+	@NotNull
+	public final ShortestPaths<T> longestPaths(@NotNull Node<T> root, @NotNull WeightConverter<K> conv) {
+		checkThread();
+
+		Objects.requireNonNull(root);
+		Objects.requireNonNull(conv);
+
+		CsrGraph<T> g = toCsr(conv);
+		int[] order = topologicalOrder(g);
+		if (order == null)
+			throw new IllegalStateException("Graph is not acyclic");
+
+		return showTree(DagPaths.run(g, root, order, true));
+	}
+
+	/**
+	 * check if the nodes can be split in 2 sides with every edge going from a side
+	 * to the other, the direction of the edges is ignored
+	 * 
+	 * @return true if the graph is bipartite
+	 */
+
+	public final boolean isBipartite() {
+		checkThread();
+
+		return BipartiteMatching.bipartition(toCsr(null)) != null;
+	}
+
+	/**
+	 * find a maximum matching of a bipartite graph with Hopcroft-Karp algorithm.
+	 * Unlike a max flow between an added source and sink no node or edge is added
+	 * to the graph. The matched edges are shown in red
+	 * 
+	 * @return the matching
+	 * @throws IllegalArgumentException if the graph is not bipartite
+	 */
+
+	@NotNull
+	public final Matching<T> maximumMatching() {
+		checkThread();
+
+		return showMatching(BipartiteMatching.hopcroftKarp(toCsr(null)));
+	}
+
+	/**
+	 * solve the assignment problem of a bipartite graph with the hungarian
+	 * algorithm: find a matching with as many edges as possible and minimum total
+	 * weight. The matched edges are shown in red
+	 * 
+	 * @param conv the converter to convert generic edge weight to double, negate
+	 *             the weights to find a matching of maximum weight
+	 * @return the matching
+	 * @throws IllegalArgumentException if the graph is not bipartite
+	 */
+
+	@NotNull
+	public final Matching<T> assignment(@NotNull WeightConverter<K> conv) {
+		checkThread();
+
+		Objects.requireNonNull(conv);
+
+		return showMatching(BipartiteMatching.hungarian(toCsr(conv)));
+	}
+
+	private Matching<T> showMatching(Matching<T> m) {
+		resetEdges();
+		m.<K>getEdges().forEach(e -> e.setStroke(Color.RED));
+		return m;
+	}
+
+	/**
+	 * find a global minimum cut of an undirected graph with Stoer-Wagner
+	 * algorithm, the split of the nodes in 2 sides crossed by the edges of least
+	 * total weight. The cut is shown with {@link #showCut(Cut)}
+	 * 
+	 * @param conv the converter to convert generic edge weight to double, null to
+	 *             count the edges
+	 * @return the cut
+	 * @throws IllegalStateException    if graph is a digraph
+	 * @throws IllegalArgumentException if the graph has less than 2 nodes or a
+	 *                                  negative weight
+	 */
+
+	@NotNull
+	public final Cut<T> minimumCut(@Nullable WeightConverter<K> conv) {
+		checkThread();
+
+		if (digraph) // check if is undirected graph
+			throw new IllegalStateException("Global min cut can be found only on undirected graphs");
+
+		Cut<T> cut = MinCut.stoerWagner(toCsr(conv));
+		showCut(cut);
+		return cut;
+	}
+
+	/**
+	 * find a global minimum cut of an undirected graph with the randomized
+	 * Karger-Stein algorithm, see {@link MinCut}. The trials run in parallel and
+	 * each one finds a minimum cut with probability about 1 / log V. The cut
+	 * found is shown with {@link #showCut(Cut)}
+	 * 
+	 * @param conv   the converter to convert generic edge weight to double, null
+	 *               to count the edges
+	 * @param trials the number of independent runs
+	 * @param seed   the seed of the random choices
+	 * @return the smallest cut found
+	 * @throws IllegalStateException    if graph is a digraph
+	 * @throws IllegalArgumentException if the graph has less than 2 nodes or a
+	 *                                  negative weight, or trials is not positive
+	 */
+
+	@NotNull
+	public final Cut<T> randomizedMinimumCut(@Nullable WeightConverter<K> conv, int trials, long seed) {
+		checkThread();
+
+		if (digraph) // check if is undirected graph
+			throw new IllegalStateException("Global min cut can be found only on undirected graphs");
+
+		Cut<T> cut = MinCut.kargerStein(toCsr(conv), trials, seed);
+		showCut(cut);
+		return cut;
+	}
+
+	/**
+	 * color the 2 sides of a cut and show the edges crossing it in red
+	 * 
+	 * @param cut a cut of this graph
+	 */
+
+	public final void showCut(@NotNull Cut<T> cut) {
+		checkThread();
+		resetEdges();
+
+		CsrGraph<T> g = cut.getGraph();
+		for (int i = 0; i < g.size(); i++)
+			g.getNode(i).setFill(Connectivity.color(cut.isOnFirstSide(g.getNode(i)) ? 0 : 1));
+
+		for (int e : cut.getCutEdgeIds())
+			g.<K>edge(e).setStroke(Color.RED);
+	}
+
+	/**
+	 * compute the betweenness centrality of the nodes with Brandes algorithm, in
+	 * parallel over the source nodes, and color the nodes by score, see
+	 * {@link #showScores(NodeScores)}. Pairs of nodes are ordered, so on an
+	 * undirected graph each path is counted in both directions
+	 *
+	 * @param conv the converter to convert generic edge weight to double, null
+	 *             to count the edges of the paths
+	 * @return the betweenness of each node
+	 * @throws IllegalArgumentException if an edge has a negative weight
+	 */
+
+	@NotNull
+	public final NodeScores<T> betweenness(@Nullable WeightConverter<K> conv) {
+		checkThread();
+
+		NodeScores<T> res = cache.get(version, "betweenness", conv);
+		if (res == null) {
+			res = Betweenness.run(toCsr(conv));
+			cache.put(version, res, "betweenness", conv);
+		}
+
+		return showScores(res);
+	}
+
+	/**
+	 * estimate the betweenness centrality from a random sample of source nodes,
+	 * for graphs too large for {@link #betweenness(WeightConverter)}
+	 *
+	 * @param conv    the converter to convert generic edge weight to double, null
+	 *                to count the edges of the paths
+	 * @param samples the number of source nodes
+	 * @param seed    the seed of the sample
+	 * @return the estimated betweenness of each node
+	 * @throws IllegalArgumentException if samples is not positive or an edge has
+	 *                                  a negative weight
+	 */
+
+	@NotNull
+	public final NodeScores<T> betweenness(@Nullable WeightConverter<K> conv, int samples, long seed) {
+		checkThread();
+
+		return showScores(Betweenness.sample(toCsr(conv), samples, seed));
+	}
+
+	/**
+	 * compute the PageRank of the nodes with damping 0.85 and color the nodes by
+	 * rank, see {@link #pageRank(WeightConverter, double)}
+	 *
+	 * @param conv the converter to convert generic edge weight to double, null to
+	 *             follow every out edge with the same probability
+	 * @return the rank of each node
+	 * @throws IllegalArgumentException if an edge has a negative weight
+	 */
+
+	@NotNull
+	public final NodeScores<T> pageRank(@Nullable WeightConverter<K> conv) {
+		return pageRank(conv, 0.85);
+	}
+
+	/**
+	 * compute the PageRank of the nodes with parallel power iteration and color
+	 * the nodes by rank, see {@link #showScores(NodeScores)}
+	 *
+	 * @param conv    the converter to convert generic edge weight to double, null
+	 *                to follow every out edge with the same probability
+	 * @param damping the probability to follow an edge instead of jumping to a
+	 *                random node
+	 * @return the rank of each node, the ranks sum to 1
+	 * @throws IllegalArgumentException if damping is not in [0, 1) or an edge has
+	 *                                  a negative weight
+	 */
+
+	@NotNull
+	public final NodeScores<T> pageRank(@Nullable WeightConverter<K> conv, double damping) {
+		checkThread();
+
+		NodeScores<T> res = cache.get(version, "pageRank", conv, damping);
+		if (res == null) {
+			res = PageRank.run(toCsr(conv), damping, 1e-9, 100, ForkJoinPool.commonPool());
+			cache.put(version, res, "pageRank", conv, damping);
+		}
+
+		return showScores(res);
+	}
+
+	/**
+	 * color the nodes from blue, lowest score, to red, highest score. Scores are
+	 * scaled by the highest one, see {@link #resetNodes()} to remove the colors
+	 *
+	 * @param scores scores of the nodes of this graph
+	 * @return the scores
+	 */
+
+	@NotNull
+	public final NodeScores<T> showScores(@NotNull NodeScores<T> scores) {
+		checkThread();
+
+		double max = scores.getMax();
+		double[] s = scores.getScores();
+		CsrGraph<T> g = scores.getGraph();
+
+		for (int i = 0; i < s.length; i++) {
+			double t = max > 0 ? s[i] / max : 0;
+			g.getNode(i).setFill(Color.hsb(240 * (1 - t), 0.35 + 0.5 * t, 1.0));
+		}
+
+		return scores;
+	}
+
+	/**
+	 * find communities of densely connected nodes with the parallel Louvain
+	 * method and color the nodes of each community, see {@link Louvain}
+	 *
+	 * @param conv the converter to convert generic edge weight to double, null
+	 *             to give every edge the same weight
+	 * @return the community of each node, see {@link #resetNodes()} to remove the
+	 *         colors
+	 * @throws IllegalArgumentException if an edge has a negative weight
+	 */
+
+	@NotNull
+	public final Communities<T> louvain(@Nullable WeightConverter<K> conv) {
+		return louvain(conv, 1);
+	}
+
+	/**
+	 * find communities with the given resolution, see
+	 * {@link #louvain(WeightConverter)}
+	 *
+	 * @param conv       the converter to convert generic edge weight to double,
+	 *                   null to give every edge the same weight
+	 * @param resolution higher values find more and smaller communities
+	 * @return the community of each node
+	 * @throws IllegalArgumentException if resolution is not positive or an edge
+	 *                                  has a negative weight
+	 */
+
+	@NotNull
+	public final Communities<T> louvain(@Nullable WeightConverter<K> conv, double resolution) {
+		checkThread();
+
+		Communities<T> res = cache.get(version, "louvain", conv, resolution);
+		if (res == null) {
+			res = Louvain.run(toCsr(conv), resolution, ForkJoinPool.commonPool());
+			cache.put(version, res, "louvain", conv, resolution);
+		}
+
+		int[] ids = res.getCommunityIds();
+		for (int i = 0; i < ids.length; i++)
+			res.getGraph().getNode(i).setFill(Connectivity.color(ids[i]));
+
+		return res;
+	}
+
+	/**
+	 * draw each community as a single node and the edges between 2 communities as
+	 * a single line, a double click on a community shows its nodes again. The
+	 * nodes and edges of the graph are not changed
+	 *
+	 * @param communities communities of the current version of this graph
+	 * @return the view, see {@link CommunityView#close()} to show the whole graph
+	 * @throws IllegalStateException if the communities have not been computed on
+	 *                               {@link #toCsr(WeightConverter)} of the current
+	 *                               version of this graph
+	 */
+
+	@NotNull
+	public final CommunityView<T, K> collapseCommunities(@NotNull Communities<T> communities) {
+		checkThread();
+		Objects.requireNonNull(communities);
+
+		Long v = csrVersions.get(communities.getGraph());
+		if (v == null || v != version)
+			throw new IllegalStateException("Communities computed for another version of the graph");
+
+		return new CommunityView<>(this, communities);
+	}
+
+	/**
+	 * @return the cached topological order of the current version of the graph or
+	 *         null if the graph has a cycle
+	 */
+
+	private int[] topologicalOrder(CsrGraph<T> g) {
+		int[] order = cache.get(version, "topologicalOrder", null);
+		if (order == null) {
+			order = DagPaths.topologicalOrder(g);
+
+			// a graph with cycles is cached as an empty order
+			if (order == null)
+				order = new int[0];
+
+			cache.put(version, order, "topologicalOrder", null);
+		}
+
+		return order.length == g.size() ? order : null;
+	}
+
+	/**
+	 * set the number of results kept by the cache of the algorithms which only
+	 * read the graph: {@link #dijkstra(Node, WeightConverter)},
+	 * {@link #bellmanFordTree(Node, WeightConverter)}, the strongly connected
+	 * components, the biconnectivity, the topological order, betweenness,
+	 * PageRank and Louvain. A cached result is returned, and its highlighting
+	 * applied again, when the same algorithm is called with the same parameters
+	 * and the same converter instance on an unchanged graph, see
+	 * {@link #getVersion()}. The flow algorithms change the edges they run on and
+	 * are never cached. Changes made in place to mutable weights are not tracked,
+	 * use {@link Edge#setWeight(Object)} or {@link #clearCache()}
+	 * 
+	 * @param capacity the max number of results, 0 disables the cache
+	 * @throws IllegalArgumentException if capacity is negative
+	 */
+
+	public final void setCacheCapacity(int capacity) {
+		checkThread();
+
+		if (capacity < 0)
+			throw new IllegalArgumentException("Cache capacity must not be negative");
+
+		cache.setCapacity(capacity);
+	}
+
+	public final int getCacheCapacity() {
+		return cache.getCapacity();
+	}
+
+	public final void clearCache() {
+		checkThread();
+		cache.clear();
+	}
+
+	/**
+	 * @return the number of algorithm calls answered by the cache
+	 */
+
+	public final long getCacheHits() {
+		return cache.getHits();
+	}
+
+	/**
+	 * @return the number of algorithm calls which had to be computed
+	 */
+
+	public final long getCacheMisses() {
+		return cache.getMisses();
+	}
+
+	private Connectivity<T, K> connectivity() {
+		checkThread();
+
+		if (digraph)
+			throw new IllegalStateException("Connected components can be found only on undirected graphs");
+
+		if (connectivity == null) {
+			connectivity = new Connectivity<>(this);
+			addGraphListener(connectivity);
+		}
+
+		return connectivity;
+	}
+
+	/**
+	 * execute a parallel boruvka algorithm on undirected graph. The result is the
+	 * same of {@link #kruskal(WeightConverter)}, if the graph is not connected a
+	 * minimum spanning forest is found
+	 * 
+	 * @param conv the converter to convert generic edge weight to double
+	 * @return the cost of the forest found
+	 * @throws IllegalStateException if graph is a digraph
+	 */
+
+	public final double boruvka(@NotNull WeightConverter<K> conv) {
+		checkThread();
+		resetEdges();
+
+		Objects.requireNonNull(conv);
+
+		if (digraph) // check if is undirected graph
+			throw new IllegalStateException("Boruvka algorithm can be applied only to undirected graphs");
+
+		SpanningForest<T> forest = ParallelBoruvka.run(toCsr(conv));
+
+		// show selected edges
+		forest.<K>getEdges().forEach(e -> e.setStroke(Color.RED));
+
+		return forest.getCost();
+	}
+
+	/**
+	 * apply dijkstra algorithm starting from the given node (WARNING NO CHECK ARE
+	 * DONE FOR NEGATIVE EDGES VALUES)
+	 * 
+	 * @param root the root node
+	 * @param conv the weight converter to convert the generic weight to a number
+	 * @return distances and parents of the nodes. The result is not changed by
+	 *         other algorithms. Note: until the algorithm state was moved out of
+	 *         the nodes this method returned void
+	 */
+
+	@NotNull
+	public final ShortestPaths<T> dijkstra(@NotNull Node<T> root, @NotNull WeightConverter<K> conv) {
+		checkThread();
+
+		Objects.requireNonNull(root);
+		Objects.requireNonNull(conv);
+
+		ShortestPaths<T> res = cache.get(version, "dijkstra", conv, root);
+		if (res == null) {
+			res = Dijkstra.run(toCsr(conv), root);
+			cache.put(version, res, "dijkstra", conv, root);
+		}
+
+		return showTree(res);
+	}
+
+	/**
+	 * find the shortest path between 2 nodes with a* and the zero heuristic, so
+	 * the path is exact for any non negative weights. To guide the search with
+	 * the layout, when weights are at least the distances on screen, pass
+	 * {@link Heuristic#euclidean(double)}. The path is shown in red
+	 * 
+	 * @param from the source node
+	 * @param to   the target node
+	 * @param conv the converter to convert generic edge weight to double
+	 * @return the path found
+	 * @throws IllegalArgumentException if a node is not in the graph or a negative
+	 *                                  weight is found
+	 */
+
+	@NotNull
+	public final Route<T, K> aStar(@NotNull Node<T> from, @NotNull Node<T> to, @NotNull WeightConverter<K> conv) {
+		return aStar(from, to, conv, Heuristic.zero());
+	}
+
+	/**
+	 * find the shortest path between 2 nodes with a*. The search stops as soon as
+	 * the target is settled, so only the nodes closer to the target than the
+	 * heuristic allows are visited. The path is shown in red
+	 * 
+	 * @param from      the source node
+	 * @param to        the target node
+	 * @param conv      the converter to convert generic edge weight to double
+	 * @param heuristic an admissible estimate of the distance to the target
+	 * @return the path found
+	 * @throws IllegalArgumentException if a node is not in the graph or a negative
+	 *                                  weight is found
+	 */
+
+	@NotNull
+	public final Route<T, K> aStar(@NotNull Node<T> from, @NotNull Node<T> to, @NotNull WeightConverter<K> conv,
+			@NotNull Heuristic<T> heuristic) {
+		checkThread();
+
+		Objects.requireNonNull(conv);
+		Objects.requireNonNull(heuristic);
+		checkNodes(from, to);
+
+		return showRoute(new PathSearch<>(this, conv).aStar(from, to, heuristic));
+	}
+
+	/**
+	 * find the shortest path between 2 nodes with a bidirectional dijkstra, one
+	 * search grows from the source along the edges and one from the target
+	 * against them until they meet. No heuristic is needed and usually far fewer
+	 * nodes than a full {@link #dijkstra(Node, WeightConverter)} are visited. The
+	 * path is shown in red
+	 *
+	 * @param from the source node
+	 * @param to   the target node
+	 * @param conv the converter to convert generic edge weight to double
+	 * @return the path found
+	 * @throws IllegalArgumentException if a node is not in the graph or a negative
+	 *                                  weight is found
+	 */
+
+	@NotNull
+	public final Route<T, K> bidirectionalDijkstra(@NotNull Node<T> from, @NotNull Node<T> to,
+			@NotNull WeightConverter<K> conv) {
+		checkThread();
+
+		Objects.requireNonNull(conv);
+		checkNodes(from, to);
+
+		return showRoute(new PathSearch<>(this, conv).bidirectional(from, to));
+	}
+
+	/**
+	 * preprocess the graph into a contraction hierarchy for fast repeated shortest
+	 * path queries between 2 nodes. The hierarchy is rebuilt by the first query
+	 * after the graph is changed
+	 *
+	 * @param conv the converter to convert generic edge weight to double
+	 * @return the index answering the queries
+	 * @throws IllegalArgumentException if a negative weight is found
+	 */
+
+	@NotNull
+	public final RouteIndex<T, K> contractionHierarchy(@NotNull WeightConverter<K> conv) {
+		checkThread();
+
+		return new RouteIndex<>(this, Objects.requireNonNull(conv));
+	}
+
+	/**
+	 * find up to k shortest paths without repeated nodes between 2 nodes with Yen
+	 * algorithm, see {@link KShortestPaths}. The graph is not changed by the
+	 * search and the shortest path is shown in red, see
+	 * {@link #showRoute(Route)} to show another one
+	 *
+	 * @param from the source node
+	 * @param to   the target node
+	 * @param k    the max number of paths
+	 * @param conv the converter to convert generic edge weight to double
+	 * @return the paths by increasing cost, an empty list if the target is not
+	 *         reachable
+	 * @throws IllegalArgumentException if a node is not in the graph, k is not
+	 *                                  positive or a negative weight is found
+	 */
+
+	@NotNull
+	public final List<Route<T, K>> kShortestPaths(@NotNull Node<T> from, @NotNull Node<T> to, int k,
+			@NotNull WeightConverter<K> conv) {
+		checkThread();
+
+		Objects.requireNonNull(conv);
+		checkNodes(from, to);
+
+		ArrayList<Route<T, K>> tmp = new ArrayList<>();
+		for (PathResult<T> p : KShortestPaths.yen(toCsr(conv), from, to, k))
+			tmp.add(new Route<>(p.getNodes(), p.getEdges(), p.getCost(), p.getSettledCount()));
+
+		if (tmp.isEmpty())
+			resetEdges();
+		else
+			showRoute(tmp.get(0));
+
+		return tmp;
+	}
+
+	/**
+	 * show the edges of a route of this graph in red
+	 *
+	 * @param r the route
+	 * @return the route
+	 */
+
+	@NotNull
+	public final Route<T, K> showRoute(@NotNull Route<T, K> r) {
+		checkThread();
+		resetEdges();
+
+		r.getEdges().forEach(e -> e.setStroke(Color.RED));
+		return r;
+	}
+
+	private void checkNodes(Node<T> n1, Node<T> n2) {
+		Objects.requireNonNull(n1);
+		Objects.requireNonNull(n2);
+
+		if (!nodeIds.containsKey(n1) || !nodeIds.containsKey(n2))
+			throw new IllegalArgumentException("Invalid node. Node is not in the graph");
+	}
+
+	/**
+	 * apply dijkstra algorithm and keep the shortest path tree up to date while
+	 * edges are added or removed and their weights are changed with
+	 * {@link Edge#setWeight(Object)}. Only the part of the tree affected by a
+	 * change is recomputed and recolored
+	 * 
+	 * @param root the root node
+	 * @param conv the converter to convert generic edge weight to double
+	 * @return the live tree, call {@link DynamicShortestPaths#dispose()} to stop
+	 *         the maintenance
+	 * @throws IllegalArgumentException if root is not in the graph or a weight is
+	 *                                  negative
+	 */
+
+	@NotNull
+	public final DynamicShortestPaths<T, K> dynamicDijkstra(@NotNull Node<T> root, @NotNull WeightConverter<K> conv) {
+		checkThread();
+
+		Objects.requireNonNull(root);
+		Objects.requireNonNull(conv);
+
+		DynamicShortestPaths<T, K> res = new DynamicShortestPaths<>(this, root, conv);
+		resetEdges();
+		res.show();
+		addGraphListener(res);
+
+		return res;
+	}
+
+	/**
+	 * apply a parallel delta-stepping shortest path algorithm starting from the
+	 * given node. The result is the same of
+	 * {@link #dijkstra(Node, WeightConverter)} and the tree is shown once the
+	 * search is complete. The bucket width is chosen from the max edge weight and
+	 * the average degree.
+	 * 
+	 * @param root the root node
+	 * @param conv the weight converter to convert the generic weight to a number
+	 * @return distances and parents of the nodes
+	 * @throws IllegalArgumentException if an edge has a negative weight
+	 */
+
+	@NotNull
+	public final ShortestPaths<T> parallelDijkstra(@NotNull Node<T> root, @NotNull WeightConverter<K> conv) {
+		checkThread();
+		Objects.requireNonNull(conv);
+
+		CsrGraph<T> g = toCsr(conv);
+		return showTree(DeltaStepping.run(g, root, DeltaStepping.defaultDelta(g), ForkJoinPool.commonPool()));
+	}
+
+	/**
+	 * apply a parallel delta-stepping shortest path algorithm with the given
+	 * bucket width, see {@link #parallelDijkstra(Node, WeightConverter)}
+	 * 
+	 * @param root  the root node
+	 * @param conv  the weight converter to convert the generic weight to a number
+	 * @param delta the bucket width, edges with a weight not greater than delta
+	 *              are relaxed in the inner phase
+	 * @return distances and parents of the nodes
+	 * @throws IllegalArgumentException if an edge has a negative weight or delta
+	 *                                  is not positive
+	 */
+
+	@NotNull
+	public final ShortestPaths<T> parallelDijkstra(@NotNull Node<T> root, @NotNull WeightConverter<K> conv,
+			double delta) {
+		checkThread();
+		Objects.requireNonNull(conv);
+
+		return showTree(DeltaStepping.run(toCsr(conv), root, delta, ForkJoinPool.commonPool()));
+	}
+
+	private ShortestPaths<T> showTree(ShortestPaths<T> res) {
+		showTree(res.getGraph(), res.getParents());
+		return res;
+	}
+
+	/**
+	 * color the tree edges which are still in the graph, the result may have been
+	 * computed off the JavaFX thread while the graph was changing
+	 */
+
+	private void showTree(CsrGraph<T> g, int[] parents) {
+		resetEdges();
+
+		for (int i = 0; i < g.size(); i++) {
+			if (parents[i] == -1)
+				continue;
+
+			Map<Node<T>, Edge<K>> out = edges.get(g.getNode(parents[i]));
+			Edge<K> edge = out == null ? null : out.get(g.getNode(i));
+			if (edge != null)
+				edge.setStroke(Color.RED);
+		}
+	}
+
+	/**
+	 * compute the shortest paths between all pairs of nodes. Node parents and
+	 * edge colors are not changed, the result can be queried while other
+	 * algorithms run
+	 * 
+	 * @param conv the weight converter to convert the generic weight to a number
+	 * @return the matrix of distances and next hops
+	 * @throws IllegalStateException if a negative cycle is found
+	 */
+
+	@NotNull
+	public final DistanceMatrix<T> allPairs(@NotNull WeightConverter<K> conv) {
+		return allPairs(conv, AllPairsMode.AUTO);
+	}
+
+	/**
+	 * compute the shortest paths between all pairs of nodes with the given
+	 * algorithm, see {@link #allPairs(WeightConverter)}
+	 * 
+	 * @param conv the weight converter to convert the generic weight to a number
+	 * @param mode JOHNSON for sparse graphs, FLOYD_WARSHALL for dense graphs or
+	 *             AUTO to choose from the graph density
+	 * @return the matrix of distances and next hops
+	 * @throws IllegalStateException if a negative cycle is found
+	 */
+
+	@NotNull
+	public final DistanceMatrix<T> allPairs(@NotNull WeightConverter<K> conv, @NotNull AllPairsMode mode) {
+		checkThread();
+
+		Objects.requireNonNull(conv);
+		Objects.requireNonNull(mode);
+
+		return AllPairsShortestPaths.run(toCsr(conv), mode);
+	}
+
+	/**
+	 * apply fordFulkerson algorithm to graph
+	 * 
+	 * @param root the source node of the flow
+	 * @param end  the destination node of the flow
+	 * @return the max flow
+	 */
+
+	public final int fordFulkerson(@NotNull Node<T> root, @NotNull Node<T> end) {
+		return fordFulkerson(root, end, false);
+	}
+
+	/**
+	 * apply fordFulkerson algorithm to graph printing step by step each iteration
+	 * 
+	 * @param root the source node of the flow
+	 * @param end  the destination node of the flow
+	 * @return the max flow
+	 */
+
+	public final int fordFulkersonLogged(@NotNull Node<T> root, @NotNull Node<T> end) {
+		return fordFulkerson(root, end, true);
+	}
+
+	/**
+	 * apply bfs algorithm to graph
+	 * 
+	 * @param root the root node
+	 * @return parents and depths of the nodes. The result is not changed by other
+	 *         algorithms. Note: until the algorithm state was moved out of the
+	 *         nodes this method returned void, subclasses overriding it must
+	 *         return the result too
+	 */
+
+	@NotNull
+	public BfsResult<T> bfs(@NotNull Node<T> root) {
+		checkThread();
+		Objects.requireNonNull(root);
+
+		BfsResult<T> res = Bfs.run(searchCsr(), root);
+		showTree(res.getGraph(), res.getParents());
+		return res;
+	}
+
+	/**
+	 * apply a parallel direction optimizing bfs to graph. The result is the same
+	 * of {@link #bfs(Node)} and the tree is shown once the search is complete.
+	 * The csr copy of the graph is built on the first search after a change and
+	 * reused until the next one, coloring the tree still takes linear time. To
+	 * run many searches without showing them call
+	 * {@link DirectionOptimizingBfs#run(CsrGraph, Node)} on a copy returned by
+	 * {@link #toCsr(WeightConverter)}
 	 * 
 	 * @param root the root node
-	 * @param conv the weight converter to convert the generic weight to a number
+	 * @return parents and depths of the nodes
 	 */
 
-	public final void dijkstra(@NotNull Node<T> root, @NotNull WeightConverter<K> conv) {
+	@NotNull
+	public final BfsResult<T> parallelBfs(@NotNull Node<T> root) {
 		checkThread();
-		resetNodes();
-
 		Objects.requireNonNull(root);
-		Objects.requireNonNull(conv);
 
-		root.time = 0;
-		// create priority min queue
-		LinkedList<Node<T>> queue = new LinkedList<>(nodes);
+		BfsResult<T> res = DirectionOptimizingBfs.run(searchCsr(), root);
+		showTree(res.getGraph(), res.getParents());
+		return res;
+	}
 
-		// while queue is not empty
-		while (!queue.isEmpty()) {
-			// extract min
-			queue.sort((e1, e2) -> (int) (e1.time - e2.time));
-			Node<T> n = queue.pop();
+	/**
+	 * apply an iterative depth first search to the whole graph, starting a new
+	 * tree from each node not reached yet. The edges of the forest are shown in
+	 * red
+	 *
+	 * @return discovery and finish times, parents and edge classes
+	 */
 
-			// relax all outgoing edges
-			for (Node<T> n2 : edges.get(n).keySet())
-				relax(n, n2, edges.get(n).get(n2).getWeight(), conv);
-		}
+	@NotNull
+	public final DfsResult<T> dfs() {
+		checkThread();
 
+		DfsResult<T> res = Dfs.run(searchCsr());
+		showTree(res.getGraph(), res.getParents());
+		return res;
 	}
 
 	/**
-	 * apply fordFulkerson algorithm to graph
-	 * 
-	 * @param root the source node of the flow
-	 * @param end  the destination node of the flow
-	 * @return the max flow
+	 * apply an iterative depth first search from a node, see {@link #dfs()}
+	 *
+	 * @param root the root node
+	 * @return discovery and finish times, parents and edge classes of the nodes
+	 *         reachable from the root
 	 */
 
-	public final int fordFulkerson(@NotNull Node<T> root, @NotNull Node<T> end) {
-		return fordFulkerson(root, end, false);
+	@NotNull
+	public final DfsResult<T> dfs(@NotNull Node<T> root) {
+		checkThread();
+		Objects.requireNonNull(root);
+
+		DfsResult<T> res = Dfs.run(searchCsr(), root);
+		showTree(res.getGraph(), res.getParents());
+		return res;
 	}
 
 	/**
-	 * apply fordFulkerson algorithm to graph printing step by step each iteration
-	 * 
-	 * @param root the source node of the flow
-	 * @param end  the destination node of the flow
-	 * @return the max flow
+	 * find the bridges and the articulation points of an undirected graph, the
+	 * edges and nodes whose removal disconnects their component. Bridges are
+	 * shown in red and articulation points are filled in red, see
+	 * {@link #resetNodes()} to remove the colors
+	 *
+	 * @return bridges and articulation points
+	 * @throws IllegalStateException if graph is a digraph
 	 */
 
-	public final int fordFulkersonLogged(@NotNull Node<T> root, @NotNull Node<T> end) {
-		return fordFulkerson(root, end, true);
+	@NotNull
+	public final Biconnectivity<T> biconnectivity() {
+		checkThread();
+
+		if (digraph) // check if is undirected graph
+			throw new IllegalStateException("Bridges and articulation points can be found only on undirected graphs");
+
+		Biconnectivity<T> res = cache.get(version, "biconnectivity", null);
+		if (res == null) {
+			res = Dfs.biconnectivity(toCsr(null));
+			cache.put(version, res, "biconnectivity", null);
+		}
+
+		resetEdges();
+		res.<K>getBridges().forEach(e -> e.setStroke(Color.RED));
+
+		for (Node<T> n : nodes)
+			n.setFill(res.isArticulationPoint(n) ? Color.RED : null);
+
+		return res;
 	}
 
 	/**
-	 * apply bfs algorithm to graph
+	 * create an immutable csr copy of the graph which can be used by the
+	 * algorithms in {@link graph.algorithms} from any thread
 	 * 
-	 * @param root the root node
+	 * @param conv the converter used to store edge weights, if null weights are
+	 *             not stored
+	 * @return the csr copy of the graph
 	 */
 
-	public void bfs(@NotNull Node<T> root) {
+	@NotNull
+	public final CsrGraph<T> toCsr(@Nullable WeightConverter<K> conv) {
 		checkThread();
-		resetNodes();
-		Objects.requireNonNull(root);
 
-		LinkedList<Node<T>> queue = new LinkedList<>(Arrays.asList(root));
+		CsrGraph<T> g = new CsrGraph<>(nodes, n -> edges.get(n).values(), conv);
+		csrVersions.put(g, version);
+		return g;
+	}
 
-		// while queue is not empty
-		while (!queue.isEmpty()) {
-			Node<T> pop = queue.removeFirst();
-			pop.time = 0;
+	/**
+	 * @return the unweighted csr copy of the current version of the graph, built
+	 *         again only after a change
+	 */
 
-			// visit all edges of each node and add them to queue if not visited
-			for (Node<T> n : edges.get(pop).keySet())
-				if (n.time == Integer.MAX_VALUE) {
-					edges.get(pop).get(n).setStroke(Color.RED);
-					n.parent = pop;
-					queue.add(n);
-				}
-		}
+	private CsrGraph<T> searchCsr() {
+		if (searchCsr == null || csrVersions.get(searchCsr) != version)
+			searchCsr = toCsr(null);
+
+		return searchCsr;
 	}
 
 	/**
-	 * apply the min flow algorithm to a graph
+	 * apply the min flow algorithm to a graph. The returned cost is the sum of the
+	 * unit costs of the augmenting paths, each path counted once whatever flow it
+	 * carries. It is not the cost of {@link #minFlowTask(Map, Map)}
 	 * 
 	 * @param ex the collection of nodes with excess of flow
 	 * @param dx the collection of nodes with defect of flow
-	 * @return the minimun cost needed to send flow on edges to balance the nodes
+	 * @return the sum of the unit costs of the paths used to balance the nodes
 	 * @throws IllegalStateException if sum of excess nodes imbalances are not equal
 	 *                               to the sum of defect nodes imbalances
 	 */
@@ -291,7 +1519,8 @@ public class FXGraph<T, K> extends Group {
 	 * 
 	 * @param ex the collection of nodes with excess of flow
 	 * @param dx the collection of nodes with defect of flow
-	 * @return the minimun cost needed to send flow on edges to balance the nodes
+	 * @return the sum of the unit costs of the paths used to balance the nodes, as
+	 *         {@link #minFlow(Map, Map)}
 	 * @throws IllegalStateException if sum of excess nodes imbalances are not equal
 	 *                               to the sum of defect nodes imbalances or if
 	 *                               edges weights are not instance of FlowWeight or
@@ -305,7 +1534,7 @@ public class FXGraph<T, K> extends Group {
 	@SuppressWarnings("unchecked")
 	private int minFlow(Map<Node<T>, Integer> ex, Map<Node<T>, Integer> dx, boolean doPrint) {
 		checkThread();
-		resetNodes();
+		resetEdges();
 
 		// check if imbalances are same with opposite sign
 		int sum1 = ex.values().stream().reduce(0, (e1, e2) -> e1 + e2);
@@ -327,8 +1556,6 @@ public class FXGraph<T, K> extends Group {
 				throw new IllegalStateException("Graph edge weights are not instance of FlowWeight");
 		});
 
-		ArrayList<Node<T>> exNodes = new ArrayList<>(ex.keySet());
-
 		// create a fake source node to find the shortest path tree for excess nodes
 		Node<T> source = new Node<T>((T) "[SOURCE]");
 
@@ -336,10 +1563,19 @@ public class FXGraph<T, K> extends Group {
 		for (Node<T> n : ex.keySet())
 			addEdge(source, n, (K) new FlowWeight(0, ex.get(n)));
 
+		AlgorithmRun run = AlgorithmRun.start("FXGraph min flow", nodes.size(), edgeList.size(), "shortest paths",
+				"augment");
+
+		// built once, the arcs are updated after each augmentation
+		ResidualArcs<T, K> arcs = new ResidualArcs<>(nodes, edges);
+		int s = arcs.indexOf(source);
+
 		int minCost = 0;
 		while (!ex.isEmpty()) {
+			run.phase(0);
+			run.addIterations(1);
 
-			if (!bellmanFord(source, e -> ((FlowWeight) e).value))
+			if (!arcs.bellmanFord(s))
 				throw new IllegalStateException("Pseudoflux is not ammissible. Negative cycle found in residual graph");
 
 			Node<T> end = null;
@@ -349,13 +1585,15 @@ public class FXGraph<T, K> extends Group {
 				if (end == null)
 					end = n;
 				else
-					end = n.time < end.time ? n : end;
+					end = arcs.distance(arcs.indexOf(n)) < arcs.distance(arcs.indexOf(end)) ? n : end;
 
-			if (end.time == Integer.MAX_VALUE)
+			int t = arcs.indexOf(end);
+			if (arcs.distance(t) == Double.POSITIVE_INFINITY)
 				throw new IllegalStateException("Given graph has no eligible flows");
 
 			// get path for the ex -> dx nodes
-			ArrayList<Node<T>> walk = getWalk(end);
+			int[] path = arcs.pathArcs(s, t);
+			ArrayList<Node<T>> walk = arcs.walk(s, path);
 			walk.remove(0);
 
 			// get max sendable flow
@@ -366,14 +1604,20 @@ public class FXGraph<T, K> extends Group {
 			flow = Math.min(flow, -dx.get(end));
 
 			// update balances
+			run.phase(1);
 			minCost += updateBalances(walk, flow, ex, dx);
 
 			// update capacity of edges used
-			applyMinFlow(walk, flow, doPrint);
-
-			// if excess node is balanced remove it
-			if (!ex.containsKey(walk.get(1)))
-				removeEdge(source, walk.get(1));
+			run.addResidualInsertions(applyMinFlow(walk, flow, doPrint));
+			run.addAugmentations(1);
+			for (int a : path)
+				arcs.sync(a);
+
+			// if excess node is balanced remove it, the walk starts from it
+			if (!ex.containsKey(walk.get(0))) {
+				removeEdge(source, walk.get(0));
+				arcs.sync(source, walk.get(0));
+			}
 
 			String v = "[";
 
@@ -393,12 +1637,12 @@ public class FXGraph<T, K> extends Group {
 		if (doPrint)
 			System.out.println("END ALGORITHM");
 
-		// remove fake source node and outgoing edges
+		run.end();
+
+		// remove fake source node and its edges
 		removeNode(source);
-		for (Node<T> n : exNodes)
-			removeEdge(source, n);
 
-		resetNodes();
+		resetEdges();
 
 		return minCost;
 
@@ -420,8 +1664,14 @@ public class FXGraph<T, K> extends Group {
 
 	}
 
+	/**
+	 * @return the number of opposite edges added
+	 */
+
 	@SuppressWarnings("unchecked")
-	private void applyMinFlow(ArrayList<Node<T>> walk, int flow, boolean doPrint) {
+	private int applyMinFlow(ArrayList<Node<T>> walk, int flow, boolean doPrint) {
+		int added = 0;
+
 		for (int i = 0; i < walk.size() - 1; i++) {
 			Node<T> from = walk.get(i);
 			Node<T> to = walk.get(i + 1);
@@ -429,6 +1679,7 @@ public class FXGraph<T, K> extends Group {
 			// update capacity
 			Edge<K> edge = edges.get(from).get(to);
 			((FlowWeight) edge.getWeight()).capacity -= flow;
+			touch(from);
 
 			// if edge is saturated remove it
 			if (((FlowWeight) edge.getWeight()).capacity == 0) {
@@ -445,15 +1696,19 @@ public class FXGraph<T, K> extends Group {
 
 			// update the opposite edge
 			FlowWeight f = (FlowWeight) edge.getWeight();
-			if (edges.get(to).get(from) == null)
+			if (edges.get(to).get(from) == null) {
 				addEdge(to, from, (K) new FlowWeight(-f.value, f.value));
-			else
+				added++;
+			} else {
 				((FlowWeight) edges.get(to).get(from).getWeight()).capacity += flow;
+				touch(to);
+			}
 		}
 
 		if (doPrint)
 			System.out.print("END ITERATION => ");
 
+		return added;
 	}
 
 	private int updateBalances(ArrayList<Node<T>> walk, int flow, Map<Node<T>, Integer> ex, Map<Node<T>, Integer> dx) {
@@ -470,7 +1725,7 @@ public class FXGraph<T, K> extends Group {
 		if (dx.get(walk.get(walk.size() - 1)) == 0)
 			dx.remove(walk.get(walk.size() - 1));
 
-		// get the cost needed to send the flow on the found path
+		// get the cost of a unit of flow on the found path
 		for (int i = 0; i < walk.size() - 1; i++)
 			cost += ((FlowWeight) edges.get(walk.get(i)).get(walk.get(i + 1)).getWeight()).value;
 
@@ -479,7 +1734,9 @@ public class FXGraph<T, K> extends Group {
 	}
 
 	/**
-	 * apply edmonds karp algorithm
+	 * apply edmonds karp algorithm. The flow is left on the edges, so the result
+	 * is not cached: a second call starts from the saturated network and returns
+	 * 0
 	 * 
 	 * @param root the source node of the flow
 	 * @param end  the destination node of the flow
@@ -505,7 +1762,7 @@ public class FXGraph<T, K> extends Group {
 
 	private int edmondsKarp(@NotNull Node<T> root, @NotNull Node<T> end, boolean doPrinter) {
 		checkThread();
-		resetNodes();
+		resetEdges();
 
 		Objects.requireNonNull(root);
 		Objects.requireNonNull(end);
@@ -522,43 +1779,50 @@ public class FXGraph<T, K> extends Group {
 				throw new IllegalStateException("Graph edge weights are not instance of FlowWeight");
 		});
 
-		arr.clear();
+		AlgorithmRun run = AlgorithmRun.start("FXGraph Edmonds-Karp", nodes.size(), edgeList.size(), "search",
+				"augment");
+
+		// built once, the arcs are updated after each augmentation
+		ResidualArcs<T, K> arcs = new ResidualArcs<>(nodes, edges);
+		int s = arcs.indexOf(root);
+		int t = arcs.indexOf(end);
+		if (s == -1 || t == -1)
+			throw new IllegalArgumentException("Invalid node. Node is not in the graph");
 
+		boolean reached;
 		do {
+			run.phase(0);
+			run.addIterations(1);
+
 			// find the shortest path from source to destination using bfs
-			bfs(root);
+			reached = arcs.bfs(s, t);
 			// get path
-			ArrayList<Node<T>> walk = getWalk(end);
+			int[] path = arcs.pathArcs(s, t);
+			ArrayList<Node<T>> walk = reached ? arcs.walk(s, path) : new ArrayList<>();
 			int min = getMaxFlow(walk);
 
 			// update the flow of edges in the path
 			if (min != Integer.MAX_VALUE) {
-				applyFlow(walk, min, doPrinter);
+				run.phase(1);
+				run.addResidualInsertions(applyFlow(walk, min, doPrinter));
+				run.addAugmentations(1);
+				for (int a : path)
+					arcs.sync(a);
 				flow += min;
 			}
-		} while (end.time == 0); // if no path to destination is found => stop
+		} while (reached); // if no path to destination is found => stop
+
+		run.end();
 
 		if (doPrinter)
 			System.out.println("END ALGORITHM");
 
-		for (Map<Node<T>, Edge<K>> m : edges.values())
-			arr.addAll(m.values());
-
 		// find the min cut
 		if (doPrinter)
-			minCut(root);
+			minCut(arcs, s);
 
 		// set colors
-		arr.forEach(e -> {
-			FlowWeight w = (FlowWeight) e.getWeight();
-			if (w.getAvailable() == 0)
-				e.setStroke(Color.RED);
-			else if (w.value != 0)
-				e.setStroke(Color.BLUE);
-			else
-				e.setStroke(Color.BLACK);
-
-		});
+		showFlowWeights();
 
 		return flow;
 
@@ -566,7 +1830,7 @@ public class FXGraph<T, K> extends Group {
 
 	private int fordFulkerson(@NotNull Node<T> root, @NotNull Node<T> end, boolean doPrinter) {
 		checkThread();
-		resetNodes();
+		resetEdges();
 
 		Objects.requireNonNull(root);
 		Objects.requireNonNull(end);
@@ -582,44 +1846,69 @@ public class FXGraph<T, K> extends Group {
 				throw new IllegalStateException("Graph edge weights are not instance of FlowWeight");
 		});
 
-		arr.clear();
+		AlgorithmRun run = AlgorithmRun.start("FXGraph Ford-Fulkerson", nodes.size(), edgeList.size(), "search",
+				"augment");
+
+		// built once, the arcs are updated after each augmentation
+		ResidualArcs<T, K> arcs = new ResidualArcs<>(nodes, edges);
+		int s = arcs.indexOf(root);
+		int t = arcs.indexOf(end);
+		if (s == -1 || t == -1)
+			throw new IllegalArgumentException("Invalid node. Node is not in the graph");
 
+		boolean reached;
 		do {
-			dijkstra(root, e -> 0);
-			ArrayList<Node<T>> walk = getWalk(end);
+			run.phase(0);
+			run.addIterations(1);
+
+			// any augmenting path, found with a dfs
+			reached = arcs.dfs(s, t);
+			int[] path = arcs.pathArcs(s, t);
+			ArrayList<Node<T>> walk = reached ? arcs.walk(s, path) : new ArrayList<>();
 			int min = getMaxFlow(walk);
 
 			if (min != Integer.MAX_VALUE) {
-				applyFlow(walk, min, doPrinter);
+				run.phase(1);
+				run.addResidualInsertions(applyFlow(walk, min, doPrinter));
+				run.addAugmentations(1);
+				for (int a : path)
+					arcs.sync(a);
 				flow += min;
 			}
-		} while (end.time == 0);
+		} while (reached);
+
+		run.end();
 
 		if (doPrinter)
 			System.out.println("END ALGORITHM");
 
-		for (Map<Node<T>, Edge<K>> m : edges.values())
-			arr.addAll(m.values());
+		minCut(arcs, s);
 
-		minCut(root);
+		showFlowWeights();
 
-		arr.forEach(e -> {
-			FlowWeight w = (FlowWeight) e.getWeight();
-			if (w.getAvailable() == 0)
-				e.setStroke(Color.RED);
-			else if (w.value != 0)
-				e.setStroke(Color.BLUE);
-			else
-				e.setStroke(Color.BLACK);
+		return flow;
 
-		});
+	}
 
-		return flow;
+	/**
+	 * color saturated edges in red and edges with flow in blue
+	 */
 
+	private void showFlowWeights() {
+		for (Node<T> n : nodes)
+			for (Edge<K> e : edges.get(n).values()) {
+				FlowWeight w = (FlowWeight) e.getWeight();
+				if (w.getAvailable() == 0)
+					e.setStroke(Color.RED);
+				else if (w.value != 0)
+					e.setStroke(Color.BLUE);
+				else
+					e.setStroke(Color.BLACK);
+			}
 	}
 
-	private void minCut(Node<T> root) {
-		bfs(root);
+	private void minCut(ResidualArcs<T, K> arcs, int s) {
+		arcs.bfs(s, -1);
 
 		System.out.println("\nMIN-CUT:");
 
@@ -627,7 +1916,7 @@ public class FXGraph<T, K> extends Group {
 		boolean v = false;
 
 		for (Node<T> n : nodes)
-			if (n.time != Integer.MAX_VALUE) {
+			if (arcs.isReached(s, arcs.indexOf(n))) {
 				v = true;
 				tmp += n + ", ";
 			}
@@ -643,7 +1932,7 @@ public class FXGraph<T, K> extends Group {
 		v = false;
 
 		for (Node<T> n : nodes)
-			if (n.time == Integer.MAX_VALUE) {
+			if (!arcs.isReached(s, arcs.indexOf(n))) {
 				v = true;
 				tmp += n + ", ";
 			}
@@ -656,14 +1945,21 @@ public class FXGraph<T, K> extends Group {
 		System.out.println(tmp);
 	}
 
+	/**
+	 * @return the number of opposite edges added
+	 */
+
 	@SuppressWarnings("unchecked")
-	private void applyFlow(ArrayList<Node<T>> walk, int min, boolean doPrint) {
+	private int applyFlow(ArrayList<Node<T>> walk, int min, boolean doPrint) {
+		int added = 0;
+
 		for (int i = 0; i < walk.size() - 1; i++) {
 			Node<T> from = walk.get(i);
 			Node<T> to = walk.get(i + 1);
 
 			Edge<K> edge = edges.get(from).get(to);
 			((FlowWeight) edge.getWeight()).value += min;
+			touch(from);
 
 			if (((FlowWeight) edge.getWeight()).getAvailable() == 0) {
 				if (doPrint)
@@ -677,22 +1973,26 @@ public class FXGraph<T, K> extends Group {
 			}
 
 			FlowWeight f = (FlowWeight) edge.getWeight();
-			if (edges.get(to).get(from) == null)
+			if (edges.get(to).get(from) == null) {
 				addEdge(to, from, (K) new FlowWeight(f.capacity - min, f.capacity));
-			else
+				added++;
+			} else {
 				((FlowWeight) edges.get(to).get(from).getWeight()).value -= min;
+				touch(to);
+			}
 
 		}
 
 		if (doPrint)
 			System.out.println("END ITERATION");
 
+		return added;
 	}
 
 	private int getMaxFlow(ArrayList<Node<T>> walk) {
 		int min = Integer.MAX_VALUE;
 
-		if (walk.size() == 1)
+		if (walk.size() <= 1)
 			return min;
 
 		for (int i = 0; i < walk.size() - 1; i++) {
@@ -703,21 +2003,18 @@ public class FXGraph<T, K> extends Group {
 		return min;
 	}
 
-	private ArrayList<Node<T>> getWalk(Node<T> end) {
-		ArrayList<Node<T>> tmp = new ArrayList<>();
-
-		while (end != null) {
-			tmp.add(0, end);
-			end = end.parent;
-		}
-
-		return tmp;
-	}
+	/**
+	 * execute prim algorithm on undirected graph starting from the given node
+	 * 
+	 * @param root the first node of the tree
+	 * @param conv the converter to convert generic edge weight to double
+	 * @return the cost of the tree found
+	 * @throws IllegalStateException if graph has no nodes
+	 */
 
-	@SuppressWarnings("unchecked")
 	public final double prim(@NotNull Node<T> root, @NotNull WeightConverter<K> conv) {
 		checkThread();
-		resetNodes();
+		resetEdges();
 
 		Objects.requireNonNull(root);
 		Objects.requireNonNull(conv);
@@ -725,43 +2022,48 @@ public class FXGraph<T, K> extends Group {
 		if (nodes.size() == 0)
 			throw new IllegalStateException("prim algorithm cannot be applied to a graph with 0 nodes");
 
-		ArrayList<Node<T>> s = new ArrayList<>(Arrays.asList(root));
+		CsrGraph<T> g = toCsr(conv);
+		int r = g.indexOf(root);
+		if (r == -1)
+			throw new IllegalArgumentException("Invalid node. Node is not in the graph");
 
+		// queue of the edges leaving the tree, lighter first
+		PriorityQueue<Integer> queue = new PriorityQueue<>((e1, e2) -> Double.compare(g.weight(e1), g.weight(e2)));
+		boolean[] taken = new boolean[g.size()];
 		ArrayList<Edge<K>> tree = new ArrayList<>();
-		ArrayList<Edge<K>> tmp = new ArrayList<>();
-
-		root.time = 0;
 
-		while (tree.size() != nodes.size() - 1) {
-			for (Node<T> n : s)
-				tmp.addAll(edges.get(n).values());
+		AlgorithmRun run = AlgorithmRun.start("Prim", g.size(), g.edgeCount());
+		long heapOperations = 0;
 
-			tmp.removeIf(e -> {
-				if (e.getNodeTo().time == 0)
-					return true;
+		taken[r] = true;
+		for (int e = g.outStart(r); e < g.outEnd(r); e++)
+			queue.add(e);
 
-				for (Edge<K> e2 : tree) {
-					if (e.getNodeFrom() == e2.getNodeFrom() && e.getNodeTo() == e2.getNodeTo())
-						return true;
-					if (e.getNodeFrom() == e2.getNodeTo() && e.getNodeTo() == e2.getNodeFrom())
-						return true;
-				}
+		heapOperations += queue.size();
 
-				return false;
-			});
+		while (!queue.isEmpty() && tree.size() != nodes.size() - 1) {
+			int e = queue.poll();
+			int to = g.target(e);
+			heapOperations++;
 
-			tmp.sort((e1, e2) -> (int) (conv.convert(e1.getWeight()) - conv.convert(e2.getWeight())));
+			// skip edges which would close a cycle
+			if (taken[to])
+				continue;
 
-			tree.add(tmp.get(0));
-			if (!s.contains(tmp.get(0).getNodeFrom()))
-				s.add((Node<T>) tmp.get(0).getNodeFrom());
-			if (!s.contains(tmp.get(0).getNodeTo()))
-				s.add((Node<T>) tmp.get(0).getNodeTo());
+			taken[to] = true;
+			tree.add(g.edge(e));
+			run.addRelaxations(g.outDegree(to));
 
-			tmp.get(0).getNodeTo().time = 0;
-			tmp.clear();
+			for (int e2 = g.outStart(to); e2 < g.outEnd(to); e2++)
+				if (!taken[g.target(e2)]) {
+					queue.add(e2);
+					heapOperations++;
+				}
 		}
 
+		run.addHeapOperations(heapOperations);
+		run.end();
+
 		tree.forEach(e -> e.setStroke(Color.RED));
 
 		double temp = 0;
@@ -782,51 +2084,221 @@ public class FXGraph<T, K> extends Group {
 	 */
 
 	public final boolean bellmanFord(@NotNull Node<T> root, @NotNull WeightConverter<K> converter) {
+		return !bellmanFordTree(root, converter).hasNegativeCycle();
+	}
+
+	/**
+	 * apply bellman ford algorithm to find min tree walk
+	 * 
+	 * @param root      a node to start bellmanford algorithm
+	 * @param converter a converter used to convert generic object weight to a
+	 *                  number weight.
+	 * @return distances and parents of the nodes, see
+	 *         {@link ShortestPaths#hasNegativeCycle()}. The result is not changed
+	 *         by other algorithms. On an acyclic graph the edges are relaxed once
+	 *         in topological order, in linear time
+	 */
+
+	@NotNull
+	public final ShortestPaths<T> bellmanFordTree(@NotNull Node<T> root, @NotNull WeightConverter<K> converter) {
 		checkThread();
 
 		Objects.requireNonNull(root);
 		Objects.requireNonNull(converter);
 
-		// reset all nodes
-		resetNodes();
-
-		root.parent = null;
-		root.time = 0;
-
-		// execute bellmanford algorithm
-		for (int i = 0; i < nodes.size(); i++)
-			for (Node<T> n1 : edges.keySet())
-				for (Node<T> n2 : edges.get(n1).keySet())
-					relax(n1, n2, edges.get(n1).get(n2).getWeight(), converter);
-
-		for (Node<T> n1 : edges.keySet())
-			for (Node<T> n2 : edges.get(n1).keySet())
-				if (n2.time > n1.time + converter.convert(edges.get(n1).get(n2).getWeight()))
-					return false;
-
-		// fix graphic issues
-		for (Node<T> n : nodes) {
-			n.setLayoutX(n.getLayoutX() - 1);
-			n.setLayoutX(n.getLayoutX() + 1);
-			n.setLayoutY(n.getLayoutY() - 1);
-			n.setLayoutY(n.getLayoutY() + 1);
+		ShortestPaths<T> res = cache.get(version, "bellmanFord", converter, root);
+		if (res == null) {
+			CsrGraph<T> g = toCsr(converter);
+			int[] order = topologicalOrder(g);
+
+			// an acyclic graph is solved by a single pass in topological order
+			res = order == null ? BellmanFord.run(g, root) : DagPaths.run(g, root, order, false);
+			cache.put(version, res, "bellmanFord", converter, root);
 		}
-		return true;
 
+		return showTree(res);
 	}
 
-	private void resetNodes() {
-		// reset nodes potential, parents and edges colors
-		for (Node<T> n : nodes) {
+	/**
+	 * create a task applying edmonds karp algorithm off the JavaFX thread. The
+	 * flow starts from the current value of the edges and is written back to the
+	 * edges when the task succeeds or is cancelled. Unlike
+	 * {@link #edmondsKarp(Node, Node)} no residual edge is added to the graph
+	 * 
+	 * @param root the source node of the flow
+	 * @param end  the destination node of the flow
+	 * @return the task, not started
+	 * @throws IllegalStateException    if edges weights are not instance of
+	 *                                  FlowWeight
+	 * @throws IllegalArgumentException if root or end are not in the graph
+	 */
+
+	@NotNull
+	public final AlgorithmTask<FlowResult<T>> edmondsKarpTask(@NotNull Node<T> root, @NotNull Node<T> end) {
+		return maxFlowTask(root, end, true);
+	}
 
-			if (edges.get(n) != null)
-				edges.get(n).values().forEach(e -> e.setStroke(Color.BLACK));
+	/**
+	 * create a task applying ford fulkerson algorithm off the JavaFX thread, see
+	 * {@link #edmondsKarpTask(Node, Node)}
+	 * 
+	 * @param root the source node of the flow
+	 * @param end  the destination node of the flow
+	 * @return the task, not started
+	 */
+
+	@NotNull
+	public final AlgorithmTask<FlowResult<T>> fordFulkersonTask(@NotNull Node<T> root, @NotNull Node<T> end) {
+		return maxFlowTask(root, end, false);
+	}
+
+	private AlgorithmTask<FlowResult<T>> maxFlowTask(Node<T> root, Node<T> end, boolean bfs) {
+		checkThread();
+
+		Objects.requireNonNull(root);
+		Objects.requireNonNull(end);
+
+		CsrGraph<T> g = toCsr(null);
+		if (g.indexOf(root) == -1 || g.indexOf(end) == -1)
+			throw new IllegalArgumentException("Invalid node. Node is not in the graph");
+
+		int[] capacity = new int[g.edgeCount()];
+		int[] flow = new int[g.edgeCount()];
+
+		for (int e = 0; e < g.edgeCount(); e++) {
+			FlowWeight w = flowWeight(g, e);
+			capacity[e] = w.capacity;
+			flow[e] = w.value;
+		}
+
+		return new AlgorithmTask<>(m -> bfs ? MaxFlow.edmondsKarp(g, capacity, flow, root, end, m)
+				: MaxFlow.fordFulkerson(g, capacity, flow, root, end, m), this::showFlow, -1);
+	}
+
+	/**
+	 * create a task applying the min flow algorithm off the JavaFX thread. Edges
+	 * weights are not changed, the flow of each edge is available from the result
+	 * and the edges carrying flow are colored when the task succeeds or is
+	 * cancelled. The cost of the result is the total cost of the flow, the sum of
+	 * flow times value over the edges, while {@link #minFlow(Map, Map)} returns
+	 * the sum of the unit costs of its paths: the two numbers differ when a path
+	 * carries more than a unit of flow
+	 * 
+	 * @param ex the collection of nodes with excess of flow
+	 * @param dx the collection of nodes with defect of flow
+	 * @return the task, not started
+	 * @throws IllegalStateException if edges weights are not instance of
+	 *                               FlowWeight
+	 */
+
+	@NotNull
+	public final AlgorithmTask<FlowResult<T>> minFlowTask(@NotNull Map<Node<T>, Integer> ex,
+			@NotNull Map<Node<T>, Integer> dx) {
+		checkThread();
+
+		Objects.requireNonNull(ex);
+		Objects.requireNonNull(dx);
+
+		CsrGraph<T> g = toCsr(w -> w instanceof FlowWeight ? ((FlowWeight) w).value : 0);
+		int[] capacity = new int[g.edgeCount()];
+
+		for (int e = 0; e < g.edgeCount(); e++)
+			capacity[e] = flowWeight(g, e).capacity;
+
+		HashMap<Node<T>, Integer> exCopy = new HashMap<>(ex);
+		HashMap<Node<T>, Integer> dxCopy = new HashMap<>(dx);
+
+		return new AlgorithmTask<>(m -> MinCostFlow.run(g, capacity, exCopy, dxCopy, m), res -> {
+			resetEdges();
+			forEachEdge(g, (edge, e) -> {
+				if (res.getFlow(e) == capacity[e] && capacity[e] != 0)
+					edge.setStroke(Color.RED);
+				else if (res.getFlow(e) != 0)
+					edge.setStroke(Color.BLUE);
+			});
+		}, -1);
+	}
+
+	/**
+	 * create a task applying bellman ford algorithm off the JavaFX thread. The
+	 * tree is shown when the task succeeds or is cancelled, the progress is the
+	 * number of passes done
+	 * 
+	 * @param root      a node to start bellmanford algorithm
+	 * @param converter a converter used to convert generic object weight to a
+	 *                  number weight.
+	 * @return the task, not started
+	 * @throws IllegalArgumentException if root is not in the graph
+	 */
+
+	@NotNull
+	public final AlgorithmTask<ShortestPaths<T>> bellmanFordTask(@NotNull Node<T> root,
+			@NotNull WeightConverter<K> converter) {
+		checkThread();
+
+		Objects.requireNonNull(root);
+		Objects.requireNonNull(converter);
+
+		CsrGraph<T> g = toCsr(converter);
+		if (g.indexOf(root) == -1)
+			throw new IllegalArgumentException("Invalid node. Node is not in the graph");
+
+		return new AlgorithmTask<>(m -> BellmanFord.run(g, root, m), this::showTree, g.size());
+	}
+
+	private FlowWeight flowWeight(CsrGraph<T> g, int e) {
+		Object w = g.edge(e).getWeight();
+		if (!(w instanceof FlowWeight))
+			throw new IllegalStateException("Graph edge weights are not instance of FlowWeight");
+
+		return (FlowWeight) w;
+	}
+
+	private void showFlow(FlowResult<T> res) {
+		resetEdges();
+
+		forEachEdge(res.getGraph(), (edge, e) -> {
+			FlowWeight w = (FlowWeight) edge.getWeight();
+			int value = Math.min(res.getFlow(e), w.capacity);
+
+			// the weight is changed in place, the graph version must follow
+			if (w.value != value) {
+				w.value = value;
+				touch(res.getGraph().getNode(res.getGraph().edgeSource(e)));
+			}
+
+			if (w.getAvailable() == 0)
+				edge.setStroke(Color.RED);
+			else if (w.value != 0)
+				edge.setStroke(Color.BLUE);
+		});
+	}
+
+	/**
+	 * visit the edges of a csr copy which are still in the graph
+	 */
 
-			n.time = Integer.MAX_VALUE;
-			n.parent = null;
+	private void forEachEdge(CsrGraph<T> g, ObjIntConsumer<Edge<K>> action) {
+		for (int u = 0; u < g.size(); u++) {
+			Map<Node<T>, Edge<K>> out = edges.get(g.getNode(u));
+			if (out == null)
+				continue;
+
+			for (int e = g.outStart(u); e < g.outEnd(u); e++) {
+				Edge<K> edge = g.edge(e);
+				if (out.get(g.getNode(g.target(e))) == edge)
+					action.accept(edge, e);
+			}
 		}
 	}
 
+	private void resetEdges() {
+		// reset edges colors
+		for (Node<T> n : nodes)
+			if (edges.get(n) != null)
+				edges.get(n).values().forEach(e -> e.setStroke(Color.BLACK));
+	}
+
 	/**
 	 * 
 	 * @param value Duplicate nodes are allowed. Ever if instance is different
@@ -838,7 +2310,7 @@ public class FXGraph<T, K> extends Group {
 
 		Objects.requireNonNull(value);
 
-		if (nodes.contains(value))
+		if (nodeIds.putIfAbsent(value, nodes.size()) != null)
 			throw new IllegalArgumentException("Node duplicate");
 
 		// save the current focused node
@@ -848,7 +2320,36 @@ public class FXGraph<T, K> extends Group {
 		value.out.addListener(this::listenEdgeChange);
 		nodes.add(value);
 
-		edges.put(value, FXCollections.observableMap(new HashMap<>()));
+		if (pendingNodes != null)
+			pendingNodes.add(value);
+		else
+			nodeLayer.add(value);
+
+		ObservableMap<Node<T>, Edge<K>> out = FXCollections.observableMap(new HashMap<>());
+		out.addListener((MapChangeListener<Node<T>, Edge<K>>) c -> {
+			touch(value);
+
+			if (c.wasRemoved())
+				unindex(c.getValueRemoved());
+
+			if (c.wasAdded()) {
+				edgeIds.put(c.getValueAdded(), edgeList.size());
+				edgeList.add(c.getValueAdded());
+			}
+
+			for (GraphListener<T, K> l : listeners) {
+				if (c.wasRemoved())
+					l.edgeRemoved(value, c.getKey(), c.getValueRemoved());
+
+				if (c.wasAdded())
+					l.edgeAdded(value, c.getKey(), c.getValueAdded());
+			}
+		});
+		edges.put(value, out);
+		touch(value);
+
+		for (GraphListener<T, K> l : listeners)
+			l.nodeAdded(value);
 
 		return this;
 	}
@@ -887,7 +2388,7 @@ public class FXGraph<T, K> extends Group {
 		Objects.requireNonNull(n1);
 		Objects.requireNonNull(n2);
 
-		if (!nodes.containsAll(Arrays.asList(n1, n2)))
+		if (!nodeIds.containsKey(n1) || !nodeIds.containsKey(n2))
 			throw new IllegalArgumentException("Invalid node. Node is not in the graph");
 
 		// create edge n1 -> n2
@@ -900,8 +2401,52 @@ public class FXGraph<T, K> extends Group {
 			e2.strokeProperty().addListener((o, old, neww) -> e1.setStroke((Color) neww));
 		}
 
-		n1.toFront();
-		n2.toFront();
+		return this;
+	}
+
+	/**
+	 * add many nodes and edges in bulk. The graphic nodes and edges are added to
+	 * the scene at the end, the edges below all the nodes, instead of one change
+	 * per element. Graph listeners are notified as by {@link #addNode(Node)} and
+	 * {@link #addEdge(Node, Node, Object)}
+	 * 
+	 * @param nodes the new nodes
+	 * @param edges the new edges from {@link GraphTriple#getFrom()} to
+	 *              {@link GraphTriple#getTo()} with weight
+	 *              {@link GraphTriple#getEdge()}, their nodes can be new or
+	 *              already in the graph
+	 * @return this graph
+	 * @throws IllegalArgumentException if a node is a duplicate or an edge node is
+	 *                                  not in the graph. The elements added
+	 *                                  before the error are kept
+	 */
+
+	@NotNull
+	public final FXGraph<T, K> addAll(@NotNull Collection<Node<T>> nodes,
+			@NotNull Collection<GraphTriple<Node<T>, K, Node<T>>> edges) {
+		checkThread();
+
+		Objects.requireNonNull(nodes);
+		Objects.requireNonNull(edges);
+
+		pendingNodes = new ArrayList<>(nodes.size());
+		pendingEdges = new ArrayList<>(digraph ? edges.size() : 2 * edges.size());
+
+		try {
+			for (Node<T> n : nodes)
+				addNode(n);
+
+			for (GraphTriple<Node<T>, K, Node<T>> e : edges)
+				addEdge(e.getFrom(), e.getTo(), e.getEdge());
+		} finally {
+			ArrayList<javafx.scene.Node> newNodes = pendingNodes;
+			ArrayList<javafx.scene.Node> newEdges = pendingEdges;
+			pendingNodes = null;
+			pendingEdges = null;
+
+			edgeLayer.addAll(newEdges);
+			nodeLayer.addAll(newNodes);
+		}
 
 		return this;
 	}
@@ -920,6 +2465,14 @@ public class FXGraph<T, K> extends Group {
 		arrow.setStrokeWidth(4);
 
 		arrow.setOnMouseClicked(e -> edgeFocused.set(arrow));
+		arrow.weightProperty().addListener((o, old, neww) -> {
+			touch(n1);
+
+			// removed edges are not part of the graph anymore
+			if (edges.get(n1) != null && edges.get(n1).get(n2) == arrow)
+				for (GraphListener<T, K> l : listeners)
+					l.weightChanged(n1, n2, arrow, old, neww);
+		});
 
 		edges.get(n1).put(n2, arrow);
 
@@ -967,16 +2520,28 @@ public class FXGraph<T, K> extends Group {
 		if (n == null)
 			throw new IllegalArgumentException("Node null");
 
-		nodes.remove(n);
-		if (edges.get(n) != null)
-			edges.get(n).clear();
+		if (!nodeIds.containsKey(n))
+			return this;
 
+		// remove the incoming edges from the other nodes
+		for (Node<T> in : new ArrayList<>(n.in.keySet()))
+			removeEdge(in, n);
+
+		// remove the outgoing edges
+		for (Node<T> out : n.out.keySet())
+			out.in.remove(n);
+
+		edges.get(n).clear();
 		n.out.clear();
 
-		for (Node<T> in : n.in.keySet())
-			in.out.remove(n);
+		unindex(n);
+		nodeLayer.remove(n);
+		edges.remove(n);
+		touch(n);
+
+		for (GraphListener<T, K> l : listeners)
+			l.nodeRemoved(n);
 
-		n.in.clear();
 		return this;
 	}
 
@@ -1067,21 +2632,24 @@ public class FXGraph<T, K> extends Group {
 		e.consume();
 	}
 
-	private final void listenNodeChange(ListChangeListener.Change<? extends Node<?>> c) {
-		c.next();
-		if (c.wasAdded())
-			getChildren().addAll(c.getAddedSubList());
+	private final void listenEdgeChange(MapChangeListener.Change<? extends Node<?>, ? extends Edge<?>> c) {
+		if (c.wasAdded() && pendingEdges != null)
+			pendingEdges.add(c.getValueAdded());
+		else if (c.wasAdded())
+			edgeLayer.add(c.getValueAdded());
 
 		if (c.wasRemoved())
-			getChildren().removeAll(c.getRemoved());
+			edgeLayer.remove(c.getValueRemoved());
 	}
 
-	private final void listenEdgeChange(MapChangeListener.Change<? extends Node<?>, ? extends Edge<?>> c) {
-		if (c.wasAdded())
-			getChildren().add(c.getValueAdded());
+	/**
+	 * replace the edges and the nodes shown, used by {@link CommunityView}. The
+	 * graph is not changed
+	 */
 
-		if (c.wasRemoved())
-			getChildren().remove(c.getValueRemoved());
+	void showLayers(List<? extends javafx.scene.Node> edges, List<? extends javafx.scene.Node> nodes) {
+		edgeLayer.setAll(edges);
+		nodeLayer.setAll(nodes);
 	}
 
 	private static void checkThread() {
@@ -0,0 +1,38 @@
+package graph.gui;
+
+import graph.annotations.NotNull;
+import graph.annotations.Nullable;
+
+/**
+ * Listener of the structural changes of a {@link FXGraph}, called on the JavaFX
+ * thread after the change has been applied. Undirected edges are notified as
+ * two directed edges. Changes made in place to mutable weights (e.g.
+ * {@link graph.dataclasses.FlowWeight}) are not notified, use
+ * {@link Edge#setWeight(Object)}.
+ *
+ * @param <T> the node value type
+ * @param <K> the edge weight type
+ */
+
+public interface GraphListener<T, K> {
+
+	default void nodeAdded(@NotNull Node<T> n) {
+	}
+
+	/**
+	 * called after all the edges of the node have been removed
+	 */
+
+	default void nodeRemoved(@NotNull Node<T> n) {
+	}
+
+	default void edgeAdded(@NotNull Node<T> from, @NotNull Node<T> to, @NotNull Edge<K> e) {
+	}
+
+	default void edgeRemoved(@NotNull Node<T> from, @NotNull Node<T> to, @NotNull Edge<K> e) {
+	}
+
+	default void weightChanged(@NotNull Node<T> from, @NotNull Node<T> to, @NotNull Edge<K> e, @Nullable K oldWeight,
+			@Nullable K newWeight) {
+	}
+}
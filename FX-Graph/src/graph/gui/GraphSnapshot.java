@@ -0,0 +1,260 @@
+package graph.gui;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import graph.algorithms.CsrGraph;
+import graph.annotations.NotNull;
+import graph.annotations.Nullable;
+import graph.dataclasses.WeightConverter;
+
+/**
+ * Immutable view of a {@link FXGraph} at a given version. A snapshot can be
+ * read by any number of threads while the graph keeps changing on the JavaFX
+ * thread. Consecutive snapshots share the adjacency rows of the nodes which
+ * did not change, so taking a new snapshot copies only the modified rows.
+ *
+ * Note: edge weights are stored by reference, mutable weights like
+ * {@link graph.dataclasses.FlowWeight} changed in place are seen by the
+ * snapshot.
+ *
+ * @param <T> the node value type
+ * @param <K> the edge weight type
+ */
+
+public final class GraphSnapshot<T, K> {
+
+	private final long version;
+	private final boolean digraph;
+	private final List<Node<T>> nodes;
+	// position of each node in the list, shared while the nodes do not change
+	private final Map<Node<T>, Integer> index;
+	private final Row<T, K>[] rows;
+	private final int edgeCount;
+
+	private GraphSnapshot(long version, boolean digraph, List<Node<T>> nodes, Map<Node<T>, Integer> index,
+			Row<T, K>[] rows) {
+		this.version = version;
+		this.digraph = digraph;
+		this.nodes = nodes;
+		this.index = index;
+		this.rows = rows;
+
+		int count = 0;
+		for (Row<T, K> r : rows)
+			count += r.edges.size();
+
+		this.edgeCount = count;
+	}
+
+	/**
+	 * build a snapshot reusing the rows of the previous one for the nodes which
+	 * are not dirty. If no node was added or removed since the previous snapshot
+	 * its node list and index are reused too, so only the dirty rows are copied
+	 */
+
+	static <T, K> GraphSnapshot<T, K> build(long version, boolean digraph, List<Node<T>> nodes,
+			Map<Node<T>, ? extends Map<Node<T>, Edge<K>>> edges, @Nullable GraphSnapshot<T, K> previous,
+			Set<Node<T>> dirty) {
+		if (previous != null && sameNodes(previous.nodes, nodes)) {
+			Row<T, K>[] rows = previous.rows.clone();
+			for (Node<T> n : dirty) {
+				Integer i = previous.index.get(n);
+				if (i != null)
+					rows[i] = new Row<>(edges.get(n));
+			}
+
+			return new GraphSnapshot<>(version, digraph, previous.nodes, previous.index, rows);
+		}
+
+		int size = nodes.size();
+		HashMap<Node<T>, Integer> index = new HashMap<>(size * 2);
+		Row<T, K>[] rows = newRows(size);
+
+		for (int i = 0; i < size; i++) {
+			Node<T> n = nodes.get(i);
+			index.put(n, i);
+
+			Integer old = previous == null || dirty.contains(n) ? null : previous.index.get(n);
+			rows[i] = old != null ? previous.rows[old] : new Row<>(edges.get(n));
+		}
+
+		return new GraphSnapshot<>(version, digraph, Collections.unmodifiableList(new ArrayList<>(nodes)),
+				Collections.unmodifiableMap(index), rows);
+	}
+
+	private static <T> boolean sameNodes(List<Node<T>> a, List<Node<T>> b) {
+		if (a.size() != b.size())
+			return false;
+
+		for (int i = 0; i < a.size(); i++)
+			if (a.get(i) != b.get(i))
+				return false;
+
+		return true;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T, K> Row<T, K>[] newRows(int size) {
+		return (Row<T, K>[]) new Row<?, ?>[size];
+	}
+
+	/**
+	 * @return the version of the graph when the snapshot was taken
+	 */
+
+	public long getVersion() {
+		return version;
+	}
+
+	public boolean isDigraph() {
+		return digraph;
+	}
+
+	@NotNull
+	public List<Node<T>> getNodes() {
+		return nodes;
+	}
+
+	public int size() {
+		return nodes.size();
+	}
+
+	/**
+	 * @return the number of directed edges, undirected edges are counted twice
+	 */
+
+	public int edgeCount() {
+		return edgeCount;
+	}
+
+	public boolean contains(@Nullable Node<T> n) {
+		return index.containsKey(n);
+	}
+
+	/**
+	 * @return the position of each node in {@link #getNodes()}
+	 */
+
+	@NotNull
+	public Map<Node<T>, Integer> getIndex() {
+		return index;
+	}
+
+	/**
+	 * @return the outgoing edges of a node
+	 * @throws IllegalArgumentException if the node is not in the snapshot
+	 */
+
+	@NotNull
+	public List<Edge<K>> getEdges(@NotNull Node<T> n) {
+		return row(n).edges;
+	}
+
+	/**
+	 * @return the weights of the outgoing edges of a node, in the same order of
+	 *         {@link #getEdges(Node)}
+	 * @throws IllegalArgumentException if the node is not in the snapshot
+	 */
+
+	@NotNull
+	public List<K> getWeights(@NotNull Node<T> n) {
+		return row(n).weights;
+	}
+
+	/**
+	 * @return the nodes reached by the outgoing edges of a node, in the same order
+	 *         of {@link #getEdges(Node)}
+	 * @throws IllegalArgumentException if the node is not in the snapshot
+	 */
+
+	@NotNull
+	public List<Node<T>> getSuccessors(@NotNull Node<T> n) {
+		return row(n).targets;
+	}
+
+	/**
+	 * get the edge which connected 2 nodes when the snapshot was taken
+	 *
+	 * @throws IllegalArgumentException if n1 is not in the snapshot
+	 */
+
+	@Nullable
+	public Edge<K> getEdge(@NotNull Node<T> n1, @NotNull Node<T> n2) {
+		int i = row(n1).targets.indexOf(n2);
+		return i == -1 ? null : row(n1).edges.get(i);
+	}
+
+	/**
+	 * get the weight of the edge n1 -&gt; n2 when the snapshot was taken
+	 *
+	 * @throws IllegalArgumentException if n1 is not in the snapshot
+	 */
+
+	@Nullable
+	public K getWeight(@NotNull Node<T> n1, @NotNull Node<T> n2) {
+		int i = row(n1).targets.indexOf(n2);
+		return i == -1 ? null : row(n1).weights.get(i);
+	}
+
+	/**
+	 * create a csr copy of the snapshot to run the algorithms of
+	 * {@link graph.algorithms} on this version of the graph
+	 *
+	 * @param conv the converter used to store edge weights, if null weights are
+	 *             not stored
+	 */
+
+	@NotNull
+	public CsrGraph<T> toCsr(@Nullable WeightConverter<K> conv) {
+		return new CsrGraph<>(this, conv);
+	}
+
+	private Row<T, K> row(Node<T> n) {
+		Objects.requireNonNull(n);
+
+		Integer i = index.get(n);
+		if (i == null)
+			throw new IllegalArgumentException("Invalid node. Node is not in the snapshot");
+
+		return rows[i];
+	}
+
+	/**
+	 * outgoing adjacency of a node, shared between snapshots while the node does
+	 * not change
+	 */
+
+	private static final class Row<T, K> {
+
+		private final List<Node<T>> targets;
+		private final List<Edge<K>> edges;
+		private final List<K> weights;
+
+		@SuppressWarnings("unchecked")
+		private Row(Map<Node<T>, Edge<K>> out) {
+			int size = out.size();
+			Node<T>[] t = (Node<T>[]) new Node<?>[size];
+			Edge<K>[] e = (Edge<K>[]) new Edge<?>[size];
+			K[] w = (K[]) new Object[size];
+
+			int i = 0;
+			for (Map.Entry<Node<T>, Edge<K>> entry : out.entrySet()) {
+				t[i] = entry.getKey();
+				e[i] = entry.getValue();
+				w[i] = entry.getValue().getWeight();
+				i++;
+			}
+
+			targets = Collections.unmodifiableList(Arrays.asList(t));
+			edges = Collections.unmodifiableList(Arrays.asList(e));
+			weights = Collections.unmodifiableList(Arrays.asList(w));
+		}
+	}
+}
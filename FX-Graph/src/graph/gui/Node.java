@@ -14,6 +14,7 @@ import javafx.collections.ObservableMap;
 import javafx.geometry.Rectangle2D;
 import javafx.scene.control.Button;
 import javafx.scene.input.MouseEvent;
+import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
 
@@ -22,12 +23,10 @@ public class Node<T> extends Button {
 	final ObservableMap<Node<T>, Edge<?>> in = FXCollections.observableHashMap();
 	final ObservableMap<Node<T>, Edge<?>> out = FXCollections.observableHashMap();
 
-	Node<T> parent;
-	double time;
-
 	private final T val;
 	private final int hashcode;
 	private boolean lock;
+	private String background = "white";
 
 	/**
 	 * Hashable object.This object can be used as key in dictionaries, even if value
@@ -50,11 +49,11 @@ public class Node<T> extends Button {
 		// change border color when focused
 		focusedProperty().addListener((o, old, neww) -> {
 			if (neww.booleanValue())
-				setStyle(
-						"-fx-background-radius: 60; -fx-background-color: white; -fx-border-color: blue; -fx-border-radius: 60; -fx-border-width: 4");
+				setStyle("-fx-background-radius: 60; -fx-background-color: " + background
+						+ "; -fx-border-color: blue; -fx-border-radius: 60; -fx-border-width: 4");
 			else
-				setStyle(
-						"-fx-background-radius: 60; -fx-background-color: white; -fx-border-color: black; -fx-border-radius: 60; -fx-border-width: 4");
+				setStyle("-fx-background-radius: 60; -fx-background-color: " + background
+						+ "; -fx-border-color: black; -fx-border-radius: 60; -fx-border-width: 4");
 
 		});
 
@@ -88,6 +87,20 @@ public class Node<T> extends Button {
 		lock = false;
 	}
 
+	/**
+	 * set the background color of the node
+	 * 
+	 * @param c the color, null for the default white background
+	 */
+
+	public final void setFill(@Nullable Color c) {
+		background = c == null ? "white"
+				: String.format("#%02x%02x%02x", Math.round(c.getRed() * 255), Math.round(c.getGreen() * 255),
+						Math.round(c.getBlue() * 255));
+
+		setStyle(getStyle().replaceFirst("-fx-background-color: [^;]*", "-fx-background-color: " + background));
+	}
+
 	/**
 	 * get the value of this instance
 	 * 
@@ -0,0 +1,222 @@
+package graph.gui;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import graph.algorithms.AlgorithmRun;
+import graph.dataclasses.Heuristic;
+import graph.dataclasses.WeightConverter;
+
+/**
+ * Point to point searches working directly on the adjacency maps of a
+ * {@link FXGraph}. State is kept in hash maps, so the cost of a query depends
+ * only on the part of the graph explored and not on its size.
+ *
+ * @param <T> the node value type
+ * @param <K> the edge weight type
+ */
+
+final class PathSearch<T, K> {
+
+	private final FXGraph<T, K> graph;
+	private final WeightConverter<K> conv;
+
+	PathSearch(FXGraph<T, K> graph, WeightConverter<K> conv) {
+		this.graph = graph;
+		this.conv = conv;
+	}
+
+	/**
+	 * a* search, nodes are reopened when a shorter path is found so admissible
+	 * heuristics which are not consistent are supported
+	 */
+
+	Route<T, K> aStar(Node<T> from, Node<T> to, Heuristic<T> h) {
+		HashMap<Node<T>, Double> dist = new HashMap<>();
+		HashMap<Node<T>, Node<T>> parent = new HashMap<>();
+		HashSet<Node<T>> settled = new HashSet<>();
+		PriorityQueue<Entry<T>> queue = new PriorityQueue<>();
+
+		AlgorithmRun run = AlgorithmRun.start("A*", graph.getNodes().size(), graph.getEdgeCount());
+		long relaxations = 0;
+		long heapOperations = 1;
+
+		dist.put(from, 0.0);
+		queue.add(new Entry<>(from, 0, h.estimate(from, to)));
+
+		while (!queue.isEmpty()) {
+			Entry<T> top = queue.poll();
+			heapOperations++;
+			if (top.dist > dist.get(top.node))
+				continue;
+
+			settled.add(top.node);
+			if (top.node == to)
+				return end(run, relaxations, heapOperations, route(parent, from, to, top.dist, settled.size()));
+
+			for (Map.Entry<Node<T>, Edge<K>> e : graph.outEdges(top.node).entrySet()) {
+				Node<T> v = e.getKey();
+				double d = top.dist + weight(e.getValue());
+				Double old = dist.get(v);
+				relaxations++;
+
+				if (old == null || d < old) {
+					dist.put(v, d);
+					parent.put(v, top.node);
+					queue.add(new Entry<>(v, d, d + h.estimate(v, to)));
+					heapOperations++;
+				}
+			}
+		}
+
+		return end(run, relaxations, heapOperations,
+				route(parent, from, to, Double.POSITIVE_INFINITY, settled.size()));
+	}
+
+	/**
+	 * bidirectional dijkstra: a forward search on the outgoing edges and a
+	 * backward search on the incoming edges ({@link Node#in}) grow alternately
+	 * from the smallest queue. The best meeting path seen so far is final as soon
+	 * as the sum of the 2 queue minimums is not smaller than its cost
+	 */
+
+	Route<T, K> bidirectional(Node<T> from, Node<T> to) {
+		if (from == to)
+			return route(Collections.emptyMap(), from, to, 0, 1);
+
+		HashMap<Node<T>, Double> distF = new HashMap<>();
+		HashMap<Node<T>, Double> distB = new HashMap<>();
+		HashMap<Node<T>, Node<T>> parentF = new HashMap<>();
+		HashMap<Node<T>, Node<T>> parentB = new HashMap<>();
+		PriorityQueue<Entry<T>> queueF = new PriorityQueue<>();
+		PriorityQueue<Entry<T>> queueB = new PriorityQueue<>();
+
+		distF.put(from, 0.0);
+		distB.put(to, 0.0);
+		queueF.add(new Entry<>(from, 0, 0));
+		queueB.add(new Entry<>(to, 0, 0));
+
+		double best = Double.POSITIVE_INFINITY;
+		Node<T> meet = null;
+		int settled = 0;
+
+		AlgorithmRun run = AlgorithmRun.start("Bidirectional dijkstra", graph.getNodes().size(),
+				graph.getEdgeCount());
+		long relaxations = 0;
+		long heapOperations = 2;
+
+		while (!queueF.isEmpty() && !queueB.isEmpty()) {
+			if (queueF.peek().dist + queueB.peek().dist >= best)
+				break;
+
+			boolean forward = queueF.peek().dist <= queueB.peek().dist;
+			PriorityQueue<Entry<T>> queue = forward ? queueF : queueB;
+			HashMap<Node<T>, Double> dist = forward ? distF : distB;
+			HashMap<Node<T>, Double> other = forward ? distB : distF;
+			HashMap<Node<T>, Node<T>> parent = forward ? parentF : parentB;
+
+			Entry<T> top = queue.poll();
+			heapOperations++;
+			if (top.dist > dist.get(top.node))
+				continue;
+
+			settled++;
+
+			Iterable<Node<T>> next = forward ? graph.outEdges(top.node).keySet() : top.node.in.keySet();
+			for (Node<T> v : next) {
+				Edge<K> e = forward ? graph.getEdge(top.node, v) : graph.getEdge(v, top.node);
+				if (e == null)
+					continue;
+
+				double d = top.dist + weight(e);
+				Double old = dist.get(v);
+				relaxations++;
+
+				if (old == null || d < old) {
+					dist.put(v, d);
+					parent.put(v, top.node);
+					queue.add(new Entry<>(v, d, d));
+					heapOperations++;
+
+					// a path through v joins the 2 searches
+					Double o = other.get(v);
+					if (o != null && d + o < best) {
+						best = d + o;
+						meet = v;
+					}
+				}
+			}
+		}
+
+		if (meet == null)
+			return end(run, relaxations, heapOperations,
+					route(parentF, from, to, Double.POSITIVE_INFINITY, settled));
+
+		// append the backward half to the forward parents
+		for (Node<T> n = meet; n != to; n = parentB.get(n))
+			parentF.put(parentB.get(n), n);
+
+		return end(run, relaxations, heapOperations, route(parentF, from, to, best, settled));
+	}
+
+	private static <R extends Route<?, ?>> R end(AlgorithmRun run, long relaxations, long heapOperations, R route) {
+		run.addIterations(route.getSettledCount());
+		run.addRelaxations(relaxations);
+		run.addHeapOperations(heapOperations);
+		run.end();
+
+		return route;
+	}
+
+	private double weight(Edge<K> e) {
+		double w = conv.convert(e.getWeight());
+		if (w < 0)
+			throw new IllegalArgumentException("Negative weight found on edge " + e);
+
+		return w;
+	}
+
+	/**
+	 * rebuild the path from the parents, an infinite cost means no path
+	 */
+
+	private Route<T, K> route(Map<Node<T>, Node<T>> parent, Node<T> from, Node<T> to, double cost, int settled) {
+		ArrayList<Node<T>> nodes = new ArrayList<>();
+		ArrayList<Edge<K>> edges = new ArrayList<>();
+
+		if (cost != Double.POSITIVE_INFINITY) {
+			for (Node<T> n = to; n != from; n = parent.get(n)) {
+				nodes.add(n);
+				edges.add(graph.getEdge(parent.get(n), n));
+			}
+
+			nodes.add(from);
+			Collections.reverse(nodes);
+			Collections.reverse(edges);
+		}
+
+		return new Route<>(nodes, edges, cost, settled);
+	}
+
+	private static final class Entry<T> implements Comparable<Entry<T>> {
+
+		private final Node<T> node;
+		private final double dist;
+		private final double key;
+
+		private Entry(Node<T> node, double dist, double key) {
+			this.node = node;
+			this.dist = dist;
+			this.key = key;
+		}
+
+		@Override
+		public int compareTo(Entry<T> o) {
+			return Double.compare(key, o.key);
+		}
+	}
+}
@@ -0,0 +1,278 @@
+package graph.gui;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import graph.dataclasses.FlowWeight;
+
+/**
+ * Arcs of the residual graph of a flow run on a {@link FXGraph}, built once per
+ * run. Each edge and the opposite of each edge get an arc, and an arc is usable
+ * while the edge it stands for is in the graph. The flow algorithms add and
+ * remove edges between the searches, so after each augmentation the arcs of
+ * the path are synchronized with {@link #sync(int)} instead of copying the
+ * whole graph again.
+ *
+ * @param <T> the node value type
+ * @param <K> the edge weight type
+ */
+
+final class ResidualArcs<T, K> {
+
+	private final Map<Node<T>, ? extends Map<Node<T>, Edge<K>>> edges;
+	private final List<Node<T>> nodes;
+	private final HashMap<Node<T>, Integer> index;
+
+	// arcs of node u are in [start[u], start[u + 1])
+	private final int[] start;
+	private final int[] tail;
+	private final int[] head;
+	private final int[] rev;
+	// edge of each arc, null while the edge is not in the graph
+	private final Edge<?>[] edge;
+
+	// result of the last search
+	private final int[] parentArc;
+	private final double[] dist;
+	private final int[] stack;
+
+	ResidualArcs(List<Node<T>> nodes, Map<Node<T>, ? extends Map<Node<T>, Edge<K>>> edges) {
+		this.edges = edges;
+		this.nodes = new ArrayList<>(nodes);
+
+		int n = nodes.size();
+		index = new HashMap<>(n * 2);
+		for (int i = 0; i < n; i++)
+			index.put(nodes.get(i), i);
+
+		// an arc for each edge, plus one for the opposite edges not in the graph
+		start = new int[n + 1];
+		for (int u = 0; u < n; u++)
+			for (Node<T> v : edges.get(nodes.get(u)).keySet()) {
+				start[u + 1]++;
+				if (!edges.get(v).containsKey(nodes.get(u)))
+					start[index.get(v) + 1]++;
+			}
+
+		for (int u = 0; u < n; u++)
+			start[u + 1] += start[u];
+
+		int m = start[n];
+		tail = new int[m];
+		head = new int[m];
+		rev = new int[m];
+		edge = new Edge<?>[m];
+
+		int[] fill = Arrays.copyOf(start, n);
+		for (int u = 0; u < n; u++)
+			for (Map.Entry<Node<T>, Edge<K>> e : edges.get(nodes.get(u)).entrySet()) {
+				int v = index.get(e.getKey());
+				int a = fill[u]++;
+				tail[a] = u;
+				head[a] = v;
+				edge[a] = e.getValue();
+
+				if (!edges.get(e.getKey()).containsKey(nodes.get(u))) {
+					int b = fill[v]++;
+					tail[b] = v;
+					head[b] = u;
+				}
+			}
+
+		// pair each arc with the arc in the opposite direction
+		HashMap<Long, Integer> arcs = new HashMap<>(m * 2);
+		for (int a = 0; a < m; a++)
+			arcs.put((long) tail[a] * n + head[a], a);
+		for (int a = 0; a < m; a++)
+			rev[a] = arcs.get((long) head[a] * n + tail[a]);
+
+		parentArc = new int[n];
+		dist = new double[n];
+		stack = new int[n];
+	}
+
+	int indexOf(Node<T> n) {
+		Integer i = index.get(n);
+		return i == null ? -1 : i;
+	}
+
+	/**
+	 * re-read the edges of an arc and of its opposite after the graph has been
+	 * changed
+	 */
+
+	void sync(int a) {
+		edge[a] = edges.get(nodes.get(tail[a])).get(nodes.get(head[a]));
+		edge[rev[a]] = edges.get(nodes.get(head[a])).get(nodes.get(tail[a]));
+	}
+
+	/**
+	 * @see #sync(int)
+	 */
+
+	void sync(Node<T> from, Node<T> to) {
+		int u = index.get(from);
+		int v = index.get(to);
+
+		for (int a = start[u]; a < start[u + 1]; a++)
+			if (head[a] == v) {
+				sync(a);
+				return;
+			}
+	}
+
+	/**
+	 * breadth first search from s on the arcs of the edges in the graph, stopped
+	 * when t is reached
+	 *
+	 * @param t the target, -1 to visit all the nodes reachable from s
+	 * @return true if t is reached
+	 */
+
+	boolean bfs(int s, int t) {
+		Arrays.fill(parentArc, -1);
+		boolean[] seen = new boolean[parentArc.length];
+		int[] queue = stack;
+		int first = 0;
+		int last = 0;
+
+		seen[s] = true;
+		queue[last++] = s;
+
+		while (first < last) {
+			int u = queue[first++];
+			if (u == t)
+				return true;
+
+			for (int a = start[u]; a < start[u + 1]; a++)
+				if (edge[a] != null && !seen[head[a]]) {
+					seen[head[a]] = true;
+					parentArc[head[a]] = a;
+					queue[last++] = head[a];
+				}
+		}
+
+		return s == t;
+	}
+
+	/**
+	 * depth first search from s on the arcs of the edges in the graph, with an
+	 * explicit stack
+	 *
+	 * @return true if t is reached
+	 */
+
+	boolean dfs(int s, int t) {
+		Arrays.fill(parentArc, -1);
+		boolean[] seen = new boolean[parentArc.length];
+		int size = 0;
+
+		seen[s] = true;
+		stack[size++] = s;
+
+		while (size > 0) {
+			int u = stack[--size];
+			if (u == t)
+				return true;
+
+			for (int a = start[u + 1] - 1; a >= start[u]; a--)
+				if (edge[a] != null && !seen[head[a]]) {
+					seen[head[a]] = true;
+					parentArc[head[a]] = a;
+					stack[size++] = head[a];
+				}
+		}
+
+		return false;
+	}
+
+	/**
+	 * bellman ford from s on the arcs of the edges in the graph weighted by
+	 * {@link FlowWeight#value}
+	 *
+	 * @return false if a negative cycle is reachable from s
+	 */
+
+	boolean bellmanFord(int s) {
+		int n = parentArc.length;
+		Arrays.fill(parentArc, -1);
+		Arrays.fill(dist, Double.POSITIVE_INFINITY);
+		dist[s] = 0;
+
+		boolean changed = true;
+		for (int pass = 0; pass < n && changed; pass++)
+			changed = relaxAll();
+
+		// a change after n - 1 passes means a negative cycle
+		return !(changed && relaxAll());
+	}
+
+	private boolean relaxAll() {
+		boolean changed = false;
+
+		for (int u = 0; u < parentArc.length; u++) {
+			if (dist[u] == Double.POSITIVE_INFINITY)
+				continue;
+
+			for (int a = start[u]; a < start[u + 1]; a++) {
+				if (edge[a] == null)
+					continue;
+
+				double d = dist[u] + ((FlowWeight) edge[a].getWeight()).value;
+				if (d < dist[head[a]]) {
+					dist[head[a]] = d;
+					parentArc[head[a]] = a;
+					changed = true;
+				}
+			}
+		}
+
+		return changed;
+	}
+
+	/**
+	 * @return the distance of the last {@link #bellmanFord(int)}
+	 */
+
+	double distance(int v) {
+		return dist[v];
+	}
+
+	boolean isReached(int s, int v) {
+		return v == s || parentArc[v] != -1;
+	}
+
+	/**
+	 * @return the arcs of the path from s to v found by the last search, empty if
+	 *         v is not reached
+	 */
+
+	int[] pathArcs(int s, int v) {
+		int length = 0;
+		for (int u = v; u != s && parentArc[u] != -1; u = tail[parentArc[u]])
+			length++;
+
+		int[] path = new int[length];
+		for (int u = v; length > 0; u = tail[parentArc[u]])
+			path[--length] = parentArc[u];
+
+		return path;
+	}
+
+	/**
+	 * @return the nodes of a path given by its arcs
+	 */
+
+	ArrayList<Node<T>> walk(int s, int[] path) {
+		ArrayList<Node<T>> walk = new ArrayList<>(path.length + 1);
+		walk.add(nodes.get(s));
+
+		for (int a : path)
+			walk.add(nodes.get(head[a]));
+
+		return walk;
+	}
+}
@@ -0,0 +1,121 @@
+package graph.gui;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Bounded LRU cache of algorithm results. Entries are keyed by algorithm name,
+ * parameters, converter identity and graph version, so a result is returned
+ * only while the graph is unchanged. Entries of older versions can never be
+ * hit again and are dropped on the first access after a change.
+ */
+
+final class ResultCache {
+
+	private final LinkedHashMap<Key, Object> entries = new LinkedHashMap<Key, Object>(16, 0.75f, true) {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Key, Object> eldest) {
+			return size() > capacity;
+		}
+	};
+
+	private int capacity;
+	private long version = -1;
+	private long hits;
+	private long misses;
+
+	ResultCache(int capacity) {
+		this.capacity = capacity;
+	}
+
+	/**
+	 * @return the cached result or null on a miss
+	 */
+
+	@SuppressWarnings("unchecked")
+	<R> R get(long version, String algorithm, Object conv, Object... params) {
+		evictStale(version);
+
+		Object r = entries.get(new Key(version, algorithm, conv, params));
+		if (r == null)
+			misses++;
+		else
+			hits++;
+
+		return (R) r;
+	}
+
+	void put(long version, Object result, String algorithm, Object conv, Object... params) {
+		evictStale(version);
+
+		if (capacity > 0)
+			entries.put(new Key(version, algorithm, conv, params), result);
+	}
+
+	void setCapacity(int capacity) {
+		this.capacity = capacity;
+
+		while (entries.size() > capacity)
+			entries.remove(entries.keySet().iterator().next());
+	}
+
+	int getCapacity() {
+		return capacity;
+	}
+
+	long getHits() {
+		return hits;
+	}
+
+	long getMisses() {
+		return misses;
+	}
+
+	void clear() {
+		entries.clear();
+	}
+
+	private void evictStale(long version) {
+		if (this.version != version) {
+			entries.clear();
+			this.version = version;
+		}
+	}
+
+	private static final class Key {
+
+		private final long version;
+		private final String algorithm;
+		private final Object conv;
+		private final Object[] params;
+
+		private Key(long version, String algorithm, Object conv, Object[] params) {
+			this.version = version;
+			this.algorithm = algorithm;
+			this.conv = conv;
+			this.params = params;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(version, algorithm, System.identityHashCode(conv), Arrays.hashCode(params));
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof Key))
+				return false;
+
+			Key k = (Key) o;
+
+			// converters are compared by identity, lambdas have no equality
+			return version == k.version && algorithm.equals(k.algorithm) && conv == k.conv
+					&& Arrays.equals(params, k.params);
+		}
+	}
+}
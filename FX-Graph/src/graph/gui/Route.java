@@ -0,0 +1,72 @@
+package graph.gui;
+
+import java.util.Collections;
+import java.util.List;
+
+import graph.annotations.NotNull;
+
+/**
+ * Result of a point to point shortest path search.
+ *
+ * @param <T> the node value type
+ * @param <K> the edge weight type
+ */
+
+public final class Route<T, K> {
+
+	private final List<Node<T>> nodes;
+	private final List<Edge<K>> edges;
+	private final double cost;
+	private final int settled;
+
+	Route(List<Node<T>> nodes, List<Edge<K>> edges, double cost, int settled) {
+		this.nodes = Collections.unmodifiableList(nodes);
+		this.edges = Collections.unmodifiableList(edges);
+		this.cost = cost;
+		this.settled = settled;
+	}
+
+	/**
+	 * @return true if the target is reachable from the source
+	 */
+
+	public boolean isFound() {
+		return cost != Double.POSITIVE_INFINITY;
+	}
+
+	/**
+	 * @return the nodes of the path, source and target included, or an empty list
+	 *         if the target is not reachable
+	 */
+
+	@NotNull
+	public List<Node<T>> getNodes() {
+		return nodes;
+	}
+
+	/**
+	 * @return the edges of the path in order
+	 */
+
+	@NotNull
+	public List<Edge<K>> getEdges() {
+		return edges;
+	}
+
+	/**
+	 * @return the cost of the path or {@link Double#POSITIVE_INFINITY} if the
+	 *         target is not reachable
+	 */
+
+	public double getCost() {
+		return cost;
+	}
+
+	/**
+	 * @return the number of nodes settled by the search
+	 */
+
+	public int getSettledCount() {
+		return settled;
+	}
+}
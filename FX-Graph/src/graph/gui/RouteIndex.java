@@ -0,0 +1,103 @@
+package graph.gui;
+
+import graph.algorithms.ContractionHierarchy;
+import graph.algorithms.PathResult;
+import graph.annotations.NotNull;
+import graph.dataclasses.WeightConverter;
+import javafx.application.Platform;
+
+/**
+ * Contraction hierarchy of a {@link FXGraph} answering repeated point to point
+ * shortest path queries. The hierarchy is tied to the version of the graph it
+ * was built on: adding or removing nodes and edges or changing a weight
+ * invalidates it, and the next query builds it again. Queries on a valid
+ * hierarchy do not touch the scene and can run on any thread.
+ *
+ * @param <T> the node value type
+ * @param <K> the edge weight type
+ */
+
+public final class RouteIndex<T, K> {
+
+	private final FXGraph<T, K> graph;
+	private final WeightConverter<K> conv;
+
+	private volatile ContractionHierarchy<T> hierarchy;
+	private volatile long version;
+
+	RouteIndex(FXGraph<T, K> graph, WeightConverter<K> conv) {
+		this.graph = graph;
+		this.conv = conv;
+
+		rebuild();
+	}
+
+	/**
+	 * @return false if the graph changed since the hierarchy was built
+	 */
+
+	public boolean isValid() {
+		return version == graph.getVersion();
+	}
+
+	/**
+	 * get the hierarchy of the current graph, building it again if the graph
+	 * changed
+	 *
+	 * @throws IllegalStateException if the hierarchy must be built outside the
+	 *                               JavaFX thread
+	 */
+
+	@NotNull
+	public ContractionHierarchy<T> getHierarchy() {
+		if (!isValid())
+			rebuild();
+
+		return hierarchy;
+	}
+
+	/**
+	 * @return the length of the shortest path or {@link Double#POSITIVE_INFINITY}
+	 *         if the target is not reachable
+	 * @throws IllegalArgumentException if a node is not in the graph
+	 */
+
+	public double getDistance(@NotNull Node<T> from, @NotNull Node<T> to) {
+		return getHierarchy().getDistance(from, to);
+	}
+
+	/**
+	 * find the shortest path between 2 nodes without changing the colors
+	 *
+	 * @throws IllegalArgumentException if a node is not in the graph
+	 */
+
+	@NotNull
+	public Route<T, K> getRoute(@NotNull Node<T> from, @NotNull Node<T> to) {
+		PathResult<T> res = getHierarchy().query(from, to);
+
+		return new Route<>(res.getNodes(), res.getEdges(), res.getCost(), res.getSettledCount());
+	}
+
+	/**
+	 * find the shortest path between 2 nodes and show it in red
+	 *
+	 * @throws IllegalArgumentException if a node is not in the graph
+	 * @throws IllegalStateException    if not called on the javafx thread
+	 */
+
+	@NotNull
+	public Route<T, K> show(@NotNull Node<T> from, @NotNull Node<T> to) {
+		// checked before the query, which may rebuild the hierarchy
+		if (!Platform.isFxApplicationThread())
+			throw new IllegalStateException("Not on JavaFX application thread");
+
+		return graph.showRoute(getRoute(from, to));
+	}
+
+	private void rebuild() {
+		long v = graph.getVersion();
+		hierarchy = ContractionHierarchy.build(graph.toCsr(conv));
+		version = v;
+	}
+}
@@ -0,0 +1,63 @@
+package graph.gui;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+
+import javafx.collections.ObservableList;
+import javafx.scene.Group;
+
+/**
+ * Group of the edges or of the nodes of a {@link FXGraph}. Children are
+ * appended at the end and a removed child is replaced by the last one, with
+ * its position found in a hash index, so adding and removing a child does not
+ * shift or scan the list. The order of the children is not kept.
+ */
+
+final class SceneLayer extends Group {
+
+	private final HashMap<javafx.scene.Node, Integer> index = new HashMap<>();
+
+	void add(javafx.scene.Node n) {
+		index.put(n, getChildren().size());
+		getChildren().add(n);
+	}
+
+	void addAll(Collection<? extends javafx.scene.Node> nodes) {
+		int size = getChildren().size();
+		for (javafx.scene.Node n : nodes)
+			index.put(n, size++);
+
+		getChildren().addAll(nodes);
+	}
+
+	/**
+	 * remove a child, nothing is done if the node is not a child of the layer
+	 */
+
+	void remove(javafx.scene.Node n) {
+		Integer i = index.remove(n);
+		if (i == null)
+			return;
+
+		// move the last child in the hole
+		ObservableList<javafx.scene.Node> children = getChildren();
+		javafx.scene.Node last = children.remove(children.size() - 1);
+		if (last != n) {
+			children.set(i, last);
+			index.put(last, i);
+		}
+	}
+
+	/**
+	 * replace all the children, in the given order
+	 */
+
+	void setAll(List<? extends javafx.scene.Node> nodes) {
+		index.clear();
+		for (int i = 0; i < nodes.size(); i++)
+			index.put(nodes.get(i), i);
+
+		getChildren().setAll(nodes);
+	}
+}